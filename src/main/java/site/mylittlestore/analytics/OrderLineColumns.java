@@ -0,0 +1,401 @@
+package site.mylittlestore.analytics;
+
+import lombok.Getter;
+import site.mylittlestore.dto.analytics.OrderLineFilter;
+import site.mylittlestore.dto.analytics.RevenueGroupDto;
+import site.mylittlestore.enumstorage.AnalyticsDimension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 결제된 주문 상품을 열(column)마다 기본형 배열로 담아둔 읽기 전용 스냅샷
+ * 상품과 가게는 Id 대신 사전(dictionary)의 번호로 담고, 상품 이름은 상품 번호마다 하나만 담는다.
+ * 주문 시간은 분 단위로 담는다.
+ * 집계는 행 범위를 나눠서 ForkJoinPool에서 병렬로 훑고, 묶음마다 배열 칸 하나에 더한 뒤 합친다.
+ * 묶음 수가 많으면(상품 x 날짜 등) 작업마다 큰 배열을 만들지 않고, 나온 묶음만 맵에 더한다.
+ * 한 번 만들면 바뀌지 않으므로 여러 요청이 잠금 없이 같이 읽는다.
+ */
+public final class OrderLineColumns {
+
+    //작업마다 배열 칸으로 더하는 묶음 수의 최대값, 넘으면 나온 묶음만 맵에 더한다.
+    private static final int MAX_DENSE_GROUP_COUNT = 1 << 12;
+
+    //한 작업이 훑는 최소 행 수
+    private static final int MIN_SCAN_ROWS = 1 << 16;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    //조건이 없을 때와 사전에 없는 Id일 때의 번호
+    private static final int ALL = -1;
+    private static final int NOT_FOUND = -2;
+
+    @Getter
+    private final int rowCount;
+
+    @Getter
+    private final LocalDateTime snapshotDateTime;
+
+    private final int[] itemCodes;
+    private final int[] storeCodes;
+    private final long[] prices;
+    private final int[] counts;
+    private final int[] orderedMinutes;
+
+    private final long[] itemIdDictionary;
+    private final String[] itemNameDictionary;
+    private final long[] storeIdDictionary;
+
+    //날짜로 묶을 때 배열 칸의 시작
+    private final int firstDay;
+    private final int dayCount;
+
+    private OrderLineColumns(Builder builder, LocalDateTime snapshotDateTime) {
+        this.rowCount = builder.size;
+        this.snapshotDateTime = snapshotDateTime;
+        this.itemCodes = trim(builder.itemCodes, rowCount);
+        this.storeCodes = trim(builder.storeCodes, rowCount);
+        this.prices = trim(builder.prices, rowCount);
+        this.counts = trim(builder.counts, rowCount);
+        this.orderedMinutes = trim(builder.orderedMinutes, rowCount);
+        this.itemIdDictionary = builder.itemIds.stream().mapToLong(Long::longValue).toArray();
+        this.itemNameDictionary = builder.itemNames.toArray(new String[0]);
+        this.storeIdDictionary = builder.storeIds.stream().mapToLong(Long::longValue).toArray();
+
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int orderedMinute : orderedMinutes) {
+            int day = Math.floorDiv(orderedMinute, MINUTES_PER_DAY);
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        }
+        this.firstDay = rowCount == 0 ? 0 : minDay;
+        this.dayCount = rowCount == 0 ? 1 : maxDay - minDay + 1;
+    }
+
+    public static OrderLineColumns empty() {
+        return new Builder(0).build(LocalDateTime.now());
+    }
+
+    /**
+     * 조건에 맞는 주문 상품의 매출(가격 * 수량), 수량, 줄 수를 first, second 기준으로 묶어서 더한다.
+     * second가 null이면 first로만 묶는다.
+     * 매출이 큰 묶음부터 반환한다.
+     */
+    public List<RevenueGroupDto> sumRevenue(OrderLineFilter filter, AnalyticsDimension first, AnalyticsDimension second) {
+        int storeCode = findCode(storeIdDictionary, filter.getStoreId());
+        int itemCode = findCode(itemIdDictionary, filter.getItemId());
+        //사전에 없는 가게나 상품이면 맞는 행이 없다.
+        if (storeCode == NOT_FOUND || itemCode == NOT_FOUND) {
+            return Collections.emptyList();
+        }
+
+        int firstCardinality = cardinality(first);
+        int secondCardinality = second == null ? 1 : cardinality(second);
+        long groupCount = (long) firstCardinality * secondCardinality;
+
+        Scan scan = new Scan(storeCode, itemCode,
+                filter.getFrom() == null ? Integer.MIN_VALUE : toMinute(filter.getFrom()),
+                filter.getTo() == null ? Integer.MAX_VALUE : toMinute(filter.getTo()),
+                first, second, secondCardinality,
+                groupCount <= MAX_DENSE_GROUP_COUNT ? (int) groupCount : Aggregation.SPARSE);
+
+        int scanRows = Math.max(MIN_SCAN_ROWS, rowCount / (ForkJoinPool.commonPool().getParallelism() * 4 + 1));
+        Aggregation aggregation = ForkJoinPool.commonPool().invoke(new ScanTask(scan, 0, rowCount, scanRows));
+
+        List<RevenueGroupDto> revenueGroupDtos = new ArrayList<>();
+        aggregation.forEach((group, revenue, quantity, lineCount) -> {
+            RevenueGroupDto.RevenueGroupDtoBuilder builder = RevenueGroupDto.builder()
+                    .revenue(revenue)
+                    .quantity(quantity)
+                    .lineCount(lineCount);
+            decode(builder, first, (int) (group / secondCardinality));
+            if (second != null) {
+                decode(builder, second, (int) (group % secondCardinality));
+            }
+            revenueGroupDtos.add(builder.build());
+        });
+
+        revenueGroupDtos.sort(Comparator.comparingLong(RevenueGroupDto::getRevenue).reversed());
+        return revenueGroupDtos;
+    }
+
+    private static int findCode(long[] dictionary, Long id) {
+        if (id == null) {
+            return ALL;
+        }
+        for (int code = 0; code < dictionary.length; code++) {
+            if (dictionary[code] == id) {
+                return code;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private int cardinality(AnalyticsDimension dimension) {
+        switch (dimension) {
+            case ITEM:
+                return Math.max(itemIdDictionary.length, 1);
+            case STORE:
+                return Math.max(storeIdDictionary.length, 1);
+            case HOUR_OF_DAY:
+                return 24;
+            case DATE:
+                return dayCount;
+            default:
+                throw new IllegalArgumentException("unknown dimension: " + dimension);
+        }
+    }
+
+    private int key(AnalyticsDimension dimension, int row) {
+        switch (dimension) {
+            case ITEM:
+                return itemCodes[row];
+            case STORE:
+                return storeCodes[row];
+            case HOUR_OF_DAY:
+                return Math.floorMod(orderedMinutes[row], MINUTES_PER_DAY) / 60;
+            case DATE:
+                return Math.floorDiv(orderedMinutes[row], MINUTES_PER_DAY) - firstDay;
+            default:
+                throw new IllegalArgumentException("unknown dimension: " + dimension);
+        }
+    }
+
+    private void decode(RevenueGroupDto.RevenueGroupDtoBuilder builder, AnalyticsDimension dimension, int key) {
+        switch (dimension) {
+            case ITEM:
+                builder.itemId(itemIdDictionary[key]).itemName(itemNameDictionary[key]);
+                break;
+            case STORE:
+                builder.storeId(storeIdDictionary[key]);
+                break;
+            case HOUR_OF_DAY:
+                builder.hourOfDay(key);
+                break;
+            case DATE:
+                builder.date(LocalDate.ofEpochDay(firstDay + key));
+                break;
+            default:
+                throw new IllegalArgumentException("unknown dimension: " + dimension);
+        }
+    }
+
+    //처음부터 크기를 맞춰서 만들었으면 배열을 복사하지 않는다.
+    private static int[] trim(int[] column, int rowCount) {
+        return column.length == rowCount ? column : Arrays.copyOf(column, rowCount);
+    }
+
+    private static long[] trim(long[] column, int rowCount) {
+        return column.length == rowCount ? column : Arrays.copyOf(column, rowCount);
+    }
+
+    //시간대와 상관없이 벽시계 시간 그대로 분으로 바꾼다.
+    private static int toMinute(LocalDateTime dateTime) {
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60L));
+    }
+
+    //한 번의 집계에서 모든 작업이 같이 쓰는 조건
+    private static class Scan {
+        private final int storeCode;
+        private final int itemCode;
+        private final int fromMinute;
+        private final int toMinute;
+        private final AnalyticsDimension first;
+        private final AnalyticsDimension second;
+        private final int secondCardinality;
+        //배열 칸의 수, 맵에 더하면 Aggregation.SPARSE
+        private final int groupCount;
+
+        private Scan(int storeCode, int itemCode, int fromMinute, int toMinute, AnalyticsDimension first, AnalyticsDimension second, int secondCardinality, int groupCount) {
+            this.storeCode = storeCode;
+            this.itemCode = itemCode;
+            this.fromMinute = fromMinute;
+            this.toMinute = toMinute;
+            this.first = first;
+            this.second = second;
+            this.secondCardinality = secondCardinality;
+            this.groupCount = groupCount;
+        }
+    }
+
+    //묶음 수가 적으면 묶음마다 배열 칸 하나에, 많으면 나온 묶음만 맵에 더한다.
+    private static class Aggregation {
+        private static final int SPARSE = -1;
+
+        private final long[] revenues;
+        private final long[] quantities;
+        private final long[] lineCounts;
+
+        //묶음 번호 -> {매출, 수량, 줄 수}
+        private final Map<Long, long[]> sparseGroups;
+
+        private Aggregation(int groupCount) {
+            if (groupCount == SPARSE) {
+                this.revenues = null;
+                this.quantities = null;
+                this.lineCounts = null;
+                this.sparseGroups = new HashMap<>();
+            } else {
+                this.revenues = new long[groupCount];
+                this.quantities = new long[groupCount];
+                this.lineCounts = new long[groupCount];
+                this.sparseGroups = null;
+            }
+        }
+
+        private void add(long group, long revenue, long quantity, long lineCount) {
+            if (sparseGroups == null) {
+                revenues[(int) group] += revenue;
+                quantities[(int) group] += quantity;
+                lineCounts[(int) group] += lineCount;
+                return;
+            }
+
+            long[] sums = sparseGroups.computeIfAbsent(group, key -> new long[3]);
+            sums[0] += revenue;
+            sums[1] += quantity;
+            sums[2] += lineCount;
+        }
+
+        private Aggregation merge(Aggregation other) {
+            other.forEach(this::add);
+            return this;
+        }
+
+        //줄이 하나라도 있는 묶음만 넘긴다.
+        private void forEach(GroupConsumer consumer) {
+            if (sparseGroups == null) {
+                for (int group = 0; group < lineCounts.length; group++) {
+                    if (lineCounts[group] != 0) {
+                        consumer.accept(group, revenues[group], quantities[group], lineCounts[group]);
+                    }
+                }
+                return;
+            }
+
+            sparseGroups.forEach((group, sums) -> consumer.accept(group, sums[0], sums[1], sums[2]));
+        }
+    }
+
+    @FunctionalInterface
+    private interface GroupConsumer {
+        void accept(long group, long revenue, long quantity, long lineCount);
+    }
+
+    //[start, end) 행을 훑는다. 행이 많으면 반으로 나눠서 병렬로 훑고 합친다.
+    private class ScanTask extends RecursiveTask<Aggregation> {
+        private final Scan scan;
+        private final int start;
+        private final int end;
+        private final int scanRows;
+
+        private ScanTask(Scan scan, int start, int end, int scanRows) {
+            this.scan = scan;
+            this.start = start;
+            this.end = end;
+            this.scanRows = scanRows;
+        }
+
+        @Override
+        protected Aggregation compute() {
+            if (end - start > scanRows) {
+                int middle = (start + end) >>> 1;
+                ScanTask left = new ScanTask(scan, start, middle, scanRows);
+                ScanTask right = new ScanTask(scan, middle, end, scanRows);
+                left.fork();
+                Aggregation rightAggregation = right.compute();
+                return left.join().merge(rightAggregation);
+            }
+
+            Aggregation aggregation = new Aggregation(scan.groupCount);
+            for (int row = start; row < end; row++) {
+                if (scan.storeCode >= 0 && storeCodes[row] != scan.storeCode) {
+                    continue;
+                }
+                if (scan.itemCode >= 0 && itemCodes[row] != scan.itemCode) {
+                    continue;
+                }
+                int orderedMinute = orderedMinutes[row];
+                if (orderedMinute < scan.fromMinute || orderedMinute >= scan.toMinute) {
+                    continue;
+                }
+
+                long group = (long) key(scan.first, row) * scan.secondCardinality + (scan.second == null ? 0 : key(scan.second, row));
+                int count = counts[row];
+                aggregation.add(group, prices[row] * count, count, 1L);
+            }
+            return aggregation;
+        }
+    }
+
+    /**
+     * 주문 상품을 한 줄씩 담아서 스냅샷을 만든다.
+     * 여러 스레드에서 같이 쓰지 않는다.
+     */
+    public static class Builder {
+        private int size;
+        private int[] itemCodes;
+        private int[] storeCodes;
+        private long[] prices;
+        private int[] counts;
+        private int[] orderedMinutes;
+
+        private final Map<Long, Integer> itemCodesById = new HashMap<>();
+        private final List<Long> itemIds = new ArrayList<>();
+        private final List<String> itemNames = new ArrayList<>();
+        private final Map<Long, Integer> storeCodesById = new HashMap<>();
+        private final List<Long> storeIds = new ArrayList<>();
+
+        public Builder(int initialCapacity) {
+            int capacity = Math.max(initialCapacity, 16);
+            this.itemCodes = new int[capacity];
+            this.storeCodes = new int[capacity];
+            this.prices = new long[capacity];
+            this.counts = new int[capacity];
+            this.orderedMinutes = new int[capacity];
+        }
+
+        /**
+         * 같은 상품의 이름이 여러 개면 처음 담긴 이름을 쓴다.
+         */
+        public Builder add(Long itemId, String itemName, Long storeId, long price, long count, LocalDateTime orderedDateTime) {
+            if (size == itemCodes.length) {
+                grow();
+            }
+
+            itemCodes[size] = itemCodesById.computeIfAbsent(itemId, key -> {
+                itemIds.add(key);
+                itemNames.add(itemName);
+                return itemIds.size() - 1;
+            });
+            storeCodes[size] = storeCodesById.computeIfAbsent(storeId, key -> {
+                storeIds.add(key);
+                return storeIds.size() - 1;
+            });
+            prices[size] = price;
+            counts[size] = Math.toIntExact(count);
+            orderedMinutes[size] = toMinute(orderedDateTime);
+            size++;
+            return this;
+        }
+
+        //스냅샷이 배열을 그대로 쓸 수 있으므로, 만든 뒤에는 더 담지 않는다.
+        public OrderLineColumns build(LocalDateTime snapshotDateTime) {
+            return new OrderLineColumns(this, snapshotDateTime);
+        }
+
+        private void grow() {
+            int capacity = itemCodes.length * 2;
+            itemCodes = Arrays.copyOf(itemCodes, capacity);
+            storeCodes = Arrays.copyOf(storeCodes, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            orderedMinutes = Arrays.copyOf(orderedMinutes, capacity);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package site.mylittlestore.analytics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 지금 분석에 쓰는 주문 상품 스냅샷
+ * 새 스냅샷을 다 만든 뒤에 한 번에 바꾸므로, 분석 중인 요청은 이전 스냅샷을 끝까지 읽는다.
+ */
+@Component
+public class OrderLineSnapshot {
+
+    private final AtomicReference<OrderLineColumns> columns = new AtomicReference<>(OrderLineColumns.empty());
+
+    public OrderLineColumns get() {
+        return columns.get();
+    }
+
+    public void replace(OrderLineColumns orderLineColumns) {
+        columns.set(orderLineColumns);
+    }
+}
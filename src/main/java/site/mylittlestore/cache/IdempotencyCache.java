@@ -0,0 +1,45 @@
+package site.mylittlestore.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Idempotency-Key별 요청 결과(redirect 경로)를 메모리에 담는다.
+ * 처리 중인 요청도 결과가 정해지지 않은 CompletableFuture로 담아서, 같은 키로 동시에 온 요청은 먼저 온 요청의 결과를 기다린다.
+ * 크기와 보관 시간이 정해져 있고, 밀려난 결과는 DB(idempotency_record)에서 찾는다.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final ConcurrentMap<String, CompletableFuture<String>> results;
+
+    public IdempotencyCache(@Value("${mylittlestore.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${mylittlestore.idempotency.ttl:P1D}") Duration ttl) {
+        Cache<String, CompletableFuture<String>> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.results = cache.asMap();
+    }
+
+    /**
+     * 키에 처리 중이거나 처리된 요청이 없으면 inFlight를 담고 null을 반환한다.
+     * 있으면 그 요청의 결과를 반환한다.
+     */
+    public CompletableFuture<String> putIfAbsent(String key, CompletableFuture<String> inFlight) {
+        return results.putIfAbsent(key, inFlight);
+    }
+
+    /**
+     * 결과를 남기지 않는 요청(실패, 폼 다시 보여주기)은 지워서, 기다리던 요청이 직접 처리하게 한다.
+     */
+    public void remove(String key, CompletableFuture<String> inFlight) {
+        results.remove(key, inFlight);
+    }
+}
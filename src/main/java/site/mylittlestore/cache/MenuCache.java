@@ -0,0 +1,127 @@
+package site.mylittlestore.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import site.mylittlestore.dto.cache.MenuCacheStatsDto;
+import site.mylittlestore.dto.item.ItemFindDto;
+import site.mylittlestore.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 가게별 메뉴(판매 중인 상품 목록) 캐시
+ * 주문 상품 추가 화면마다 메뉴를 조회하지만, 메뉴는 거의 바뀌지 않는다.
+ * 크기가 정해져 있고, 가득 차면 Caffeine(W-TinyLFU)이 자주 쓰이지 않는 가게부터 내보낸다.
+ * 상품이 바뀌면 커밋된 뒤에 가게의 메뉴를 지우고, 재고만 바뀌면 메뉴를 지우지 않고 재고만 고친다.
+ */
+@Component
+public class MenuCache {
+
+    private final Cache<Long, Menu> cache;
+
+    //메뉴 조회가 재고 변경보다 먼저 끝났는지 비교하기 위한 번호
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder invalidationCount = new LongAdder();
+
+    private final LongAdder stockUpdateCount = new LongAdder();
+
+    public MenuCache(@Value("${mylittlestore.menu-cache.maximum-size:1000}") long maximumSize,
+                     @Value("${mylittlestore.menu-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 캐시에 가게의 메뉴가 없으면 loader로 조회해서 담는다.
+     * 쓰기 트랜잭션 안에서는 커밋되지 않은 데이터가 담길 수 있으므로 캐시를 거치지 않는다.
+     */
+    public List<ItemFindDto> get(Long storeId, Function<Long, List<ItemFindDto>> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.apply(storeId);
+        }
+
+        return cache.get(storeId, key -> {
+            List<ItemFindDto> items = Collections.unmodifiableList(new ArrayList<>(loader.apply(key)));
+            //조회 쿼리가 끝난 뒤에 번호를 받는다.
+            return new Menu(sequence.incrementAndGet(), items);
+        }).getItems();
+    }
+
+    /**
+     * 커밋된 뒤에 가게의 메뉴를 지운다.
+     * 커밋 전에 지우면, 그 사이에 다른 요청이 커밋 전 데이터를 다시 담을 수 있다.
+     */
+    public void invalidateAfterCommit(Long storeId) {
+        AfterCommit.run(() -> {
+            cache.invalidate(storeId);
+            invalidationCount.increment();
+        });
+    }
+
+    /**
+     * 커밋된 뒤에 메뉴에 있는 상품의 재고를 stockDelta만큼 고친다.
+     * 재고를 바꾸는 UPDATE를 실행한 뒤에 호출해야 한다.
+     * UPDATE 뒤, 커밋 전에 번호를 받으므로 이 번호보다 먼저 끝난 조회에는 이번 변경이 없다. 그런 메뉴는 재고만 고친다.
+     * 나중에 끝난 조회로 담긴 메뉴는 이번 변경이 들어있는지 알 수 없으므로 지운다.
+     */
+    public void updateStockAfterCommit(Long storeId, Long itemId, long stockDelta) {
+        long changedSequence = sequence.incrementAndGet();
+
+        AfterCommit.run(() -> cache.asMap().computeIfPresent(storeId, (key, menu) -> {
+            if (menu.getSequence() > changedSequence) {
+                invalidationCount.increment();
+                return null;
+            }
+
+            stockUpdateCount.increment();
+            return menu.addStock(itemId, stockDelta);
+        }));
+    }
+
+    public MenuCacheStatsDto getStats() {
+        CacheStats cacheStats = cache.stats();
+
+        return MenuCacheStatsDto.builder()
+                .size(cache.estimatedSize())
+                .hitCount(cacheStats.hitCount())
+                .missCount(cacheStats.missCount())
+                .hitRate(cacheStats.hitRate())
+                .evictionCount(cacheStats.evictionCount())
+                .invalidationCount(invalidationCount.sum())
+                .stockUpdateCount(stockUpdateCount.sum())
+                .build();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Menu {
+        private final long sequence;
+        private final List<ItemFindDto> items;
+
+        //메뉴는 여러 요청이 같이 읽으므로, 고치지 않고 새로 만든다.
+        private Menu addStock(Long itemId, long stockDelta) {
+            List<ItemFindDto> updatedItems = new ArrayList<>(items.size());
+            for (ItemFindDto item : items) {
+                updatedItems.add(item.getId().equals(itemId) ? item.withStock(item.getStock() + stockDelta) : item);
+            }
+            return new Menu(sequence, Collections.unmodifiableList(updatedItems));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package site.mylittlestore.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.domain.Store;
+import site.mylittlestore.dto.store.StoreMetadataDto;
+import site.mylittlestore.enumstorage.errormessage.StoreErrorMessage;
+import site.mylittlestore.exception.store.NoSuchStoreException;
+import site.mylittlestore.repository.store.StoreRepository;
+import site.mylittlestore.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 가게 상태(열림/닫힘)와 가게 주인 캐시
+ * 주문 상품 추가, 결제 시작, 주문 생성마다 가게가 열려있는지 확인하지만, 가게 상태는 하루에 몇 번만 바뀐다.
+ * 가게 상태와 주인은 StoreService에서만 바뀌고, 커밋된 뒤에 바뀐 값을 바로 담는다(write-through).
+ * 크기가 정해져 있고, 서버 밖에서 바뀐 값도 expire-after-write가 지나면 다시 조회한다.
+ */
+@Component
+public class StoreMetadataCache {
+
+    private final StoreRepository storeRepository;
+
+    private final Cache<Long, Metadata> cache;
+
+    //가게 행을 잠근 상태에서 받는 번호라서, 같은 가게의 변경 순서와 같다.
+    private final AtomicLong version = new AtomicLong();
+
+    public StoreMetadataCache(StoreRepository storeRepository,
+                              @Value("${mylittlestore.store-metadata-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${mylittlestore.store-metadata-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.storeRepository = storeRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public StoreMetadataDto get(Long storeId) throws NoSuchStoreException {
+        return find(storeId)
+                //가게가 없으면 예외 발생
+                .orElseThrow(() -> new NoSuchStoreException(StoreErrorMessage.NO_SUCH_STORE.getMessage()));
+    }
+
+    public Optional<StoreMetadataDto> find(Long storeId) {
+        //DB에서 조회한 값은 버전이 0이므로, 조회하는 동안 커밋된 변경이 항상 덮어쓴다.
+        //없는 가게는 담지 않는다.
+        return Optional.ofNullable(cache.get(storeId, key -> storeRepository.findStoreMetadataDtoById(key)
+                        .map(storeMetadataDto -> new Metadata(0L, storeMetadataDto))
+                        .orElse(null)))
+                .map(Metadata::getStoreMetadataDto);
+    }
+
+    /**
+     * 가게 행을 잠근 트랜잭션 안에서, 가게를 바꾼 뒤에 호출한다.
+     * 커밋된 뒤에 바뀐 가게 상태와 주인을 담는다. 롤백되면 아무것도 바꾸지 않는다.
+     * 커밋 순서와 afterCommit 순서가 뒤바뀌어도, 먼저 커밋된 변경이 나중 변경을 덮어쓰지 않는다.
+     */
+    public void putAfterCommit(Store store) {
+        Metadata metadata = new Metadata(version.incrementAndGet(), StoreMetadataDto.builder()
+                .id(store.getId())
+                .memberId(store.getMember().getId())
+                .storeStatus(store.getStoreStatus())
+                .build());
+
+        AfterCommit.run(() -> cache.asMap().merge(store.getId(), metadata,
+                (cachedMetadata, newMetadata) -> cachedMetadata.getVersion() < newMetadata.getVersion() ? newMetadata : cachedMetadata));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Metadata {
+        private final long version;
+        private final StoreMetadataDto storeMetadataDto;
+    }
+}
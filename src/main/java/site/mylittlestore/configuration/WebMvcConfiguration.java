@@ -1,19 +1,27 @@
-//package site.mylittlestore.configuration;
-//
-//import lombok.RequiredArgsConstructor;
-//import org.springframework.context.annotation.Configuration;
-//import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-//import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-//import site.mylittlestore.interceptor.OrderInterceptor;
-//
-//@Configuration
-//@RequiredArgsConstructor
-//public class WebMvcConfiguration implements WebMvcConfigurer {
+package site.mylittlestore.configuration;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import site.mylittlestore.interceptor.IdempotencyInterceptor;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfiguration implements WebMvcConfigurer {
 //    private final OrderInterceptor orderInterceptor;
-//
-//    @Override
-//    public void addInterceptors(InterceptorRegistry registry) {
+    private final IdempotencyInterceptor idempotencyInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
 //        registry.addInterceptor(orderInterceptor)
 //                .addPathPatterns("/members/*/stores/*/storeTables/*/orders/*");
-//    }
-//}
+
+        //태블릿이 다시 보낼 수 있는, 주문 상품 추가와 결제 수단 생성, 지불 요청
+        registry.addInterceptor(idempotencyInterceptor)
+                .addPathPatterns("/members/*/stores/*/storeTables/*/orders/*/orderItems/new",
+                        "/members/*/stores/*/storeTables/*/orders/*/orderItems/batch",
+                        "/members/*/stores/*/storeTables/*/orders/*/payments/*/paymentMethods/new",
+                        "/members/*/stores/*/storeTables/*/orders/*/payments/*/paymentMethods/*/complete");
+    }
+}
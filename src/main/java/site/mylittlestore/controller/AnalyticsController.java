@@ -0,0 +1,47 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.analytics.OrderLineFilter;
+import site.mylittlestore.dto.analytics.RevenueGroupDto;
+import site.mylittlestore.enumstorage.AnalyticsDimension;
+import site.mylittlestore.service.AnalyticsService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 가게의 결제된 주문 상품을 묶어서 매출을 JSON으로 보여준다.
+ * 주기적으로 만드는 스냅샷을 읽으므로, 마지막 스냅샷 이후의 주문은 나오지 않는다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    /**
+     * 예: groupBy=ITEM&thenBy=HOUR_OF_DAY 이면 상품별, 시간대별 매출
+     * from, to는 주문 날짜 기준이고 둘 다 포함한다.
+     */
+    @GetMapping("/members/{memberId}/stores/{storeId}/analytics/revenues")
+    public List<RevenueGroupDto> revenues(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                          @RequestParam(value = "groupBy", defaultValue = "ITEM") AnalyticsDimension groupBy,
+                                          @RequestParam(value = "thenBy", required = false) AnalyticsDimension thenBy,
+                                          @RequestParam(value = "itemId", required = false) Long itemId,
+                                          @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        OrderLineFilter filter = OrderLineFilter.builder()
+                .storeId(storeId)
+                .itemId(itemId)
+                .from(from != null ? from.atStartOfDay() : null)
+                .to(to != null ? to.plusDays(1).atStartOfDay() : null)
+                .build();
+
+        return analyticsService.sumRevenue(filter, groupBy, thenBy);
+    }
+}
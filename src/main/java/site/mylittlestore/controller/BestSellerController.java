@@ -0,0 +1,30 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.bestseller.BestSellerDto;
+import site.mylittlestore.enumstorage.BestSellerPeriod;
+import site.mylittlestore.service.BestSellerService;
+
+import java.util.List;
+
+/**
+ * 가게의 인기 상품 순위를 JSON으로 보여준다.
+ * 순위는 메모리에서 읽고, 상품 이름은 가게 메뉴 캐시에서 가져온다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class BestSellerController {
+
+    private final BestSellerService bestSellerService;
+
+    @GetMapping("/members/{memberId}/stores/{storeId}/bestSellers")
+    public List<BestSellerDto> bestSellers(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                           @RequestParam(value = "period", defaultValue = "HOUR") BestSellerPeriod period,
+                                           @RequestParam(value = "size", defaultValue = "10") int size) {
+        return bestSellerService.findBestSellerDtos(storeId, period, size);
+    }
+}
@@ -0,0 +1,36 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.cache.MenuCache;
+import site.mylittlestore.dto.cache.CacheRegionStatsDto;
+import site.mylittlestore.dto.cache.MenuCacheStatsDto;
+import site.mylittlestore.service.CacheStatsService;
+
+import java.util.List;
+
+/**
+ * 캐시 적중, 실패, 내보낸 수를 JSON으로 보여준다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final MenuCache menuCache;
+
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping("/caches/menu")
+    public MenuCacheStatsDto menuCacheStats() {
+        return menuCache.getStats();
+    }
+
+    /**
+     * Hibernate 2차 캐시 영역별 적중률
+     */
+    @GetMapping("/caches/regions")
+    public List<CacheRegionStatsDto> cacheRegionStats() {
+        return cacheStatsService.findAllCacheRegionStatsDtos();
+    }
+}
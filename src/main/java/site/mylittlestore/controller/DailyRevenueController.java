@@ -0,0 +1,32 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueDto;
+import site.mylittlestore.service.DailyRevenueService;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * 가게의 영업일별, 결제 수단 종류별 매출을 JSON으로 보여준다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class DailyRevenueController {
+
+    private final DailyRevenueService dailyRevenueService;
+
+    /**
+     * month를 넘기지 않으면 이번 달 매출을 조회한다.
+     */
+    @GetMapping("/members/{memberId}/stores/{storeId}/revenues/daily")
+    public List<DailyRevenueDto> dailyRevenues(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                               @RequestParam(value = "month", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return dailyRevenueService.findAllDailyRevenueDtosByStoreIdAndMonth(storeId, month != null ? month : YearMonth.now());
+    }
+}
@@ -0,0 +1,81 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.enumstorage.ExportFormat;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+import site.mylittlestore.service.ExportService;
+
+import java.time.LocalDate;
+
+/**
+ * 가게의 끝난 주문을 파일로 내려받는다.
+ * 응답 본문은 요청 스레드가 아닌 MVC 비동기 스레드에서, 서비스의 읽기 전용 트랜잭션 안에서 쓴다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    /**
+     * 주문 상품 한 줄에 주문과 결제 정보가 붙는다.
+     * from, to는 종료 날짜 기준이고 둘 다 포함한다.
+     */
+    @GetMapping("/members/{memberId}/stores/{storeId}/exports/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                                              @RequestParam(value = "format", defaultValue = "CSV") ExportFormat exportFormat,
+                                                              @RequestParam(value = "status", required = false) OrderStatus orderStatus,
+                                                              @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        OrderHistoryCondition condition = createCondition(storeId, orderStatus, from, to);
+
+        return attachment("orders-" + storeId, exportFormat,
+                outputStream -> exportService.exportOrders(condition, exportFormat, outputStream));
+    }
+
+    /**
+     * 결제 수단 한 줄에 주문 정보가 붙는다.
+     * from, to는 종료 날짜 기준이고 둘 다 포함한다.
+     */
+    @GetMapping("/members/{memberId}/stores/{storeId}/exports/paymentMethods")
+    public ResponseEntity<StreamingResponseBody> exportPaymentMethods(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                                                      @RequestParam(value = "format", defaultValue = "CSV") ExportFormat exportFormat,
+                                                                      @RequestParam(value = "status", required = false) OrderStatus orderStatus,
+                                                                      @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                      @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        OrderHistoryCondition condition = createCondition(storeId, orderStatus, from, to);
+
+        return attachment("paymentMethods-" + storeId, exportFormat,
+                outputStream -> exportService.exportPaymentMethods(condition, exportFormat, outputStream));
+    }
+
+    private OrderHistoryCondition createCondition(Long storeId, OrderStatus orderStatus, LocalDate from, LocalDate to) {
+        return OrderHistoryCondition.builder()
+                .storeId(storeId)
+                .orderStatus(orderStatus)
+                .from(from != null ? from.atStartOfDay() : null)
+                .to(to != null ? to.plusDays(1).atStartOfDay() : null)
+                .build();
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String fileName, ExportFormat exportFormat, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName + "." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,37 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import site.mylittlestore.dto.item.ItemImportResultDto;
+import site.mylittlestore.service.ItemService;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 상품 파일을 올려서 가게의 상품을 한 번에 만든다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ItemImportController {
+
+    private final ItemService itemService;
+
+    /**
+     * file은 UTF-8 CSV(name,price,stock 열) 또는 JSON 객체 배열이다.
+     * 잘못된 행은 건너뛰고, 응답의 errors에 행 번호와 이유를 담는다.
+     */
+    @PostMapping("/members/{memberId}/stores/{storeId}/items/import")
+    public ItemImportResultDto importItems(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                           @RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return itemService.importItems(storeId, reader);
+        }
+    }
+}
@@ -8,8 +8,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.member.MemberFindDto;
+import site.mylittlestore.dto.member.MemberFindDtoPage;
 import site.mylittlestore.dto.member.MemberUpdateDto;
 import site.mylittlestore.dto.store.StoreDto;
 import site.mylittlestore.dto.store.StoreDtoWithStoreTablesAndItems;
@@ -29,10 +31,18 @@ public class MemberController {
     private final StoreService storeService;
 
     @GetMapping("/members")
-    public String memberList(Model model) {
-        List<MemberFindDto> findAllMemberFindDto = memberService.findAllMemberFindDto();
-
-        model.addAttribute("memberFindDtos", findAllMemberFindDto);
+    public String memberList(@RequestParam(value = "lastMemberId", required = false) Long lastMemberId,
+                             @RequestParam(value = "name", required = false) String name,
+                             @RequestParam(value = "email", required = false) String email,
+                             @RequestParam(value = "size", defaultValue = "20") int size,
+                             Model model) {
+        MemberFindDtoPage memberFindDtoPage = memberService.findMemberFindDtoPage(lastMemberId, name, email, size);
+
+        model.addAttribute("memberFindDtos", memberFindDtoPage.getMemberFindDtos());
+        model.addAttribute("memberFindDtoPage", memberFindDtoPage);
+        model.addAttribute("name", name);
+        model.addAttribute("email", email);
+        model.addAttribute("size", size);
 
         return "member/memberList";
     }
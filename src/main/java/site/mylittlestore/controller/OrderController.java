@@ -5,14 +5,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import site.mylittlestore.dto.order.OrderDto;
+import site.mylittlestore.dto.order.OrderFindDtoWithOrderItemAndPayment;
 import site.mylittlestore.dto.store.StoreDto;
 import site.mylittlestore.enumstorage.errormessage.StoreErrorMessage;
 import site.mylittlestore.enumstorage.status.StoreStatus;
 import site.mylittlestore.exception.store.NoSuchOrderException;
 import site.mylittlestore.exception.storetable.OrderAlreadyExistException;
 import site.mylittlestore.message.Message;
-import site.mylittlestore.service.OrderItemService;
 import site.mylittlestore.service.OrderService;
 import site.mylittlestore.service.StoreService;
 
@@ -23,21 +22,20 @@ public class OrderController {
 
     private final OrderService orderService;
 
-    private final OrderItemService orderItemService;
-
     @GetMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}")
     public String orderInfo(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, @PathVariable("orderId") Long orderId, Model model) {
         try {
-            OrderDto orderDto = orderService.findOrderDtoByIdAndStoreId(orderId, storeId);
+            //주문, 테이블, 결제, 주문 상품을 한 번에 조회
+            OrderFindDtoWithOrderItemAndPayment orderFindDto = orderService.findOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId(orderId, storeId);
 
             //Order가 결제 중이면 결제 페이지로 redirect
-            if (orderDto.getPaymentId() != null) {
-                return "redirect:/members/" + memberId + "/stores/" + storeId + "/storeTables/" + storeTableId + "/orders/" + orderId + "/payments/" + orderDto.getPaymentId();
+            if (orderFindDto.getPaymentDto() != null) {
+                return "redirect:/members/" + memberId + "/stores/" + storeId + "/storeTables/" + storeTableId + "/orders/" + orderId + "/payments/" + orderFindDto.getPaymentDto().getId();
             }
 
             model.addAttribute("memberId", memberId);
-            model.addAttribute("orderDto", orderDto);
-            model.addAttribute("orderItemFindDtos", orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderId, storeId));
+            model.addAttribute("orderFindDto", orderFindDto);
+            model.addAttribute("orderItemFindDtos", orderFindDto.getOrderItemFindDtos());
 
             return "order/orderInfo";
         } catch (NoSuchOrderException e) {
@@ -0,0 +1,56 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.order.OrderHistoryCursor;
+import site.mylittlestore.dto.order.OrderHistoryPage;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+import site.mylittlestore.service.OrderService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 가게의 끝난 주문 내역을 JSON으로 보여준다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class OrderHistoryController {
+
+    private final OrderService orderService;
+
+    /**
+     * 다음 페이지는 응답의 nextCursor 값을 lastEndTime, lastOrderId, lastOrderItemId로 넘겨서 조회한다.
+     * from, to는 종료 날짜 기준이고 둘 다 포함한다.
+     */
+    @GetMapping("/members/{memberId}/stores/{storeId}/orders/history")
+    public OrderHistoryPage orderHistory(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                         @RequestParam(value = "status", required = false) OrderStatus orderStatus,
+                                         @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(value = "lastEndTime", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastEndTime,
+                                         @RequestParam(value = "lastOrderId", required = false) Long lastOrderId,
+                                         @RequestParam(value = "lastOrderItemId", required = false) Long lastOrderItemId,
+                                         @RequestParam(value = "size", defaultValue = "50") int size) {
+        OrderHistoryCondition condition = OrderHistoryCondition.builder()
+                .storeId(storeId)
+                .orderStatus(orderStatus)
+                .from(from != null ? from.atStartOfDay() : null)
+                .to(to != null ? to.plusDays(1).atStartOfDay() : null)
+                .build();
+
+        //세 값이 모두 있어야 이전 페이지의 다음부터 조회한다.
+        OrderHistoryCursor cursor = lastEndTime != null && lastOrderId != null && lastOrderItemId != null ? OrderHistoryCursor.builder()
+                .endTime(lastEndTime)
+                .orderId(lastOrderId)
+                .orderItemId(lastOrderItemId)
+                .build() : null;
+
+        return orderService.findOrderHistoryPage(condition, cursor, size);
+    }
+}
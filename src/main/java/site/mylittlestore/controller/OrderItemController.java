@@ -13,12 +13,15 @@ import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
 import site.mylittlestore.dto.orderitem.OrderItemDeleteDto;
 import site.mylittlestore.dto.orderitem.OrderItemDto;
 import site.mylittlestore.dto.orderitem.OrderItemUpdateDto;
+import site.mylittlestore.enumstorage.errormessage.ItemErrorMessage;
 import site.mylittlestore.enumstorage.errormessage.OrderItemErrorMessage;
 import site.mylittlestore.enumstorage.errormessage.PaymentErrorMessage;
 import site.mylittlestore.enumstorage.errormessage.StoreErrorMessage;
+import site.mylittlestore.exception.item.NotEnoughStockException;
 import site.mylittlestore.exception.orderitem.NoSuchOrderItemException;
 import site.mylittlestore.exception.payment.PaymentAlreadyExistException;
 import site.mylittlestore.exception.store.StoreClosedException;
+import site.mylittlestore.form.OrderItemBatchCreationForm;
 import site.mylittlestore.form.OrderItemCreationForm;
 import site.mylittlestore.form.OrderItemForm;
 import site.mylittlestore.message.Confirm;
@@ -30,6 +33,7 @@ import site.mylittlestore.service.OrderService;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Controller
 @RequiredArgsConstructor
@@ -114,6 +118,76 @@ public class OrderItemController {
         }
     }
 
+    @GetMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems/batch")
+    public String orderItemBatchCreationForm(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, @PathVariable("orderId") Long orderId, Model model) {
+        List<ItemFindDto> findAllItemCreationDtoByStoreId = itemService.findAllItemDtoByStoreId(storeId);
+
+        //상품마다 한 줄씩
+        OrderItemBatchCreationForm orderItemBatchCreationForm = new OrderItemBatchCreationForm();
+        findAllItemCreationDtoByStoreId.forEach(itemFindDto -> {
+            OrderItemCreationForm orderItemCreationForm = new OrderItemCreationForm();
+            orderItemCreationForm.setOrderId(orderId);
+            orderItemCreationForm.setItemId(itemFindDto.getId());
+            orderItemCreationForm.setPrice(itemFindDto.getPrice());
+            orderItemBatchCreationForm.getOrderItemCreationForms().add(orderItemCreationForm);
+        });
+
+        model.addAttribute("memberId", memberId);
+        model.addAttribute("storeId", storeId);
+        model.addAttribute("storeTableId", storeTableId);
+        model.addAttribute("orderId", orderId);
+        model.addAttribute("itemDtos", findAllItemCreationDtoByStoreId);
+        model.addAttribute("orderItemBatchCreationForm", orderItemBatchCreationForm);
+
+        return "orderItem/orderItemBatchCreationForm";
+    }
+
+    @PostMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems/batch")
+    public String createOrderItems(@PathVariable("memberId") Long memberId, @PathVariable Long storeId, @PathVariable Long storeTableId, @PathVariable Long orderId, OrderItemBatchCreationForm orderItemBatchCreationForm, Model model) {
+
+        //수량이 입력된 줄만 주문
+        List<OrderItemCreationDto> orderItemCreationDtos = orderItemBatchCreationForm.getOrderItemCreationForms().stream()
+                .filter(orderItemCreationForm -> orderItemCreationForm.getCount() != null && orderItemCreationForm.getCount() > 0)
+                .map(orderItemCreationForm -> OrderItemCreationDto.builder()
+                        .orderId(orderId)
+                        .itemId(orderItemCreationForm.getItemId())
+                        .price(orderItemCreationForm.getPrice())
+                        .count(orderItemCreationForm.getCount())
+                        .build())
+                .collect(Collectors.toList());
+
+        if (orderItemCreationDtos.isEmpty()) {
+            return "redirect:/members/" + memberId + "/stores/" + storeId + "/storeTables/" + storeTableId + "/orders/" + orderId;
+        }
+
+        try {
+            orderItemService.createOrderItems(orderId, orderItemCreationDtos);
+
+            return "redirect:/members/" + memberId + "/stores/" + storeId + "/storeTables/" + storeTableId + "/orders/" + orderId;
+        } catch (PaymentAlreadyExistException e) {  //진행중인 결제가 존재하면, 결제가 시작되어 변경이 불가능합니다.
+            //팝업 알림창
+            model.addAttribute("messages", Message.builder()
+                    .message(PaymentErrorMessage.PAYMENT_ALREADY_EXIST.getMessage())
+                    .href("/members/" + memberId + "/stores/" + storeId + "/storeTables/" + e.getStoreTableId() + "/orders/" + e.getOrderId())
+                    .build());
+            return "message/message";
+        } catch (StoreClosedException e) {  //가게가 닫혀있으면, 가게를 열어야합니다.
+            //팝업 알림창
+            model.addAttribute("messages", Message.builder()
+                    .message(StoreErrorMessage.STORE_CLOSED.getMessage())
+                    .href("/members/" + memberId + "/stores/" + storeId)
+                    .build());
+            return "message/message";
+        } catch (NotEnoughStockException e) {  //재고가 부족하면, 아무것도 주문되지 않습니다.
+            //팝업 알림창
+            model.addAttribute("messages", Message.builder()
+                    .message(ItemErrorMessage.NOT_ENOUGH_STOCK.getMessage())
+                    .href("/members/" + memberId + "/stores/" + storeId + "/storeTables/" + storeTableId + "/orders/" + orderId + "/orderItems/batch")
+                    .build());
+            return "message/message";
+        }
+    }
+
     @GetMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems/{orderItemId}/update")
     public String orderItemUpdateForm(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, @PathVariable("orderId") Long orderId, @PathVariable("orderItemId") Long orderItemId, Model model) {
         model.addAttribute("memberId", memberId);
@@ -1,21 +1,35 @@
 package site.mylittlestore.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 import site.mylittlestore.dto.paymentmethod.PaymentMethodCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodDto;
 import site.mylittlestore.exception.paymentmethod.PaymentMethodException;
 import site.mylittlestore.form.PaymentMethodCreationForm;
 import site.mylittlestore.service.PaymentMethodService;
+import site.mylittlestore.service.PaymentProcessingService;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
 public class PaymentMethodController {
     private final PaymentMethodService paymentMethodService;
+    private final PaymentProcessingService paymentProcessingService;
+
+    //승인 결과를 기다리는 최대 시간, 넘으면 AUTHORIZING인 결제 수단을 돌려주고 화면이 다시 요청한다.
+    @Value("${mylittlestore.payment.poll-timeout:PT25S}")
+    private Duration pollTimeout;
 
     @GetMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/payments/{paymentId}/paymentMethods/new")
     public String PaymentMethodCreationForm(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, @PathVariable("orderId") Long orderId, @PathVariable("paymentId") Long paymentId, Model model) {
@@ -60,4 +74,47 @@ public class PaymentMethodController {
             return "paymentMethod/paymentMethodCreationForm";
         }
     }
+
+    @PostMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/payments/{paymentId}/paymentMethods/{paymentMethodId}/complete")
+    public String completePaymentMethod(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, @PathVariable("orderId") Long orderId, @PathVariable("paymentId") Long paymentId, @PathVariable("paymentMethodId") Long paymentMethodId) {
+        //결제 수단 승인 시작
+        //승인을 기다리지 않고 바로 결제 상세 페이지로 이동, 결과는 결제 상세 페이지가 result로 받아간다.
+        try {
+            paymentProcessingService.submit(paymentMethodId, paymentId);
+        } catch (PaymentMethodException e) {
+            //결제 수단이 없거나, 이미 지불됐거나, 승인 중이면(두 번 누른 경우 등)
+            //결제 상세 페이지에서 지금 상태를 보여준다.
+        }
+
+        //결제 상세 페이지로 이동
+        return "redirect:/members/" + memberId + "/stores/" + storeId + "/storeTables/" + storeTableId + "/orders/" + orderId + "/payments/" + paymentId;
+    }
+
+    /**
+     * 결제 수단의 승인 결과를 기다렸다가 돌려준다(long-poll).
+     * 기다리는 동안 요청 스레드는 반납하고, 승인 결과가 반영되면 그 스레드와 상관없이 응답한다.
+     */
+    @ResponseBody
+    @GetMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/payments/{paymentId}/paymentMethods/{paymentMethodId}/result")
+    public DeferredResult<PaymentMethodDto> paymentMethodResult(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, @PathVariable("orderId") Long orderId, @PathVariable("paymentId") Long paymentId, @PathVariable("paymentMethodId") Long paymentMethodId) {
+        DeferredResult<PaymentMethodDto> deferredResult = new DeferredResult<>(pollTimeout.toMillis());
+
+        Optional<CompletableFuture<PaymentMethodDto>> inFlight = paymentProcessingService.findInFlight(paymentMethodId);
+        //승인 중이 아니면 지금 상태를 바로 돌려준다.
+        if (inFlight.isEmpty()) {
+            deferredResult.setResult(paymentMethodService.findPaymentMethodDtoByIdAndPaymentId(paymentMethodId, paymentId));
+            return deferredResult;
+        }
+
+        //시간이 넘으면 아직 AUTHORIZING인 결제 수단을 돌려준다.
+        deferredResult.onTimeout(() -> deferredResult.setResult(paymentMethodService.findPaymentMethodDtoByIdAndPaymentId(paymentMethodId, paymentId)));
+        inFlight.get().whenComplete((paymentMethodDto, throwable) -> {
+            if (throwable != null) {
+                deferredResult.setErrorResult(throwable);
+            } else {
+                deferredResult.setResult(paymentMethodDto);
+            }
+        });
+        return deferredResult;
+    }
 }
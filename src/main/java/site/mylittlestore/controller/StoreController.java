@@ -34,7 +34,7 @@ public class StoreController {
     public String storeInfo(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, Model model) {
         model.addAttribute("memberId", memberId);
         model.addAttribute("storeId", storeId);
-        model.addAttribute("storeDto", storeService.findStoreDtoWithStoreTablesAndItemsById(storeId));
+        model.addAttribute("storeDto", storeService.findStoreOverviewDtoById(storeId));
 
         return "store/storeInfo";
     }
@@ -67,7 +67,7 @@ public class StoreController {
 
     @GetMapping("/members/{memberId}/stores/{storeId}/update")
     public String updateStoreForm(@PathVariable("storeId") Long storeId, Model model) {
-        model.addAttribute("storeFindDto", storeService.findStoreDtoWithStoreTablesAndItemsById(storeId));
+        model.addAttribute("storeFindDto", storeService.findStoreDtoById(storeId));
         model.addAttribute("storeUpdateForm", new StoreUpdateForm());
 
         return "store/storeUpdateForm";
@@ -77,7 +77,7 @@ public class StoreController {
     public String updateStore(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @Valid StoreUpdateForm storeUpdateForm, BindingResult result, Model model) {
 
         if (result.hasErrors()) {
-            model.addAttribute("storeFindDto", storeService.findStoreDtoWithStoreTablesAndItemsById(storeId));
+            model.addAttribute("storeFindDto", storeService.findStoreDtoById(storeId));
             model.addAttribute("storeUpdateForm", new StoreUpdateForm());
             return "store/storeUpdateForm";
         }
@@ -0,0 +1,49 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.service.StoreTableService;
+
+import java.util.List;
+
+/**
+ * 가게의 테이블을 한 번에 만들고, 번호를 다시 붙이고, 삭제한다.
+ * 각 요청은 트랜잭션 하나로 처리되고, 실패하면 전부 취소된다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class StoreTableBulkController {
+
+    private final StoreTableService storeTableService;
+
+    /**
+     * @return 만든 테이블의 Id, 번호 순서
+     */
+    @PostMapping("/members/{memberId}/stores/{storeId}/storeTables/bulk")
+    public List<Long> createStoreTables(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                        @RequestParam("count") int count) {
+        return storeTableService.createStoreTables(storeId, count);
+    }
+
+    /**
+     * 본문은 새 번호 순서대로 나열한 테이블 Id 목록이다.
+     */
+    @PostMapping("/members/{memberId}/stores/{storeId}/storeTables/renumber")
+    public void renumberStoreTables(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                    @RequestBody List<Long> storeTableIds) {
+        storeTableService.renumberStoreTables(storeId, storeTableIds);
+    }
+
+    /**
+     * 본문은 삭제할 테이블 Id 목록이다.
+     */
+    @PostMapping("/members/{memberId}/stores/{storeId}/storeTables/bulkDelete")
+    public void deleteStoreTables(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                  @RequestBody List<Long> storeTableIds) {
+        storeTableService.deleteStoreTables(storeId, storeTableIds);
+    }
+}
@@ -0,0 +1,58 @@
+package site.mylittlestore.domain;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+import static javax.persistence.FetchType.LAZY;
+
+/**
+ * 가게별, 영업일별, 결제 수단 종류별 매출 집계
+ * 결제 수단이 지불될 때마다 같은 트랜잭션에서 금액과 건수를 더한다.
+ * (store_id, business_date, payment_method_type) 유니크 키로 한 달치 매출을 범위 조회한다.
+ */
+@Entity
+@SequenceGenerator(name = "DAILY_REVENUE_SEQ_GENERATOR", sequenceName = "DAILY_REVENUE_SEQ", allocationSize = 50)
+@Getter
+@Table(uniqueConstraints = @UniqueConstraint(name = "UK_DAILY_REVENUE_STORE_ID_BUSINESS_DATE_TYPE", columnNames = {"store_id", "business_date", "payment_method_type"}),
+        indexes = @Index(name = "IDX_DAILY_REVENUE_BUSINESS_DATE", columnList = "business_date"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailyRevenue {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "DAILY_REVENUE_SEQ_GENERATOR")
+    @Column(name = "DAILY_REVENUE_ID")
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "STORE_ID")
+    private Store store;
+
+    @NotNull
+    private LocalDate businessDate;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private PaymentMethodType paymentMethodType;
+
+    @NotNull
+    private Long amount;
+
+    @NotNull
+    private Long paymentCount;
+
+    @Builder
+    protected DailyRevenue(Store store, LocalDate businessDate, PaymentMethodType paymentMethodType, Long amount, Long paymentCount) {
+        this.store = store;
+        this.businessDate = businessDate;
+        this.paymentMethodType = paymentMethodType;
+        this.amount = amount;
+        this.paymentCount = paymentCount;
+    }
+}
@@ -0,0 +1,49 @@
+package site.mylittlestore.domain;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key로 처리한 요청의 결과
+ * 같은 키와 같은 경로로 다시 온 요청에는 서비스를 다시 실행하지 않고 저장된 redirect 경로를 돌려준다.
+ */
+@Entity
+@SequenceGenerator(name = "IDEMPOTENCY_RECORD_SEQ_GENERATOR", sequenceName = "IDEMPOTENCY_RECORD_SEQ", allocationSize = 50)
+@Getter
+@Table(uniqueConstraints = @UniqueConstraint(name = "UK_IDEMPOTENCY_RECORD_KEY_REQUEST_URI", columnNames = {"idempotency_key", "request_uri"}),
+        indexes = @Index(name = "IDX_IDEMPOTENCY_RECORD_CREATED_DATE_TIME", columnList = "created_date_time"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IdempotencyRecord {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "IDEMPOTENCY_RECORD_SEQ_GENERATOR")
+    @Column(name = "IDEMPOTENCY_RECORD_ID")
+    private Long id;
+
+    @NotNull
+    @Column(length = 100)
+    private String idempotencyKey;
+
+    @NotNull
+    private String requestUri;
+
+    @NotNull
+    @Column(length = 1000)
+    private String redirectUrl;
+
+    @NotNull
+    private LocalDateTime createdDateTime;
+
+    @Builder
+    protected IdempotencyRecord(String idempotencyKey, String requestUri, String redirectUrl, LocalDateTime createdDateTime) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestUri = requestUri;
+        this.redirectUrl = redirectUrl;
+        this.createdDateTime = createdDateTime;
+    }
+}
@@ -2,6 +2,10 @@ package site.mylittlestore.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import site.mylittlestore.dto.member.MemberFindDto;
 import site.mylittlestore.entity.BaseEntity;
 
@@ -12,18 +16,26 @@ import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
 import java.util.List;
 
+//회원 정보와 비밀번호가 바뀐 뒤에 예전 값이 보이면 안 되므로 READ_WRITE
+//회원 목록은 이름 앞부분으로 찾고 Id 순으로 넘긴다. 이메일은 unique 제약조건의 인덱스를 쓴다.
 @Entity
+@Table(indexes = @Index(name = "IDX_MEMBER_NAME_MEMBER_ID", columnList = "name, member_id"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
+@NaturalIdCache(region = "member-natural-id")
+@SequenceGenerator(name = "MEMBER_SEQ_GENERATOR", sequenceName = "MEMBER_SEQ", allocationSize = 50)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Member extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "MEMBER_SEQ_GENERATOR")
     @Column(name = "MEMBER_ID")
     private Long id;
 
     @NotBlank
     private String name;
 
+    //이메일은 바꿀 수 없다.
+    @NaturalId
     @NotBlank
     @Column(unique = true)
     @Email
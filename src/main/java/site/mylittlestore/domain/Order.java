@@ -7,7 +7,6 @@ import site.mylittlestore.enumstorage.errormessage.OrderErrorMessage;
 import site.mylittlestore.enumstorage.status.OrderStatus;
 import site.mylittlestore.entity.BaseEntity;
 import site.mylittlestore.exception.order.OrderException;
-import site.mylittlestore.exception.payment.PaymentFatalException;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -20,12 +19,14 @@ import java.util.stream.Collectors;
 import static javax.persistence.FetchType.LAZY;
 
 @Entity
+@SequenceGenerator(name = "ORDERS_SEQ_GENERATOR", sequenceName = "ORDERS_SEQ", allocationSize = 50)
 @Getter
-@Table(name = "ORDERS")
+//주문 내역은 가게별로 종료 시간, 주문 Id 순으로 넘긴다.
+@Table(name = "ORDERS", indexes = @Index(name = "IDX_ORDERS_STORE_ID_END_TIME_ORDER_ID", columnList = "store_id, end_time, order_id"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ORDERS_SEQ_GENERATOR")
     @Column(name = "ORDER_ID")
     private Long id;
 
@@ -53,6 +54,18 @@ public class Order extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private OrderStatus orderStatus;
 
+    //삭제되지 않은 주문 상품의 가격 * 수량의 합
+    //주문 상품을 바꿀 때 OrderRepository.addTotalsById로만 바꾼다.
+    //변경 감지로 덮어쓰지 않도록 UPDATE에서 뺀다.
+    @NotNull
+    @Column(updatable = false)
+    private Long subtotal;
+
+    //삭제되지 않은 주문 상품의 수량의 합
+    @NotNull
+    @Column(updatable = false)
+    private Long itemCount;
+
     @Builder
     protected Order(Store store, StoreTable storeTable) {
         this.store = store;
@@ -60,36 +73,13 @@ public class Order extends BaseEntity {
         this.orderItems = new ArrayList<>();
         this.startTime = LocalDateTime.now();
         this.orderStatus = OrderStatus.USING;
+        this.subtotal = 0L;
+        this.itemCount = 0L;
 
         storeTable.setOrder(this);
     }
 
     //-- 비즈니스 로직 --//
-    /**
-     * 주문 상태를 결제 완료로 변경
-     */
-    public void paymentSuccess() {
-        //주문 상태가 IN_PROGRESS가 아니면 예외 발생
-        if (this.orderStatus != OrderStatus.IN_PROGRESS)
-            throw new PaymentFatalException(OrderErrorMessage.ORDER_NOT_IN_PROGRESS.getMessage());
-        //주문 상태를 결제 완료로 변경
-        this.orderStatus = OrderStatus.PAID;
-
-        //주문 상태가 결제 완료로 변경되면, 테이블의 상태를 EMPTY로 변경
-        this.storeTable.changeStoreTableStatusEmpty();
-
-        //주문 상태가 결제 완료로 변경되면 종료 시간을 기록
-        if (this.endTime != null)
-            throw new PaymentFatalException(OrderErrorMessage.ORDER_ALREADY_HAS_END_TIME.getMessage());
-        this.endTime = LocalDateTime.now();
-
-        //주문 상태가 결제 완료로 변경되면 주문 상품의 주문 상태를 결제 완료로 변경
-        if (this.orderItems.isEmpty())
-            throw new PaymentFatalException(OrderErrorMessage.ORDER_HAS_NO_ORDER_ITEM.getMessage());
-        this.orderItems.stream()
-                .forEach(orderItem -> orderItem.paymentSuccess());
-    }
-
     public void changeOrderStatusPaid() {
         //이미 삭제된 주문인지 확인
         if (this.orderStatus == OrderStatus.DELETED)
@@ -99,6 +89,10 @@ public class Order extends BaseEntity {
             throw new OrderException(OrderErrorMessage.ORDER_ALREADY_PAID.getMessage());
         //문제 없으면 결제 완료로 변경
         this.orderStatus = OrderStatus.PAID;
+
+        //종료 시간이 있어야 주문 내역에 나온다.
+        if (this.endTime == null)
+            this.endTime = LocalDateTime.now();
     }
 
     /**
@@ -139,6 +133,8 @@ public class Order extends BaseEntity {
                         .collect(Collectors.toList()))
                 .startTime(startTime)
                 .orderStatus(orderStatus.toString())
+                .subtotal(subtotal)
+                .itemCount(itemCount)
                 .build();
     }
 }
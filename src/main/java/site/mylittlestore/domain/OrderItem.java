@@ -11,7 +11,6 @@ import site.mylittlestore.dto.orderitem.OrderItemFindDto;
 import site.mylittlestore.entity.BaseEntity;
 import site.mylittlestore.enumstorage.errormessage.OrderItemErrorMessage;
 import site.mylittlestore.enumstorage.status.OrderItemStatus;
-import site.mylittlestore.exception.item.NotEnoughStockException;
 import site.mylittlestore.exception.orderitem.OrderItemException;
 
 import javax.persistence.*;
@@ -24,11 +23,12 @@ import java.time.LocalDateTime;
 import static javax.persistence.FetchType.LAZY;
 
 @Entity
+@SequenceGenerator(name = "ORDER_ITEM_SEQ_GENERATOR", sequenceName = "ORDER_ITEM_SEQ", allocationSize = 50)
 @Getter
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public class OrderItem extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ORDER_ITEM_SEQ_GENERATOR")
     @Column(name = "ORDER_ITEM_ID")
     private Long id;
 
@@ -70,7 +70,7 @@ public class OrderItem extends BaseEntity {
     private OrderItemStatus orderItemStatus;
 
     @Builder
-    protected OrderItem(Store store, Order order, Item item, Long price, Long count) throws NotEnoughStockException {
+    protected OrderItem(Store store, Order order, Item item, Long price, Long count) {
         this.store = store;
         this.order = order;
         this.item = item;
@@ -81,8 +81,7 @@ public class OrderItem extends BaseEntity {
         this.updatedDateTime = LocalDateTime.now();
         this.orderItemStatus = OrderItemStatus.ORDERED;
 
-        //OrderItem 생성시 Item의 stock 감소
-        this.item.decreaseStock(count);
+        //Item의 stock 감소는 ItemRepository.decreaseStock에서 처리
 
         //OrderItem과 Order 연관관계 설정
         order.getOrderItems().add(this);
@@ -100,11 +99,9 @@ public class OrderItem extends BaseEntity {
         this.orderItemStatus = OrderItemStatus.PAID;
     }
 
-    public Item addCount(Long count) throws NotEnoughStockException {
-        this.item.decreaseStock(count);
+    public void addCount(Long count) {
         this.count += count;
-
-        return this.item;
+        this.updatedDateTime = LocalDateTime.now();
     }
 
     public void updatePrice(Long price) {
@@ -113,14 +110,6 @@ public class OrderItem extends BaseEntity {
     }
 
     public void updateCount(Long count) {
-        Long oldCount = this.count;
-
-        if (oldCount > count) {
-            this.item.increaseStock(oldCount - count);
-        } else if (oldCount < count) {
-            this.item.decreaseStock(count - oldCount);
-        }
-
         this.count = count;
         this.updatedDateTime = LocalDateTime.now();
     }
@@ -2,11 +2,7 @@ package site.mylittlestore.domain;
 
 import lombok.*;
 import site.mylittlestore.dto.payment.PaymentDto;
-import site.mylittlestore.enumstorage.errormessage.PaymentErrorMessage;
 import site.mylittlestore.enumstorage.status.PaymentStatus;
-import site.mylittlestore.exception.payment.PaidPaymentAmountExceeedException;
-import site.mylittlestore.exception.payment.PaymentException;
-import site.mylittlestore.exception.payment.PaymentFatalException;
 
 import javax.persistence.*;
 import javax.validation.constraints.Min;
@@ -16,11 +12,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@SequenceGenerator(name = "PAYMENT_SEQ_GENERATOR", sequenceName = "PAYMENT_SEQ", allocationSize = 50)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Payment {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PAYMENT_SEQ_GENERATOR")
     @Column(name = "PAYMENT_ID")
     private Long id;
 
@@ -39,6 +36,7 @@ public class Payment {
 //    @Min(value = 1, message = "가격은 0보다 커야합니다.")
     private Long desiredPaymentAmount;
 
+    //결제 수단을 지불할 때 PaymentRepository.addPaidPaymentAmountById로만 바꾼다.
     @NotNull
     @Min(value = 0, message = "가격은 0 이상이여야 합니다.")
     private Long paidPaymentAmount;
@@ -60,35 +58,6 @@ public class Payment {
         order.createPayment(this);
     }
 
-    //-- 비즈니스 로직 --//
-    public void paymentMethodPays(Long paymentMethodAmount) {
-        //결제 상태가 이미 SUCCESS이면 예외 발생
-        if (this.paymentStatus == PaymentStatus.SUCCESS) {
-            throw new PaymentFatalException(PaymentErrorMessage.PAYMENT_ALREADY_SUCCESS.getMessage());
-        }
-
-        //결제 금액이 지불 금액보다 크면 예외 발생
-        if (this.paidPaymentAmount + paymentMethodAmount > this.initialPaymentAmount) {
-            throw new PaidPaymentAmountExceeedException(PaymentErrorMessage.PAID_PAYMENT_AMOUNT_IS_GREATER_THAN_INITIAL_PAYMENT_AMOUNT.getMessage());
-        }
-
-        //지불 금액 반영
-        this.paidPaymentAmount += paymentMethodAmount;
-
-        //지불 금액이 결제 금액과 같으면 결제 상태 SUCCESS로 변경, 결제 완료 시간 반영
-        if (this.paidPaymentAmount > 0 & this.paidPaymentAmount == this.initialPaymentAmount) {
-            paymentSuccess();
-        }
-    }
-
-    public void paymentSuccess() {
-        this.paymentStatus = PaymentStatus.SUCCESS;
-        this.completeDateTime = LocalDateTime.now();
-
-        //주문 상태 변경
-        this.order.paymentSuccess();
-    }
-
     //-- 연관관계 메소드 --//
     public void addPaymentMethod(PaymentMethod paymentMethod) {
         this.paymentMethods.add(paymentMethod);
@@ -6,9 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import site.mylittlestore.dto.paymentmethod.PaymentMethodDto;
 import site.mylittlestore.enumstorage.PaymentMethodType;
-import site.mylittlestore.enumstorage.errormessage.PaymentMethodErrorMessage;
 import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
-import site.mylittlestore.exception.paymentmethod.PaymentMethodException;
 
 import javax.persistence.*;
 import javax.validation.constraints.Min;
@@ -16,10 +14,11 @@ import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
+@SequenceGenerator(name = "PAYMENT_METHOD_SEQ_GENERATOR", sequenceName = "PAYMENT_METHOD_SEQ", allocationSize = 50)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class PaymentMethod {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PAYMENT_METHOD_SEQ_GENERATOR")
     @Column(name = "PAYMENT_METHOD_ID")
     private Long id;
 
@@ -51,21 +50,6 @@ public class PaymentMethod {
         payment.addPaymentMethod(this);
     }
 
-    //-- 비즈니스 로직 --//
-    public void paymentMethodSuccess() {
-        //결제 수단 상태가 이미 PAID거나 paymentMethodCompleteDateTime가 존재하면 예외 발생
-        if (paymentMethodStatus == PaymentMethodStatus.PAID | paymentMethodCompleteDateTime != null)
-            throw new PaymentMethodException(PaymentMethodErrorMessage.ALREADY_PAID.getMessage());
-
-        //결제 수단 상태를 PAID로 변경
-        paymentMethodStatus = PaymentMethodStatus.PAID;
-        //결제 수단 완료 시간을 현재 시간으로 반영
-        paymentMethodCompleteDateTime = LocalDateTime.now();
-
-        //결제 수단의 결제 금액을 결제에 반영
-        this.payment.paymentMethodPays(paymentMethodAmount);
-    }
-
     //-- Dto --//
     public PaymentMethodDto toPaymentMethodDto() {
         return PaymentMethodDto.builder()
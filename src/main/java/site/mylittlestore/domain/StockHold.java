@@ -0,0 +1,80 @@
+package site.mylittlestore.domain;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import site.mylittlestore.dto.stockhold.StockHoldDto;
+import site.mylittlestore.entity.BaseEntity;
+import site.mylittlestore.enumstorage.status.StockHoldStatus;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+import static javax.persistence.FetchType.LAZY;
+
+/**
+ * 주문에 담긴 상품의 재고 예약
+ * 주문 상품을 추가하면 재고가 감소하고, 주문마다 하나의 예약이 만료 시간과 함께 생긴다.
+ * 결제가 완료되면 예약이 확정되고, 만료될 때까지 결제되지 않으면 재고가 반환된다.
+ */
+@Entity
+@SequenceGenerator(name = "STOCK_HOLD_SEQ_GENERATOR", sequenceName = "STOCK_HOLD_SEQ", allocationSize = 50)
+@Getter
+@Table(indexes = @Index(name = "IDX_STOCK_HOLD_STATUS_EXPIRES_AT", columnList = "stock_hold_status, expires_at"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockHold extends BaseEntity {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "STOCK_HOLD_SEQ_GENERATOR")
+    @Column(name = "STOCK_HOLD_ID")
+    private Long id;
+
+    @NotNull
+    @OneToOne(fetch = LAZY)
+    @JoinColumn(name = "ORDER_ID", unique = true)
+    private Order order;
+
+    @NotNull
+    private LocalDateTime expiresAt;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private StockHoldStatus stockHoldStatus;
+
+    @Builder
+    protected StockHold(Order order, LocalDateTime expiresAt) {
+        this.order = order;
+        this.expiresAt = expiresAt;
+        this.stockHoldStatus = StockHoldStatus.HELD;
+    }
+
+    /**
+     * 주문 상품이 바뀔 때마다 만료 시간을 늘린다.
+     * 만료되어 재고가 반환된 예약도 다시 예약 상태가 된다.
+     */
+    public void extend(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+        this.stockHoldStatus = StockHoldStatus.HELD;
+    }
+
+    public void commit() {
+        this.stockHoldStatus = StockHoldStatus.COMMITTED;
+    }
+
+    public void release() {
+        this.stockHoldStatus = StockHoldStatus.RELEASED;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return this.stockHoldStatus == StockHoldStatus.HELD && !this.expiresAt.isAfter(now);
+    }
+
+    //==DTO==//
+    public StockHoldDto toStockHoldDto() {
+        return StockHoldDto.builder()
+                .orderId(order.getId())
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
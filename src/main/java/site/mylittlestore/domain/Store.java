@@ -2,6 +2,10 @@ package site.mylittlestore.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import site.mylittlestore.domain.item.Item;
 import site.mylittlestore.dto.store.StoreDto;
 import site.mylittlestore.dto.store.StoreDtoWithStoreTablesAndItems;
@@ -17,13 +21,17 @@ import java.util.stream.Collectors;
 
 import static javax.persistence.FetchType.LAZY;
 
+//가게 열기/닫기가 바로 보여야 하므로 READ_WRITE
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "store")
+@NaturalIdCache(region = "store-natural-id")
+@SequenceGenerator(name = "STORE_SEQ_GENERATOR", sequenceName = "STORE_SEQ", allocationSize = 50)
 @Getter
 @Table(name = "STORES")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Store extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "STORE_SEQ_GENERATOR")
     @Column(name = "STORE_ID")
     private Long id;
 
@@ -32,6 +40,8 @@ public class Store extends BaseEntity {
     @JoinColumn(name = "MEMBER_ID")
     private Member member;
 
+    //가게 이름은 바꿀 수 있다.
+    @NaturalId(mutable = true)
     @NotBlank
     @Column(unique = true)
     private String name;
@@ -68,15 +78,6 @@ public class Store extends BaseEntity {
         member.setStore(this);
     }
 
-    public StoreTable createStoreTable() {
-        StoreTable storeTable = StoreTable.builder()
-                .store(this)
-                .build();
-        this.storeTables.add(storeTable);
-
-        return storeTable;
-    }
-
     public Store createItem(Item item) {
         this.items.add(item);
         item.setStore(this);
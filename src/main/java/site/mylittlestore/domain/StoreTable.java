@@ -2,6 +2,8 @@ package site.mylittlestore.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import site.mylittlestore.dto.storetable.StoreTableFindDto;
 import site.mylittlestore.dto.storetable.StoreTableFindDtoWithOrderFindDto;
 import site.mylittlestore.entity.BaseEntity;
@@ -14,12 +16,15 @@ import javax.validation.constraints.NotNull;
 
 import static javax.persistence.FetchType.LAZY;
 
+//주문이 생기고 결제될 때마다 테이블 상태가 바뀌므로 READ_WRITE
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "store-table")
+@SequenceGenerator(name = "STORE_TABLE_SEQ_GENERATOR", sequenceName = "STORE_TABLE_SEQ", allocationSize = 50)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class StoreTable extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "STORE_TABLE_SEQ_GENERATOR")
     @Column(name = "TABLE_ID")
     private Long id;
 
@@ -37,13 +42,17 @@ public class StoreTable extends BaseEntity {
 
     private Long yCoordinate;
 
+    //가게 안에서의 테이블 번호, 삭제된 테이블은 null
+    private Integer tableNumber;
+
     @NotNull
     @Enumerated(EnumType.STRING)
     private StoreTableStatus storeTableStatus;
 
     @Builder
-    protected StoreTable(Store store) {
+    protected StoreTable(Store store, Integer tableNumber) {
         this.store = store;
+        this.tableNumber = tableNumber;
         this.storeTableStatus = StoreTableStatus.EMPTY;
     }
 
@@ -53,6 +62,8 @@ public class StoreTable extends BaseEntity {
         if (this.storeTableStatus == StoreTableStatus.USING)
             throw new StoreTableException(StoreTableErrorMessage.STORE_TABLE_USING.getMessage());
         this.storeTableStatus = StoreTableStatus.DELETED;
+        //삭제된 테이블의 번호는 다른 테이블이 쓸 수 있다.
+        this.tableNumber = null;
     }
 
     public void changeStoreTableStatusEmpty() {
@@ -75,6 +86,7 @@ public class StoreTable extends BaseEntity {
                 .orderId(order != null ? order.getId() : null)
                 .xCoordinate(xCoordinate)
                 .yCoordinate(yCoordinate)
+                .tableNumber(tableNumber)
                 .storeTableStatus(storeTableStatus.toString())
                 .build();
     }
@@ -86,6 +98,7 @@ public class StoreTable extends BaseEntity {
                 .orderDto(order != null ? order.toOrderDto() : null)
                 .xCoordinate(xCoordinate)
                 .yCoordinate(yCoordinate)
+                .tableNumber(tableNumber)
                 .storeTableStatus(storeTableStatus.toString())
                 .build();
     }
@@ -4,24 +4,27 @@ import lombok.*;
 import site.mylittlestore.domain.Store;
 import site.mylittlestore.dto.item.ItemFindDto;
 import site.mylittlestore.entity.BaseEntity;
-import site.mylittlestore.enumstorage.errormessage.ItemErrorMessage;
 import site.mylittlestore.enumstorage.status.ItemStatus;
-import site.mylittlestore.exception.item.NotEnoughStockException;
 
 import javax.persistence.*;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
 
 import static javax.persistence.FetchType.*;
 
+//재고 감소는 벌크 UPDATE라서 2차 캐시에 두면 실행될 때마다 영역이 통째로 비워진다.
+//그래서 2차 캐시에 두지 않고, 메뉴 조회는 MenuCache가 캐시한다.
 @Entity
+@SequenceGenerator(name = "ITEM_SEQ_GENERATOR", sequenceName = "ITEM_SEQ", allocationSize = 50)
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "ITEMTYPE")
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Item extends BaseEntity {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ITEM_SEQ_GENERATOR")
     @Column(name = "ITEM_ID")
     private Long id;
 
@@ -43,6 +46,14 @@ public class Item extends BaseEntity {
 
     private String image;
 
+    //재고를 나눠서 관리하는 샤드의 수, null이면 재고를 stock 하나로 관리한다.
+    @Min(value = 1, message = "샤드 수는 1 이상이어야 합니다.")
+    private Integer stockShardCount;
+
+    //샤딩된 상품의 재고 샤드, 재고를 보여줄 때만 읽는다.
+    @OneToMany(mappedBy = "item")
+    private List<ItemStockShard> itemStockShards = new ArrayList<>();
+
     @NotNull
     @Enumerated(EnumType.STRING)
     private ItemStatus itemStatus;
@@ -72,20 +83,65 @@ public class Item extends BaseEntity {
         this.itemStatus = ItemStatus.DELETED;
     }
 
-    //==연관관계 메소드==//
-    public void setStore(Store store) {
-        this.store = store;
+    public boolean isStockSharded() {
+        return this.stockShardCount != null;
     }
 
-    public void increaseStock(Long count) {
-        this.stock += count;
+    /**
+     * 주문할 수 있는 재고
+     * 샤딩된 상품은 상품의 재고가 0이므로, 샤드 재고의 합을 더한다.
+     */
+    public Long getEffectiveStock() {
+        if (!isStockSharded()) {
+            return this.stock;
+        }
+        return this.stock + this.itemStockShards.stream()
+                .mapToLong(ItemStockShard::getStock)
+                .sum();
     }
 
-    public void decreaseStock(Long count) throws NotEnoughStockException {
-        if (this.stock < count) {
-            throw new NotEnoughStockException(ItemErrorMessage.NOT_ENOUGH_STOCK.getMessage());
+    /**
+     * 현재 재고를 stockShardCount개의 샤드에 고르게 나눈다.
+     * 이후 재고는 샤드에서 관리하므로, 상품의 재고는 0이 된다.
+     */
+    public List<ItemStockShard> shardStock(int stockShardCount) {
+        List<Long> dividedStocks = divideStock(this.stock, stockShardCount);
+
+        List<ItemStockShard> itemStockShards = new ArrayList<>();
+        for (int shardIndex = 0; shardIndex < stockShardCount; shardIndex++) {
+            itemStockShards.add(ItemStockShard.builder()
+                    .item(this)
+                    .shardIndex(shardIndex)
+                    .stock(dividedStocks.get(shardIndex))
+                    .build());
         }
-        this.stock -= count;
+
+        this.itemStockShards.addAll(itemStockShards);
+        this.stockShardCount = stockShardCount;
+        this.stock = 0L;
+
+        return itemStockShards;
+    }
+
+    /**
+     * 재고를 shardCount개로 나눈다.
+     * 나머지는 앞쪽 샤드부터 하나씩 더 가져간다.
+     */
+    public static List<Long> divideStock(Long stock, int shardCount) {
+        long quotient = stock / shardCount;
+        long remainder = stock % shardCount;
+
+        List<Long> dividedStocks = new ArrayList<>();
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            dividedStocks.add(shardIndex < remainder ? quotient + 1 : quotient);
+        }
+
+        return dividedStocks;
+    }
+
+    //==연관관계 메소드==//
+    public void setStore(Store store) {
+        this.store = store;
     }
 
     //==DTO==//
@@ -95,7 +151,7 @@ public class Item extends BaseEntity {
                 .storeId(store.getId())
                 .name(name)
                 .price(price)
-                .stock(stock)
+                .stock(getEffectiveStock())
                 .image(image)
                 .build();
     }
@@ -0,0 +1,51 @@
+package site.mylittlestore.domain.item;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import static javax.persistence.FetchType.LAZY;
+
+/**
+ * 주문이 몰리는 상품의 재고를 여러 행에 나눠서 관리하기 위한 재고 샤드
+ * 재고 감소 시 임의의 샤드 하나만 잠그므로, 상품 행 하나에 잠금이 몰리지 않는다.
+ */
+@Entity
+@SequenceGenerator(name = "ITEM_STOCK_SHARD_SEQ_GENERATOR", sequenceName = "ITEM_STOCK_SHARD_SEQ", allocationSize = 50)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ItemStockShard {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ITEM_STOCK_SHARD_SEQ_GENERATOR")
+    @Column(name = "ITEM_STOCK_SHARD_ID")
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "ITEM_ID")
+    private Item item;
+
+    @NotNull
+    @Min(value = 0, message = "샤드 번호는 0 이상이어야 합니다.")
+    private Integer shardIndex;
+
+    @NotNull
+    @Min(value = 0, message = "재고는 0 이상이어야 합니다.")
+    private Long stock;
+
+    @Builder
+    protected ItemStockShard(Item item, Integer shardIndex, Long stock) {
+        this.item = item;
+        this.shardIndex = shardIndex;
+        this.stock = stock;
+    }
+
+    public void updateStock(Long newStock) {
+        this.stock = newStock;
+    }
+}
@@ -0,0 +1,32 @@
+package site.mylittlestore.dto.analytics;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 상품 분석 조건
+ * 값이 null인 조건은 적용하지 않는다.
+ */
+@Getter
+public class OrderLineFilter {
+
+    private Long storeId;
+
+    private Long itemId;
+
+    //주문 시간, 포함
+    private LocalDateTime from;
+
+    //주문 시간, 포함하지 않음
+    private LocalDateTime to;
+
+    @Builder
+    protected OrderLineFilter(Long storeId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        this.storeId = storeId;
+        this.itemId = itemId;
+        this.from = from;
+        this.to = to;
+    }
+}
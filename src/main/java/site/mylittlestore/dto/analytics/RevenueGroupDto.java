@@ -0,0 +1,42 @@
+package site.mylittlestore.dto.analytics;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * 주문 상품 분석의 한 묶음
+ * 묶는 기준으로 쓰지 않은 값은 null이다.
+ */
+@Getter
+public class RevenueGroupDto {
+
+    private Long itemId;
+
+    private String itemName;
+
+    private Long storeId;
+
+    private Integer hourOfDay;
+
+    private LocalDate date;
+
+    private long revenue;
+
+    private long quantity;
+
+    private long lineCount;
+
+    @Builder
+    protected RevenueGroupDto(Long itemId, String itemName, Long storeId, Integer hourOfDay, LocalDate date, long revenue, long quantity, long lineCount) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.storeId = storeId;
+        this.hourOfDay = hourOfDay;
+        this.date = date;
+        this.revenue = revenue;
+        this.quantity = quantity;
+        this.lineCount = lineCount;
+    }
+}
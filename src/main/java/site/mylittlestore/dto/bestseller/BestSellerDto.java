@@ -0,0 +1,22 @@
+package site.mylittlestore.dto.bestseller;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class BestSellerDto {
+
+    private Long itemId;
+
+    //판매가 끝난 상품이면 null
+    private String itemName;
+
+    private Long count;
+
+    @Builder
+    protected BestSellerDto(Long itemId, String itemName, Long count) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.count = count;
+    }
+}
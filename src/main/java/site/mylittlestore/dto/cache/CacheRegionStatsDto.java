@@ -0,0 +1,27 @@
+package site.mylittlestore.dto.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class CacheRegionStatsDto {
+
+    private String regionName;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long putCount;
+
+    private double hitRatio;
+
+    @Builder
+    protected CacheRegionStatsDto(String regionName, long hitCount, long missCount, long putCount) {
+        this.regionName = regionName;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.hitRatio = hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount);
+    }
+}
@@ -0,0 +1,36 @@
+package site.mylittlestore.dto.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class MenuCacheStatsDto {
+
+    private long size;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private double hitRate;
+
+    //크기나 만료 시간 때문에 내보낸 수
+    private long evictionCount;
+
+    //상품이 바뀌어서 지운 수
+    private long invalidationCount;
+
+    //재고만 고친 수
+    private long stockUpdateCount;
+
+    @Builder
+    protected MenuCacheStatsDto(long size, long hitCount, long missCount, double hitRate, long evictionCount, long invalidationCount, long stockUpdateCount) {
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+        this.stockUpdateCount = stockUpdateCount;
+    }
+}
@@ -0,0 +1,32 @@
+package site.mylittlestore.dto.dailyrevenue;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+
+import java.time.LocalDate;
+
+@Getter
+public class DailyRevenueDto {
+
+    private Long storeId;
+
+    private LocalDate businessDate;
+
+    private PaymentMethodType paymentMethodType;
+
+    private Long amount;
+
+    private Long paymentCount;
+
+    @Builder
+    @QueryProjection
+    public DailyRevenueDto(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType, Long amount, Long paymentCount) {
+        this.storeId = storeId;
+        this.businessDate = businessDate;
+        this.paymentMethodType = paymentMethodType;
+        this.amount = amount;
+        this.paymentCount = paymentCount;
+    }
+}
@@ -0,0 +1,40 @@
+package site.mylittlestore.dto.dailyrevenue;
+
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+
+import java.time.LocalDate;
+
+/**
+ * 결제 수단에서 다시 계산한 매출과 집계된 매출이 다른 행
+ * 한쪽에 행이 없으면 금액과 건수를 0으로 둔다.
+ */
+@Getter
+public class DailyRevenueMismatchDto {
+
+    private Long storeId;
+
+    private LocalDate businessDate;
+
+    private PaymentMethodType paymentMethodType;
+
+    private long expectedAmount;
+
+    private long actualAmount;
+
+    private long expectedPaymentCount;
+
+    private long actualPaymentCount;
+
+    @Builder
+    protected DailyRevenueMismatchDto(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType, long expectedAmount, long actualAmount, long expectedPaymentCount, long actualPaymentCount) {
+        this.storeId = storeId;
+        this.businessDate = businessDate;
+        this.paymentMethodType = paymentMethodType;
+        this.expectedAmount = expectedAmount;
+        this.actualAmount = actualAmount;
+        this.expectedPaymentCount = expectedPaymentCount;
+        this.actualPaymentCount = actualPaymentCount;
+    }
+}
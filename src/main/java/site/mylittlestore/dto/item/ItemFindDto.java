@@ -29,4 +29,8 @@ public class ItemFindDto {
         this.stock = stock;
         this.image = image;
     }
+
+    public ItemFindDto withStock(Long stock) {
+        return new ItemFindDto(id, storeId, name, price, stock, image);
+    }
 }
@@ -0,0 +1,25 @@
+package site.mylittlestore.dto.item;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 상품 가져오기에서 저장하지 않은 행과 그 이유
+ * 행 번호는 열 이름 줄을 빼고 1부터 센다.
+ */
+@Getter
+public class ItemImportErrorDto {
+
+    private long rowNumber;
+
+    private String name;
+
+    private String message;
+
+    @Builder
+    protected ItemImportErrorDto(long rowNumber, String name, String message) {
+        this.rowNumber = rowNumber;
+        this.name = name;
+        this.message = message;
+    }
+}
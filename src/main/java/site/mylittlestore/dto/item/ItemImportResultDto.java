@@ -0,0 +1,27 @@
+package site.mylittlestore.dto.item;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 상품 가져오기 결과
+ * 잘못된 행은 건너뛰고 나머지 행은 저장한다.
+ */
+@Getter
+public class ItemImportResultDto {
+
+    private long importedCount;
+
+    private long failedCount;
+
+    private List<ItemImportErrorDto> errors;
+
+    @Builder
+    protected ItemImportResultDto(long importedCount, List<ItemImportErrorDto> errors) {
+        this.importedCount = importedCount;
+        this.failedCount = errors.size();
+        this.errors = errors;
+    }
+}
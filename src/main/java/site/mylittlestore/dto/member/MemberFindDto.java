@@ -27,7 +27,8 @@ public class MemberFindDto {
     private String zipcode;
 
     @Builder
-    protected MemberFindDto(Long id, String name, String email, String city, String street, String zipcode) {
+    @QueryProjection
+    public MemberFindDto(Long id, String name, String email, String city, String street, String zipcode) {
         this.id = id;
         this.name = name;
         this.email = email;
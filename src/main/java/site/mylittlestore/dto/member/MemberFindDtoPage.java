@@ -0,0 +1,28 @@
+package site.mylittlestore.dto.member;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 회원 목록의 한 페이지
+ * 다음 페이지는 nextMemberId보다 큰 Id부터 조회한다.
+ */
+@Getter
+public class MemberFindDtoPage {
+
+    private List<MemberFindDto> memberFindDtos;
+
+    //다음 페이지가 없으면 null
+    private Long nextMemberId;
+
+    private boolean hasNext;
+
+    @Builder
+    protected MemberFindDtoPage(List<MemberFindDto> memberFindDtos, Long nextMemberId, boolean hasNext) {
+        this.memberFindDtos = memberFindDtos;
+        this.nextMemberId = nextMemberId;
+        this.hasNext = hasNext;
+    }
+}
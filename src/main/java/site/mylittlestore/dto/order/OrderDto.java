@@ -18,10 +18,12 @@ public class OrderDto {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private String orderStatus;
+    private Long subtotal;
+    private Long itemCount;
 
     @Builder
     @QueryProjection
-    public OrderDto(Long id, Long storeId, Long paymentId, Long storeTableId, List<Long> orderItemIds, LocalDateTime startTime, LocalDateTime endTime, String orderStatus) {
+    public OrderDto(Long id, Long storeId, Long paymentId, Long storeTableId, List<Long> orderItemIds, LocalDateTime startTime, LocalDateTime endTime, String orderStatus, Long subtotal, Long itemCount) {
         this.id = id;
         this.storeId = storeId;
         this.paymentId = paymentId;
@@ -30,5 +32,7 @@ public class OrderDto {
         this.startTime = startTime;
         this.endTime = endTime;
         this.orderStatus = orderStatus;
+        this.subtotal = subtotal;
+        this.itemCount = itemCount;
     }
 }
@@ -0,0 +1,72 @@
+package site.mylittlestore.dto.order;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.status.OrderItemStatus;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+import site.mylittlestore.enumstorage.status.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 내보내기의 한 줄
+ * 끝난 주문의 주문 상품 하나와 그 주문, 결제의 정보를 담는다.
+ * 결제가 없는 주문이면 결제 값은 null이다.
+ */
+@Getter
+public class OrderExportLineDto {
+
+    private Long orderId;
+
+    private Long storeId;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private String orderStatus;
+
+    private Long orderItemId;
+
+    private Long itemId;
+
+    private String itemName;
+
+    private Long price;
+
+    private Long count;
+
+    private String orderItemStatus;
+
+    private Long paymentId;
+
+    private String paymentStatus;
+
+    private Long initialPaymentAmount;
+
+    private Long paidPaymentAmount;
+
+    private LocalDateTime paymentCompleteDateTime;
+
+    @Builder
+    @QueryProjection
+    public OrderExportLineDto(Long orderId, Long storeId, LocalDateTime startTime, LocalDateTime endTime, OrderStatus orderStatus, Long orderItemId, Long itemId, String itemName, Long price, Long count, OrderItemStatus orderItemStatus, Long paymentId, PaymentStatus paymentStatus, Long initialPaymentAmount, Long paidPaymentAmount, LocalDateTime paymentCompleteDateTime) {
+        this.orderId = orderId;
+        this.storeId = storeId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.orderStatus = orderStatus.toString();
+        this.orderItemId = orderItemId;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.price = price;
+        this.count = count;
+        this.orderItemStatus = orderItemStatus.toString();
+        this.paymentId = paymentId;
+        this.paymentStatus = paymentStatus != null ? paymentStatus.toString() : null;
+        this.initialPaymentAmount = initialPaymentAmount;
+        this.paidPaymentAmount = paidPaymentAmount;
+        this.paymentCompleteDateTime = paymentCompleteDateTime;
+    }
+}
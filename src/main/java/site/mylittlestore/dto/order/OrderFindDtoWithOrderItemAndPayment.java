@@ -28,9 +28,13 @@ public class OrderFindDtoWithOrderItemAndPayment {
     private LocalDateTime endTime;
     @NotBlank
     private String orderStatus;
+    @NotNull
+    private Long subtotal;
+    @NotNull
+    private Long itemCount;
 
     @Builder
-    protected OrderFindDtoWithOrderItemAndPayment(Long id, Long storeId, PaymentDto paymentDto, Long storeTableId, List<OrderItemFindDto> orderItemFindDtos, LocalDateTime startTime, LocalDateTime endTime, String orderStatus) {
+    protected OrderFindDtoWithOrderItemAndPayment(Long id, Long storeId, PaymentDto paymentDto, Long storeTableId, List<OrderItemFindDto> orderItemFindDtos, LocalDateTime startTime, LocalDateTime endTime, String orderStatus, Long subtotal, Long itemCount) {
         this.id = id;
         this.storeId = storeId;
         this.paymentDto = paymentDto;
@@ -39,5 +43,7 @@ public class OrderFindDtoWithOrderItemAndPayment {
         this.startTime = startTime;
         this.endTime = endTime;
         this.orderStatus = orderStatus;
+        this.subtotal = subtotal;
+        this.itemCount = itemCount;
     }
 }
@@ -0,0 +1,34 @@
+package site.mylittlestore.dto.order;
+
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * 주문 내역 조회 조건
+ * 상태와 기간은 비어 있으면 조건에서 빠진다.
+ */
+@Getter
+public class OrderHistoryCondition {
+    @NotNull
+    private Long storeId;
+
+    private OrderStatus orderStatus;
+
+    //종료 시간이 이 시간 이후인 주문(포함)
+    private LocalDateTime from;
+
+    //종료 시간이 이 시간 이전인 주문(미포함)
+    private LocalDateTime to;
+
+    @Builder
+    protected OrderHistoryCondition(Long storeId, OrderStatus orderStatus, LocalDateTime from, LocalDateTime to) {
+        this.storeId = storeId;
+        this.orderStatus = orderStatus;
+        this.from = from;
+        this.to = to;
+    }
+}
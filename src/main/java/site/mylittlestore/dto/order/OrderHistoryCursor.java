@@ -0,0 +1,27 @@
+package site.mylittlestore.dto.order;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 이전 페이지의 마지막 줄
+ * 주문 내역은 (종료 시간, 주문 Id, 주문 상품 Id)의 내림차순이므로, 이 값보다 뒤에 있는 줄부터 조회한다.
+ */
+@Getter
+public class OrderHistoryCursor {
+
+    private LocalDateTime endTime;
+
+    private Long orderId;
+
+    private Long orderItemId;
+
+    @Builder
+    protected OrderHistoryCursor(LocalDateTime endTime, Long orderId, Long orderItemId) {
+        this.endTime = endTime;
+        this.orderId = orderId;
+        this.orderItemId = orderItemId;
+    }
+}
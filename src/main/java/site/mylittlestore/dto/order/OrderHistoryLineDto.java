@@ -0,0 +1,55 @@
+package site.mylittlestore.dto.order;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.status.OrderItemStatus;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 내역의 한 줄
+ * 끝난 주문의 주문 상품 하나와 그 주문의 정보를 담는다.
+ */
+@Getter
+public class OrderHistoryLineDto {
+
+    private Long orderId;
+
+    private Long storeId;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private String orderStatus;
+
+    private Long orderItemId;
+
+    private Long itemId;
+
+    private String itemName;
+
+    private Long price;
+
+    private Long count;
+
+    private String orderItemStatus;
+
+    @Builder
+    @QueryProjection
+    public OrderHistoryLineDto(Long orderId, Long storeId, LocalDateTime startTime, LocalDateTime endTime, OrderStatus orderStatus, Long orderItemId, Long itemId, String itemName, Long price, Long count, OrderItemStatus orderItemStatus) {
+        this.orderId = orderId;
+        this.storeId = storeId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.orderStatus = orderStatus.toString();
+        this.orderItemId = orderItemId;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.price = price;
+        this.count = count;
+        this.orderItemStatus = orderItemStatus.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package site.mylittlestore.dto.order;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 주문 내역의 한 페이지
+ * 다음 페이지는 nextCursor를 넘겨서 조회한다.
+ */
+@Getter
+public class OrderHistoryPage {
+
+    private List<OrderHistoryLineDto> orderHistoryLineDtos;
+
+    //다음 페이지가 없으면 null
+    private OrderHistoryCursor nextCursor;
+
+    private boolean hasNext;
+
+    @Builder
+    protected OrderHistoryPage(List<OrderHistoryLineDto> orderHistoryLineDtos, OrderHistoryCursor nextCursor, boolean hasNext) {
+        this.orderHistoryLineDtos = orderHistoryLineDtos;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
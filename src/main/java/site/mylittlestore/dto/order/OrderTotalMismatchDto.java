@@ -0,0 +1,32 @@
+package site.mylittlestore.dto.order;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 주문 상품에서 다시 계산한 합계나 수량이 주문에 쌓인 값과 다른 주문
+ */
+@Getter
+public class OrderTotalMismatchDto {
+
+    private Long orderId;
+
+    private Long expectedSubtotal;
+
+    private Long actualSubtotal;
+
+    private Long expectedItemCount;
+
+    private Long actualItemCount;
+
+    @Builder
+    @QueryProjection
+    public OrderTotalMismatchDto(Long orderId, Long expectedSubtotal, Long actualSubtotal, Long expectedItemCount, Long actualItemCount) {
+        this.orderId = orderId;
+        this.expectedSubtotal = expectedSubtotal;
+        this.actualSubtotal = actualSubtotal;
+        this.expectedItemCount = expectedItemCount;
+        this.actualItemCount = actualItemCount;
+    }
+}
@@ -0,0 +1,37 @@
+package site.mylittlestore.dto.orderitem;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 분석 스냅샷에 담는 결제된 주문 상품 한 줄
+ */
+@Getter
+public class OrderLineDto {
+
+    private Long itemId;
+
+    private String itemName;
+
+    private Long storeId;
+
+    private Long price;
+
+    private Long count;
+
+    private LocalDateTime orderedDateTime;
+
+    @Builder
+    @QueryProjection
+    public OrderLineDto(Long itemId, String itemName, Long storeId, Long price, Long count, LocalDateTime orderedDateTime) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.storeId = storeId;
+        this.price = price;
+        this.count = count;
+        this.orderedDateTime = orderedDateTime;
+    }
+}
@@ -0,0 +1,32 @@
+package site.mylittlestore.dto.orderitem;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 결제가 완료된 주문 상품의 수량
+ * paidDateTime은 주문의 종료 시간이다.
+ */
+@Getter
+public class PaidOrderItemDto {
+
+    private Long storeId;
+
+    private Long itemId;
+
+    private Long count;
+
+    private LocalDateTime paidDateTime;
+
+    @Builder
+    @QueryProjection
+    public PaidOrderItemDto(Long storeId, Long itemId, Long count, LocalDateTime paidDateTime) {
+        this.storeId = storeId;
+        this.itemId = itemId;
+        this.count = count;
+        this.paidDateTime = paidDateTime;
+    }
+}
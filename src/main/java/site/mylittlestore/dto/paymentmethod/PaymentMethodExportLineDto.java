@@ -0,0 +1,49 @@
+package site.mylittlestore.dto.paymentmethod;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 결제 수단 내보내기의 한 줄
+ * 끝난 주문의 결제 수단 하나와 그 주문의 정보를 담는다.
+ */
+@Getter
+public class PaymentMethodExportLineDto {
+
+    private Long orderId;
+
+    private Long storeId;
+
+    private LocalDateTime endTime;
+
+    private Long paymentId;
+
+    private Long paymentMethodId;
+
+    private String paymentMethodType;
+
+    private Long paymentMethodAmount;
+
+    private LocalDateTime paymentMethodCompleteDateTime;
+
+    private String paymentMethodStatus;
+
+    @Builder
+    @QueryProjection
+    public PaymentMethodExportLineDto(Long orderId, Long storeId, LocalDateTime endTime, Long paymentId, Long paymentMethodId, PaymentMethodType paymentMethodType, Long paymentMethodAmount, LocalDateTime paymentMethodCompleteDateTime, PaymentMethodStatus paymentMethodStatus) {
+        this.orderId = orderId;
+        this.storeId = storeId;
+        this.endTime = endTime;
+        this.paymentId = paymentId;
+        this.paymentMethodId = paymentMethodId;
+        this.paymentMethodType = paymentMethodType.toString();
+        this.paymentMethodAmount = paymentMethodAmount;
+        this.paymentMethodCompleteDateTime = paymentMethodCompleteDateTime;
+        this.paymentMethodStatus = paymentMethodStatus.toString();
+    }
+}
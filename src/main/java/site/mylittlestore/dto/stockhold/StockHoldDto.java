@@ -0,0 +1,22 @@
+package site.mylittlestore.dto.stockhold;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class StockHoldDto {
+
+    private Long orderId;
+
+    private LocalDateTime expiresAt;
+
+    @Builder
+    @QueryProjection
+    public StockHoldDto(Long orderId, LocalDateTime expiresAt) {
+        this.orderId = orderId;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,27 @@
+package site.mylittlestore.dto.store;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.status.StoreStatus;
+
+/**
+ * 주문마다 확인하는 가게 상태와 가게 주인
+ */
+@Getter
+public class StoreMetadataDto {
+
+    private Long id;
+
+    private Long memberId;
+
+    private StoreStatus storeStatus;
+
+    @Builder
+    @QueryProjection
+    public StoreMetadataDto(Long id, Long memberId, StoreStatus storeStatus) {
+        this.id = id;
+        this.memberId = memberId;
+        this.storeStatus = storeStatus;
+    }
+}
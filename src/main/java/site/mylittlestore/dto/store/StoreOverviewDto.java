@@ -0,0 +1,46 @@
+package site.mylittlestore.dto.store;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.status.StoreStatus;
+
+/**
+ * 가게 정보 화면에 필요한 값만 담는다.
+ * 테이블과 상품은 목록 대신 수만 담는다.
+ */
+@Getter
+public class StoreOverviewDto {
+
+    private Long id;
+
+    private Long memberId;
+
+    private String name;
+
+    private String city;
+
+    private String street;
+
+    private String zipcode;
+
+    private String storeStatus;
+
+    private Long storeTableCount;
+
+    private Long itemCount;
+
+    @Builder
+    @QueryProjection
+    public StoreOverviewDto(Long id, Long memberId, String name, String city, String street, String zipcode, StoreStatus storeStatus, Long storeTableCount, Long itemCount) {
+        this.id = id;
+        this.memberId = memberId;
+        this.name = name;
+        this.city = city;
+        this.street = street;
+        this.zipcode = zipcode;
+        this.storeStatus = storeStatus.toString();
+        this.storeTableCount = storeTableCount;
+        this.itemCount = itemCount;
+    }
+}
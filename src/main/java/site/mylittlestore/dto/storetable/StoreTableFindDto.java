@@ -11,15 +11,17 @@ public class StoreTableFindDto {
         private Long orderId;
         private Long xCoordinate;
         private Long yCoordinate;
+        private Integer tableNumber;
         private String storeTableStatus;
 
         @Builder
-        protected StoreTableFindDto(Long id, Long storeId, Long orderId, Long xCoordinate, Long yCoordinate, String storeTableStatus) {
+        protected StoreTableFindDto(Long id, Long storeId, Long orderId, Long xCoordinate, Long yCoordinate, Integer tableNumber, String storeTableStatus) {
             this.id = id;
             this.storeId = storeId;
             this.orderId = orderId;
             this.xCoordinate = xCoordinate;
             this.yCoordinate = yCoordinate;
+            this.tableNumber = tableNumber;
             this.storeTableStatus = storeTableStatus;
         }
 }
@@ -13,16 +13,18 @@ public class StoreTableFindDtoWithOrderFindDto {
     private Long xCoordinate;
 
     private Long yCoordinate;
+    private Integer tableNumber;
     private String storeTableStatus;
 
     @Builder
     @QueryProjection
-    public StoreTableFindDtoWithOrderFindDto(Long id, Long storeId, OrderDto orderDto, Long xCoordinate, Long yCoordinate, String storeTableStatus) {
+    public StoreTableFindDtoWithOrderFindDto(Long id, Long storeId, OrderDto orderDto, Long xCoordinate, Long yCoordinate, Integer tableNumber, String storeTableStatus) {
         this.id = id;
         this.storeId = storeId;
         this.orderDto = orderDto;
         this.xCoordinate = xCoordinate;
         this.yCoordinate = yCoordinate;
+        this.tableNumber = tableNumber;
         this.storeTableStatus = storeTableStatus;
     }
 }
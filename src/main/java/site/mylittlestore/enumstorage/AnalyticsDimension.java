@@ -0,0 +1,8 @@
+package site.mylittlestore.enumstorage;
+
+/**
+ * 주문 상품 분석에서 묶을 수 있는 기준
+ */
+public enum AnalyticsDimension {
+    ITEM, STORE, HOUR_OF_DAY, DATE
+}
@@ -0,0 +1,24 @@
+package site.mylittlestore.enumstorage;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 인기 상품을 집계하는 기간
+ * 기간을 bucketCount개의 구간으로 나눠서, 가장 오래된 구간부터 버린다.
+ */
+@Getter
+public enum BestSellerPeriod {
+    HOUR(Duration.ofMinutes(5), 12),
+    DAY(Duration.ofHours(1), 24),
+    WEEK(Duration.ofHours(6), 28);
+
+    private final Duration bucketDuration;
+    private final int bucketCount;
+
+    BestSellerPeriod(Duration bucketDuration, int bucketCount) {
+        this.bucketDuration = bucketDuration;
+        this.bucketCount = bucketCount;
+    }
+}
@@ -0,0 +1,21 @@
+package site.mylittlestore.enumstorage;
+
+import lombok.Getter;
+
+/**
+ * 내보내기 파일 형식
+ */
+@Getter
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    //한 줄에 JSON 객체 하나
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+}
@@ -0,0 +1,16 @@
+package site.mylittlestore.enumstorage.errormessage;
+
+import lombok.Getter;
+
+@Getter
+public enum IdempotencyErrorMessage {
+
+    INVALID_IDEMPOTENCY_KEY("Idempotency-Key는 1자 이상 100자 이하여야 합니다."),
+    IDEMPOTENCY_KEY_IN_PROGRESS("같은 Idempotency-Key의 요청을 처리하고 있습니다. 잠시 후 다시 시도해주세요.");
+
+    private String message;
+
+    IdempotencyErrorMessage(String message) {
+        this.message = message;
+    }
+}
@@ -7,7 +7,13 @@ public enum ItemErrorMessage {
     NO_SUCH_ITEM("해당하는 아이템이 없습니다."),
     NO_SUCH_ITEM_ON_ORDER("주문에 해당하는 아이템이 없습니다."),
     NOT_ENOUGH_STOCK("재고가 부족합니다."),
-    DUPLICATE_ITEM("이미 존재하는 아이템입니다.");
+    DUPLICATE_ITEM("이미 존재하는 아이템입니다."),
+    ALREADY_STOCK_SHARDED("이미 재고가 샤딩된 아이템입니다."),
+    INVALID_ITEM_NAME("상품 이름은 1자 이상 255자 이하여야 합니다."),
+    INVALID_ITEM_PRICE("가격은 0보다 커야합니다."),
+    INVALID_ITEM_STOCK("재고는 0 이상이어야 합니다."),
+    INVALID_IMPORT_FILE("상품 파일을 읽을 수 없습니다."),
+    IMPORT_COLUMN_MISSING("상품 파일에 name, price, stock 열이 있어야 합니다.");
 
     private String message;
 
@@ -10,7 +10,8 @@ public enum OrderErrorMessage {
     ORDER_ALREADY_PAID("이미 결제된 주문입니다."),
     ORDER_NOT_IN_PROGRESS("결제가 진행중이 아닙니다."),
     ORDER_ALREADY_HAS_END_TIME("이미 종료 시간이 존재합니다."),
-    ORDER_HAS_NO_ORDER_ITEM("주문에 주문 상품이 존재하지 않습니다."),;
+    ORDER_HAS_NO_ORDER_ITEM("주문에 주문 상품이 존재하지 않습니다."),
+    ORDER_LOCK_TIMEOUT("다른 요청이 주문을 변경하고 있습니다. 잠시 후 다시 시도해주세요."),;
 
     private String message;
 
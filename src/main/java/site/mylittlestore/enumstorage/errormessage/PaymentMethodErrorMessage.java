@@ -9,6 +9,7 @@ public enum PaymentMethodErrorMessage {
     NO_SUCH_PAYMENT_METHOD("해당 결제 수단이 존재하지 않습니다."),
     NO_SUCH_PAID_PAYMENT_METHOD("지불된 결제 수단이 존재하지 않습니다."),
     ALREADY_PAID("이미 지불된 결제 수단입니다."),
+    ALREADY_AUTHORIZING("이미 승인 중인 결제 수단입니다."),
     PAYMENT_METHOD_COMPLETE_DATE_TIME_IS_NULL("결제 수단 완료 일시가 null입니다."),;
 
     private String message;
@@ -10,7 +10,9 @@ public enum StoreTableErrorMessage {
     STILL_ORDER_OR_ORDER_ITEM_EXIST("아직 주문, 주문 상품이 존재합니다."),
     STORE_TABLE_ALREADY_EMPTY("이미 빈 테이블입니다."),
     STORE_TABLE_ALREADY_DELETED("이미 삭제된 테이블입니다."),
-    STORE_TABLE_USING("테이블이 사용 중입니다.");
+    STORE_TABLE_USING("테이블이 사용 중입니다."),
+    INVALID_STORE_TABLE_COUNT("테이블은 한 번에 1개 이상 500개 이하로 처리할 수 있습니다."),
+    STORE_TABLE_USING_OR_NOT_FOUND("사용 중이거나 없는 테이블이 있습니다.");
 
     private String message;
 
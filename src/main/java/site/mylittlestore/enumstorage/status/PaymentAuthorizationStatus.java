@@ -0,0 +1,5 @@
+package site.mylittlestore.enumstorage.status;
+
+public enum PaymentAuthorizationStatus {
+    APPROVED, DECLINED
+}
@@ -1,5 +1,5 @@
 package site.mylittlestore.enumstorage.status;
 
 public enum PaymentMethodStatus {
-    IN_PROGRESS, ERROR, FAIL, PAID
+    IN_PROGRESS, AUTHORIZING, ERROR, FAIL, PAID
 }
@@ -0,0 +1,7 @@
+package site.mylittlestore.exception.item;
+
+public class AlreadyStockShardedException extends RuntimeException {
+    public AlreadyStockShardedException(String message) {
+        super(message);
+    }
+}
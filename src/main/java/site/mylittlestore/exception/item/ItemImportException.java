@@ -0,0 +1,11 @@
+package site.mylittlestore.exception.item;
+
+public class ItemImportException extends RuntimeException {
+    public ItemImportException(String message) {
+        super(message);
+    }
+
+    public ItemImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,120 @@
+package site.mylittlestore.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import site.mylittlestore.enumstorage.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 내보내기 파일을 한 줄씩 출력 스트림에 쓴다.
+ * 줄을 모아두지 않으므로, 줄 수와 상관없이 버퍼 크기만큼의 메모리만 쓴다.
+ * CSV는 첫 줄에 열 이름을 쓰고, NDJSON은 열 이름을 키로 쓴다.
+ * 출력 스트림은 닫지 않는다.
+ */
+public class ExportWriter {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    //엑셀에서 한글이 깨지지 않도록 CSV 맨 앞에 붙인다.
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final ExportFormat exportFormat;
+    private final String[] columns;
+    private final Writer writer;
+    private final JsonGenerator jsonGenerator;
+
+    public ExportWriter(ExportFormat exportFormat, OutputStream outputStream, String... columns) throws IOException {
+        this.exportFormat = exportFormat;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        if (exportFormat == ExportFormat.CSV) {
+            this.jsonGenerator = null;
+            writer.write(BYTE_ORDER_MARK);
+            writeCsvLine(columns);
+        } else {
+            this.jsonGenerator = JSON_FACTORY.createGenerator(writer);
+            //줄 사이에는 공백 대신 줄바꿈만 넣는다.
+            jsonGenerator.setRootValueSeparator(null);
+        }
+    }
+
+    /**
+     * 열 이름과 같은 순서로 값을 넘긴다.
+     */
+    public void writeRow(Object... values) throws IOException {
+        if (exportFormat == ExportFormat.CSV) {
+            writeCsvLine(values);
+            return;
+        }
+
+        jsonGenerator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            jsonGenerator.writeFieldName(columns[i]);
+            writeJsonValue(values[i]);
+        }
+        jsonGenerator.writeEndObject();
+        jsonGenerator.writeRaw('\n');
+    }
+
+    /**
+     * 버퍼에 쌓인 줄을 출력 스트림으로 내보낸다.
+     */
+    public void flush() throws IOException {
+        if (jsonGenerator != null) {
+            jsonGenerator.flush();
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            //null은 빈 칸으로 쓴다.
+            if (values[i] instanceof Number) {
+                writer.write(values[i].toString());
+            } else if (values[i] != null) {
+                writer.write(escapeCsv(neutralizeFormula(values[i].toString())));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeJsonValue(Object value) throws IOException {
+        if (value == null) {
+            jsonGenerator.writeNull();
+        } else if (value instanceof Long) {
+            jsonGenerator.writeNumber((Long) value);
+        } else {
+            //날짜와 시간은 CSV와 같은 ISO 형식 문자열로 쓴다.
+            jsonGenerator.writeString(value.toString());
+        }
+    }
+
+    //엑셀이 =, +, -, @로 시작하는 칸을 수식으로 실행하지 않도록, 글자 칸이면 앞에 '를 붙인다.
+    //탭과 캐리지 리턴으로 시작해도 수식이 될 수 있으므로 같이 막는다. 숫자 칸은 그대로 쓴다.
+    private static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return '\'' + value;
+        }
+        return value;
+    }
+
+    //쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고, 따옴표는 두 번 쓴다.
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
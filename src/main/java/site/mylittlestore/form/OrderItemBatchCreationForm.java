@@ -0,0 +1,14 @@
+package site.mylittlestore.form;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class OrderItemBatchCreationForm {
+    //수량을 입력하지 않은 줄은 주문하지 않는다.
+    private List<OrderItemCreationForm> orderItemCreationForms = new ArrayList<>();
+}
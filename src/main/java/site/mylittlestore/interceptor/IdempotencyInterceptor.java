@@ -0,0 +1,154 @@
+package site.mylittlestore.interceptor;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import site.mylittlestore.cache.IdempotencyCache;
+import site.mylittlestore.enumstorage.errormessage.IdempotencyErrorMessage;
+import site.mylittlestore.service.IdempotencyService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key 헤더가 있는 POST 요청을 한 번만 처리한다.
+ * 태블릿이 응답을 못 받고 다시 보낸 요청에는 서비스를 다시 실행하지 않고, 처음 요청의 redirect를 그대로 돌려준다.
+ * 처음 요청이 처리 중이면 끝날 때까지 기다렸다가 같은 redirect를 돌려준다.
+ * redirect로 끝난 요청만 결과를 남기고, 실패하거나 폼을 다시 보여준 요청은 다시 보내면 다시 처리한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyInterceptor implements HandlerInterceptor {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final String IN_FLIGHT_ATTRIBUTE = IdempotencyInterceptor.class.getName() + ".IN_FLIGHT";
+
+    private static final String REDIRECT_URL_ATTRIBUTE = IdempotencyInterceptor.class.getName() + ".REDIRECT_URL";
+
+    private static final String REDIRECT_PREFIX = "redirect:";
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    private final IdempotencyCache idempotencyCache;
+
+    private final IdempotencyService idempotencyService;
+
+    //처리 중인 같은 키의 요청을 기다리는 최대 시간
+    @Value("${mylittlestore.idempotency.in-flight-timeout:PT10S}")
+    private Duration inFlightTimeout;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (!HttpMethod.POST.matches(request.getMethod()) || idempotencyKey == null) {
+            return true;
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), IdempotencyErrorMessage.INVALID_IDEMPOTENCY_KEY.getMessage());
+            return false;
+        }
+
+        //같은 키라도 경로가 다르면 다른 요청이다.
+        String requestUri = request.getRequestURI();
+        String cacheKey = requestUri + " " + idempotencyKey;
+
+        while (true) {
+            CompletableFuture<String> inFlight = new CompletableFuture<>();
+            CompletableFuture<String> existing = idempotencyCache.putIfAbsent(cacheKey, inFlight);
+
+            if (existing == null) {
+                //메모리에 없으면, 밀려났거나 다른 서버에서 처리한 요청인지 DB에서 찾는다.
+                Optional<String> storedRedirectUrl = idempotencyService.findRedirectUrl(idempotencyKey, requestUri);
+                if (storedRedirectUrl.isPresent()) {
+                    inFlight.complete(storedRedirectUrl.get());
+                    redirect(request, response, storedRedirectUrl.get());
+                    return false;
+                }
+
+                //처음 온 요청이면 처리하고, 결과는 afterCompletion에서 남긴다.
+                request.setAttribute(IN_FLIGHT_ATTRIBUTE, new InFlight(cacheKey, idempotencyKey, requestUri, inFlight));
+                return true;
+            }
+
+            String redirectUrl;
+            try {
+                redirectUrl = existing.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                response.sendError(HttpStatus.CONFLICT.value(), IdempotencyErrorMessage.IDEMPOTENCY_KEY_IN_PROGRESS.getMessage());
+                return false;
+            }
+
+            if (redirectUrl != null) {
+                redirect(request, response, redirectUrl);
+                return false;
+            }
+            //먼저 온 요청이 결과를 남기지 않았으면, 이 요청이 다시 처리한다.
+        }
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (request.getAttribute(IN_FLIGHT_ATTRIBUTE) == null || modelAndView == null) {
+            return;
+        }
+
+        String viewName = modelAndView.getViewName();
+        if (viewName != null && viewName.startsWith(REDIRECT_PREFIX)) {
+            request.setAttribute(REDIRECT_URL_ATTRIBUTE, viewName.substring(REDIRECT_PREFIX.length()));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        InFlight inFlight = (InFlight) request.getAttribute(IN_FLIGHT_ATTRIBUTE);
+        if (inFlight == null) {
+            return;
+        }
+
+        String redirectUrl = (String) request.getAttribute(REDIRECT_URL_ATTRIBUTE);
+        if (ex != null || redirectUrl == null) {
+            //결과를 남기지 않는다. 지운 뒤에 알려야 기다리던 요청이 새로 담을 수 있다.
+            idempotencyCache.remove(inFlight.getCacheKey(), inFlight.getResult());
+            inFlight.getResult().complete(null);
+            return;
+        }
+
+        try {
+            idempotencyService.saveRedirectUrl(inFlight.getIdempotencyKey(), inFlight.getRequestUri(), redirectUrl);
+        } catch (RuntimeException e) {
+            //다른 서버가 먼저 남겼거나 DB에 남기지 못해도, 메모리에는 남긴다.
+            log.warn("failed to save idempotency record {}", inFlight.getCacheKey(), e);
+        }
+        inFlight.getResult().complete(redirectUrl);
+    }
+
+    private void redirect(HttpServletRequest request, HttpServletResponse response, String redirectUrl) throws IOException {
+        //컨트롤러의 "redirect:/..."처럼 애플리케이션 경로 기준으로 이동한다.
+        response.sendRedirect(redirectUrl.startsWith("/") ? request.getContextPath() + redirectUrl : redirectUrl);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class InFlight {
+        private final String cacheKey;
+        private final String idempotencyKey;
+        private final String requestUri;
+        private final CompletableFuture<String> result;
+    }
+}
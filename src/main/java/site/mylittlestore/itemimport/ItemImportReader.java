@@ -0,0 +1,180 @@
+package site.mylittlestore.itemimport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import site.mylittlestore.enumstorage.errormessage.ItemErrorMessage;
+import site.mylittlestore.exception.item.ItemImportException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 상품 파일을 한 행씩 읽는다.
+ * 파일 전체를 메모리에 올리지 않으므로, 행 수와 상관없이 버퍼 크기만큼의 메모리만 쓴다.
+ * 첫 글자가 [나 {이면 JSON(객체 배열 또는 한 줄에 객체 하나), 아니면 CSV(첫 줄은 열 이름)로 읽는다.
+ * 열 이름은 name, price, stock이고 대소문자를 구분하지 않는다. 다른 열은 무시한다.
+ */
+public class ItemImportReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final String NAME = "name";
+    private static final String PRICE = "price";
+    private static final String STOCK = "stock";
+
+    private final BufferedReader reader;
+    private final JsonParser jsonParser;
+    //CSV 열 이름별 위치
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+    private long rowNumber;
+
+    public ItemImportReader(Reader reader) throws IOException {
+        this.reader = new BufferedReader(reader);
+
+        int firstChar = peekFirstChar();
+        if (firstChar == '[' || firstChar == '{') {
+            this.jsonParser = JSON_FACTORY.createParser(this.reader);
+        } else {
+            this.jsonParser = null;
+            readCsvHeader();
+        }
+    }
+
+    /**
+     * @return 다음 행, 더 이상 없으면 null
+     */
+    public ItemImportRow next() throws IOException {
+        Map<String, String> values = jsonParser != null ? readJsonObject() : readCsvRecord();
+        if (values == null) {
+            return null;
+        }
+
+        return new ItemImportRow(++rowNumber, values.get(NAME), values.get(PRICE), values.get(STOCK));
+    }
+
+    //BOM과 공백을 건너뛰고 첫 글자를 읽은 뒤 그 위치로 되돌린다.
+    private int peekFirstChar() throws IOException {
+        while (true) {
+            reader.mark(1);
+            int c = reader.read();
+            if (c == -1 || (c != BYTE_ORDER_MARK && !Character.isWhitespace(c))) {
+                reader.reset();
+                return c;
+            }
+        }
+    }
+
+    private void readCsvHeader() throws IOException {
+        List<String> header = readCsvFields();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columnIndexes.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        if (!columnIndexes.containsKey(NAME) || !columnIndexes.containsKey(PRICE) || !columnIndexes.containsKey(STOCK)) {
+            throw new ItemImportException(ItemErrorMessage.IMPORT_COLUMN_MISSING.getMessage());
+        }
+    }
+
+    private Map<String, String> readCsvRecord() throws IOException {
+        List<String> fields;
+        //빈 줄은 건너뛴다.
+        do {
+            fields = readCsvFields();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).trim().isEmpty());
+
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, Integer> columnIndex : columnIndexes.entrySet()) {
+            if (columnIndex.getValue() < fields.size()) {
+                values.put(columnIndex.getKey(), fields.get(columnIndex.getValue()));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * CSV 한 줄을 읽는다.
+     * 따옴표로 감싼 값 안의 쉼표와 줄바꿈은 값에 포함되고, 따옴표 두 개는 따옴표 하나가 된다.
+     * @return 줄의 값들, 파일이 끝났으면 null
+     */
+    private List<String> readCsvFields() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                int next = reader.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        reader.reset();
+                    }
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private Map<String, String> readJsonObject() throws IOException {
+        JsonToken token = jsonParser.nextToken();
+        //배열이면 배열 안의 객체를 차례로 읽는다.
+        if (token == JsonToken.START_ARRAY && jsonParser.getParsingContext().getParent().inRoot()) {
+            token = jsonParser.nextToken();
+        }
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new ItemImportException(ItemErrorMessage.INVALID_IMPORT_FILE.getMessage());
+        }
+
+        Map<String, String> values = new HashMap<>();
+        while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = jsonParser.getCurrentName().toLowerCase(Locale.ROOT);
+            JsonToken valueToken = jsonParser.nextToken();
+            if (valueToken == JsonToken.START_OBJECT || valueToken == JsonToken.START_ARRAY) {
+                //객체나 배열 값은 무시한다.
+                jsonParser.skipChildren();
+            } else if (valueToken != JsonToken.VALUE_NULL) {
+                values.putIfAbsent(fieldName, jsonParser.getText());
+            }
+        }
+        return values;
+    }
+}
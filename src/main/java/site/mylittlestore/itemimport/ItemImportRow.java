@@ -0,0 +1,18 @@
+package site.mylittlestore.itemimport;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 상품 파일의 한 행
+ * 값은 검증하기 전의 문자열 그대로 담고, 없는 값은 null이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemImportRow {
+    //열 이름 줄을 빼고 1부터 센다.
+    private final long rowNumber;
+    private final String name;
+    private final String price;
+    private final String stock;
+}
@@ -0,0 +1,183 @@
+package site.mylittlestore.leaderboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.enumstorage.BestSellerPeriod;
+import site.mylittlestore.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * 가게별 인기 상품 순위
+ * 결제가 완료된 주문 상품의 수량을 기간(HOUR, DAY, WEEK)별로 메모리에 모은다.
+ * 기간마다 정해진 수의 구간을 링으로 돌려 쓰고, 지난 구간은 기간 합계에서 빼고 비운다.
+ * 그래서 가게마다 쓰는 메모리는 기간별 구간 수와 팔린 상품 수로 정해진다.
+ * 조회할 때는 기간 합계에서 크기가 size인 힙으로 상위 상품만 고른다.
+ * 가장 긴 기간 동안 팔리지도, 조회되지도 않은 가게는 순위가 비어 있으므로 내보낸다.
+ * 가게 수도 maximum-store-count로 제한하고, 밀려난 가게의 순위는 서버가 다시 시작될 때 DB에서 다시 채운다.
+ */
+@Component
+public class BestSellerLeaderboard {
+
+    private final Cache<Long, StoreLeaderboard> storeLeaderboards;
+
+    public BestSellerLeaderboard(@Value("${mylittlestore.best-seller.maximum-store-count:10000}") long maximumStoreCount) {
+        this.storeLeaderboards = Caffeine.newBuilder()
+                .maximumSize(maximumStoreCount)
+                .expireAfterAccess(longestPeriodDuration())
+                .build();
+    }
+
+    /**
+     * 커밋된 뒤에 결제된 주문 상품의 수량을 더한다.
+     * 결제가 롤백되면 더하지 않는다.
+     */
+    public void recordAfterCommit(Long storeId, Map<Long, Long> itemCounts, LocalDateTime paidDateTime) {
+        AfterCommit.run(() -> itemCounts.forEach((itemId, count) -> record(storeId, itemId, count, paidDateTime)));
+    }
+
+    public void record(Long storeId, Long itemId, long count, LocalDateTime paidDateTime) {
+        storeLeaderboards.get(storeId, key -> new StoreLeaderboard())
+                .record(itemId, count, toEpochSecond(paidDateTime));
+    }
+
+    /**
+     * 기간 동안 많이 팔린 순서로 상품 Id와 수량을 size개까지 반환한다.
+     * 수량이 같으면 상품 Id가 작은 상품이 먼저 나온다.
+     */
+    public LinkedHashMap<Long, Long> findTopItemCounts(Long storeId, BestSellerPeriod period, int size, LocalDateTime now) {
+        StoreLeaderboard storeLeaderboard = storeLeaderboards.getIfPresent(storeId);
+        if (storeLeaderboard == null) {
+            return new LinkedHashMap<>();
+        }
+        return storeLeaderboard.findTopItemCounts(period, size, toEpochSecond(now));
+    }
+
+    public void clear() {
+        storeLeaderboards.invalidateAll();
+    }
+
+    //이 시간 동안 더해진 수량이 없으면, 모든 기간의 구간이 밀려나서 순위가 비어 있다.
+    private static Duration longestPeriodDuration() {
+        return Arrays.stream(BestSellerPeriod.values())
+                .map(period -> period.getBucketDuration().multipliedBy(period.getBucketCount()))
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    //가게 하나의 기간별 집계, 결제와 조회가 동시에 일어나므로 가게 단위로 잠근다.
+    private static class StoreLeaderboard {
+        private final Map<BestSellerPeriod, SlidingWindow> slidingWindows = new EnumMap<>(BestSellerPeriod.class);
+
+        private StoreLeaderboard() {
+            for (BestSellerPeriod period : BestSellerPeriod.values()) {
+                slidingWindows.put(period, new SlidingWindow(period.getBucketDuration().getSeconds(), period.getBucketCount()));
+            }
+        }
+
+        private synchronized void record(Long itemId, long count, long epochSecond) {
+            slidingWindows.values().forEach(slidingWindow -> slidingWindow.add(itemId, count, epochSecond));
+        }
+
+        private synchronized LinkedHashMap<Long, Long> findTopItemCounts(BestSellerPeriod period, int size, long nowEpochSecond) {
+            return slidingWindows.get(period).findTopItemCounts(size, nowEpochSecond);
+        }
+    }
+
+    /**
+     * bucketCount개의 구간을 링으로 돌려 쓰는 기간 합계
+     * 가장 최근 구간 번호를 기준으로, 기간 밖으로 밀려난 구간은 합계에서 빼고 비운다.
+     */
+    private static class SlidingWindow {
+        private final long bucketSeconds;
+        private final int bucketCount;
+        private final List<Map<Long, Long>> buckets;
+        private final Map<Long, Long> totalCounts = new HashMap<>();
+
+        //아직 아무것도 더하지 않았으면 Long.MIN_VALUE
+        private long lastBucketIndex = Long.MIN_VALUE;
+
+        private SlidingWindow(long bucketSeconds, int bucketCount) {
+            this.bucketSeconds = bucketSeconds;
+            this.bucketCount = bucketCount;
+            this.buckets = new ArrayList<>(bucketCount);
+            for (int i = 0; i < bucketCount; i++) {
+                buckets.add(new HashMap<>());
+            }
+        }
+
+        private void add(Long itemId, long count, long epochSecond) {
+            long bucketIndex = Math.floorDiv(epochSecond, bucketSeconds);
+            advance(bucketIndex);
+
+            //이미 기간이 지난 수량은 버린다.
+            if (bucketIndex <= lastBucketIndex - bucketCount) {
+                return;
+            }
+
+            buckets.get(slot(bucketIndex)).merge(itemId, count, Long::sum);
+            totalCounts.merge(itemId, count, Long::sum);
+        }
+
+        private LinkedHashMap<Long, Long> findTopItemCounts(int size, long nowEpochSecond) {
+            advance(Math.floorDiv(nowEpochSecond, bucketSeconds));
+
+            //가장 적게 팔린 상품이 맨 앞에 오는 힙, size개만 남긴다.
+            Comparator<Map.Entry<Long, Long>> comparator = Map.Entry.<Long, Long>comparingByValue()
+                    .thenComparing(Map.Entry.<Long, Long>comparingByKey().reversed());
+            PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(size + 1, comparator);
+            for (Map.Entry<Long, Long> entry : totalCounts.entrySet()) {
+                heap.offer(entry);
+                if (heap.size() > size) {
+                    heap.poll();
+                }
+            }
+
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                entries.add(heap.poll());
+            }
+            Collections.reverse(entries);
+
+            LinkedHashMap<Long, Long> topItemCounts = new LinkedHashMap<>();
+            entries.forEach(entry -> topItemCounts.put(entry.getKey(), entry.getValue()));
+            return topItemCounts;
+        }
+
+        //bucketIndex까지 시간이 흘렀으면, 그 사이에 기간 밖으로 밀려난 구간을 비운다.
+        private void advance(long bucketIndex) {
+            if (lastBucketIndex != Long.MIN_VALUE && bucketIndex <= lastBucketIndex) {
+                return;
+            }
+
+            if (lastBucketIndex == Long.MIN_VALUE || bucketIndex - lastBucketIndex >= bucketCount) {
+                buckets.forEach(Map::clear);
+                totalCounts.clear();
+            } else {
+                for (long i = lastBucketIndex + 1; i <= bucketIndex; i++) {
+                    evict(slot(i));
+                }
+            }
+            lastBucketIndex = bucketIndex;
+        }
+
+        private void evict(int slot) {
+            Map<Long, Long> bucket = buckets.get(slot);
+            bucket.forEach((itemId, count) -> totalCounts.computeIfPresent(itemId, (key, totalCount) -> totalCount.longValue() == count.longValue() ? null : totalCount - count));
+            bucket.clear();
+        }
+
+        private int slot(long bucketIndex) {
+            return (int) Math.floorMod(bucketIndex, (long) bucketCount);
+        }
+    }
+}
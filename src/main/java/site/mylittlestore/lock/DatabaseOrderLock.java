@@ -0,0 +1,25 @@
+package site.mylittlestore.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.repository.order.OrderRepository;
+
+/**
+ * 서버가 여러 대일 때 쓰는 주문 잠금
+ * 주문 행을 SELECT ... FOR UPDATE로 잠그고, 트랜잭션이 끝나면 DB가 푼다.
+ * 기다리는 시간은 DB의 잠금 대기 시간을 따른다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "mylittlestore.order-lock.mode", havingValue = "database")
+public class DatabaseOrderLock implements OrderLock {
+
+    private final OrderRepository orderRepository;
+
+    @Override
+    public void lockUntilCompletion(Long orderId) {
+        //주문이 없으면 잠그지 않고, 이어서 주문을 찾을 때 예외가 발생한다.
+        orderRepository.findWithLockById(orderId);
+    }
+}
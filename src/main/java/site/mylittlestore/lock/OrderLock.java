@@ -0,0 +1,17 @@
+package site.mylittlestore.lock;
+
+/**
+ * 같은 주문을 바꾸는 요청을 한 번에 하나씩 처리하기 위한 잠금
+ * 주문 상품을 확인하고 추가하는 사이에 다른 요청이 끼어들면 같은 주문 상품이 두 줄 생기거나 수량 변경이 사라진다.
+ * 서버가 한 대면 StripedOrderLock(기본값), 여러 대면 DatabaseOrderLock을 쓴다.
+ * mylittlestore.order-lock.mode: local | database
+ */
+public interface OrderLock {
+
+    /**
+     * 현재 트랜잭션이 끝날 때까지 주문을 잠근다.
+     * 커밋된 뒤에 풀리므로, 다음 요청은 이번 변경을 본다.
+     * 트랜잭션 안에서 주문을 읽기 전에 호출해야 한다.
+     */
+    void lockUntilCompletion(Long orderId);
+}
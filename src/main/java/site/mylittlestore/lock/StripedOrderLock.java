@@ -0,0 +1,72 @@
+package site.mylittlestore.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import site.mylittlestore.enumstorage.errormessage.OrderErrorMessage;
+import site.mylittlestore.exception.order.OrderException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 서버 안에서만 쓰는 주문 잠금
+ * 정해진 수의 잠금을 만들어두고 주문 Id로 하나를 고르므로, 주문마다 잠금을 만들지 않는다.
+ * 다른 주문이 같은 잠금을 고르면 같이 기다리지만, 잠금 수가 충분하면 드물다.
+ */
+@Component
+@ConditionalOnProperty(name = "mylittlestore.order-lock.mode", havingValue = "local", matchIfMissing = true)
+public class StripedOrderLock implements OrderLock {
+
+    private final ReentrantLock[] stripes;
+
+    private final long timeoutMillis;
+
+    public StripedOrderLock(@Value("${mylittlestore.order-lock.stripes:256}") int stripeCount,
+                            @Value("${mylittlestore.order-lock.timeout:PT5S}") Duration timeout) {
+        //Id를 비트 연산으로 나누기 위해 2의 거듭제곱으로 올린다.
+        int size = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public void lockUntilCompletion(Long orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("주문 잠금은 트랜잭션 안에서만 쓸 수 있습니다.");
+        }
+
+        ReentrantLock stripe = stripeOf(orderId);
+        try {
+            //잠금을 오래 못 잡으면 요청을 실패시킨다.
+            if (!stripe.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new OrderException(OrderErrorMessage.ORDER_LOCK_TIMEOUT.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderException(OrderErrorMessage.ORDER_LOCK_TIMEOUT.getMessage());
+        }
+
+        //커밋이나 롤백이 끝난 뒤에, 잠근 스레드에서 푼다.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock stripeOf(Long orderId) {
+        int hash = Long.hashCode(orderId);
+        //Id가 연속이어도 여러 잠금에 고르게 나뉘도록 섞는다.
+        hash ^= (hash >>> 16);
+        hash *= 0x9E3779B9;
+        return stripes[(hash >>> 16) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,43 @@
+package site.mylittlestore.payment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.status.PaymentAuthorizationStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 현금은 직원이 받은 뒤에 지불하므로 바로 승인한다.
+ */
+@Component
+public class CashPaymentProcessor implements PaymentProcessor {
+
+    private final Duration timeout;
+
+    public CashPaymentProcessor(@Value("${mylittlestore.payment.cash.timeout:PT1S}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public PaymentMethodType getPaymentMethodType() {
+        return PaymentMethodType.CASH;
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public CompletableFuture<PaymentAuthorizationStatus> authorize(PaymentMethodDto paymentMethodDto) {
+        return CompletableFuture.completedFuture(PaymentAuthorizationStatus.APPROVED);
+    }
+
+    @Override
+    public void cancel(PaymentMethodDto paymentMethodDto) {
+        //돌려줄 승인이 없다.
+    }
+}
@@ -0,0 +1,29 @@
+package site.mylittlestore.payment;
+
+import site.mylittlestore.dto.paymentmethod.PaymentMethodDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.status.PaymentAuthorizationStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 결제 수단 종류마다 하나씩 두는 승인 처리기
+ * 승인을 기다리는 동안 스레드를 잡지 않고, 결과는 반환한 CompletableFuture로 알린다.
+ * 결과를 결제 수단에 반영하는 것은 PaymentProcessingService가 한다.
+ */
+public interface PaymentProcessor {
+
+    PaymentMethodType getPaymentMethodType();
+
+    //승인을 기다리는 최대 시간, 넘으면 결제 수단은 ERROR가 된다.
+    Duration getTimeout();
+
+    CompletableFuture<PaymentAuthorizationStatus> authorize(PaymentMethodDto paymentMethodDto);
+
+    /**
+     * 승인됐지만 결제에 반영하지 못한 결제 수단의 승인을 취소한다.
+     * 시간이 초과된 승인이나, 다른 결제 수단이 먼저 남은 금액을 지불한 경우에 호출된다.
+     */
+    void cancel(PaymentMethodDto paymentMethodDto);
+}
@@ -0,0 +1,85 @@
+package site.mylittlestore.payment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.status.PaymentAuthorizationStatus;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 카드 단말기 대신 쓰는 승인 처리기
+ * 정해진 범위 안에서 임의의 시간이 지난 뒤에 승인하거나, decline-rate의 확률로 거절한다.
+ * 기다리는 동안 스레드를 잡지 않고, 스레드 하나에서 시간이 된 승인만 끝낸다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mylittlestore.payment.card.terminal", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedCardTerminal implements PaymentProcessor {
+
+    private final long minLatencyMillis;
+
+    private final long maxLatencyMillis;
+
+    private final double declineRate;
+
+    private final Duration timeout;
+
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    public SimulatedCardTerminal(@Value("${mylittlestore.payment.card.latency-min:PT1S}") Duration minLatency,
+                                 @Value("${mylittlestore.payment.card.latency-max:PT3S}") Duration maxLatency,
+                                 @Value("${mylittlestore.payment.card.decline-rate:0.0}") double declineRate,
+                                 @Value("${mylittlestore.payment.card.timeout:PT10S}") Duration timeout) {
+        this.minLatencyMillis = minLatency.toMillis();
+        this.maxLatencyMillis = Math.max(maxLatency.toMillis(), minLatencyMillis);
+        this.declineRate = declineRate;
+        this.timeout = timeout;
+        this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "simulated-card-terminal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public PaymentMethodType getPaymentMethodType() {
+        return PaymentMethodType.CARD;
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public CompletableFuture<PaymentAuthorizationStatus> authorize(PaymentMethodDto paymentMethodDto) {
+        long latencyMillis = ThreadLocalRandom.current().nextLong(minLatencyMillis, maxLatencyMillis + 1);
+
+        CompletableFuture<PaymentAuthorizationStatus> authorization = new CompletableFuture<>();
+        scheduledExecutorService.schedule(() -> authorization.complete(ThreadLocalRandom.current().nextDouble() < declineRate
+                        ? PaymentAuthorizationStatus.DECLINED
+                        : PaymentAuthorizationStatus.APPROVED),
+                latencyMillis, TimeUnit.MILLISECONDS);
+        return authorization;
+    }
+
+    @Override
+    public void cancel(PaymentMethodDto paymentMethodDto) {
+        log.info("cancelled simulated card authorization paymentMethod={} amount={}", paymentMethodDto.getId(), paymentMethodDto.getPaymentMethodAmount());
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduledExecutorService.shutdownNow();
+    }
+}
@@ -0,0 +1,23 @@
+package site.mylittlestore.repository.dailyrevenue;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.domain.DailyRevenue;
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, Long>, DailyRevenueRepositoryQueryDsl {
+    long addRevenue(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType, Long amount);
+    boolean existsByStoreIdAndBusinessDateAndPaymentMethodType(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType);
+    //결제 트랜잭션이 롤백되어도 빈 집계 행은 남겨서, 다른 결제가 같은 행을 만들다가 막히지 않게 한다.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    void createEmptyDailyRevenue(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType);
+    List<DailyRevenueDto> findAllDailyRevenueDtoByStoreIdAndBusinessDateBetween(Long storeId, LocalDate from, LocalDate to);
+    List<DailyRevenueDto> findAllDailyRevenueDtoByBusinessDate(LocalDate businessDate);
+    List<DailyRevenueDto> sumPaidPaymentMethodAmountByBusinessDate(LocalDate businessDate);
+    long deleteAllByBusinessDate(LocalDate businessDate);
+}
@@ -0,0 +1,159 @@
+package site.mylittlestore.repository.dailyrevenue;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import site.mylittlestore.domain.DailyRevenue;
+import site.mylittlestore.domain.Store;
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueDto;
+import site.mylittlestore.dto.dailyrevenue.QDailyRevenueDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static site.mylittlestore.domain.QDailyRevenue.dailyRevenue;
+import static site.mylittlestore.domain.QOrder.order;
+import static site.mylittlestore.domain.QPayment.payment;
+import static site.mylittlestore.domain.QPaymentMethod.paymentMethod;
+
+@RequiredArgsConstructor
+public class DailyRevenueRepositoryImpl implements DailyRevenueRepositoryQueryDsl {
+    private final EntityManager em;
+
+    /**
+     * 집계 행을 조회하지 않고 UPDATE 한 번으로 금액과 건수를 더한다.
+     * 동시에 지불된 결제 수단은 행 잠금 순서대로 더해진다.
+     * @return 변경된 행의 수(0이면 아직 집계 행이 없다.)
+     */
+    @Override
+    public long addRevenue(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType, Long amount) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(dailyRevenue)
+                .set(dailyRevenue.amount, dailyRevenue.amount.add(amount))
+                .set(dailyRevenue.paymentCount, dailyRevenue.paymentCount.add(1L))
+                .where(dailyRevenue.store.id.eq(storeId)
+                        .and(dailyRevenue.businessDate.eq(businessDate))
+                        .and(dailyRevenue.paymentMethodType.eq(paymentMethodType)))
+                .execute();
+    }
+
+    @Override
+    public boolean existsByStoreIdAndBusinessDateAndPaymentMethodType(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .selectOne()
+                .from(dailyRevenue)
+                .where(dailyRevenue.store.id.eq(storeId)
+                        .and(dailyRevenue.businessDate.eq(businessDate))
+                        .and(dailyRevenue.paymentMethodType.eq(paymentMethodType)))
+                .fetchFirst() != null;
+    }
+
+    /**
+     * 금액과 건수가 0인 집계 행을 만든다.
+     * 다른 트랜잭션이 먼저 만들었으면 유니크 키 위반으로 DataIntegrityViolationException이 발생한다.
+     */
+    @Override
+    public void createEmptyDailyRevenue(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType) {
+        em.persist(DailyRevenue.builder()
+                .store(em.getReference(Store.class, storeId))
+                .businessDate(businessDate)
+                .paymentMethodType(paymentMethodType)
+                .amount(0L)
+                .paymentCount(0L)
+                .build());
+        em.flush();
+    }
+
+    /**
+     * 유니크 키 (store_id, business_date, payment_method_type)의 범위 조회 한 번으로 읽는다.
+     * from, to는 둘 다 포함한다.
+     */
+    @Override
+    public List<DailyRevenueDto> findAllDailyRevenueDtoByStoreIdAndBusinessDateBetween(Long storeId, LocalDate from, LocalDate to) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(dailyRevenueDto())
+                .from(dailyRevenue)
+                .where(dailyRevenue.store.id.eq(storeId)
+                        .and(dailyRevenue.businessDate.between(from, to))
+                        //결제가 롤백되어 남은 빈 행은 보여주지 않는다.
+                        .and(dailyRevenue.paymentCount.gt(0L)))
+                .orderBy(dailyRevenue.businessDate.asc(), dailyRevenue.paymentMethodType.asc())
+                .fetch();
+    }
+
+    @Override
+    public List<DailyRevenueDto> findAllDailyRevenueDtoByBusinessDate(LocalDate businessDate) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(dailyRevenueDto())
+                .from(dailyRevenue)
+                .where(dailyRevenue.businessDate.eq(businessDate)
+                        .and(dailyRevenue.paymentCount.gt(0L)))
+                .fetch();
+    }
+
+    /**
+     * 지불된 결제 수단에서 하루치 매출을 다시 계산한다.
+     * 결제 수단 완료 일시의 날짜를 영업일로 본다.
+     */
+    @Override
+    public List<DailyRevenueDto> sumPaidPaymentMethodAmountByBusinessDate(LocalDate businessDate) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        //날짜 함수로 묶지 않고 하루 범위로 읽어서, 완료 일시 인덱스를 사용한다.
+        List<Tuple> tuples = queryFactory
+                .select(order.store.id,
+                        paymentMethod.paymentMethodType,
+                        paymentMethod.paymentMethodAmount.sum(),
+                        paymentMethod.count())
+                .from(paymentMethod)
+                .join(paymentMethod.payment, payment)
+                .join(payment.order, order)
+                .where(paymentMethod.paymentMethodStatus.eq(PaymentMethodStatus.PAID)
+                        .and(paymentMethod.paymentMethodCompleteDateTime.goe(businessDate.atStartOfDay()))
+                        .and(paymentMethod.paymentMethodCompleteDateTime.lt(businessDate.plusDays(1).atStartOfDay())))
+                .groupBy(order.store.id, paymentMethod.paymentMethodType)
+                .fetch();
+
+        return tuples.stream()
+                .map(tuple -> DailyRevenueDto.builder()
+                        .storeId(tuple.get(order.store.id))
+                        .businessDate(businessDate)
+                        .paymentMethodType(tuple.get(paymentMethod.paymentMethodType))
+                        .amount(tuple.get(paymentMethod.paymentMethodAmount.sum()))
+                        .paymentCount(tuple.get(paymentMethod.count()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long deleteAllByBusinessDate(LocalDate businessDate) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .delete(dailyRevenue)
+                .where(dailyRevenue.businessDate.eq(businessDate))
+                .execute();
+    }
+
+    private QDailyRevenueDto dailyRevenueDto() {
+        return new QDailyRevenueDto(
+                dailyRevenue.store.id,
+                dailyRevenue.businessDate,
+                dailyRevenue.paymentMethodType,
+                dailyRevenue.amount,
+                dailyRevenue.paymentCount
+        );
+    }
+}
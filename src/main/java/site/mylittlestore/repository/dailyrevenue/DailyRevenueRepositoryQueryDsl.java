@@ -0,0 +1,17 @@
+package site.mylittlestore.repository.dailyrevenue;
+
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRevenueRepositoryQueryDsl {
+    long addRevenue(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType, Long amount);
+    boolean existsByStoreIdAndBusinessDateAndPaymentMethodType(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType);
+    void createEmptyDailyRevenue(Long storeId, LocalDate businessDate, PaymentMethodType paymentMethodType);
+    List<DailyRevenueDto> findAllDailyRevenueDtoByStoreIdAndBusinessDateBetween(Long storeId, LocalDate from, LocalDate to);
+    List<DailyRevenueDto> findAllDailyRevenueDtoByBusinessDate(LocalDate businessDate);
+    List<DailyRevenueDto> sumPaidPaymentMethodAmountByBusinessDate(LocalDate businessDate);
+    long deleteAllByBusinessDate(LocalDate businessDate);
+}
@@ -0,0 +1,13 @@
+package site.mylittlestore.repository.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import site.mylittlestore.domain.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long>, IdempotencyRecordRepositoryQueryDsl {
+    Optional<String> findRedirectUrlByIdempotencyKeyAndRequestUri(String idempotencyKey, String requestUri, LocalDateTime createdAfter);
+    long deleteAllCreatedBefore(LocalDateTime createdBefore);
+    long deleteExpiredByIdempotencyKeyAndRequestUri(String idempotencyKey, String requestUri, LocalDateTime createdAfter);
+}
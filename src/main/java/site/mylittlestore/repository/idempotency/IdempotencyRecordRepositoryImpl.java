@@ -0,0 +1,58 @@
+package site.mylittlestore.repository.idempotency;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static site.mylittlestore.domain.QIdempotencyRecord.idempotencyRecord;
+
+@RequiredArgsConstructor
+public class IdempotencyRecordRepositoryImpl implements IdempotencyRecordRepositoryQueryDsl {
+    private final EntityManager em;
+
+    /**
+     * 만료되지 않은 기록의 redirect 경로만 조회한다.
+     * (idempotency_key, request_uri) 유니크 키로 한 행만 읽는다.
+     */
+    @Override
+    public Optional<String> findRedirectUrlByIdempotencyKeyAndRequestUri(String idempotencyKey, String requestUri, LocalDateTime createdAfter) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .select(idempotencyRecord.redirectUrl)
+                .from(idempotencyRecord)
+                .where(idempotencyRecord.idempotencyKey.eq(idempotencyKey)
+                        .and(idempotencyRecord.requestUri.eq(requestUri))
+                        .and(idempotencyRecord.createdDateTime.after(createdAfter)))
+                .fetchOne());
+    }
+
+    @Override
+    public long deleteAllCreatedBefore(LocalDateTime createdBefore) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .delete(idempotencyRecord)
+                .where(idempotencyRecord.createdDateTime.before(createdBefore))
+                .execute();
+    }
+
+    /**
+     * 같은 키와 경로의 기록이 createdAfter 이후에 남은 것이 아니면, 즉 만료됐으면 지운다.
+     * 만료된 기록을 찾지 못해서 다시 처리한 요청이 결과를 남길 때, 유니크 키에 걸리지 않게 한다.
+     */
+    @Override
+    public long deleteExpiredByIdempotencyKeyAndRequestUri(String idempotencyKey, String requestUri, LocalDateTime createdAfter) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .delete(idempotencyRecord)
+                .where(idempotencyRecord.idempotencyKey.eq(idempotencyKey)
+                        .and(idempotencyRecord.requestUri.eq(requestUri))
+                        .and(idempotencyRecord.createdDateTime.after(createdAfter).not()))
+                .execute();
+    }
+}
@@ -0,0 +1,10 @@
+package site.mylittlestore.repository.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepositoryQueryDsl {
+    Optional<String> findRedirectUrlByIdempotencyKeyAndRequestUri(String idempotencyKey, String requestUri, LocalDateTime createdAfter);
+    long deleteAllCreatedBefore(LocalDateTime createdBefore);
+    long deleteExpiredByIdempotencyKeyAndRequestUri(String idempotencyKey, String requestUri, LocalDateTime createdAfter);
+}
@@ -15,12 +15,24 @@ public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositor
     Optional<Item> findItemByName(@Param("newItemName") String newItemName);
 
     Optional<Item> findItemByIdAndStoreId(Long id, Long storeId);
+
+    Optional<Item> findWithLockByIdAndStoreId(Long id, Long storeId);
+
+    List<Item> findAllByIdInAndStoreId(List<Long> ids, Long storeId);
+
+    Optional<ItemFindDto> findItemDtoById(Long id);
     List<ItemFindDto> findAllItemDtoByStoreId(Long storeId);
+    List<String> findAllItemNameByStoreId(Long storeId);
 
     Optional<Item> findItemByStoreIdAndName(Long storeId, String itemName);
 
     List<Item> findAllItemByStoreIdAndName(Long storeId, String itemName);
 
+    long decreaseStock(Long id, Long count);
+
+    long increaseStock(Long id, Long count);
+
+    long insertAll(Long storeId, List<ItemCreationDto> itemCreationDtos);
 
     void deleteById(Long id);
 }
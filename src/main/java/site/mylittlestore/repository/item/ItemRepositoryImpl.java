@@ -1,7 +1,9 @@
 package site.mylittlestore.repository.item;
 
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import site.mylittlestore.domain.Store;
 import site.mylittlestore.domain.item.Item;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.item.ItemFindDto;
@@ -9,10 +11,13 @@ import site.mylittlestore.dto.item.QItemFindDto;
 import site.mylittlestore.enumstorage.status.ItemStatus;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static site.mylittlestore.domain.item.QItem.item;
+import static site.mylittlestore.domain.item.QItemStockShard.itemStockShard;
 
 @RequiredArgsConstructor
 public class ItemRepositoryImpl implements ItemRepositoryQueryDsl {
@@ -46,7 +51,60 @@ public class ItemRepositoryImpl implements ItemRepositoryQueryDsl {
         );
     }
 
+    @Override
+    public Optional<Item> findWithLockByIdAndStoreId(Long id, Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(
+                queryFactory
+                        .select(item)
+                        .from(item)
+                        .where(item.id.eq(id)
+                                .and(item.store.id.eq(storeId))
+                                .and(item.itemStatus.eq(ItemStatus.ONSALE)))
+                        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                        .fetchOne()
+        );
+    }
+
+    @Override
+    public List<Item> findAllByIdInAndStoreId(List<Long> ids, Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(item)
+                .from(item)
+                .where(item.id.in(ids)
+                        .and(item.store.id.eq(storeId))
+                        .and(item.itemStatus.eq(ItemStatus.ONSALE)))
+                .fetch();
+    }
+
+    @Override
+    public Optional<ItemFindDto> findItemDtoById(Long id) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(
+                queryFactory
+                        .select(new QItemFindDto(
+                                item.id,
+                                item.store.id,
+                                item.name,
+                                item.price,
+                                stockWithShards(),
+                                item.image
+                        ))
+                        .from(item)
+                        .leftJoin(itemStockShard).on(itemStockShard.item.id.eq(item.id))
+                        .where(item.id.eq(id), item.itemStatus.eq(ItemStatus.ONSALE))
+                        .groupBy(item.id, item.store.id, item.name, item.price, item.stock, item.image)
+                        .fetchOne()
+        );
+    }
 
+    /**
+     * 가게의 메뉴는 ItemService가 MenuCache에 담으므로, 캐시에 없을 때만 실행된다.
+     */
     @Override
     public List<ItemFindDto> findAllItemDtoByStoreId(Long storeId) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
@@ -57,15 +115,109 @@ public class ItemRepositoryImpl implements ItemRepositoryQueryDsl {
                         item.store.id,
                         item.name,
                         item.price,
-                        item.stock,
+                        stockWithShards(),
                         item.image
                 ))
                 .from(item)
+                .leftJoin(itemStockShard).on(itemStockShard.item.id.eq(item.id))
                 .where(item.store.id.eq(storeId), item.itemStatus.eq(ItemStatus.ONSALE))
+                .groupBy(item.id, item.store.id, item.name, item.price, item.stock, item.image)
                 .orderBy(item.id.asc())
                 .fetch();
     }
 
+    @Override
+    public List<String> findAllItemNameByStoreId(Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(item.name)
+                .from(item)
+                .where(item.store.id.eq(storeId), item.itemStatus.eq(ItemStatus.ONSALE))
+                .fetch();
+    }
+
+    /**
+     * 상품을 한 번에 저장한다.
+     * 가게는 프록시로만 참조하고 가게의 상품 목록은 건드리지 않으므로, 가게나 상품 목록을 조회하지 않는다.
+     * INSERT는 hibernate.jdbc.batch_size 단위로 묶여서 나가고,
+     * 저장한 뒤에 영속성 컨텍스트를 비워서 여러 번 호출해도 메모리가 쌓이지 않는다.
+     * @return 저장한 상품의 수
+     */
+    @Override
+    public long insertAll(Long storeId, List<ItemCreationDto> itemCreationDtos) {
+        Store store = em.getReference(Store.class, storeId);
+
+        for (ItemCreationDto itemCreationDto : itemCreationDtos) {
+            em.persist(Item.builder()
+                    .store(store)
+                    .name(itemCreationDto.getName())
+                    .price(itemCreationDto.getPrice())
+                    .stock(itemCreationDto.getStock())
+                    .build());
+        }
+
+        em.flush();
+        em.clear();
+
+        return itemCreationDtos.size();
+    }
+
+    /**
+     * 재고가 충분할 때만 재고를 감소시킨다.
+     * 상품 엔티티를 조회하지 않고 조건부 UPDATE 한 번으로 처리한다.
+     * 재고가 샤딩된 상품이면 샤드에서 감소시킨다.
+     * @return 변경된 행의 수(1이면 성공, 0이면 재고 부족)
+     */
+    @Override
+    public long decreaseStock(Long id, Long count) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        long updatedCount = queryFactory
+                .update(item)
+                .set(item.stock, item.stock.subtract(count))
+                .where(item.id.eq(id)
+                        .and(item.stockShardCount.isNull())
+                        .and(item.stock.goe(count)))
+                .execute();
+
+        if (updatedCount > 0) {
+            return updatedCount;
+        }
+
+        //상품 행에서 감소하지 못했으면, 재고가 샤딩된 상품인지 확인
+        Integer stockShardCount = findStockShardCount(queryFactory, id);
+        if (stockShardCount == null) {
+            return 0;
+        }
+
+        return decreaseShardedStock(queryFactory, id, stockShardCount, count);
+    }
+
+    @Override
+    public long increaseStock(Long id, Long count) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        long updatedCount = queryFactory
+                .update(item)
+                .set(item.stock, item.stock.add(count))
+                .where(item.id.eq(id)
+                        .and(item.stockShardCount.isNull()))
+                .execute();
+
+        if (updatedCount > 0) {
+            return updatedCount;
+        }
+
+        //재고가 샤딩된 상품이면 임의의 샤드에 재고를 돌려준다.
+        Integer stockShardCount = findStockShardCount(queryFactory, id);
+        if (stockShardCount == null) {
+            return 0;
+        }
+
+        return increaseShardStock(queryFactory, id, ThreadLocalRandom.current().nextInt(stockShardCount), count);
+    }
+
     @Override
     public void deleteById(Long id) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
@@ -76,4 +228,95 @@ public class ItemRepositoryImpl implements ItemRepositoryQueryDsl {
                 .set(item.itemStatus, ItemStatus.DELETED)
                 .execute();
     }
+
+    //샤딩된 상품은 샤드 재고의 합을 더해서 보여준다.
+    private NumberExpression<Long> stockWithShards() {
+        return item.stock.add(itemStockShard.stock.sum().coalesce(0L));
+    }
+
+    private Integer findStockShardCount(JPAQueryFactory queryFactory, Long id) {
+        return queryFactory
+                .select(item.stockShardCount)
+                .from(item)
+                .where(item.id.eq(id))
+                .fetchOne();
+    }
+
+    private long decreaseShardedStock(JPAQueryFactory queryFactory, Long id, int stockShardCount, Long count) {
+        //임의의 샤드부터 시작해서, 재고가 부족하면 다음 샤드로 넘어간다.
+        int startShardIndex = ThreadLocalRandom.current().nextInt(stockShardCount);
+        for (int i = 0; i < stockShardCount; i++) {
+            int shardIndex = (startShardIndex + i) % stockShardCount;
+
+            long updatedCount = queryFactory
+                    .update(itemStockShard)
+                    .set(itemStockShard.stock, itemStockShard.stock.subtract(count))
+                    .where(itemStockShard.item.id.eq(id)
+                            .and(itemStockShard.shardIndex.eq(shardIndex))
+                            .and(itemStockShard.stock.goe(count)))
+                    .execute();
+
+            if (updatedCount > 0) {
+                return updatedCount;
+            }
+        }
+
+        //샤드 하나로는 부족하면, 여러 샤드에서 나눠서 감소
+        return decreaseAcrossShards(queryFactory, id, stockShardCount, count);
+    }
+
+    private long decreaseAcrossShards(JPAQueryFactory queryFactory, Long id, int stockShardCount, Long count) {
+        long[] takenStocks = new long[stockShardCount];
+        long leftCount = count;
+
+        for (int shardIndex = 0; shardIndex < stockShardCount && leftCount > 0; shardIndex++) {
+            Long shardStock = queryFactory
+                    .select(itemStockShard.stock)
+                    .from(itemStockShard)
+                    .where(itemStockShard.item.id.eq(id)
+                            .and(itemStockShard.shardIndex.eq(shardIndex)))
+                    .fetchOne();
+
+            long takingStock = Math.min(shardStock == null ? 0L : shardStock, leftCount);
+            if (takingStock == 0) {
+                continue;
+            }
+
+            //조회한 뒤에 다른 주문이 가져갔으면, 변경되는 행이 없으므로 다음 샤드로 넘어간다.
+            long updatedCount = queryFactory
+                    .update(itemStockShard)
+                    .set(itemStockShard.stock, itemStockShard.stock.subtract(takingStock))
+                    .where(itemStockShard.item.id.eq(id)
+                            .and(itemStockShard.shardIndex.eq(shardIndex))
+                            .and(itemStockShard.stock.goe(takingStock)))
+                    .execute();
+
+            if (updatedCount > 0) {
+                takenStocks[shardIndex] = takingStock;
+                leftCount -= takingStock;
+            }
+        }
+
+        if (leftCount == 0) {
+            return 1;
+        }
+
+        //전부 감소시키지 못했으면, 가져온 재고를 돌려준다.
+        for (int shardIndex = 0; shardIndex < stockShardCount; shardIndex++) {
+            if (takenStocks[shardIndex] > 0) {
+                increaseShardStock(queryFactory, id, shardIndex, takenStocks[shardIndex]);
+            }
+        }
+
+        return 0;
+    }
+
+    private long increaseShardStock(JPAQueryFactory queryFactory, Long id, int shardIndex, Long count) {
+        return queryFactory
+                .update(itemStockShard)
+                .set(itemStockShard.stock, itemStockShard.stock.add(count))
+                .where(itemStockShard.item.id.eq(id)
+                        .and(itemStockShard.shardIndex.eq(shardIndex)))
+                .execute();
+    }
 }
@@ -1,6 +1,7 @@
 package site.mylittlestore.repository.item;
 
 import site.mylittlestore.domain.item.Item;
+import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.item.ItemFindDto;
 
 import java.util.List;
@@ -9,9 +10,17 @@ import java.util.Optional;
 public interface ItemRepositoryQueryDsl {
     Optional<Item> findItemById(Long id);
     Optional<Item> findItemByIdAndStoreId(Long id, Long storeId);
+    Optional<Item> findWithLockByIdAndStoreId(Long id, Long storeId);
+    List<Item> findAllByIdInAndStoreId(List<Long> ids, Long storeId);
 
-
+    Optional<ItemFindDto> findItemDtoById(Long id);
     List<ItemFindDto> findAllItemDtoByStoreId(Long storeId);
+    List<String> findAllItemNameByStoreId(Long storeId);
+
+    long decreaseStock(Long id, Long count);
+    long increaseStock(Long id, Long count);
+
+    long insertAll(Long storeId, List<ItemCreationDto> itemCreationDtos);
 
     void deleteById(Long id);
 }
@@ -0,0 +1,16 @@
+package site.mylittlestore.repository.item;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import site.mylittlestore.domain.item.ItemStockShard;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface ItemStockShardRepository extends JpaRepository<ItemStockShard, Long> {
+    List<ItemStockShard> findAllByItemIdOrderByShardIndexAsc(Long itemId);
+
+    //재고를 다시 나누는 동안 샤드의 재고 감소를 막는다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemStockShard> findWithLockByItemIdOrderByShardIndexAsc(Long itemId);
+}
@@ -1,10 +1,73 @@
 package site.mylittlestore.repository.member;
 
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.util.StringUtils;
+import site.mylittlestore.domain.Member;
+import site.mylittlestore.dto.member.MemberFindDto;
+import site.mylittlestore.dto.member.QMemberFindDto;
 
 import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Optional;
+
+import static site.mylittlestore.domain.QMember.member;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryQueryDsl {
     private final EntityManager em;
+
+    /**
+     * 이메일은 자연 키이므로, 2차 캐시에서 이메일로 회원 Id를 찾고 회원을 조회한다.
+     * 캐시에 있으면 SQL을 실행하지 않는다.
+     */
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        return em.unwrap(Session.class)
+                .bySimpleNaturalId(Member.class)
+                .loadOptional(email);
+    }
+
+    /**
+     * lastMemberId보다 큰 Id를 가진 회원을 Id 순으로 limit명까지 조회한다.
+     * OFFSET을 쓰지 않으므로 뒤쪽 페이지도 앞쪽 페이지만큼 빠르다.
+     * 회원 엔티티와 가게 목록은 조회하지 않고, 필요한 컬럼만 Dto로 조회한다.
+     * 이름과 이메일은 앞부분이 같은 회원만 찾으므로(LIKE 'prefix%') 인덱스를 탈 수 있다.
+     */
+    @Override
+    public List<MemberFindDto> findAllMemberFindDtoAfterId(Long lastMemberId, String namePrefix, String emailPrefix, int limit) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(new QMemberFindDto(
+                        member.id,
+                        member.name,
+                        member.email,
+                        member.address.city,
+                        member.address.street,
+                        member.address.zipcode
+                ))
+                .from(member)
+                .where(idGt(lastMemberId),
+                        nameStartsWith(namePrefix),
+                        emailStartsWith(emailPrefix))
+                .orderBy(member.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    //조건이 없으면 null을 반환해서 where 절에서 빠지게 한다.
+    private BooleanExpression idGt(Long lastMemberId) {
+        return lastMemberId == null ? null : member.id.gt(lastMemberId);
+    }
+
+    private BooleanExpression nameStartsWith(String namePrefix) {
+        return StringUtils.hasText(namePrefix) ? member.name.startsWith(namePrefix) : null;
+    }
+
+    private BooleanExpression emailStartsWith(String emailPrefix) {
+        return StringUtils.hasText(emailPrefix) ? member.email.startsWith(emailPrefix) : null;
+    }
 }
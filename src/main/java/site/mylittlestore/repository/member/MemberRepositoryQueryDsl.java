@@ -1,4 +1,12 @@
 package site.mylittlestore.repository.member;
 
+import site.mylittlestore.domain.Member;
+import site.mylittlestore.dto.member.MemberFindDto;
+
+import java.util.List;
+import java.util.Optional;
+
 public interface MemberRepositoryQueryDsl {
+    Optional<Member> findByEmail(String email);
+    List<MemberFindDto> findAllMemberFindDtoAfterId(Long lastMemberId, String namePrefix, String emailPrefix, int limit);
 }
@@ -1,20 +1,40 @@
 package site.mylittlestore.repository.order;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.QueryHints;
 import site.mylittlestore.domain.Order;
+import site.mylittlestore.dto.order.OrderFindDtoWithOrderItemAndPayment;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.order.OrderHistoryCursor;
+import site.mylittlestore.dto.order.OrderExportLineDto;
+import site.mylittlestore.dto.order.OrderHistoryLineDto;
+import site.mylittlestore.dto.order.OrderTotalMismatchDto;
+import site.mylittlestore.dto.order.QOrderExportLineDto;
+import site.mylittlestore.dto.order.QOrderHistoryLineDto;
+import site.mylittlestore.dto.order.QOrderTotalMismatchDto;
+import site.mylittlestore.dto.orderitem.OrderItemFindDto;
+import site.mylittlestore.dto.payment.PaymentDto;
 import site.mylittlestore.enumstorage.status.OrderItemStatus;
 import site.mylittlestore.enumstorage.status.OrderStatus;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static site.mylittlestore.domain.QOrder.order;
 import static site.mylittlestore.domain.QOrderItem.orderItem;
 import static site.mylittlestore.domain.QPayment.payment;
-import static site.mylittlestore.domain.QStore.store;
 import static site.mylittlestore.domain.QStoreTable.storeTable;
 import static site.mylittlestore.domain.item.QItem.item;
 
@@ -23,6 +43,59 @@ public class OrderRepositoryImpl implements OrderRepositoryQueryDsl {
 
     private final EntityManager em;
 
+    /**
+     * 주문 행을 SELECT ... FOR UPDATE로 잠근다.
+     * 잠금은 트랜잭션이 끝날 때까지 유지된다.
+     */
+    @Override
+    public Optional<Order> findWithLockById(Long id) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .select(order)
+                .from(order)
+                .where(order.id.eq(id))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetchOne());
+    }
+
+    /**
+     * 결제 중인 주문을 결제 완료로 바꾸고 종료 시간을 기록한다.
+     * 결제 중이 아니거나 이미 종료 시간이 있는 주문은 변경되지 않으므로, 반환값으로 확인한다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long updatePaidById(Long id, LocalDateTime endTime) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(order)
+                .set(order.orderStatus, OrderStatus.PAID)
+                .set(order.endTime, endTime)
+                .where(order.id.eq(id)
+                        .and(order.orderStatus.eq(OrderStatus.IN_PROGRESS))
+                        .and(order.endTime.isNull()))
+                .execute();
+    }
+
+    /**
+     * 주문의 합계와 수량에 바뀐 만큼만 더한다.
+     * 주문을 조회하지 않고, 다른 요청이 먼저 더한 값 위에 DB에서 더한다.
+     * 영속성 컨텍스트에 있는 주문의 값은 바뀌지 않는다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long addTotalsById(Long id, long subtotalDelta, long itemCountDelta) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(order)
+                .set(order.subtotal, order.subtotal.add(subtotalDelta))
+                .set(order.itemCount, order.itemCount.add(itemCountDelta))
+                .where(order.id.eq(id))
+                .execute();
+    }
+
     @Override
     public Optional<Order> findNotDeletedAndPaidByIdAndStoreId(Long id, Long storeId) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
@@ -37,14 +110,19 @@ public class OrderRepositoryImpl implements OrderRepositoryQueryDsl {
                 .fetchOne());
     }
 
+    /**
+     * 가게 상태는 StoreMetadataCache에서 확인하므로 가게는 조인하지 않는다.
+     * 테이블과 결제는 주문의 연관관계 주인이 아니라서 지연 로딩되지 않고 따로 조회되므로, 같이 조회한다.
+     */
     @Override
-    public Optional<Order> findNotDeletedAndPaidWithStoreById(Long orderId) {
+    public Optional<Order> findNotDeletedAndPaidWithStoreTableAndPaymentById(Long orderId) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
 
         return Optional.ofNullable(queryFactory
                 .select(order)
                 .from(order)
-                .join(order.store, store).fetchJoin()
+                .leftJoin(order.storeTable, storeTable).fetchJoin()
+                .leftJoin(order.payment, payment).fetchJoin()
                 .where(order.id.eq(orderId)
                         .and(order.orderStatus.ne(OrderStatus.DELETED))
                         .and(order.orderStatus.ne(OrderStatus.PAID)))
@@ -52,13 +130,15 @@ public class OrderRepositoryImpl implements OrderRepositoryQueryDsl {
     }
 
     @Override
-    public Optional<Order> findNotDeletedAndPaidWithStoreAndOrderItemsById(Long orderId) {
+    public Optional<Order> findNotDeletedAndPaidWithStoreTableAndPaymentAndOrderItemsById(Long orderId) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
 
         return Optional.ofNullable(queryFactory
                 .select(order)
+                .distinct()
                 .from(order)
-                .join(order.store, store).fetchJoin()
+                .leftJoin(order.storeTable, storeTable).fetchJoin()
+                .leftJoin(order.payment, payment).fetchJoin()
                 .leftJoin(order.orderItems, orderItem).fetchJoin()
                 .where(order.id.eq(orderId)
                         .and(order.orderStatus.ne(OrderStatus.DELETED))
@@ -94,4 +174,250 @@ public class OrderRepositoryImpl implements OrderRepositoryQueryDsl {
                         .and(order.orderStatus.ne(OrderStatus.PAID)))
                 .fetch();
     }
+
+    /**
+     * 주문 상세 화면에 필요한 주문, 테이블, 결제, ORDERED인 주문 상품을 SQL 한 번으로 조회한다.
+     * 엔티티를 영속성 컨텍스트에 올리지 않고, 주문 상품마다 한 줄씩 나온 결과를 Dto 하나로 합친다.
+     */
+    @Override
+    public Optional<OrderFindDtoWithOrderItemAndPayment> findNotDeletedAndPaidOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId(Long id, Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        List<Tuple> tuples = queryFactory
+                .select(order.id,
+                        order.store.id,
+                        order.startTime,
+                        order.endTime,
+                        order.orderStatus,
+                        order.subtotal,
+                        order.itemCount,
+                        storeTable.id,
+                        payment.id,
+                        payment.initialPaymentAmount,
+                        payment.desiredPaymentAmount,
+                        payment.paidPaymentAmount,
+                        payment.completeDateTime,
+                        payment.paymentStatus,
+                        orderItem.id,
+                        orderItem.item.id,
+                        orderItem.itemName,
+                        orderItem.price,
+                        orderItem.count,
+                        orderItem.orderedDateTime,
+                        orderItem.updatedDateTime,
+                        orderItem.orderItemStatus)
+                .from(order)
+                .leftJoin(order.storeTable, storeTable)
+                .leftJoin(order.payment, payment)
+                .leftJoin(order.orderItems, orderItem).on(orderItem.orderItemStatus.eq(OrderItemStatus.ORDERED))
+                .where(order.id.eq(id)
+                        .and(order.store.id.eq(storeId))
+                        .and(order.orderStatus.ne(OrderStatus.DELETED))
+                        .and(order.orderStatus.ne(OrderStatus.PAID)))
+                .orderBy(orderItem.orderedDateTime.asc())
+                .fetch();
+
+        if (tuples.isEmpty()) {
+            return Optional.empty();
+        }
+
+        //주문 상품이 없으면, 주문 상품 칸이 비어있는 한 줄만 나온다.
+        List<OrderItemFindDto> orderItemFindDtos = new ArrayList<>();
+        for (Tuple tuple : tuples) {
+            if (tuple.get(orderItem.id) == null) {
+                continue;
+            }
+
+            orderItemFindDtos.add(OrderItemFindDto.builder()
+                    .id(tuple.get(orderItem.id))
+                    .storeId(tuple.get(order.store.id))
+                    .orderId(tuple.get(order.id))
+                    .itemId(tuple.get(orderItem.item.id))
+                    .itemName(tuple.get(orderItem.itemName))
+                    .price(tuple.get(orderItem.price))
+                    .count(tuple.get(orderItem.count))
+                    .orderedTime(tuple.get(orderItem.orderedDateTime))
+                    .updatedTime(tuple.get(orderItem.updatedDateTime))
+                    .orderItemStatus(tuple.get(orderItem.orderItemStatus).toString())
+                    .build());
+        }
+
+        Tuple first = tuples.get(0);
+
+        //결제 수단은 조회하지 않는다. 결제 화면에서 따로 조회한다.
+        PaymentDto paymentDto = first.get(payment.id) == null ? null : PaymentDto.builder()
+                .id(first.get(payment.id))
+                .paymentMethods(Collections.emptyList())
+                .initialPaymentAmount(first.get(payment.initialPaymentAmount))
+                .desiredPaymentAmount(first.get(payment.desiredPaymentAmount))
+                .paidPaymentAmount(first.get(payment.paidPaymentAmount))
+                .completeDateTime(first.get(payment.completeDateTime))
+                .paymentStatus(first.get(payment.paymentStatus))
+                .build();
+
+        return Optional.of(OrderFindDtoWithOrderItemAndPayment.builder()
+                .id(first.get(order.id))
+                .storeId(first.get(order.store.id))
+                .paymentDto(paymentDto)
+                .storeTableId(first.get(storeTable.id))
+                .orderItemFindDtos(orderItemFindDtos)
+                .startTime(first.get(order.startTime))
+                .endTime(first.get(order.endTime))
+                .orderStatus(first.get(order.orderStatus).toString())
+                .subtotal(first.get(order.subtotal))
+                .itemCount(first.get(order.itemCount))
+                .build());
+    }
+
+    /**
+     * 끝난 주문의 주문 상품을 (종료 시간, 주문 Id, 주문 상품 Id)의 내림차순으로 limit줄까지 조회한다.
+     * cursor보다 뒤에 있는 줄부터 조회하므로(keyset), 오래된 페이지도 OFFSET 없이 인덱스(store_id, end_time, order_id)를 따라 읽는다.
+     */
+    @Override
+    public List<OrderHistoryLineDto> findAllOrderHistoryLineDto(OrderHistoryCondition condition, OrderHistoryCursor cursor, int limit) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return selectOrderHistoryLineDto(queryFactory, condition)
+                .where(afterCursor(cursor))
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 조건에 맞는 주문 내역 전체를 fetchSize줄씩 DB에서 가져오며 하나씩 넘긴다.
+     * Dto로 조회하므로 영속성 컨텍스트에 엔티티가 쌓이지 않는다.
+     * 트랜잭션 안에서 사용하고, 다 쓰면 닫아야 한다.
+     */
+    @Override
+    public Stream<OrderHistoryLineDto> streamOrderHistoryLineDto(OrderHistoryCondition condition, int fetchSize) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return selectOrderHistoryLineDto(queryFactory, condition)
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .stream();
+    }
+
+    /**
+     * 주문 내보내기용으로 끝난 주문의 주문 상품을 결제 정보와 함께 한 줄씩 읽는다.
+     * 인덱스 순서(가게, 종료 시간, 주문 Id)대로 앞으로만 읽는다.
+     */
+    @Override
+    public Stream<OrderExportLineDto> streamOrderExportLineDto(OrderHistoryCondition condition, int fetchSize) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(new QOrderExportLineDto(
+                        order.id,
+                        order.store.id,
+                        order.startTime,
+                        order.endTime,
+                        order.orderStatus,
+                        orderItem.id,
+                        orderItem.item.id,
+                        orderItem.itemName,
+                        orderItem.price,
+                        orderItem.count,
+                        orderItem.orderItemStatus,
+                        payment.id,
+                        payment.paymentStatus,
+                        payment.initialPaymentAmount,
+                        payment.paidPaymentAmount,
+                        payment.completeDateTime))
+                .from(order)
+                .join(order.orderItems, orderItem)
+                .leftJoin(order.payment, payment)
+                .where(order.store.id.eq(condition.getStoreId()),
+                        //끝난 주문만 내보낸다.
+                        order.endTime.isNotNull(),
+                        orderStatusEq(condition.getOrderStatus()),
+                        endTimeGoe(condition.getFrom()),
+                        endTimeLt(condition.getTo()),
+                        orderItem.orderItemStatus.ne(OrderItemStatus.DELETED))
+                .orderBy(order.endTime.asc(), order.id.asc(), orderItem.id.asc())
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .stream();
+    }
+
+    /**
+     * 가게의 주문마다 삭제되지 않은 주문 상품에서 합계와 수량을 다시 계산해서, 주문에 쌓인 값과 다른 주문만 조회한다.
+     * 주문 상품을 한 번의 GROUP BY로 읽는다.
+     */
+    @Override
+    public List<OrderTotalMismatchDto> findAllOrderTotalMismatchDtoByStoreId(Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        //주문 상품이 없는 주문은 0으로 계산한다.
+        NumberExpression<Long> expectedSubtotal = orderItem.price.multiply(orderItem.count).sum().coalesce(0L);
+        NumberExpression<Long> expectedItemCount = orderItem.count.sum().coalesce(0L);
+
+        return queryFactory
+                .select(new QOrderTotalMismatchDto(
+                        order.id,
+                        expectedSubtotal,
+                        order.subtotal,
+                        expectedItemCount,
+                        order.itemCount))
+                .from(order)
+                .leftJoin(order.orderItems, orderItem).on(orderItem.orderItemStatus.ne(OrderItemStatus.DELETED))
+                .where(order.store.id.eq(storeId)
+                        .and(order.orderStatus.ne(OrderStatus.DELETED)))
+                .groupBy(order.id, order.subtotal, order.itemCount)
+                .having(expectedSubtotal.ne(order.subtotal)
+                        .or(expectedItemCount.ne(order.itemCount)))
+                .orderBy(order.id.asc())
+                .fetch();
+    }
+
+    private JPAQuery<OrderHistoryLineDto> selectOrderHistoryLineDto(JPAQueryFactory queryFactory, OrderHistoryCondition condition) {
+        return queryFactory
+                .select(new QOrderHistoryLineDto(
+                        order.id,
+                        order.store.id,
+                        order.startTime,
+                        order.endTime,
+                        order.orderStatus,
+                        orderItem.id,
+                        orderItem.item.id,
+                        orderItem.itemName,
+                        orderItem.price,
+                        orderItem.count,
+                        orderItem.orderItemStatus))
+                .from(order)
+                .join(order.orderItems, orderItem)
+                .where(order.store.id.eq(condition.getStoreId()),
+                        //끝난 주문만 내역에 나온다.
+                        order.endTime.isNotNull(),
+                        orderStatusEq(condition.getOrderStatus()),
+                        endTimeGoe(condition.getFrom()),
+                        endTimeLt(condition.getTo()),
+                        orderItem.orderItemStatus.ne(OrderItemStatus.DELETED))
+                .orderBy(order.endTime.desc(), order.id.desc(), orderItem.id.desc());
+    }
+
+    //조건이 없으면 null을 반환해서 where 절에서 빠지게 한다.
+    private BooleanExpression orderStatusEq(OrderStatus orderStatus) {
+        return orderStatus == null ? order.orderStatus.ne(OrderStatus.DELETED) : order.orderStatus.eq(orderStatus);
+    }
+
+    private BooleanExpression endTimeGoe(LocalDateTime from) {
+        return from == null ? null : order.endTime.goe(from);
+    }
+
+    private BooleanExpression endTimeLt(LocalDateTime to) {
+        return to == null ? null : order.endTime.lt(to);
+    }
+
+    private BooleanExpression afterCursor(OrderHistoryCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+
+        return order.endTime.lt(cursor.getEndTime())
+                .or(order.endTime.eq(cursor.getEndTime())
+                        .and(order.id.lt(cursor.getOrderId())
+                                .or(order.id.eq(cursor.getOrderId())
+                                        .and(orderItem.id.lt(cursor.getOrderItemId())))));
+    }
 }
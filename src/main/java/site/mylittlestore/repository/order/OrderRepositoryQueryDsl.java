@@ -1,14 +1,30 @@
 package site.mylittlestore.repository.order;
 
 import site.mylittlestore.domain.Order;
+import site.mylittlestore.dto.order.OrderFindDtoWithOrderItemAndPayment;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.order.OrderHistoryCursor;
+import site.mylittlestore.dto.order.OrderExportLineDto;
+import site.mylittlestore.dto.order.OrderHistoryLineDto;
+import site.mylittlestore.dto.order.OrderTotalMismatchDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepositoryQueryDsl {
+    Optional<Order> findWithLockById(Long id);
+    long updatePaidById(Long id, LocalDateTime endTime);
+    long addTotalsById(Long id, long subtotalDelta, long itemCountDelta);
     Optional<Order> findNotDeletedAndPaidByIdAndStoreId(Long id, Long storeId);
-    Optional<Order> findNotDeletedAndPaidWithStoreById(Long orderId);
-    Optional<Order> findNotDeletedAndPaidWithStoreAndOrderItemsById(Long orderId);
+    Optional<Order> findNotDeletedAndPaidWithStoreTableAndPaymentById(Long orderId);
+    Optional<Order> findNotDeletedAndPaidWithStoreTableAndPaymentAndOrderItemsById(Long orderId);
     Optional<Order> findNotDeletedAndPaidWithStoreTableAndOrderItemsByIdAndPaymentId(Long orderId, Long paymentId);
     List<Order> findAllNotDeletedAndPaidByStoreId(Long storeId);
+    Optional<OrderFindDtoWithOrderItemAndPayment> findNotDeletedAndPaidOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId(Long id, Long storeId);
+    List<OrderHistoryLineDto> findAllOrderHistoryLineDto(OrderHistoryCondition condition, OrderHistoryCursor cursor, int limit);
+    Stream<OrderHistoryLineDto> streamOrderHistoryLineDto(OrderHistoryCondition condition, int fetchSize);
+    Stream<OrderExportLineDto> streamOrderExportLineDto(OrderHistoryCondition condition, int fetchSize);
+    List<OrderTotalMismatchDto> findAllOrderTotalMismatchDtoByStoreId(Long storeId);
 }
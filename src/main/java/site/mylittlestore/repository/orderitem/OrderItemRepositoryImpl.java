@@ -3,13 +3,22 @@ package site.mylittlestore.repository.orderitem;
 import com.querydsl.core.Tuple;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.QueryHints;
 import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.dto.orderitem.OrderLineDto;
+import site.mylittlestore.dto.orderitem.PaidOrderItemDto;
+import site.mylittlestore.dto.orderitem.QOrderLineDto;
+import site.mylittlestore.dto.orderitem.QPaidOrderItemDto;
 import site.mylittlestore.enumstorage.status.OrderItemStatus;
+import site.mylittlestore.enumstorage.status.OrderStatus;
 
 import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static site.mylittlestore.domain.QOrder.order;
 import static site.mylittlestore.domain.QOrderItem.orderItem;
 import static site.mylittlestore.domain.item.QItem.item;
 
@@ -151,4 +160,104 @@ public class OrderItemRepositoryImpl implements OrderItemRepositoryQueryDsl {
                 .set(orderItem.orderItemStatus, OrderItemStatus.DELETED)
                 .execute();
     }
+
+    /**
+     * from 이후에 결제가 완료된 주문 상품의 수량을 fetchSize줄씩 DB에서 가져오며 하나씩 넘긴다.
+     * 서버가 시작될 때 인기 상품 순위를 다시 채우는 데 쓴다.
+     * 트랜잭션 안에서 사용하고, 다 쓰면 닫아야 한다.
+     */
+    @Override
+    public Stream<PaidOrderItemDto> streamPaidOrderItemDto(LocalDateTime from, int fetchSize) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(new QPaidOrderItemDto(
+                        order.store.id,
+                        orderItem.item.id,
+                        orderItem.count,
+                        order.endTime
+                ))
+                .from(orderItem)
+                .join(orderItem.order, order)
+                .where(order.orderStatus.eq(OrderStatus.PAID)
+                        .and(order.endTime.goe(from))
+                        .and(orderItem.orderItemStatus.eq(OrderItemStatus.PAID)))
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .stream();
+    }
+
+    @Override
+    public List<PaidOrderItemDto> findAllPaidOrderItemDtoByOrderId(Long orderId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(new QPaidOrderItemDto(
+                        order.store.id,
+                        orderItem.item.id,
+                        orderItem.count,
+                        order.endTime
+                ))
+                .from(orderItem)
+                .join(orderItem.order, order)
+                .where(orderItem.order.id.eq(orderId)
+                        .and(orderItem.orderItemStatus.eq(OrderItemStatus.PAID)))
+                .fetch();
+    }
+
+    @Override
+    public long countNotDeletedByOrderId(Long orderId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        Long count = queryFactory
+                .select(orderItem.id.count())
+                .from(orderItem)
+                .where(orderItem.order.id.eq(orderId)
+                        .and(orderItem.orderItemStatus.ne(OrderItemStatus.DELETED)))
+                .fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 주문의 ORDERED인 주문 상품을 한 번에 PAID로 바꾼다.
+     * 삭제되었거나 이미 결제된 주문 상품은 변경되지 않으므로, 반환값으로 확인한다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long updatePaidByOrderId(Long orderId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(orderItem)
+                .set(orderItem.orderItemStatus, OrderItemStatus.PAID)
+                .where(orderItem.order.id.eq(orderId)
+                        .and(orderItem.orderItemStatus.eq(OrderItemStatus.ORDERED)))
+                .execute();
+    }
+
+    /**
+     * from 이후에 주문된, 결제가 완료된 주문 상품을 fetchSize줄씩 DB에서 가져오며 하나씩 넘긴다.
+     * 주문 상품에 가게 Id와 상품 이름이 있으므로 다른 테이블은 읽지 않는다.
+     * 트랜잭션 안에서 사용하고, 다 쓰면 닫아야 한다.
+     */
+    @Override
+    public Stream<OrderLineDto> streamPaidOrderLineDto(LocalDateTime from, int fetchSize) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(new QOrderLineDto(
+                        orderItem.item.id,
+                        orderItem.itemName,
+                        orderItem.store.id,
+                        orderItem.price,
+                        orderItem.count,
+                        orderItem.orderedDateTime
+                ))
+                .from(orderItem)
+                .where(orderItem.orderItemStatus.eq(OrderItemStatus.PAID)
+                        .and(orderItem.orderedDateTime.goe(from)))
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .stream();
+    }
 }
@@ -1,9 +1,13 @@
 package site.mylittlestore.repository.orderitem;
 
 import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.dto.orderitem.OrderLineDto;
+import site.mylittlestore.dto.orderitem.PaidOrderItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderItemRepositoryQueryDsl {
     Optional<OrderItem> findOrderedById(Long id);
@@ -17,4 +21,9 @@ public interface OrderItemRepositoryQueryDsl {
     Optional<OrderItem> findByOrderIdAndItemIdAndPrice(Long orderId, Long itemId, Long price);
     Optional<OrderItem> findByOrderIdAndOrderItemIdAndItemIdAndPrice(Long orderId, Long orderItemId, Long itemId, Long price);
     void deleteByChangingStatus(Long id);
+    Stream<PaidOrderItemDto> streamPaidOrderItemDto(LocalDateTime from, int fetchSize);
+    List<PaidOrderItemDto> findAllPaidOrderItemDtoByOrderId(Long orderId);
+    long countNotDeletedByOrderId(Long orderId);
+    long updatePaidByOrderId(Long orderId);
+    Stream<OrderLineDto> streamPaidOrderLineDto(LocalDateTime from, int fetchSize);
 }
@@ -7,6 +7,7 @@ import site.mylittlestore.enumstorage.status.PaymentStatus;
 
 import javax.persistence.EntityManager;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static site.mylittlestore.domain.QOrder.order;
@@ -56,4 +57,56 @@ public class PaymentRepositoryImpl implements PaymentRepositoryQueryDsl {
                     .fetchOne());
     }
 
+    /**
+     * 결제 엔티티를 읽지 않고 가게 Id만 조회한다.
+     * 결제를 UPDATE하기 전에 읽어도, 영속성 컨텍스트에 예전 결제가 남지 않는다.
+     */
+    @Override
+    public Optional<Long> findStoreIdById(Long id) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                    .select(payment.order.store.id)
+                    .from(payment)
+                    .where(payment.id.eq(id))
+                    .fetchOne());
+    }
+
+    /**
+     * 결제 수단의 금액을 결제된 금액에 더한다.
+     * 결제 중이고, 더해도 결제할 금액을 넘지 않을 때만 UPDATE 한 번으로 더한다.
+     * 결제와 결제 수단을 조회해서 합하지 않으므로, 동시에 지불해도 더한 값이 사라지거나 결제할 금액을 넘지 않는다.
+     * @return 변경된 행의 수(1이면 성공, 0이면 남은 금액 부족이거나 결제 중이 아님)
+     */
+    @Override
+    public long addPaidPaymentAmountById(Long id, Long paymentMethodAmount) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(payment)
+                .set(payment.paidPaymentAmount, payment.paidPaymentAmount.add(paymentMethodAmount))
+                .where(payment.id.eq(id)
+                        .and(payment.paymentStatus.eq(PaymentStatus.IN_PROGRESS))
+                        .and(payment.paidPaymentAmount.add(paymentMethodAmount).loe(payment.initialPaymentAmount)))
+                .execute();
+    }
+
+    /**
+     * 결제된 금액이 결제할 금액과 같아진 결제를 SUCCESS로 바꾼다.
+     * 같은 결제에 동시에 지불해도, 마지막 금액을 더한 트랜잭션에서만 변경된다.
+     * @return 변경된 행의 수(1이면 이번 지불로 결제 완료)
+     */
+    @Override
+    public long updateSuccessById(Long id, LocalDateTime completeDateTime) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(payment)
+                .set(payment.paymentStatus, PaymentStatus.SUCCESS)
+                .set(payment.completeDateTime, completeDateTime)
+                .where(payment.id.eq(id)
+                        .and(payment.paymentStatus.eq(PaymentStatus.IN_PROGRESS))
+                        .and(payment.paidPaymentAmount.eq(payment.initialPaymentAmount)))
+                .execute();
+    }
 }
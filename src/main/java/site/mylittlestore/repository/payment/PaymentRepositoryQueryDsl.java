@@ -2,10 +2,14 @@ package site.mylittlestore.repository.payment;
 
 import site.mylittlestore.domain.Payment;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface PaymentRepositoryQueryDsl {
     Optional<Payment> findSuccessByIdAndOrderId(Long id, Long orderId);
     Optional<Payment> findNotSuccessByIdAndOrderId(Long id, Long orderId);
     Optional<Payment> findNotSuccessWithPaymentMethodsAndOrderByIdAndOrderId(Long id, Long orderId);
+    Optional<Long> findStoreIdById(Long id);
+    long addPaidPaymentAmountById(Long id, Long paymentMethodAmount);
+    long updateSuccessById(Long id, LocalDateTime completeDateTime);
 }
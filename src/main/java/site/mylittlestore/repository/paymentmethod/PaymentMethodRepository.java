@@ -2,12 +2,22 @@ package site.mylittlestore.repository.paymentmethod;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import site.mylittlestore.domain.PaymentMethod;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodExportLineDto;
+import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PaymentMethodRepository extends JpaRepository<PaymentMethod, Long>, PaymentMethodRepositoryQueryDsl {
+    Optional<PaymentMethod> findByIdAndPaymentId(Long id, Long paymentId);
     Optional<PaymentMethod> findNotPaidByIdAndPaymentId(Long id, Long paymentId);
     Optional<PaymentMethod> findPaidWithPaymentByIdAndPaymentId(Long id, Long paymentId);
+    long updatePaidById(Long id, LocalDateTime paymentMethodCompleteDateTime);
+    long updateNotPaidStatusById(Long id, PaymentMethodStatus paymentMethodStatus);
+    long updateAuthorizingById(Long id);
     List<PaymentMethod> findAllByPaymentId(Long paymentId);
+    Stream<PaymentMethodExportLineDto> streamPaymentMethodExportLineDto(OrderHistoryCondition condition, int fetchSize);
 }
@@ -1,20 +1,41 @@
 package site.mylittlestore.repository.paymentmethod;
 
+import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.QueryHints;
 import site.mylittlestore.domain.PaymentMethod;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodExportLineDto;
+import site.mylittlestore.dto.paymentmethod.QPaymentMethodExportLineDto;
+import site.mylittlestore.enumstorage.status.OrderStatus;
 import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
 
 import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static site.mylittlestore.domain.QOrder.order;
+import static site.mylittlestore.domain.QPayment.payment;
 import static site.mylittlestore.domain.QPaymentMethod.paymentMethod;
 
 @RequiredArgsConstructor
 public class PaymentMethodRepositoryImpl implements PaymentMethodRepositoryQueryDsl {
     private final EntityManager em;
 
+    @Override
+    public Optional<PaymentMethod> findByIdAndPaymentId(Long id, Long paymentId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .selectFrom(paymentMethod)
+                .where(paymentMethod.id.eq(id)
+                        .and(paymentMethod.payment.id.eq(paymentId)))
+                .fetchOne());
+    }
+
     @Override
     public Optional<PaymentMethod> findNotPaidByIdAndPaymentId(Long id, Long paymentId) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
@@ -40,6 +61,58 @@ public class PaymentMethodRepositoryImpl implements PaymentMethodRepositoryQuery
                 .fetchOne());
     }
 
+    /**
+     * 지불되지 않은 결제 수단만 PAID로 바꾼다.
+     * 같은 결제 수단을 동시에 지불하면 한 번만 변경된다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long updatePaidById(Long id, LocalDateTime paymentMethodCompleteDateTime) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(paymentMethod)
+                .set(paymentMethod.paymentMethodStatus, PaymentMethodStatus.PAID)
+                .set(paymentMethod.paymentMethodCompleteDateTime, paymentMethodCompleteDateTime)
+                .where(paymentMethod.id.eq(id)
+                        .and(paymentMethod.paymentMethodStatus.ne(PaymentMethodStatus.PAID)))
+                .execute();
+    }
+
+    /**
+     * 지불되지 않은 결제 수단의 상태만 바꾼다.
+     * 승인 결과를 반영하는 동안 다른 요청이 지불했으면 변경되지 않는다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long updateNotPaidStatusById(Long id, PaymentMethodStatus paymentMethodStatus) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(paymentMethod)
+                .set(paymentMethod.paymentMethodStatus, paymentMethodStatus)
+                .where(paymentMethod.id.eq(id)
+                        .and(paymentMethod.paymentMethodStatus.ne(PaymentMethodStatus.PAID)))
+                .execute();
+    }
+
+    /**
+     * 승인을 요청하지 않았거나(IN_PROGRESS), 승인이 거절(FAIL)됐거나 오류(ERROR)가 난 결제 수단만 AUTHORIZING으로 바꾼다.
+     * 같은 결제 수단의 승인을 여러 서버에서 동시에 시작해도 한 번만 변경된다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long updateAuthorizingById(Long id) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(paymentMethod)
+                .set(paymentMethod.paymentMethodStatus, PaymentMethodStatus.AUTHORIZING)
+                .where(paymentMethod.id.eq(id)
+                        .and(paymentMethod.paymentMethodStatus.in(PaymentMethodStatus.IN_PROGRESS, PaymentMethodStatus.FAIL, PaymentMethodStatus.ERROR)))
+                .execute();
+    }
+
     @Override
     public List<PaymentMethod> findAllByPaymentId(Long paymentId) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
@@ -50,4 +123,50 @@ public class PaymentMethodRepositoryImpl implements PaymentMethodRepositoryQuery
                 .fetch();
     }
 
+    /**
+     * 결제 수단 내보내기용으로 끝난 주문의 결제 수단을 한 줄씩 읽는다.
+     * 주문 내보내기와 같은 순서(종료 시간, 주문 Id)로 앞으로만 읽는다.
+     */
+    @Override
+    public Stream<PaymentMethodExportLineDto> streamPaymentMethodExportLineDto(OrderHistoryCondition condition, int fetchSize) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(new QPaymentMethodExportLineDto(
+                        order.id,
+                        order.store.id,
+                        order.endTime,
+                        payment.id,
+                        paymentMethod.id,
+                        paymentMethod.paymentMethodType,
+                        paymentMethod.paymentMethodAmount,
+                        paymentMethod.paymentMethodCompleteDateTime,
+                        paymentMethod.paymentMethodStatus))
+                .from(paymentMethod)
+                .join(paymentMethod.payment, payment)
+                .join(payment.order, order)
+                .where(order.store.id.eq(condition.getStoreId()),
+                        //끝난 주문만 내보낸다.
+                        order.endTime.isNotNull(),
+                        orderStatusEq(condition.getOrderStatus()),
+                        endTimeGoe(condition.getFrom()),
+                        endTimeLt(condition.getTo()))
+                .orderBy(order.endTime.asc(), order.id.asc(), paymentMethod.id.asc())
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .stream();
+    }
+
+    //조건이 없으면 null을 반환해서 where 절에서 빠지게 한다.
+    private BooleanExpression orderStatusEq(OrderStatus orderStatus) {
+        return orderStatus == null ? order.orderStatus.ne(OrderStatus.DELETED) : order.orderStatus.eq(orderStatus);
+    }
+
+    private BooleanExpression endTimeGoe(LocalDateTime from) {
+        return from == null ? null : order.endTime.goe(from);
+    }
+
+    private BooleanExpression endTimeLt(LocalDateTime to) {
+        return to == null ? null : order.endTime.lt(to);
+    }
 }
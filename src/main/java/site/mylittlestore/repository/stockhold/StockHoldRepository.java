@@ -0,0 +1,14 @@
+package site.mylittlestore.repository.stockhold;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import site.mylittlestore.domain.StockHold;
+import site.mylittlestore.dto.stockhold.StockHoldDto;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, Long>, StockHoldRepositoryQueryDsl {
+    Optional<StockHold> findWithLockByOrderId(Long orderId);
+    List<StockHold> findAllHeldWithOrderByOrderIdIn(List<Long> orderIds);
+    List<StockHoldDto> findAllHeldStockHoldDto();
+}
@@ -0,0 +1,69 @@
+package site.mylittlestore.repository.stockhold;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import site.mylittlestore.domain.StockHold;
+import site.mylittlestore.dto.stockhold.QStockHoldDto;
+import site.mylittlestore.dto.stockhold.StockHoldDto;
+import site.mylittlestore.enumstorage.status.StockHoldStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+import static site.mylittlestore.domain.QOrder.order;
+import static site.mylittlestore.domain.QStockHold.stockHold;
+
+@RequiredArgsConstructor
+public class StockHoldRepositoryImpl implements StockHoldRepositoryQueryDsl {
+    private final EntityManager em;
+
+    /**
+     * 주문 상품 변경과 만료된 재고 반환이 동시에 일어나지 않도록, 예약 행을 잠그고 조회한다.
+     */
+    @Override
+    public Optional<StockHold> findWithLockByOrderId(Long orderId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .select(stockHold)
+                .from(stockHold)
+                .where(stockHold.order.id.eq(orderId))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetchOne());
+    }
+
+    @Override
+    public List<StockHold> findAllHeldWithOrderByOrderIdIn(List<Long> orderIds) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(stockHold)
+                .from(stockHold)
+                .join(stockHold.order, order).fetchJoin()
+                .where(stockHold.order.id.in(orderIds)
+                        .and(stockHold.stockHoldStatus.eq(StockHoldStatus.HELD)))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+    }
+
+    /**
+     * 서버가 시작될 때 만료 대기열을 다시 채우기 위해, 예약 중인 재고만 조회한다.
+     * (stock_hold_status, expires_at) 인덱스를 사용하므로 주문 상품 테이블은 읽지 않는다.
+     */
+    @Override
+    public List<StockHoldDto> findAllHeldStockHoldDto() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(new QStockHoldDto(
+                        stockHold.order.id,
+                        stockHold.expiresAt
+                ))
+                .from(stockHold)
+                .where(stockHold.stockHoldStatus.eq(StockHoldStatus.HELD))
+                .orderBy(stockHold.expiresAt.asc())
+                .fetch();
+    }
+}
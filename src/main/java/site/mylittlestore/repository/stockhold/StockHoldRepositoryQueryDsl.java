@@ -0,0 +1,13 @@
+package site.mylittlestore.repository.stockhold;
+
+import site.mylittlestore.domain.StockHold;
+import site.mylittlestore.dto.stockhold.StockHoldDto;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StockHoldRepositoryQueryDsl {
+    Optional<StockHold> findWithLockByOrderId(Long orderId);
+    List<StockHold> findAllHeldWithOrderByOrderIdIn(List<Long> orderIds);
+    List<StockHoldDto> findAllHeldStockHoldDto();
+}
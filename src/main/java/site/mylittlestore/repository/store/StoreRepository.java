@@ -3,6 +3,9 @@ package site.mylittlestore.repository.store;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 import site.mylittlestore.domain.Store;
+import site.mylittlestore.dto.store.StoreDto;
+import site.mylittlestore.dto.store.StoreMetadataDto;
+import site.mylittlestore.dto.store.StoreOverviewDto;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,4 +20,14 @@ public interface StoreRepository extends JpaRepository<Store, Long>, StoreReposi
 
     Optional<Store> findStoreByIdAndMemberId(Long id, Long memberId);
 
+    Optional<StoreOverviewDto> findStoreOverviewDtoById(Long id);
+
+    Optional<StoreDto> findStoreDtoById(Long id);
+
+    List<StoreDto> findAllStoreDtoByMemberId(Long memberId);
+
+    Optional<StoreMetadataDto> findStoreMetadataDtoById(Long id);
+
+    Optional<Store> findWithLockById(Long id);
+
 }
@@ -1,72 +1,181 @@
-//package site.mylittlestore.repository.store;
-//
-//import com.querydsl.core.types.Projections;
-//import com.querydsl.jpa.impl.JPAQueryFactory;
-//import lombok.RequiredArgsConstructor;
-//import site.mylittlestore.dto.item.ItemCreationDto;
-//import site.mylittlestore.dto.store.StoreDto;
-//import site.mylittlestore.dto.order.OrderDto;
-//
-//import javax.persistence.EntityManager;
-//import java.util.Map;
-//import java.util.Optional;
-//
-//import static com.querydsl.core.group.GroupBy.groupBy;
-//import static com.querydsl.core.group.GroupBy.list;
-//import static site.mylittlestore.domain.QStore.store;
-//import static site.mylittlestore.domain.QOrder.order;
-//import static site.mylittlestore.domain.item.QItem.item;
-//
-//@RequiredArgsConstructor
-//public class StoreRepositoryImpl implements StoreRepositoryQueryDsl {
-//    private final EntityManager em;
-//
-//    @Override
-//    public Optional<StoreDto> findStoreDtoById(Long id) {
-//        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
-//
-//        //write code 1:N relation Dto using QueryDsl Projections
-//        return Optional.ofNullable(
-//                queryFactory
-//                        .select(Projections.constructor(StoreDto.class,
-//                                store.id,
-//                                store.member.id,
-//                                store.name,
-//                                store.address,
-//                                store.storeStatus,
-//                                store.orders,
-//                                store.items,
-//                                store.tableNumbers
-//                        ))
-//                        .from(store)
-//                        .join(store.orders, order)
-//                        .where(store.id.eq(id))
-//                        .fetchOne()
-//        );
-//
-//        Map<Long, StoreDto> transform = queryFactory.from(store)
-//                .leftJoin(store.orders, order)
-//                .on(store.id.eq(order.store.id))
-//                .leftJoin(store.items, item)
-//                .on(store.id.eq(item.store.id))
-//                .where(store.id.eq(id))
-//                .transform(groupBy(store.id)
-//                        .as(
-//                                Projections.fields(StoreDto.class,
-//                                        store.id.as("id"),
-//                                        store.member.id.as("memberId"),
-//                                        store.name.as("name"),
-//                                        store.address.as("address"),
-//                                        store.storeStatus.as("storeStatus"),
-//                                        list(Projections.fields(OrderDto.class,
-//                                                order.id.as("id")
-//                                        )).as("orders"),
-//                                        list(Projections.fields(ItemCreationDto.class,
-//                                                item.id.as("id")
-//                                        )).as("items"),
-//                                        store.tableNumbers.as("tableNumbers")
-//                                )));
-//
-//        return Optional.ofNullable(transform.get(id));
-//    }
-//}
\ No newline at end of file
+package site.mylittlestore.repository.store;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import site.mylittlestore.domain.Store;
+import site.mylittlestore.dto.store.QStoreMetadataDto;
+import site.mylittlestore.dto.store.QStoreOverviewDto;
+import site.mylittlestore.dto.store.StoreDto;
+import site.mylittlestore.dto.store.StoreMetadataDto;
+import site.mylittlestore.dto.store.StoreOverviewDto;
+import site.mylittlestore.enumstorage.status.ItemStatus;
+import site.mylittlestore.enumstorage.status.StoreTableStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static site.mylittlestore.domain.QStore.store;
+import static site.mylittlestore.domain.QStoreTable.storeTable;
+import static site.mylittlestore.domain.item.QItem.item;
+
+@RequiredArgsConstructor
+public class StoreRepositoryImpl implements StoreRepositoryQueryDsl {
+    private final EntityManager em;
+
+    /**
+     * 가게 이름은 자연 키이므로, 2차 캐시에서 이름으로 가게 Id를 찾고 가게를 조회한다.
+     */
+    @Override
+    public Optional<Store> findStoreByName(String storeName) {
+        return em.unwrap(Session.class)
+                .bySimpleNaturalId(Store.class)
+                .loadOptional(storeName);
+    }
+
+    /**
+     * 가게 정보와 함께, 삭제되지 않은 테이블 수와 판매 중인 상품 수를 SQL 한 번으로 조회한다.
+     */
+    @Override
+    public Optional<StoreOverviewDto> findStoreOverviewDtoById(Long id) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .select(new QStoreOverviewDto(
+                        store.id,
+                        store.member.id,
+                        store.name,
+                        store.address.city,
+                        store.address.street,
+                        store.address.zipcode,
+                        store.storeStatus,
+                        JPAExpressions
+                                .select(storeTable.count())
+                                .from(storeTable)
+                                .where(storeTable.store.id.eq(store.id)
+                                        .and(storeTable.storeTableStatus.ne(StoreTableStatus.DELETED))),
+                        JPAExpressions
+                                .select(item.count())
+                                .from(item)
+                                .where(item.store.id.eq(store.id)
+                                        .and(item.itemStatus.eq(ItemStatus.ONSALE)))
+                ))
+                .from(store)
+                .where(store.id.eq(id))
+                .fetchOne());
+    }
+
+    @Override
+    public Optional<StoreMetadataDto> findStoreMetadataDtoById(Long id) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .select(new QStoreMetadataDto(
+                        store.id,
+                        store.member.id,
+                        store.storeStatus
+                ))
+                .from(store)
+                .where(store.id.eq(id))
+                .fetchOne());
+    }
+
+    /**
+     * 가게 상태를 바꾸는 동안 다른 변경이 끼어들지 않도록, 가게 행을 잠그고 조회한다.
+     */
+    @Override
+    public Optional<Store> findWithLockById(Long id) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .select(store)
+                .from(store)
+                .where(store.id.eq(id))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetchOne());
+    }
+
+    @Override
+    public Optional<StoreDto> findStoreDtoById(Long id) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        List<Tuple> storeTuples = selectStoreTuple(queryFactory)
+                .where(store.id.eq(id))
+                .fetch();
+
+        return toStoreDtos(queryFactory, storeTuples).stream().findFirst();
+    }
+
+    @Override
+    public List<StoreDto> findAllStoreDtoByMemberId(Long memberId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        List<Tuple> storeTuples = selectStoreTuple(queryFactory)
+                .where(store.member.id.eq(memberId))
+                .orderBy(store.id.asc())
+                .fetch();
+
+        return toStoreDtos(queryFactory, storeTuples);
+    }
+
+    private JPAQuery<Tuple> selectStoreTuple(JPAQueryFactory queryFactory) {
+        return queryFactory
+                .select(store.id,
+                        store.member.id,
+                        store.name,
+                        store.address,
+                        store.storeStatus)
+                .from(store);
+    }
+
+    /**
+     * 가게가 몇 개든, 테이블 Id와 상품 Id는 각각 IN 쿼리 한 번으로 조회해서 가게별로 나눈다.
+     */
+    private List<StoreDto> toStoreDtos(JPAQueryFactory queryFactory, List<Tuple> storeTuples) {
+        if (storeTuples.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> storeIds = storeTuples.stream()
+                .map(storeTuple -> storeTuple.get(store.id))
+                .collect(Collectors.toList());
+
+        Map<Long, List<Long>> storeTableIdsByStoreId = queryFactory
+                .select(storeTable.store.id, storeTable.id)
+                .from(storeTable)
+                .where(storeTable.store.id.in(storeIds))
+                .orderBy(storeTable.id.asc())
+                .fetch().stream()
+                .collect(Collectors.groupingBy(tuple -> tuple.get(storeTable.store.id),
+                        Collectors.mapping(tuple -> tuple.get(storeTable.id), Collectors.toList())));
+
+        Map<Long, List<Long>> itemIdsByStoreId = queryFactory
+                .select(item.store.id, item.id)
+                .from(item)
+                .where(item.store.id.in(storeIds))
+                .orderBy(item.id.asc())
+                .fetch().stream()
+                .collect(Collectors.groupingBy(tuple -> tuple.get(item.store.id),
+                        Collectors.mapping(tuple -> tuple.get(item.id), Collectors.toList())));
+
+        return storeTuples.stream()
+                .map(storeTuple -> StoreDto.builder()
+                        .id(storeTuple.get(store.id))
+                        .memberId(storeTuple.get(store.member.id))
+                        .name(storeTuple.get(store.name))
+                        .address(storeTuple.get(store.address))
+                        .storeStatus(storeTuple.get(store.storeStatus))
+                        .storeTableIds(storeTableIdsByStoreId.getOrDefault(storeTuple.get(store.id), Collections.emptyList()))
+                        .itemIds(itemIdsByStoreId.getOrDefault(storeTuple.get(store.id), Collections.emptyList()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -1,4 +1,18 @@
 package site.mylittlestore.repository.store;
 
+import site.mylittlestore.domain.Store;
+import site.mylittlestore.dto.store.StoreDto;
+import site.mylittlestore.dto.store.StoreMetadataDto;
+import site.mylittlestore.dto.store.StoreOverviewDto;
+
+import java.util.List;
+import java.util.Optional;
+
 public interface StoreRepositoryQueryDsl {
+    Optional<Store> findStoreByName(String storeName);
+    Optional<StoreOverviewDto> findStoreOverviewDtoById(Long id);
+    Optional<StoreDto> findStoreDtoById(Long id);
+    List<StoreDto> findAllStoreDtoByMemberId(Long memberId);
+    Optional<StoreMetadataDto> findStoreMetadataDtoById(Long id);
+    Optional<Store> findWithLockById(Long id);
 }
@@ -10,7 +10,7 @@ public interface StoreTableRepository extends JpaRepository<StoreTable, Long>, S
 
     Optional<StoreTable> findNotDeletedById(Long id);
     Optional<StoreTable> findNotDeletedByIdAndStoreId(Long id, Long storeId);
-    Optional<StoreTable> findEmptyWithStoreByIdAndStoreId(Long id, Long storeId);
+    Optional<StoreTable> findEmptyByIdAndStoreId(Long id, Long storeId);
 
     Optional<StoreTable> findStoreTableWithStoreAndOrderByIdAndStoreId(Long id, Long storeId);
 
@@ -19,4 +19,12 @@ public interface StoreTableRepository extends JpaRepository<StoreTable, Long>, S
 
     //가게에 속한 테이블만 찾아야지.
     List<StoreTable> findAllStoreTableWithOrderByStoreId(Long storeId);
+
+    Integer findMaxTableNumberByStoreId(Long storeId);
+    List<Long> findAllNotDeletedIdByStoreId(Long storeId);
+
+    List<Long> insertAll(Long storeId, int firstTableNumber, int count);
+    long updateTableNumbers(Long storeId, List<Long> ids, int firstTableNumber);
+    long deleteAllEmptyByIdInAndStoreId(List<Long> ids, Long storeId);
+    long updateEmptyByOrderId(Long orderId);
 }
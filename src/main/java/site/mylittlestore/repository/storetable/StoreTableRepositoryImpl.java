@@ -1,13 +1,17 @@
 package site.mylittlestore.repository.storetable;
 
+import com.querydsl.core.types.dsl.CaseForEqBuilder;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import site.mylittlestore.domain.Order;
+import site.mylittlestore.domain.Store;
 import site.mylittlestore.domain.StoreTable;
 import site.mylittlestore.enumstorage.status.StoreTableStatus;
 import site.mylittlestore.repository.order.OrderRepositoryQueryDsl;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,15 +64,16 @@ public class StoreTableRepositoryImpl implements StoreTableRepositoryQueryDsl {
     }
 
 
+    /**
+     * 가게 상태는 StoreMetadataCache에서 확인하므로 가게는 조인하지 않는다.
+     */
     @Override
-    public Optional<StoreTable> findEmptyWithStoreByIdAndStoreId(Long id, Long storeId) {
+    public Optional<StoreTable> findEmptyByIdAndStoreId(Long id, Long storeId) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
 
         return Optional.ofNullable(queryFactory
                 .select(storeTable)
                 .from(storeTable)
-                .join(storeTable.store, store).fetchJoin()
-//                        .join(storeTable.order, order).fetchJoin()
                 .where(storeTable.id.eq(id)
                         .and(storeTable.store.id.eq(storeId))
                         .and(storeTable.storeTableStatus.eq(StoreTableStatus.EMPTY)))
@@ -99,7 +104,7 @@ public class StoreTableRepositoryImpl implements StoreTableRepositoryQueryDsl {
                 .from(storeTable)
                 .where(storeTable.store.id.eq(storeId))
                 .where(storeTable.storeTableStatus.ne(StoreTableStatus.DELETED))
-                .orderBy(storeTable.id.asc())
+                .orderBy(storeTable.tableNumber.asc(), storeTable.id.asc())
                 .fetch();
     }
 
@@ -113,7 +118,119 @@ public class StoreTableRepositoryImpl implements StoreTableRepositoryQueryDsl {
                 .leftJoin(storeTable.order, order).fetchJoin()
                 .where(storeTable.store.id.eq(storeId)
                         .and(storeTable.storeTableStatus.ne(StoreTableStatus.DELETED)))
-                .orderBy(storeTable.id.asc())
+                .orderBy(storeTable.tableNumber.asc(), storeTable.id.asc())
+                .fetch();
+    }
+
+    @Override
+    public Integer findMaxTableNumberByStoreId(Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(storeTable.tableNumber.max())
+                .from(storeTable)
+                .where(storeTable.store.id.eq(storeId)
+                        .and(storeTable.storeTableStatus.ne(StoreTableStatus.DELETED)))
+                .fetchOne();
+    }
+
+    @Override
+    public List<Long> findAllNotDeletedIdByStoreId(Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .select(storeTable.id)
+                .from(storeTable)
+                .where(storeTable.store.id.eq(storeId)
+                        .and(storeTable.storeTableStatus.ne(StoreTableStatus.DELETED)))
+                .orderBy(storeTable.tableNumber.asc(), storeTable.id.asc())
                 .fetch();
     }
+
+    /**
+     * 번호가 firstTableNumber부터 이어지는 빈 테이블을 count개 저장한다.
+     * 가게는 프록시로만 참조하고 가게의 테이블 목록은 건드리지 않는다.
+     * INSERT는 hibernate.jdbc.batch_size 단위로 묶여서 나간다.
+     * @return 저장한 테이블의 Id, 번호 순서
+     */
+    @Override
+    public List<Long> insertAll(Long storeId, int firstTableNumber, int count) {
+        Store store = em.getReference(Store.class, storeId);
+
+        List<StoreTable> storeTables = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StoreTable createdStoreTable = StoreTable.builder()
+                    .store(store)
+                    .tableNumber(firstTableNumber + i)
+                    .build();
+            em.persist(createdStoreTable);
+            storeTables.add(createdStoreTable);
+        }
+        em.flush();
+
+        List<Long> storeTableIds = new ArrayList<>(count);
+        for (StoreTable createdStoreTable : storeTables) {
+            storeTableIds.add(createdStoreTable.getId());
+        }
+        return storeTableIds;
+    }
+
+    /**
+     * ids의 순서대로 firstTableNumber번부터 번호를 다시 붙인다.
+     * 테이블마다 UPDATE를 보내지 않고, CASE 식 하나로 한 번에 바꾼다.
+     * CASE 식이 ids 수만큼 길어지므로, 많으면 나눠서 호출해야 한다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long updateTableNumbers(Long storeId, List<Long> ids, int firstTableNumber) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        CaseForEqBuilder<Long>.Cases<Integer, NumberExpression<Integer>> cases = storeTable.id.when(ids.get(0)).then(firstTableNumber);
+        for (int i = 1; i < ids.size(); i++) {
+            cases = cases.when(ids.get(i)).then(firstTableNumber + i);
+        }
+
+        return queryFactory
+                .update(storeTable)
+                .set(storeTable.tableNumber, cases.otherwise(storeTable.tableNumber))
+                .where(storeTable.id.in(ids)
+                        .and(storeTable.store.id.eq(storeId)))
+                .execute();
+    }
+
+    /**
+     * 빈 테이블만 삭제 상태로 바꾸고 번호를 비운다.
+     * 사용 중이거나 이미 삭제된 테이블은 변경되지 않으므로, 반환값으로 확인한다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long deleteAllEmptyByIdInAndStoreId(List<Long> ids, Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(storeTable)
+                .set(storeTable.storeTableStatus, StoreTableStatus.DELETED)
+                .setNull(storeTable.tableNumber)
+                .where(storeTable.id.in(ids)
+                        .and(storeTable.store.id.eq(storeId))
+                        .and(storeTable.storeTableStatus.eq(StoreTableStatus.EMPTY)))
+                .execute();
+    }
+
+    /**
+     * 주문이 사용 중인 테이블을 빈 테이블로 바꾼다.
+     * StoreTable.changeStoreTableStatusEmpty처럼 사용 중인 테이블만 바꾼다.
+     * @return 변경된 행의 수
+     */
+    @Override
+    public long updateEmptyByOrderId(Long orderId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(storeTable)
+                .set(storeTable.storeTableStatus, StoreTableStatus.EMPTY)
+                .where(storeTable.order.id.eq(orderId)
+                        .and(storeTable.storeTableStatus.eq(StoreTableStatus.USING)))
+                .execute();
+    }
 }
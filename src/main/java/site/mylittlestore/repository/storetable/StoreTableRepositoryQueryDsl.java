@@ -9,9 +9,17 @@ public interface StoreTableRepositoryQueryDsl {
     Optional<StoreTable> findNotDeletedById(Long id);
     Optional<StoreTable> findNotDeletedByIdAndStoreId(Long id, Long storeId);
 
-    Optional<StoreTable> findEmptyWithStoreByIdAndStoreId(Long id, Long storeId);
+    Optional<StoreTable> findEmptyByIdAndStoreId(Long id, Long storeId);
 
     Optional<StoreTable> findStoreTableWithStoreAndOrderByIdAndStoreId(Long id, Long storeId);
     List<StoreTable> findAllStoreTableByStoreIdWhereStoreTableStatusIsNotDeleted(Long storeId);
     List<StoreTable> findAllStoreTableWithOrderByStoreId(Long storeId);
+
+    Integer findMaxTableNumberByStoreId(Long storeId);
+    List<Long> findAllNotDeletedIdByStoreId(Long storeId);
+
+    List<Long> insertAll(Long storeId, int firstTableNumber, int count);
+    long updateTableNumbers(Long storeId, List<Long> ids, int firstTableNumber);
+    long deleteAllEmptyByIdInAndStoreId(List<Long> ids, Long storeId);
+    long updateEmptyByOrderId(Long orderId);
 }
@@ -0,0 +1,67 @@
+package site.mylittlestore.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.service.AnalyticsService;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+
+/**
+ * 분석용 주문 상품 스냅샷을 주기적으로 새로 만든다.
+ * 서버가 시작되면 바로 한 번 만들고, 그 뒤로는 refresh-interval마다 만든다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalyticsSnapshotRefresher {
+
+    private final AnalyticsService analyticsService;
+
+    @Value("${mylittlestore.analytics.refresh-interval:PT1H}")
+    private Duration refreshInterval;
+
+    private volatile boolean running;
+
+    private Thread refresherThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        refresherThread = new Thread(this::refresh, "analytics-snapshot-refresher");
+        refresherThread.setDaemon(true);
+        refresherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (refresherThread != null) {
+            refresherThread.interrupt();
+        }
+    }
+
+    private void refresh() {
+        while (running) {
+            try {
+                long startNanos = System.nanoTime();
+                int rowCount = analyticsService.refreshSnapshot();
+                log.info("refreshed analytics snapshot with {} order lines in {}ms", rowCount, (System.nanoTime() - startNanos) / 1_000_000);
+            } catch (RuntimeException e) {
+                //실패하면 이전 스냅샷을 그대로 쓰고, 다음 주기에 다시 만든다.
+                log.error("failed to refresh analytics snapshot", e);
+            }
+
+            try {
+                Thread.sleep(refreshInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
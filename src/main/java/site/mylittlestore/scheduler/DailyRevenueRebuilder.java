@@ -0,0 +1,109 @@
+package site.mylittlestore.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueMismatchDto;
+import site.mylittlestore.service.DailyRevenueService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * 매출 집계를 지불된 결제 수단에서 다시 계산하고 검증한다.
+ * 하루가 한 묶음이고, 묶음마다 따로 트랜잭션을 열어서 여러 스레드로 나눠 실행한다.
+ * 서버를 --rebuild-daily-revenue --from=2023-01-01 --to=2023-01-31 옵션으로 시작하면 재집계하고 검증 결과를 로그로 남긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyRevenueRebuilder implements ApplicationRunner {
+
+    private final DailyRevenueService dailyRevenueService;
+
+    //동시에 재집계하는 날짜의 수
+    @Value("${mylittlestore.daily-revenue.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("rebuild-daily-revenue")) {
+            return;
+        }
+
+        //기간을 정하지 않으면 어제 하루만 재집계한다.
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate from = args.containsOption("from") ? LocalDate.parse(args.getOptionValues("from").get(0)) : yesterday;
+        LocalDate to = args.containsOption("to") ? LocalDate.parse(args.getOptionValues("to").get(0)) : yesterday;
+
+        int rebuiltCount = rebuild(from, to);
+        log.info("rebuilt {} daily revenues from {} to {}", rebuiltCount, from, to);
+
+        List<DailyRevenueMismatchDto> mismatchDtos = verify(from, to);
+        if (mismatchDtos.isEmpty()) {
+            log.info("verified daily revenues from {} to {}", from, to);
+            return;
+        }
+        mismatchDtos.forEach(mismatchDto -> log.warn("daily revenue mismatch store={} date={} type={} amount={}/{} count={}/{}",
+                mismatchDto.getStoreId(),
+                mismatchDto.getBusinessDate(),
+                mismatchDto.getPaymentMethodType(),
+                mismatchDto.getExpectedAmount(),
+                mismatchDto.getActualAmount(),
+                mismatchDto.getExpectedPaymentCount(),
+                mismatchDto.getActualPaymentCount()));
+    }
+
+    /**
+     * from부터 to까지(둘 다 포함) 하루씩 재집계한다.
+     * @return 저장한 집계 행의 수
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        return runByBusinessDate(from, to, dailyRevenueService::rebuildDailyRevenue).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    /**
+     * from부터 to까지(둘 다 포함) 하루씩 검증한다.
+     * @return 다른 행, 모두 같으면 빈 리스트
+     */
+    public List<DailyRevenueMismatchDto> verify(LocalDate from, LocalDate to) {
+        List<DailyRevenueMismatchDto> mismatchDtos = new ArrayList<>();
+        runByBusinessDate(from, to, dailyRevenueService::verifyDailyRevenue).forEach(mismatchDtos::addAll);
+        return mismatchDtos;
+    }
+
+    private <T> List<T> runByBusinessDate(LocalDate from, LocalDate to, Function<LocalDate, T> task) {
+        ExecutorService executorService = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (LocalDate businessDate = from; !businessDate.isAfter(to); businessDate = businessDate.plusDays(1)) {
+                LocalDate chunkDate = businessDate;
+                futures.add(executorService.submit(() -> task.apply(chunkDate)));
+            }
+
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("daily revenue rebuild was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("failed to rebuild daily revenues", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
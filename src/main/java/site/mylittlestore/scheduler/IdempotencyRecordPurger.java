@@ -0,0 +1,67 @@
+package site.mylittlestore.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.service.IdempotencyService;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+
+/**
+ * 보관 기간이 지난 Idempotency-Key 기록을 주기적으로 지운다.
+ * 조회할 때도 보관 기간으로 거르므로, 지우는 것은 테이블이 계속 커지지 않게 하기 위해서다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyRecordPurger {
+
+    private final IdempotencyService idempotencyService;
+
+    @Value("${mylittlestore.idempotency.purge-interval:PT1H}")
+    private Duration purgeInterval;
+
+    private volatile boolean running;
+
+    private Thread purgerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        purgerThread = new Thread(this::purge, "idempotency-record-purger");
+        purgerThread.setDaemon(true);
+        purgerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (purgerThread != null) {
+            purgerThread.interrupt();
+        }
+    }
+
+    private void purge() {
+        while (running) {
+            try {
+                long deletedCount = idempotencyService.deleteExpiredRecords();
+                if (deletedCount > 0) {
+                    log.info("deleted {} expired idempotency records", deletedCount);
+                }
+            } catch (RuntimeException e) {
+                log.error("failed to delete expired idempotency records", e);
+            }
+
+            try {
+                Thread.sleep(purgeInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
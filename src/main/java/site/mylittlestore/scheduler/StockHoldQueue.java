@@ -0,0 +1,98 @@
+package site.mylittlestore.scheduler;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재고 예약의 만료 대기열
+ * 만료 시간이 가장 빠른 예약부터 꺼내므로, 만료를 확인하기 위해 테이블을 훑을 필요가 없다.
+ * 주문마다 마지막 만료 시간만 기억하고, 대기열에는 주문마다 항목을 하나만 둔다.
+ * 예약이 연장되면 항목을 새로 넣지 않고, 예전 항목이 꺼내질 때 늘어난 만료 시간으로 다시 넣는다.
+ */
+@Component
+public class StockHoldQueue {
+
+    private final DelayQueue<ExpiringStockHold> delayQueue = new DelayQueue<>();
+
+    //주문마다 마지막으로 넣은 만료 시간
+    private final ConcurrentMap<Long, Long> expiresAtMillisByOrderId = new ConcurrentHashMap<>();
+
+    public void add(Long orderId, LocalDateTime expiresAt) {
+        long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        expiresAtMillisByOrderId.compute(orderId, (id, lastExpiresAtMillis) -> {
+            //대기열에 없거나, 대기열의 항목보다 먼저 만료되면 새로 넣는다.
+            if (lastExpiresAtMillis == null || expiresAtMillis < lastExpiresAtMillis) {
+                delayQueue.add(new ExpiringStockHold(id, expiresAtMillis));
+            }
+            return expiresAtMillis;
+        });
+    }
+
+    /**
+     * 만료된 예약이 생길 때까지 기다렸다가, 만료된 예약의 주문 Id를 최대 maxBatchSize개 꺼낸다.
+     */
+    public List<Long> takeExpiredOrderIds(int maxBatchSize) throws InterruptedException {
+        List<ExpiringStockHold> expiringStockHolds = new ArrayList<>();
+        expiringStockHolds.add(delayQueue.take());
+        delayQueue.drainTo(expiringStockHolds, maxBatchSize - 1);
+
+        List<Long> orderIds = new ArrayList<>();
+        for (ExpiringStockHold expiringStockHold : expiringStockHolds) {
+            if (isExpired(expiringStockHold)) {
+                orderIds.add(expiringStockHold.orderId);
+            }
+        }
+        return orderIds;
+    }
+
+    public int size() {
+        return delayQueue.size();
+    }
+
+    /**
+     * 꺼낸 항목이 주문의 마지막 만료 시간이면 대기열에서 뺀다.
+     * 그 사이에 연장됐으면 늘어난 만료 시간으로 다시 넣고, 이미 뺀 주문의 항목이면 무시한다.
+     */
+    private boolean isExpired(ExpiringStockHold expiringStockHold) {
+        boolean[] expired = new boolean[1];
+        expiresAtMillisByOrderId.computeIfPresent(expiringStockHold.orderId, (orderId, lastExpiresAtMillis) -> {
+            if (lastExpiresAtMillis > expiringStockHold.expiresAtMillis) {
+                delayQueue.add(new ExpiringStockHold(orderId, lastExpiresAtMillis));
+                return lastExpiresAtMillis;
+            }
+            expired[0] = true;
+            return null;
+        });
+        return expired[0];
+    }
+
+    private static class ExpiringStockHold implements Delayed {
+        private final Long orderId;
+        private final long expiresAtMillis;
+
+        private ExpiringStockHold(Long orderId, long expiresAtMillis) {
+            this.orderId = orderId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((ExpiringStockHold) other).expiresAtMillis);
+        }
+    }
+}
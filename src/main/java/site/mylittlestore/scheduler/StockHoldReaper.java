@@ -0,0 +1,83 @@
+package site.mylittlestore.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.service.StockHoldService;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 만료된 재고 예약을 대기열에서 꺼내서, 묶음 단위로 재고를 반환한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockHoldReaper {
+
+    private final StockHoldQueue stockHoldQueue;
+
+    private final StockHoldService stockHoldService;
+
+    //한 트랜잭션에서 반환하는 예약의 최대 수
+    @Value("${mylittlestore.stock-hold.reaper-batch-size:100}")
+    private int batchSize;
+
+    private volatile boolean running;
+
+    private Thread reaperThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        //서버가 꺼져 있던 동안의 예약도 반환되도록, 예약 중인 재고로 대기열을 다시 채운다.
+        stockHoldService.findAllHeldStockHoldDtos()
+                .forEach(stockHoldDto -> stockHoldQueue.add(stockHoldDto.getOrderId(), stockHoldDto.getExpiresAt()));
+
+        running = true;
+        reaperThread = new Thread(this::reap, "stock-hold-reaper");
+        reaperThread.setDaemon(true);
+        reaperThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (reaperThread != null) {
+            reaperThread.interrupt();
+        }
+    }
+
+    private void reap() {
+        while (running) {
+            List<Long> orderIds;
+            try {
+                orderIds = stockHoldQueue.takeExpiredOrderIds(batchSize);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            //연장된 예약만 꺼냈으면 반환할 것이 없다.
+            if (orderIds.isEmpty()) {
+                continue;
+            }
+
+            try {
+                int releasedCount = stockHoldService.releaseExpiredStockHolds(orderIds);
+                if (releasedCount > 0) {
+                    log.info("released {} expired stock holds", releasedCount);
+                }
+            } catch (RuntimeException e) {
+                //반환에 실패하면 잠시 뒤에 다시 시도한다.
+                log.error("failed to release expired stock holds {}", orderIds, e);
+                LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+                orderIds.forEach(orderId -> stockHoldQueue.add(orderId, retryAt));
+            }
+        }
+    }
+}
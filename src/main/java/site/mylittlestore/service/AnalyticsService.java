@@ -0,0 +1,76 @@
+package site.mylittlestore.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.analytics.OrderLineColumns;
+import site.mylittlestore.analytics.OrderLineSnapshot;
+import site.mylittlestore.dto.analytics.OrderLineFilter;
+import site.mylittlestore.dto.analytics.RevenueGroupDto;
+import site.mylittlestore.dto.orderitem.OrderLineDto;
+import site.mylittlestore.enumstorage.AnalyticsDimension;
+import site.mylittlestore.repository.orderitem.OrderItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 결제된 주문 상품을 메모리의 열 스냅샷으로 분석한다.
+ * 분석은 스냅샷만 읽으므로 주문 테이블에 부하를 주지 않는다.
+ * DB는 스냅샷을 새로 만들 때만 한 번 훑는다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    //스냅샷을 만들 때 DB에서 한 번에 가져오는 줄 수
+    private static final int SNAPSHOT_FETCH_SIZE = 1000;
+
+    private final OrderItemRepository orderItemRepository;
+
+    private final OrderLineSnapshot orderLineSnapshot;
+
+    //스냅샷에 담는 기간
+    @Value("${mylittlestore.analytics.retention:P180D}")
+    private Duration retention;
+
+    public List<RevenueGroupDto> sumRevenue(OrderLineFilter filter, AnalyticsDimension first, AnalyticsDimension second) {
+        return orderLineSnapshot.get().sumRevenue(filter, first, second);
+    }
+
+    public LocalDateTime findSnapshotDateTime() {
+        return orderLineSnapshot.get().getSnapshotDateTime();
+    }
+
+    /**
+     * 보관 기간 안에 주문된, 결제가 완료된 주문 상품으로 스냅샷을 새로 만들고 바꾼다.
+     * @return 스냅샷에 담은 주문 상품의 수
+     */
+    public int refreshSnapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        //이전 스냅샷 크기만큼 미리 잡아서 배열을 늘리는 횟수를 줄인다.
+        OrderLineColumns.Builder builder = new OrderLineColumns.Builder(orderLineSnapshot.get().getRowCount());
+
+        try (Stream<OrderLineDto> orderLineDtos = orderItemRepository.streamPaidOrderLineDto(now.minus(retention), SNAPSHOT_FETCH_SIZE)) {
+            Iterator<OrderLineDto> iterator = orderLineDtos.iterator();
+            while (iterator.hasNext()) {
+                OrderLineDto orderLineDto = iterator.next();
+                builder.add(orderLineDto.getItemId(),
+                        orderLineDto.getItemName(),
+                        orderLineDto.getStoreId(),
+                        orderLineDto.getPrice(),
+                        orderLineDto.getCount(),
+                        orderLineDto.getOrderedDateTime());
+            }
+        }
+
+        OrderLineColumns orderLineColumns = builder.build(now);
+        orderLineSnapshot.replace(orderLineColumns);
+        return orderLineColumns.getRowCount();
+    }
+}
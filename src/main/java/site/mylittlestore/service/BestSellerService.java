@@ -0,0 +1,102 @@
+package site.mylittlestore.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.dto.bestseller.BestSellerDto;
+import site.mylittlestore.dto.item.ItemFindDto;
+import site.mylittlestore.dto.orderitem.PaidOrderItemDto;
+import site.mylittlestore.enumstorage.BestSellerPeriod;
+import site.mylittlestore.leaderboard.BestSellerLeaderboard;
+import site.mylittlestore.repository.orderitem.OrderItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 가게별 인기 상품 순위를 관리한다.
+ * 순위는 메모리에만 있으므로, 서버가 시작될 때 최근 일주일의 결제된 주문 상품으로 다시 채운다.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class BestSellerService {
+
+    public static final int MAX_BEST_SELLER_SIZE = 100;
+
+    //다시 채울 때 DB에서 한 번에 가져오는 줄 수
+    private static final int REBUILD_FETCH_SIZE = 500;
+
+    private final BestSellerLeaderboard bestSellerLeaderboard;
+
+    private final OrderItemRepository orderItemRepository;
+
+    private final ItemService itemService;
+
+    /**
+     * 기간 동안 많이 팔린 상품을 size개까지 조회한다.
+     * 상품 이름은 가게 메뉴 캐시에서 가져온다.
+     */
+    public List<BestSellerDto> findBestSellerDtos(Long storeId, BestSellerPeriod period, int size) {
+        int limitedSize = Math.min(Math.max(size, 1), MAX_BEST_SELLER_SIZE);
+        LinkedHashMap<Long, Long> topItemCounts = bestSellerLeaderboard.findTopItemCounts(storeId, period, limitedSize, LocalDateTime.now());
+        if (topItemCounts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, String> itemNames = itemService.findAllItemDtoByStoreId(storeId).stream()
+                .collect(Collectors.toMap(ItemFindDto::getId, ItemFindDto::getName));
+
+        List<BestSellerDto> bestSellerDtos = new ArrayList<>(topItemCounts.size());
+        topItemCounts.forEach((itemId, count) -> bestSellerDtos.add(BestSellerDto.builder()
+                .itemId(itemId)
+                .itemName(itemNames.get(itemId))
+                .count(count)
+                .build()));
+        return bestSellerDtos;
+    }
+
+    /**
+     * 결제가 완료된 주문의 주문 상품 수량을 커밋된 뒤에 순위에 더한다.
+     * 주문이 PAID로 바뀌는 트랜잭션 안에서 한 번만 호출해야 한다.
+     */
+    public void recordPaidOrder(Long orderId) {
+        //주문 엔티티를 읽지 않고, 결제된 주문 상품의 수량만 조회한다.
+        List<PaidOrderItemDto> paidOrderItemDtos = orderItemRepository.findAllPaidOrderItemDtoByOrderId(orderId);
+        if (paidOrderItemDtos.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> itemCounts = new HashMap<>();
+        paidOrderItemDtos.forEach(paidOrderItemDto -> itemCounts.merge(paidOrderItemDto.getItemId(), paidOrderItemDto.getCount(), Long::sum));
+
+        PaidOrderItemDto firstPaidOrderItemDto = paidOrderItemDtos.get(0);
+        bestSellerLeaderboard.recordAfterCommit(firstPaidOrderItemDto.getStoreId(), itemCounts, firstPaidOrderItemDto.getPaidDateTime());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildLeaderboard() {
+        bestSellerLeaderboard.clear();
+
+        //가장 긴 기간만큼만 다시 채운다.
+        BestSellerPeriod longestPeriod = BestSellerPeriod.WEEK;
+        LocalDateTime from = LocalDateTime.now().minus(longestPeriod.getBucketDuration().multipliedBy(longestPeriod.getBucketCount()));
+
+        long rowCount = 0;
+        try (Stream<PaidOrderItemDto> paidOrderItemDtos = orderItemRepository.streamPaidOrderItemDto(from, REBUILD_FETCH_SIZE)) {
+            Iterator<PaidOrderItemDto> iterator = paidOrderItemDtos.iterator();
+            while (iterator.hasNext()) {
+                PaidOrderItemDto paidOrderItemDto = iterator.next();
+                bestSellerLeaderboard.record(paidOrderItemDto.getStoreId(), paidOrderItemDto.getItemId(), paidOrderItemDto.getCount(), paidOrderItemDto.getPaidDateTime());
+                rowCount++;
+            }
+        }
+        log.info("rebuilt best seller leaderboard from {} paid order items", rowCount);
+    }
+}
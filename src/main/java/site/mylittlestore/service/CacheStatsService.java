@@ -0,0 +1,56 @@
+package site.mylittlestore.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import site.mylittlestore.dto.cache.CacheRegionStatsDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate 2차 캐시 영역별 적중, 실패, 저장 횟수
+ * hibernate.generate_statistics가 켜져 있어야 값이 쌓인다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsDto> findAllCacheRegionStatsDtos() {
+        Statistics statistics = getStatistics();
+
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(regionName -> toCacheRegionStatsDto(regionName, statistics.getCacheRegionStatistics(regionName)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public void clear() {
+        getStatistics().clear();
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static CacheRegionStatsDto toCacheRegionStatsDto(String regionName, CacheRegionStatistics cacheRegionStatistics) {
+        if (cacheRegionStatistics == null) {
+            return null;
+        }
+
+        return CacheRegionStatsDto.builder()
+                .regionName(regionName)
+                .hitCount(cacheRegionStatistics.getHitCount())
+                .missCount(cacheRegionStatistics.getMissCount())
+                .putCount(cacheRegionStatistics.getPutCount())
+                .build();
+    }
+}
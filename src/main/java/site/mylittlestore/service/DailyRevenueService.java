@@ -0,0 +1,157 @@
+package site.mylittlestore.service;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.domain.DailyRevenue;
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueDto;
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueMismatchDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.repository.dailyrevenue.DailyRevenueRepository;
+import site.mylittlestore.repository.store.StoreRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 가게별, 영업일별, 결제 수단 종류별 매출 집계를 관리한다.
+ * 결제 수단이 지불될 때 금액을 더하고, 재집계는 하루 단위로 지불된 결제 수단에서 다시 계산한다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class DailyRevenueService {
+
+    private final DailyRevenueRepository dailyRevenueRepository;
+
+    private final StoreRepository storeRepository;
+
+    public List<DailyRevenueDto> findAllDailyRevenueDtosByStoreIdAndMonth(Long storeId, YearMonth month) {
+        return dailyRevenueRepository.findAllDailyRevenueDtoByStoreIdAndBusinessDateBetween(storeId, month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * 완료 일시의 영업일 집계 행이 없으면, 빈 집계 행을 따로 커밋해서 만든다.
+     * 따로 커밋하는 동안 연결을 하나 더 쓰므로, 결제 수단을 지불하는 트랜잭션이 결제 수단과 결제를 UPDATE해서 잠그기 전에 호출한다.
+     * 잠금을 쥔 트랜잭션들이 연결을 기다리며 커넥션 풀을 모두 차지하지 않게 한다.
+     */
+    @Transactional
+    public void prepareDailyRevenue(Long storeId, LocalDateTime paymentMethodCompleteDateTime, PaymentMethodType paymentMethodType) {
+        LocalDate businessDate = paymentMethodCompleteDateTime.toLocalDate();
+
+        //그날 두 번째 결제부터는 조회만 한다.
+        if (dailyRevenueRepository.existsByStoreIdAndBusinessDateAndPaymentMethodType(storeId, businessDate, paymentMethodType)) {
+            return;
+        }
+
+        try {
+            dailyRevenueRepository.createEmptyDailyRevenue(storeId, businessDate, paymentMethodType);
+        } catch (DataIntegrityViolationException e) {
+            //다른 결제가 먼저 만들었으면 그 행을 쓴다.
+        }
+    }
+
+    /**
+     * 지불된 결제 수단의 금액을 완료 일시의 영업일 매출에 더한다.
+     * 결제 수단을 지불하는 트랜잭션 안에서 호출해야, 결제가 롤백될 때 매출도 같이 롤백된다.
+     * 집계 행은 prepareDailyRevenue로 미리 만들어 두므로, 여기서는 연결을 더 쓰지 않는다.
+     */
+    @Transactional
+    public void addRevenue(Long storeId, LocalDateTime paymentMethodCompleteDateTime, PaymentMethodType paymentMethodType, Long amount) {
+        LocalDate businessDate = paymentMethodCompleteDateTime.toLocalDate();
+
+        if (dailyRevenueRepository.addRevenue(storeId, businessDate, paymentMethodType, amount) > 0) {
+            return;
+        }
+
+        //그 사이에 재집계가 집계 행을 지웠으면 같은 트랜잭션에서 만든다.
+        //다른 결제가 먼저 만들었으면 유니크 키 위반으로 결제 수단의 지불도 롤백된다.
+        dailyRevenueRepository.save(DailyRevenue.builder()
+                .store(storeRepository.getReferenceById(storeId))
+                .businessDate(businessDate)
+                .paymentMethodType(paymentMethodType)
+                .amount(amount)
+                .paymentCount(1L)
+                .build());
+    }
+
+    /**
+     * 하루치 집계를 지우고, 지불된 결제 수단에서 다시 계산해서 저장한다.
+     * 재집계하는 동안 그날 지불되는 결제 수단은 빠질 수 있으므로, 지난 날짜나 한가한 시간에 실행한다.
+     * @return 저장한 집계 행의 수
+     */
+    @Transactional
+    public int rebuildDailyRevenue(LocalDate businessDate) {
+        List<DailyRevenueDto> dailyRevenueDtos = dailyRevenueRepository.sumPaidPaymentMethodAmountByBusinessDate(businessDate);
+
+        dailyRevenueRepository.deleteAllByBusinessDate(businessDate);
+
+        dailyRevenueRepository.saveAll(dailyRevenueDtos.stream()
+                .map(dailyRevenueDto -> DailyRevenue.builder()
+                        .store(storeRepository.getReferenceById(dailyRevenueDto.getStoreId()))
+                        .businessDate(businessDate)
+                        .paymentMethodType(dailyRevenueDto.getPaymentMethodType())
+                        .amount(dailyRevenueDto.getAmount())
+                        .paymentCount(dailyRevenueDto.getPaymentCount())
+                        .build())
+                .collect(Collectors.toList()));
+
+        return dailyRevenueDtos.size();
+    }
+
+    /**
+     * 지불된 결제 수단에서 다시 계산한 하루치 매출과 집계를 비교한다.
+     * @return 다른 행, 모두 같으면 빈 리스트
+     */
+    public List<DailyRevenueMismatchDto> verifyDailyRevenue(LocalDate businessDate) {
+        Map<RevenueKey, DailyRevenueDto> expectedDtos = toMap(dailyRevenueRepository.sumPaidPaymentMethodAmountByBusinessDate(businessDate));
+        Map<RevenueKey, DailyRevenueDto> actualDtos = toMap(dailyRevenueRepository.findAllDailyRevenueDtoByBusinessDate(businessDate));
+
+        Set<RevenueKey> revenueKeys = new HashSet<>(expectedDtos.keySet());
+        revenueKeys.addAll(actualDtos.keySet());
+
+        List<DailyRevenueMismatchDto> mismatchDtos = new ArrayList<>();
+        for (RevenueKey revenueKey : revenueKeys) {
+            DailyRevenueDto expectedDto = expectedDtos.get(revenueKey);
+            DailyRevenueDto actualDto = actualDtos.get(revenueKey);
+
+            long expectedAmount = expectedDto == null ? 0L : expectedDto.getAmount();
+            long actualAmount = actualDto == null ? 0L : actualDto.getAmount();
+            long expectedPaymentCount = expectedDto == null ? 0L : expectedDto.getPaymentCount();
+            long actualPaymentCount = actualDto == null ? 0L : actualDto.getPaymentCount();
+
+            if (expectedAmount != actualAmount || expectedPaymentCount != actualPaymentCount) {
+                mismatchDtos.add(DailyRevenueMismatchDto.builder()
+                        .storeId(revenueKey.getStoreId())
+                        .businessDate(businessDate)
+                        .paymentMethodType(revenueKey.getPaymentMethodType())
+                        .expectedAmount(expectedAmount)
+                        .actualAmount(actualAmount)
+                        .expectedPaymentCount(expectedPaymentCount)
+                        .actualPaymentCount(actualPaymentCount)
+                        .build());
+            }
+        }
+        return mismatchDtos;
+    }
+
+    private static Map<RevenueKey, DailyRevenueDto> toMap(List<DailyRevenueDto> dailyRevenueDtos) {
+        return dailyRevenueDtos.stream()
+                .collect(Collectors.toMap(dailyRevenueDto -> new RevenueKey(dailyRevenueDto.getStoreId(), dailyRevenueDto.getPaymentMethodType()), dailyRevenueDto -> dailyRevenueDto));
+    }
+
+    //가게 Id와 결제 수단 종류가 같으면 같은 집계 행으로 본다.
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class RevenueKey {
+        private final Long storeId;
+        private final PaymentMethodType paymentMethodType;
+    }
+}
@@ -0,0 +1,96 @@
+package site.mylittlestore.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.dto.order.OrderExportLineDto;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodExportLineDto;
+import site.mylittlestore.enumstorage.ExportFormat;
+import site.mylittlestore.export.ExportWriter;
+import site.mylittlestore.repository.order.OrderRepository;
+import site.mylittlestore.repository.paymentmethod.PaymentMethodRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 끝난 주문을 CSV나 NDJSON 파일로 내보낸다.
+ * DB 커서로 앞으로만 읽으면서 바로 출력 스트림에 쓰므로, 내보내는 줄 수와 상관없이 메모리를 일정하게 쓴다.
+ * 엔티티가 아닌 Dto로 읽으므로 영속성 컨텍스트에도 쌓이는 것이 없다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class ExportService {
+    //DB에서 한 번에 가져오는 줄 수
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    //이 줄 수마다 쓴 내용을 출력 스트림으로 내보낸다.
+    private static final int EXPORT_FLUSH_ROW_COUNT = 1000;
+
+    private static final String[] ORDER_EXPORT_COLUMNS = {
+            "orderId", "storeId", "startTime", "endTime", "orderStatus",
+            "orderItemId", "itemId", "itemName", "price", "count", "orderItemStatus",
+            "paymentId", "paymentStatus", "initialPaymentAmount", "paidPaymentAmount", "paymentCompleteDateTime"};
+
+    private static final String[] PAYMENT_METHOD_EXPORT_COLUMNS = {
+            "orderId", "storeId", "endTime", "paymentId",
+            "paymentMethodId", "paymentMethodType", "paymentMethodAmount", "paymentMethodCompleteDateTime", "paymentMethodStatus"};
+
+    private final OrderRepository orderRepository;
+    private final PaymentMethodRepository paymentMethodRepository;
+
+    /**
+     * 끝난 주문의 주문 상품을 한 줄씩, 주문과 결제 정보를 붙여서 내보낸다.
+     * @return 내보낸 줄 수
+     */
+    public long exportOrders(OrderHistoryCondition condition, ExportFormat exportFormat, OutputStream outputStream) throws IOException {
+        ExportWriter exportWriter = new ExportWriter(exportFormat, outputStream, ORDER_EXPORT_COLUMNS);
+
+        long count = 0;
+        try (Stream<OrderExportLineDto> orderExportLineDtos = orderRepository.streamOrderExportLineDto(condition, EXPORT_FETCH_SIZE)) {
+            Iterator<OrderExportLineDto> iterator = orderExportLineDtos.iterator();
+            while (iterator.hasNext()) {
+                OrderExportLineDto line = iterator.next();
+                exportWriter.writeRow(
+                        line.getOrderId(), line.getStoreId(), line.getStartTime(), line.getEndTime(), line.getOrderStatus(),
+                        line.getOrderItemId(), line.getItemId(), line.getItemName(), line.getPrice(), line.getCount(), line.getOrderItemStatus(),
+                        line.getPaymentId(), line.getPaymentStatus(), line.getInitialPaymentAmount(), line.getPaidPaymentAmount(), line.getPaymentCompleteDateTime());
+
+                if (++count % EXPORT_FLUSH_ROW_COUNT == 0) {
+                    exportWriter.flush();
+                }
+            }
+        }
+        exportWriter.flush();
+        return count;
+    }
+
+    /**
+     * 끝난 주문의 결제 수단을 한 줄씩 내보낸다.
+     * 한 주문에 결제 수단이 여러 개일 수 있어서 주문 상품과 따로 내보낸다.
+     * @return 내보낸 줄 수
+     */
+    public long exportPaymentMethods(OrderHistoryCondition condition, ExportFormat exportFormat, OutputStream outputStream) throws IOException {
+        ExportWriter exportWriter = new ExportWriter(exportFormat, outputStream, PAYMENT_METHOD_EXPORT_COLUMNS);
+
+        long count = 0;
+        try (Stream<PaymentMethodExportLineDto> paymentMethodExportLineDtos = paymentMethodRepository.streamPaymentMethodExportLineDto(condition, EXPORT_FETCH_SIZE)) {
+            Iterator<PaymentMethodExportLineDto> iterator = paymentMethodExportLineDtos.iterator();
+            while (iterator.hasNext()) {
+                PaymentMethodExportLineDto line = iterator.next();
+                exportWriter.writeRow(
+                        line.getOrderId(), line.getStoreId(), line.getEndTime(), line.getPaymentId(),
+                        line.getPaymentMethodId(), line.getPaymentMethodType(), line.getPaymentMethodAmount(), line.getPaymentMethodCompleteDateTime(), line.getPaymentMethodStatus());
+
+                if (++count % EXPORT_FLUSH_ROW_COUNT == 0) {
+                    exportWriter.flush();
+                }
+            }
+        }
+        exportWriter.flush();
+        return count;
+    }
+}
@@ -0,0 +1,53 @@
+package site.mylittlestore.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.domain.IdempotencyRecord;
+import site.mylittlestore.repository.idempotency.IdempotencyRecordRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key로 처리한 요청의 결과를 DB에 남긴다.
+ * 메모리(IdempotencyCache)에서 밀려났거나, 다른 서버에서 처리한 요청을 찾을 때 쓴다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    //같은 키로 다시 온 요청에 저장된 결과를 돌려주는 기간
+    @Value("${mylittlestore.idempotency.ttl:P1D}")
+    private Duration ttl;
+
+    public Optional<String> findRedirectUrl(String idempotencyKey, String requestUri) {
+        return idempotencyRecordRepository.findRedirectUrlByIdempotencyKeyAndRequestUri(idempotencyKey, requestUri, LocalDateTime.now().minus(ttl));
+    }
+
+    /**
+     * 같은 키의 만료된 기록은 findRedirectUrl에서 찾지 못하지만, 지우는 작업이 돌기 전까지 남아 있으므로 먼저 지운다.
+     * 다른 서버가 같은 키로 먼저 저장했으면 유니크 키 위반으로 예외가 발생한다.
+     */
+    @Transactional
+    public Long saveRedirectUrl(String idempotencyKey, String requestUri, String redirectUrl) {
+        idempotencyRecordRepository.deleteExpiredByIdempotencyKeyAndRequestUri(idempotencyKey, requestUri, LocalDateTime.now().minus(ttl));
+
+        return idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                .idempotencyKey(idempotencyKey)
+                .requestUri(requestUri)
+                .redirectUrl(redirectUrl)
+                .createdDateTime(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    @Transactional
+    public long deleteExpiredRecords() {
+        return idempotencyRecordRepository.deleteAllCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+}
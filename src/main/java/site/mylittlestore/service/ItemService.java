@@ -3,38 +3,58 @@ package site.mylittlestore.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.cache.MenuCache;
 import site.mylittlestore.domain.Store;
 import site.mylittlestore.domain.item.Item;
+import site.mylittlestore.domain.item.ItemStockShard;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.item.ItemFindDto;
+import site.mylittlestore.dto.item.ItemImportErrorDto;
+import site.mylittlestore.dto.item.ItemImportResultDto;
 import site.mylittlestore.dto.item.ItemUpdateDto;
 import site.mylittlestore.enumstorage.errormessage.ItemErrorMessage;
 import site.mylittlestore.enumstorage.errormessage.StoreErrorMessage;
+import site.mylittlestore.exception.item.AlreadyStockShardedException;
+import site.mylittlestore.exception.item.ItemImportException;
 import site.mylittlestore.exception.item.NoSuchItemException;
 import site.mylittlestore.exception.store.NoSuchStoreException;
+import site.mylittlestore.itemimport.ItemImportReader;
+import site.mylittlestore.itemimport.ItemImportRow;
 import site.mylittlestore.repository.item.ItemRepository;
+import site.mylittlestore.repository.item.ItemStockShardRepository;
 import site.mylittlestore.repository.store.StoreRepository;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemService {
+    //상품 가져오기에서 이 수만큼 모아서 저장하고 영속성 컨텍스트를 비운다.
+    private static final int ITEM_IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_ITEM_NAME_LENGTH = 255;
+
     private final StoreRepository storeRepository;
     private final ItemRepository itemRepository;
+    private final ItemStockShardRepository itemStockShardRepository;
+    private final MenuCache menuCache;
 
     public ItemFindDto findItemDtoById(Long id) throws NoSuchItemException {
-        return itemRepository.findItemById(id)
+        //재고가 샤딩된 상품도 샤드 재고의 합으로 조회
+        return itemRepository.findItemDtoById(id)
                 //상품이 없으면 예외 발생
-                .orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()))
-                //Dto로 변환
-                .toItemFindDto();
+                .orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()));
     }
 
     public List<ItemFindDto> findAllItemDtoByStoreId(Long storeId) {
         //가게에 속한 아이템만 찾아야지.
-        return itemRepository.findAllItemDtoByStoreId(storeId);
+        //메뉴는 거의 바뀌지 않으므로 캐시에서 먼저 찾는다.
+        return menuCache.get(storeId, itemRepository::findAllItemDtoByStoreId);
     }
 
     @Transactional
@@ -57,9 +77,75 @@ public class ItemService {
         //가게 저장
         storeRepository.save(updatedStore);
 
+        //커밋된 뒤에 메뉴 캐시를 지운다.
+        menuCache.invalidateAfterCommit(findStoreById.getId());
+
         return savedItem.getId();
     }
 
+    /**
+     * 상품 파일(CSV, JSON)을 한 행씩 읽으면서 검증하고, 올바른 행만 모아서 한 번에 저장한다.
+     * 가게는 한 번만 확인하고, 가게의 상품 목록은 불러오지 않는다.
+     * 이미 가게에 있거나 파일 안에서 겹치는 이름은 저장하지 않으므로, 고친 파일을 다시 올려도 된다.
+     * @return 저장한 상품 수와 저장하지 않은 행의 목록
+     */
+    @Transactional
+    public ItemImportResultDto importItems(Long storeId, Reader reader) throws NoSuchStoreException, ItemImportException {
+        Long findStoreId = findStoreById(storeId).getId();
+
+        Set<String> itemNames = new HashSet<>(itemRepository.findAllItemNameByStoreId(findStoreId));
+        List<ItemCreationDto> itemCreationDtos = new ArrayList<>(ITEM_IMPORT_CHUNK_SIZE);
+        List<ItemImportErrorDto> itemImportErrorDtos = new ArrayList<>();
+        long importedCount = 0;
+
+        try {
+            ItemImportReader itemImportReader = new ItemImportReader(reader);
+            ItemImportRow itemImportRow;
+            while ((itemImportRow = itemImportReader.next()) != null) {
+                String name = itemImportRow.getName() != null ? itemImportRow.getName().trim() : "";
+                Long price = parseLong(itemImportRow.getPrice());
+                Long stock = parseLong(itemImportRow.getStock());
+
+                String errorMessage = validateImportRow(name, price, stock, itemNames);
+                if (errorMessage != null) {
+                    itemImportErrorDtos.add(ItemImportErrorDto.builder()
+                            .rowNumber(itemImportRow.getRowNumber())
+                            .name(itemImportRow.getName())
+                            .message(errorMessage)
+                            .build());
+                    continue;
+                }
+
+                itemNames.add(name);
+                itemCreationDtos.add(ItemCreationDto.builder()
+                        .storeId(findStoreId)
+                        .name(name)
+                        .price(price)
+                        .stock(stock)
+                        .build());
+
+                if (itemCreationDtos.size() == ITEM_IMPORT_CHUNK_SIZE) {
+                    importedCount += itemRepository.insertAll(findStoreId, itemCreationDtos);
+                    itemCreationDtos.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new ItemImportException(ItemErrorMessage.INVALID_IMPORT_FILE.getMessage(), e);
+        }
+
+        if (!itemCreationDtos.isEmpty()) {
+            importedCount += itemRepository.insertAll(findStoreId, itemCreationDtos);
+        }
+
+        //커밋된 뒤에 메뉴 캐시를 한 번만 지운다.
+        menuCache.invalidateAfterCommit(findStoreId);
+
+        return ItemImportResultDto.builder()
+                .importedCount(importedCount)
+                .errors(itemImportErrorDtos)
+                .build();
+    }
+
     @Transactional
     public Long updateItem(ItemUpdateDto itemUpdateDto) throws NoSuchStoreException, NoSuchItemException {
         //업데이트 하려는 상품이 가게에 있는지 검증
@@ -69,14 +155,44 @@ public class ItemService {
         //상품 정보 업데이트
         findItemByIdAndStoreId.updateName(itemUpdateDto.getNewItemName());
         findItemByIdAndStoreId.updatePrice(itemUpdateDto.getNewPrice());
-        findItemByIdAndStoreId.updateStock(itemUpdateDto.getNewStock());
+
+        //재고가 샤딩된 상품이면 새 재고를 샤드에 다시 나눈다.
+        if (findItemByIdAndStoreId.isStockSharded()) {
+            updateShardedStock(findItemByIdAndStoreId, itemUpdateDto.getNewStock());
+        } else {
+            findItemByIdAndStoreId.updateStock(itemUpdateDto.getNewStock());
+        }
 
         //저장
         Item savedItem = itemRepository.save(findItemByIdAndStoreId);
 
+        //커밋된 뒤에 메뉴 캐시를 지운다.
+        menuCache.invalidateAfterCommit(itemUpdateDto.getStoreId());
+
         return savedItem.getId();
     }
 
+    /**
+     * 주문이 몰리는 상품의 재고를 stockShardCount개의 샤드로 나눈다.
+     * 재고 감소 시 임의의 샤드 하나만 잠그므로, 상품 행 하나에 잠금이 몰리지 않는다.
+     */
+    @Transactional
+    public Long enableStockSharding(Long id, Long storeId, int stockShardCount) throws NoSuchItemException, AlreadyStockShardedException {
+        //재고를 나누는 동안 재고가 바뀌지 않도록 상품 행을 잠근다.
+        Item findItemByIdAndStoreId = itemRepository.findWithLockByIdAndStoreId(id, storeId)
+                .orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()));
+
+        //이미 샤딩된 상품이면 예외 발생
+        if (findItemByIdAndStoreId.isStockSharded()) {
+            throw new AlreadyStockShardedException(ItemErrorMessage.ALREADY_STOCK_SHARDED.getMessage());
+        }
+
+        //재고 샤드 저장
+        itemStockShardRepository.saveAll(findItemByIdAndStoreId.shardStock(stockShardCount));
+
+        return findItemByIdAndStoreId.getId();
+    }
+
     @Transactional
     public void deleteItemById(Long id) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()));
@@ -85,6 +201,48 @@ public class ItemService {
 
         //저장
         itemRepository.save(item);
+
+        //커밋된 뒤에 메뉴 캐시를 지운다.
+        menuCache.invalidateAfterCommit(item.getStore().getId());
+    }
+
+    //문제가 없으면 null
+    private static String validateImportRow(String name, Long price, Long stock, Set<String> itemNames) {
+        if (name.isEmpty() || name.length() > MAX_ITEM_NAME_LENGTH) {
+            return ItemErrorMessage.INVALID_ITEM_NAME.getMessage();
+        }
+        if (price == null || price < 1) {
+            return ItemErrorMessage.INVALID_ITEM_PRICE.getMessage();
+        }
+        if (stock == null || stock < 0) {
+            return ItemErrorMessage.INVALID_ITEM_STOCK.getMessage();
+        }
+        if (itemNames.contains(name)) {
+            return ItemErrorMessage.DUPLICATE_ITEM.getMessage();
+        }
+        return null;
+    }
+
+    //숫자가 아니면 null
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void updateShardedStock(Item item, Long newStock) {
+        //샤드를 모두 잠근 뒤에 덮어쓴다. 잠그지 않으면 그 사이에 감소된 재고가 사라진다.
+        List<ItemStockShard> itemStockShards = itemStockShardRepository.findWithLockByItemIdOrderByShardIndexAsc(item.getId());
+        List<Long> dividedStocks = Item.divideStock(newStock, itemStockShards.size());
+
+        for (ItemStockShard itemStockShard : itemStockShards) {
+            itemStockShard.updateStock(dividedStocks.get(itemStockShard.getShardIndex()));
+        }
     }
 
     private Store findStoreById(Long id) throws NoSuchStoreException {
@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 import site.mylittlestore.domain.Member;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.member.MemberFindDto;
+import site.mylittlestore.dto.member.MemberFindDtoPage;
 import site.mylittlestore.dto.member.MemberPasswordUpdateDto;
 import site.mylittlestore.dto.member.MemberUpdateDto;
 import site.mylittlestore.enumstorage.errormessage.MemberErrorMessage;
@@ -16,13 +17,14 @@ import site.mylittlestore.repository.member.MemberRepository;
 import site.mylittlestore.repository.store.StoreRepository;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class MemberService {
 
+    //한 페이지에 보여줄 수 있는 최대 회원 수
+    private static final int MAX_MEMBER_PAGE_SIZE = 100;
 
     private final MemberRepository memberRepository;
     private final StoreRepository storeRepository;
@@ -45,11 +47,28 @@ public class MemberService {
                 .toMemberFindDto();
     }
 
-    public List<MemberFindDto> findAllMemberFindDto() {
-        return memberRepository.findAll()
-                .stream()
-                .map(Member::toMemberFindDto)
-                .collect(Collectors.toList());
+    /**
+     * 회원 목록을 Id 순으로 한 페이지씩 조회한다.
+     * 다음 페이지가 있는지 알기 위해 한 명을 더 조회한다.
+     * @param lastMemberId 이전 페이지의 마지막 회원 Id, 첫 페이지면 null
+     * @param namePrefix 이름이 이 값으로 시작하는 회원만 조회, 비어 있으면 조건 없음
+     * @param emailPrefix 이메일이 이 값으로 시작하는 회원만 조회, 비어 있으면 조건 없음
+     */
+    public MemberFindDtoPage findMemberFindDtoPage(Long lastMemberId, String namePrefix, String emailPrefix, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_MEMBER_PAGE_SIZE);
+
+        List<MemberFindDto> memberFindDtos = memberRepository.findAllMemberFindDtoAfterId(lastMemberId, namePrefix, emailPrefix, pageSize + 1);
+
+        boolean hasNext = memberFindDtos.size() > pageSize;
+        if (hasNext) {
+            memberFindDtos = memberFindDtos.subList(0, pageSize);
+        }
+
+        return MemberFindDtoPage.builder()
+                .memberFindDtos(memberFindDtos)
+                .nextMemberId(hasNext ? memberFindDtos.get(pageSize - 1).getId() : null)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Transactional
@@ -1,9 +1,13 @@
 package site.mylittlestore.service;
 
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.cache.MenuCache;
+import site.mylittlestore.cache.StoreMetadataCache;
 import site.mylittlestore.domain.Order;
 import site.mylittlestore.domain.OrderItem;
 import site.mylittlestore.domain.Store;
@@ -19,11 +23,12 @@ import site.mylittlestore.exception.payment.PaymentAlreadyExistException;
 import site.mylittlestore.exception.store.NoSuchOrderException;
 import site.mylittlestore.exception.store.NoSuchStoreException;
 import site.mylittlestore.exception.store.StoreClosedException;
+import site.mylittlestore.lock.OrderLock;
 import site.mylittlestore.repository.item.ItemRepository;
 import site.mylittlestore.repository.order.OrderRepository;
 import site.mylittlestore.repository.orderitem.OrderItemRepository;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +42,14 @@ public class OrderItemService {
 
     private final ItemRepository itemRepository;
 
+    private final StockHoldService stockHoldService;
+
+    private final MenuCache menuCache;
+
+    private final StoreMetadataCache storeMetadataCache;
+
+    private final OrderLock orderLock;
+
     public OrderItemFindDto findOrderItemFindDtoByIdAndOrderId(Long orderItemId, Long orderId) {
         return orderItemRepository.findOrderedById(orderItemId)
                 //주문 상품이 없으면 예외 발생
@@ -90,31 +103,40 @@ public class OrderItemService {
 
     @Transactional
     public Long createOrderItem(OrderItemCreationDto orderItemCreationDto) throws NoSuchStoreException, StoreClosedException, NoSuchOrderException, NotEnoughStockException {
+        //같은 주문을 바꾸는 다른 요청이 끝날 때까지 기다린다.
+        orderLock.lockUntilCompletion(orderItemCreationDto.getOrderId());
+
         //주문 Id로 주문을 찾는다.
-        Order order = findOrderWithStoreById(orderItemCreationDto.getOrderId());
+        Order order = findOrderById(orderItemCreationDto.getOrderId());
 
         Store store = order.getStore();
 
         //가게가 열려있는지 확인
-        isStoreOpen(store);
+        isStoreOpen(store.getId());
 
         //결제 중인지 확인
         //결제 중이면 예외 발생
         isPaymentAlreadyExists(order);
 
+        //재고 예약을 잠그고 만료 시간을 늘린다.
+        stockHoldService.holdStock(order);
+
         try {
             //주문에 상품 Id와 상품 가격이 같은 주문 상품이 존재하는지 확인
             OrderItem orderItem = validateOrderItemExistenceWithOrderIdAndItemIdAndPrice(orderItemCreationDto.getOrderId(), orderItemCreationDto.getItemId(), orderItemCreationDto.getPrice());
 
             //주문에 상품이 이미 있다면,
 
-            //주문에 있는 해당 상품의 수량을 늘려주고, 상품의 재고를 낮춰준다.
-            Item item = orderItem.addCount(orderItemCreationDto.getCount());
+            //상품의 재고를 낮추고, 주문에 있는 해당 상품의 수량을 늘려준다.
+            decreaseStock(store.getId(), orderItemCreationDto.getItemId(), orderItemCreationDto.getCount());
+            orderItem.addCount(orderItemCreationDto.getCount());
 
             //저장
-            itemRepository.save(item);
             OrderItem savedOrderItem = orderItemRepository.save(orderItem);
 
+            //주문의 합계와 수량에 늘어난 만큼 더한다.
+            addTotals(order.getId(), orderItemCreationDto.getPrice(), orderItemCreationDto.getCount());
+
             return savedOrderItem.getId();
 
         } catch (NoSuchOrderItemException e) {
@@ -124,6 +146,9 @@ public class OrderItemService {
             Item findItem = itemRepository.findItemByIdAndStoreId(orderItemCreationDto.getItemId(), store.getId())
                     .orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()));
 
+            //상품의 재고를 낮춘다.
+            decreaseStock(store.getId(), findItem.getId(), orderItemCreationDto.getCount());
+
             //새로운 주문 상품 추가
             OrderItem createdOrderItem = OrderItem.builder()
                     .store(store)
@@ -134,13 +159,115 @@ public class OrderItemService {
                 .build();
 
             //저장
-            itemRepository.save(findItem);
             OrderItem savedOrderItem = orderItemRepository.save(createdOrderItem);
 
+            //주문의 합계와 수량에 추가한 만큼 더한다.
+            addTotals(order.getId(), orderItemCreationDto.getPrice(), orderItemCreationDto.getCount());
+
             return savedOrderItem.getId();
         }
     }
 
+    /**
+     * 여러 주문 상품을 한 번에 추가한다.
+     * 주문과 가게는 한 번만 확인하고, 상품은 IN 쿼리 한 번으로 조회한다.
+     * 상품 Id와 가격이 같은 주문 상품이 이미 있으면 수량만 늘리고, 없으면 새로 추가한다.
+     * 하나라도 실패하면 전부 롤백된다.
+     * @param orderId
+     * @param orderItemCreationDtos
+     * @return 추가되거나 수량이 늘어난 주문 상품 Id
+     */
+    @Transactional
+    public List<Long> createOrderItems(Long orderId, List<OrderItemCreationDto> orderItemCreationDtos) throws NoSuchStoreException, StoreClosedException, NoSuchOrderException, NoSuchItemException, NotEnoughStockException {
+        //같은 주문을 바꾸는 다른 요청이 끝날 때까지 기다린다.
+        orderLock.lockUntilCompletion(orderId);
+
+        //주문 Id로 주문을 찾는다.
+        Order order = findOrderById(orderId);
+
+        Store store = order.getStore();
+
+        //가게가 열려있는지 확인
+        isStoreOpen(store.getId());
+
+        //결제 중인지 확인
+        //결제 중이면 예외 발생
+        isPaymentAlreadyExists(order);
+
+        //재고 예약을 잠그고 만료 시간을 늘린다.
+        stockHoldService.holdStock(order);
+
+        //상품 Id와 가격이 같은 요청은 수량을 합친다.
+        Map<OrderItemKey, Long> countsByOrderItemKey = new LinkedHashMap<>();
+        orderItemCreationDtos.forEach(orderItemCreationDto -> countsByOrderItemKey.merge(
+                new OrderItemKey(orderItemCreationDto.getItemId(), orderItemCreationDto.getPrice()),
+                orderItemCreationDto.getCount(),
+                Long::sum));
+
+        //가게에 있는 상품을 한 번에 조회
+        List<Long> itemIds = countsByOrderItemKey.keySet().stream()
+                .map(OrderItemKey::getItemId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Item> itemsById = itemRepository.findAllByIdInAndStoreId(itemIds, store.getId()).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+
+        //상품이 하나라도 없으면 예외 발생
+        if (itemsById.size() != itemIds.size()) {
+            throw new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage());
+        }
+
+        //상품마다 한 번씩 재고를 낮춘다.
+        //상품 행은 커밋할 때까지 잠기므로, 다른 주문의 요청과 교착되지 않게 항상 상품 Id 순서로 잠근다.
+        Map<Long, Long> countsByItemId = new TreeMap<>();
+        countsByOrderItemKey.forEach((orderItemKey, count) -> countsByItemId.merge(orderItemKey.getItemId(), count, Long::sum));
+        countsByItemId.forEach((itemId, count) -> decreaseStock(store.getId(), itemId, count));
+
+        //주문에 이미 있는 주문 상품을 한 번에 조회
+        Map<OrderItemKey, OrderItem> orderItemsByOrderItemKey = orderItemRepository.findAllOrderItemIdByOrderId(orderId).stream()
+                .collect(Collectors.toMap(
+                        orderItem -> new OrderItemKey(orderItem.getItem().getId(), orderItem.getPrice()),
+                        orderItem -> orderItem));
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        countsByOrderItemKey.forEach((orderItemKey, count) -> {
+            OrderItem orderItem = orderItemsByOrderItemKey.get(orderItemKey);
+
+            //주문에 상품이 이미 있다면, 수량을 늘려준다.
+            if (orderItem != null) {
+                orderItem.addCount(count);
+                orderItems.add(orderItem);
+                return;
+            }
+
+            //주문에 상품이 없으면, 새로운 주문 상품 추가
+            orderItems.add(OrderItem.builder()
+                    .store(store)
+                    .order(order)
+                    .item(itemsById.get(orderItemKey.getItemId()))
+                    .price(orderItemKey.getPrice())
+                    .count(count)
+                    .build());
+        });
+
+        //저장
+        //hibernate.jdbc.batch_size로 묶어서 실행된다.
+        List<Long> orderItemIds = orderItemRepository.saveAll(orderItems).stream()
+                .map(OrderItem::getId)
+                .collect(Collectors.toList());
+
+        //주문의 합계와 수량은 요청 전체를 더해서 한 번에 바꾼다.
+        long subtotalDelta = 0L;
+        long itemCountDelta = 0L;
+        for (Map.Entry<OrderItemKey, Long> entry : countsByOrderItemKey.entrySet()) {
+            subtotalDelta += entry.getKey().getPrice() * entry.getValue();
+            itemCountDelta += entry.getValue();
+        }
+        orderRepository.addTotalsById(orderId, subtotalDelta, itemCountDelta);
+
+        return orderItemIds;
+    }
+
     /**
      * 주문 상품을 수정하기 위해서는 상품 Id, 상품 가격이 같아야 한다.
      * 따라서 가격이 한번 정해지면, 수량만 변경 가능하다.
@@ -151,28 +278,45 @@ public class OrderItemService {
      * @throws OrderItemException
      */
     @Transactional
-    public Long updateOrderItemCount(OrderItemUpdateDto orderItemUpdateDto) throws NoSuchStoreException, StoreClosedException, OrderItemException {
+    public Long updateOrderItemCount(OrderItemUpdateDto orderItemUpdateDto) throws NoSuchStoreException, StoreClosedException, OrderItemException, NotEnoughStockException {
+        //같은 주문을 바꾸는 다른 요청이 끝날 때까지 기다린다.
+        orderLock.lockUntilCompletion(orderItemUpdateDto.getOrderId());
+
         //주문 Id로 주문을 찾는다.
-        Order order = findOrderWithStoreById(orderItemUpdateDto.getOrderId());
+        Order order = findOrderById(orderItemUpdateDto.getOrderId());
 
         Store store = order.getStore();
 
         //가게가 열려있는지 확인
-        isStoreOpen(store);
+        isStoreOpen(store.getId());
 
         //결제 중인지 확인
         //결제 중이면 예외 발생
         isPaymentAlreadyExists(order);
 
+        //재고 예약을 잠그고 만료 시간을 늘린다.
+        stockHoldService.holdStock(order);
+
         //주문에 상품 Id와 가격이 같은 주문 상품이 존재하는지 확인
         OrderItem orderItem = validateOrderItemExistenceWithOrderIdAndOrderItemIdAndItemIdAndPrice(orderItemUpdateDto.getOrderId(), orderItemUpdateDto.getId(), orderItemUpdateDto.getItemId(), orderItemUpdateDto.getPrice());
 
+        //수량이 바뀐 만큼 상품의 재고를 조정한다.
+        long countDifference = orderItemUpdateDto.getCount() - orderItem.getCount();
+        if (countDifference > 0) {
+            decreaseStock(store.getId(), orderItemUpdateDto.getItemId(), countDifference);
+        } else if (countDifference < 0) {
+            increaseStock(store.getId(), orderItemUpdateDto.getItemId(), -countDifference);
+        }
+
         orderItem.updatePrice(orderItemUpdateDto.getPrice());
         orderItem.updateCount(orderItemUpdateDto.getCount());
 
         //저장
         OrderItem savedOrderItem = orderItemRepository.save(orderItem);
 
+        //주문의 합계와 수량에 바뀐 수량만큼 더한다.
+        addTotals(order.getId(), orderItemUpdateDto.getPrice(), countDifference);
+
         return savedOrderItem.getId();
     }
 
@@ -183,36 +327,66 @@ public class OrderItemService {
      */
     @Transactional
     public void deleteOrderItem(OrderItemDeleteDto orderItemDeleteDto) throws EmptyResultDataAccessException {
-        Order order = findOrderWithStoreById(orderItemDeleteDto.getOrderId());
+        //같은 주문을 바꾸는 다른 요청이 끝날 때까지 기다린다.
+        orderLock.lockUntilCompletion(orderItemDeleteDto.getOrderId());
+
+        Order order = findOrderById(orderItemDeleteDto.getOrderId());
         Store store = order.getStore();
 
         //가게가 열려있는지 확인
-        isStoreOpen(store);
+        isStoreOpen(store.getId());
 
         //결제 중인지 확인
         //결제 중이면 예외 발생
         isPaymentAlreadyExists(order);
 
+        //재고 예약을 잠그고 만료 시간을 늘린다.
+        stockHoldService.holdStock(order);
+
         //주문에 상품 Id, 상품 가격이 같은 주문 상품이 존재하는지 확인하고 삭제
         OrderItem orderItem = validateOrderItemExistenceWithOrderIdAndOrderItemIdAndItemIdAndPrice(order.getId(), orderItemDeleteDto.getId(), orderItemDeleteDto.getItemId(), orderItemDeleteDto.getPrice());
 
-        try {
-            //해당 상품의 재고를 늘려주고, 주문 상품을 삭제한다.
-            Item item = orderItem.getItem();
-            item.increaseStock(orderItem.getCount());
+        //해당 상품의 재고를 늘려주고, 주문 상품을 삭제한다.
+        //상품이 없으면 변경되는 행이 없으므로, 주문 상품만 삭제된다.
+        increaseStock(store.getId(), orderItemDeleteDto.getItemId(), orderItem.getCount());
 
-            //저장
-            itemRepository.save(item);
-        } catch (NullPointerException e) {
-            //상품이 없으면, 주문 상품만 삭제
-        } finally {
-            orderItemRepository.deleteByChangingStatus(orderItem.getId());
+        orderItemRepository.deleteByChangingStatus(orderItem.getId());
+
+        //주문의 합계와 수량에서 삭제한 주문 상품만큼 뺀다.
+        addTotals(order.getId(), orderItem.getPrice(), -orderItem.getCount());
+    }
+
+    private void decreaseStock(Long storeId, Long itemId, Long count) throws NotEnoughStockException {
+        //재고가 충분할 때만 조건부 UPDATE로 재고를 감소시킨다.
+        //변경된 행이 없으면 재고 부족 예외 발생
+        if (itemRepository.decreaseStock(itemId, count) == 0) {
+            throw new NotEnoughStockException(ItemErrorMessage.NOT_ENOUGH_STOCK.getMessage());
         }
+
+        //커밋된 뒤에 메뉴 캐시의 재고를 고친다.
+        menuCache.updateStockAfterCommit(storeId, itemId, -count);
     }
 
-    private static void isStoreOpen(Store store) {
-        if (store.getStoreStatus().equals(StoreStatus.CLOSE)) {
-            throw new StoreClosedException(StoreErrorMessage.STORE_CLOSED.getMessage(), store.getId());
+    private void increaseStock(Long storeId, Long itemId, Long count) {
+        //상품이 없으면 변경되는 행이 없으므로, 메뉴 캐시도 고치지 않는다.
+        if (itemRepository.increaseStock(itemId, count) > 0) {
+            menuCache.updateStockAfterCommit(storeId, itemId, count);
+        }
+    }
+
+    //가격 * 수량을 합계에, 수량을 주문 상품 수량에 더한다. 줄어들면 수량이 음수다.
+    private void addTotals(Long orderId, Long price, long count) {
+        if (count == 0) {
+            return;
+        }
+
+        orderRepository.addTotalsById(orderId, price * count, count);
+    }
+
+    private void isStoreOpen(Long storeId) {
+        //가게를 조회하지 않고 캐시에서 확인
+        if (storeMetadataCache.get(storeId).getStoreStatus().equals(StoreStatus.CLOSE)) {
+            throw new StoreClosedException(StoreErrorMessage.STORE_CLOSED.getMessage(), storeId);
         }
     }
 
@@ -222,8 +396,9 @@ public class OrderItemService {
         }
     }
 
-    private Order findOrderWithStoreById(Long orderId) {
-        Order order = orderRepository.findNotDeletedAndPaidWithStoreById(orderId)
+    private Order findOrderById(Long orderId) {
+        //가게는 조인하지 않으므로 프록시다. Id만 꺼내 쓴다.
+        Order order = orderRepository.findNotDeletedAndPaidWithStoreTableAndPaymentById(orderId)
                 .orElseThrow(() -> new NoSuchOrderException(OrderErrorMessage.NO_SUCH_ORDER.getMessage()));
         return order;
     }
@@ -242,6 +417,15 @@ public class OrderItemService {
                 .orElseThrow(() -> new NoSuchOrderItemException(OrderItemErrorMessage.NO_SUCH_ORDER_ITEM.getMessage(), orderId));
     }
 
+    //주문 상품은 상품 Id와 가격이 같으면 같은 주문 상품으로 본다.
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class OrderItemKey {
+        private final Long itemId;
+        private final Long price;
+    }
+
 //    private OrderItem validateOrderItemExistenceWithItemIdAndPrice(Long orderId, Long itemId, Long price) throws NoSuchOrderException, NoSuchOrderItemException {
 //        //주문 상품에 테이블 Id, 상품 Id, 가격이 같은 상품이 존재하는지 확인
 //        //해당 조건을 만족하는 상품이 없으면 예외 발생
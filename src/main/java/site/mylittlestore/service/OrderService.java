@@ -3,10 +3,16 @@ package site.mylittlestore.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.cache.StoreMetadataCache;
 import site.mylittlestore.domain.*;
 import site.mylittlestore.domain.item.Item;
 import site.mylittlestore.dto.order.OrderDto;
 import site.mylittlestore.dto.order.OrderFindDtoWithOrderItemAndPayment;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.order.OrderHistoryCursor;
+import site.mylittlestore.dto.order.OrderHistoryLineDto;
+import site.mylittlestore.dto.order.OrderHistoryPage;
+import site.mylittlestore.dto.order.OrderTotalMismatchDto;
 import site.mylittlestore.enumstorage.errormessage.*;
 import site.mylittlestore.enumstorage.status.StoreStatus;
 import site.mylittlestore.exception.item.NoSuchItemException;
@@ -22,18 +28,29 @@ import site.mylittlestore.repository.store.StoreRepository;
 import site.mylittlestore.repository.order.OrderRepository;
 import site.mylittlestore.repository.storetable.StoreTableRepository;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class OrderService {
+    //주문 내역 한 페이지의 최대 줄 수
+    private static final int MAX_ORDER_HISTORY_PAGE_SIZE = 500;
+    //주문 내역 전체를 읽을 때, DB에서 한 번에 가져오는 줄 수
+    private static final int ORDER_HISTORY_FETCH_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final ItemRepository itemRepository;
     private final StoreRepository storeRepository;
     private final StoreTableRepository storeTableRepository;
     private final OrderItemRepository orderItemRepository;
     private final PaymentRepository paymentRepository;
+    private final StoreMetadataCache storeMetadataCache;
+    private final StockHoldService stockHoldService;
 
     public OrderDto findOrderDtoByIdAndStoreId(Long id, Long storeId) throws NoSuchOrderException {
         Optional<Order> findOrderById = orderRepository.findNotDeletedAndPaidByIdAndStoreId(id, storeId);
@@ -45,6 +62,72 @@ public class OrderService {
                 .toOrderDto();
     }
 
+    /**
+     * 주문 상세 화면에 필요한 주문, 테이블, 결제, 주문 상품을 한 번에 조회한다.
+     */
+    public OrderFindDtoWithOrderItemAndPayment findOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId(Long id, Long storeId) throws NoSuchOrderException {
+        return orderRepository.findNotDeletedAndPaidOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId(id, storeId)
+                //주문이 없으면 예외 발생
+                .orElseThrow(() -> new NoSuchOrderException(OrderErrorMessage.NO_SUCH_ORDER.getMessage()));
+    }
+
+    /**
+     * 가게의 주문 내역을 최근에 끝난 주문부터 한 페이지씩 조회한다.
+     * 다음 페이지가 있는지 알기 위해 한 줄을 더 조회한다.
+     * @param cursor 이전 페이지의 nextCursor, 첫 페이지면 null
+     */
+    public OrderHistoryPage findOrderHistoryPage(OrderHistoryCondition condition, OrderHistoryCursor cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_ORDER_HISTORY_PAGE_SIZE);
+
+        List<OrderHistoryLineDto> orderHistoryLineDtos = orderRepository.findAllOrderHistoryLineDto(condition, cursor, pageSize + 1);
+
+        boolean hasNext = orderHistoryLineDtos.size() > pageSize;
+        if (!hasNext) {
+            return OrderHistoryPage.builder()
+                    .orderHistoryLineDtos(orderHistoryLineDtos)
+                    .hasNext(false)
+                    .build();
+        }
+
+        orderHistoryLineDtos = orderHistoryLineDtos.subList(0, pageSize);
+        OrderHistoryLineDto last = orderHistoryLineDtos.get(pageSize - 1);
+
+        return OrderHistoryPage.builder()
+                .orderHistoryLineDtos(orderHistoryLineDtos)
+                .nextCursor(OrderHistoryCursor.builder()
+                        .endTime(last.getEndTime())
+                        .orderId(last.getOrderId())
+                        .orderItemId(last.getOrderItemId())
+                        .build())
+                .hasNext(true)
+                .build();
+    }
+
+    /**
+     * 조건에 맞는 주문 내역 전체를 한 줄씩 consumer에 넘긴다.
+     * 목록으로 모으지 않고 DB 커서로 읽으므로, 1년치 내역도 일정한 메모리로 읽을 수 있다.
+     * @return 넘긴 줄 수
+     */
+    public long forEachOrderHistoryLine(OrderHistoryCondition condition, Consumer<OrderHistoryLineDto> consumer) {
+        long count = 0;
+        try (Stream<OrderHistoryLineDto> orderHistoryLineDtos = orderRepository.streamOrderHistoryLineDto(condition, ORDER_HISTORY_FETCH_SIZE)) {
+            Iterator<OrderHistoryLineDto> iterator = orderHistoryLineDtos.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 가게의 주문마다 주문 상품에서 다시 계산한 합계와 수량을 주문에 쌓인 값과 비교한다.
+     * @return 다른 주문, 모두 같으면 빈 리스트
+     */
+    public List<OrderTotalMismatchDto> verifyOrderTotals(Long storeId) {
+        return orderRepository.findAllOrderTotalMismatchDtoByStoreId(storeId);
+    }
+
 //    public OrderDtoWithOrderItemDtoWithItemNameDto findOrderDtoWithOrderItemDtoWithItemNameDtoById(Long orderId) throws NoSuchOrderException {
 //        Order order = orderRepository.findOrderWithOrderItemsAndItemByIdOrderByTime(orderId)
 //        //주문이 없으면 예외 발생
@@ -66,11 +149,12 @@ public class OrderService {
     @Transactional
     public Long createOrder(Long storeId, Long storeTableId) throws NoSuchStoreException, StoreClosedException {
         //테이블 상태가 EMPTY인 테이블 조회
-        StoreTable storeTable = storeTableRepository.findEmptyWithStoreByIdAndStoreId(storeTableId, storeId)
+        StoreTable storeTable = storeTableRepository.findEmptyByIdAndStoreId(storeTableId, storeId)
                 //테이블이 없으면 예외 발생
                 .orElseThrow(() -> new NoSuchStoreTableException(StoreTableErrorMessage.NO_SUCH_STORE_TABLE.getMessage()));
 
         Order order = storeTable.getOrder();
+        //가게는 조회하지 않으므로 프록시다.
         Store store = storeTable.getStore();
 
         //테이블에 주문이 이미 존재하는지 확인
@@ -78,9 +162,9 @@ public class OrderService {
             throw new OrderAlreadyExistException(StoreTableErrorMessage.STORE_TABLE_ALREADY_HAVE_ORDER.getMessage(), order.getId());
         }
 
-        //가게가 열려있는지 확인
-        if (store.getStoreStatus().equals(StoreStatus.CLOSE)) {
-            throw new StoreClosedException(StoreErrorMessage.STORE_CLOSED.getMessage(), store.getId());
+        //가게가 열려있는지 캐시에서 확인
+        if (storeMetadataCache.get(storeId).getStoreStatus().equals(StoreStatus.CLOSE)) {
+            throw new StoreClosedException(StoreErrorMessage.STORE_CLOSED.getMessage(), storeId);
         }
 
         //이제 테이블에 주문이 없다면, 주문 생성
@@ -92,6 +176,9 @@ public class OrderService {
         //주문 저장
         Order savedOrder = orderRepository.save(createOrder);
 
+        //재고 예약도 함께 만든다.
+        stockHoldService.createStockHold(savedOrder);
+
         return savedOrder.getId();
     }
 
@@ -16,8 +16,8 @@ import site.mylittlestore.exception.payment.PaymentException;
 import site.mylittlestore.repository.payment.PaymentRepository;
 import site.mylittlestore.repository.paymentmethod.PaymentMethodRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +26,8 @@ import java.util.stream.Collectors;
 public class PaymentMethodService {
     private final PaymentRepository paymentRepository;
     private final PaymentMethodRepository paymentMethodRepository;
+    private final DailyRevenueService dailyRevenueService;
+    private final PaymentService paymentService;
 
     public PaymentMethodDto findNotPaidPaymentMethodDtoByIdAndPaymentId(Long id, Long paymentId) {
         return paymentMethodRepository.findNotPaidByIdAndPaymentId(id, paymentId)
@@ -33,6 +35,12 @@ public class PaymentMethodService {
                 .toPaymentMethodDto();
     }
 
+    public PaymentMethodDto findPaymentMethodDtoByIdAndPaymentId(Long id, Long paymentId) {
+        return paymentMethodRepository.findByIdAndPaymentId(id, paymentId)
+                .orElseThrow(() -> new PaymentMethodException(PaymentMethodErrorMessage.NO_SUCH_PAYMENT_METHOD.getMessage()))
+                .toPaymentMethodDto();
+    }
+
     public List<PaymentMethodDto> findAllPaymentMethodDtosByOrderIdAndPaymentId(Long orderId, Long paymentId) {
         return paymentMethodRepository.findAllByPaymentId(paymentId)
                 .stream()
@@ -42,17 +50,13 @@ public class PaymentMethodService {
 
     @Transactional
     public Long createPaymentMethod(Long paymentId, Long orderId, PaymentMethodCreationDto paymentMethodCreationDto) {
-        Payment payment = paymentRepository.findNotSuccessWithPaymentMethodsAndOrderByIdAndOrderId(paymentId, orderId)
+        //결제 수단은 조회하지 않는다.
+        Payment payment = paymentRepository.findNotSuccessByIdAndOrderId(paymentId, orderId)
                 .orElseThrow(() -> new PaymentException(PaymentErrorMessage.NO_SUCH_PAYMENT.getMessage()));
 
-        //paymentMethodStatus가 PAID인 paymentMethod의 paymentMethodAmount의 합
-        AtomicLong paymentMethodAmountSum = new AtomicLong(0);
-        payment.getPaymentMethods().stream()
-                .filter(paymentMethod -> paymentMethod.getPaymentMethodStatus().equals(PaymentMethodStatus.PAID))
-                .forEach(paymentMethod -> paymentMethodAmountSum.getAndAdd(paymentMethod.getPaymentMethodAmount()));
-
         //paymentMethodAmount 검증
-        long leftToPay = payment.getInitialPaymentAmount() - paymentMethodAmountSum.get();
+        //지불할 때 다시 확인하므로, 여기서는 지금 남은 금액보다 큰 결제 수단만 미리 막는다.
+        long leftToPay = payment.getInitialPaymentAmount() - payment.getPaidPaymentAmount();
         //결제 수단 금액이 남은 결제 금액보다 크면 예외 발생
         if (leftToPay < paymentMethodCreationDto.getPaymentMethodAmount()) {
             throw new PaymentMethodException(PaymentMethodErrorMessage.PAYMENT_METHOD_AMOUNT_EXCEEDS_LEFT_TO_PAY.getMessage());
@@ -68,4 +72,79 @@ public class PaymentMethodService {
         //저장
         return paymentMethodRepository.save(paymentMethod).getId();
     }
+
+    /**
+     * 승인을 시작할 결제 수단을 조회하고 AUTHORIZING으로 바꾼다.
+     * 만든 뒤 승인을 요청하지 않은 결제 수단은 IN_PROGRESS로 남으므로, 결제 현황 화면은 AUTHORIZING인 결제 수단의 결과만 기다린다.
+     * 승인이 거절(FAIL)됐거나 오류(ERROR)가 난 결제 수단도 다시 승인한다.
+     * 이미 AUTHORIZING이면 다른 요청(다른 서버나 재시작 전의 서버)이 승인 중이므로, 승인이 두 번 되지 않게 예외가 발생한다.
+     * 반환한 Dto의 상태는 바꾸기 전의 상태다.
+     */
+    @Transactional
+    public PaymentMethodDto startPaymentMethod(Long id, Long paymentId) {
+        PaymentMethod paymentMethod = paymentMethodRepository.findNotPaidByIdAndPaymentId(id, paymentId)
+                .orElseThrow(() -> new PaymentMethodException(PaymentMethodErrorMessage.NO_SUCH_PAYMENT_METHOD.getMessage()));
+
+        //조건부 UPDATE로 바꾼 요청만 승인한다.
+        if (paymentMethodRepository.updateAuthorizingById(id) == 0) {
+            throw new PaymentMethodException(PaymentMethodErrorMessage.ALREADY_AUTHORIZING.getMessage());
+        }
+
+        return paymentMethod.toPaymentMethodDto();
+    }
+
+    /**
+     * 승인이 거절되면 FAIL, 시간이 초과되거나 처리기에서 오류가 나면 ERROR로 바꾼다.
+     * 이미 지불된 결제 수단은 바꾸지 않는다.
+     */
+    @Transactional
+    public void failPaymentMethod(Long id, PaymentMethodStatus paymentMethodStatus) {
+        paymentMethodRepository.updateNotPaidStatusById(id, paymentMethodStatus);
+    }
+
+    /**
+     * 결제 수단을 지불하고, 같은 트랜잭션에서 가게의 영업일 매출에 더한다.
+     * 결제 수단과 결제는 조건부 UPDATE로만 바꾸고, 변경된 행의 수로 지불 가능 여부와 결제 완료를 정한다.
+     * 결제 행을 미리 잠그지 않으므로, 한 결제를 여러 결제 수단으로 동시에 나눠 내도 결제된 금액이 결제할 금액을 넘지 않는다.
+     * 결제 완료(finishPayment)는 이미 지불된 결제 수단을 확인만 하므로, 매출은 결제 수단마다 여기서 한 번만 더한다.
+     */
+    @Transactional
+    public void completePaymentMethod(Long id, Long paymentId) {
+        //결제는 아직 프록시다. 아래 UPDATE가 끝난 뒤에 조회해야 바뀐 값을 읽는다.
+        PaymentMethod paymentMethod = paymentMethodRepository.findNotPaidByIdAndPaymentId(id, paymentId)
+                .orElseThrow(() -> new PaymentMethodException(PaymentMethodErrorMessage.NO_SUCH_PAYMENT_METHOD.getMessage()));
+
+        LocalDateTime paymentMethodCompleteDateTime = LocalDateTime.now();
+
+        //매출 집계 행은 결제 수단과 결제를 UPDATE해서 잠그기 전에 만든다.
+        //집계 행을 만들 때 연결을 하나 더 쓰므로, 잠금을 쥔 채로 연결을 기다리지 않게 한다.
+        Long storeId = paymentRepository.findStoreIdById(paymentId)
+                .orElseThrow(() -> new PaymentException(PaymentErrorMessage.NO_SUCH_PAYMENT.getMessage()));
+        dailyRevenueService.prepareDailyRevenue(storeId, paymentMethodCompleteDateTime, paymentMethod.getPaymentMethodType());
+
+        //다른 요청이 먼저 지불했으면 예외 발생
+        if (paymentMethodRepository.updatePaidById(id, paymentMethodCompleteDateTime) == 0) {
+            throw new PaymentMethodException(PaymentMethodErrorMessage.ALREADY_PAID.getMessage());
+        }
+
+        //결제된 금액에 더한다.
+        //다른 결제 수단이 먼저 지불해서 남은 금액이 부족하면 예외 발생, 결제 수단의 지불도 롤백된다.
+        if (paymentRepository.addPaidPaymentAmountById(paymentId, paymentMethod.getPaymentMethodAmount()) == 0) {
+            throw new PaymentMethodException(PaymentMethodErrorMessage.PAYMENT_METHOD_AMOUNT_EXCEEDS_LEFT_TO_PAY.getMessage());
+        }
+
+        //결제된 금액이 결제할 금액과 같아졌으면, 이번 지불로 결제 완료
+        boolean paymentSucceeded = paymentRepository.updateSuccessById(paymentId, paymentMethodCompleteDateTime) > 0;
+
+        Payment payment = paymentMethod.getPayment();
+        dailyRevenueService.addRevenue(storeId,
+                paymentMethodCompleteDateTime,
+                paymentMethod.getPaymentMethodType(),
+                paymentMethod.getPaymentMethodAmount());
+
+        //마지막 결제 수단이면 같은 트랜잭션에서 주문을 결제 완료로 바꾼다.
+        if (paymentSucceeded) {
+            paymentService.finishPayment(paymentId, payment.getOrder().getId());
+        }
+    }
 }
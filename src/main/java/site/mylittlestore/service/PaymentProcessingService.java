@@ -0,0 +1,152 @@
+package site.mylittlestore.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.status.PaymentAuthorizationStatus;
+import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
+import site.mylittlestore.exception.paymentmethod.PaymentMethodException;
+import site.mylittlestore.payment.PaymentProcessor;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 결제 수단의 승인을 요청 스레드 밖에서 처리한다.
+ * 요청 스레드는 승인을 시작만 하고 바로 돌아가고, 승인 결과는 작업 스레드에서 결제 수단에 반영한다.
+ * 카드 승인을 기다리는 1~3초 동안 요청 스레드도, 작업 스레드도 잡지 않는다.
+ */
+@Slf4j
+@Service
+public class PaymentProcessingService {
+
+    private final PaymentMethodService paymentMethodService;
+
+    private final Map<PaymentMethodType, PaymentProcessor> paymentProcessors = new EnumMap<>(PaymentMethodType.class);
+
+    //승인 결과를 결제 수단에 반영하는 스레드
+    private final ExecutorService paymentWorkers;
+
+    //승인 중인 결제 수단, 결과가 반영되면 지운다.
+    private final ConcurrentMap<Long, CompletableFuture<PaymentMethodDto>> inFlights = new ConcurrentHashMap<>();
+
+    public PaymentProcessingService(PaymentMethodService paymentMethodService,
+                                    List<PaymentProcessor> paymentProcessors,
+                                    @Value("${mylittlestore.payment.worker-threads:8}") int workerThreads) {
+        this.paymentMethodService = paymentMethodService;
+        paymentProcessors.forEach(paymentProcessor -> this.paymentProcessors.put(paymentProcessor.getPaymentMethodType(), paymentProcessor));
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.paymentWorkers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 결제 수단의 승인을 시작하고, 결과가 반영되면 끝나는 future를 돌려준다.
+     * 이미 승인 중인 결제 수단이면 새로 승인하지 않고 그 future를 돌려준다.
+     * 결제 수단이 없거나 이미 지불됐으면 PaymentMethodException이 바로 발생한다.
+     */
+    public CompletableFuture<PaymentMethodDto> submit(Long paymentMethodId, Long paymentId) {
+        CompletableFuture<PaymentMethodDto> inFlight = new CompletableFuture<>();
+        CompletableFuture<PaymentMethodDto> existingInFlight = inFlights.putIfAbsent(paymentMethodId, inFlight);
+        if (existingInFlight != null) {
+            return existingInFlight;
+        }
+
+        PaymentMethodDto paymentMethodDto;
+        PaymentProcessor paymentProcessor;
+        try {
+            paymentMethodDto = paymentMethodService.startPaymentMethod(paymentMethodId, paymentId);
+            paymentProcessor = findPaymentProcessor(paymentMethodDto);
+        } catch (RuntimeException e) {
+            inFlights.remove(paymentMethodId, inFlight);
+            inFlight.completeExceptionally(e);
+            throw e;
+        }
+
+        authorize(paymentProcessor, paymentMethodDto)
+                .orTimeout(paymentProcessor.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .handleAsync((paymentAuthorizationStatus, throwable) -> applyAuthorization(paymentProcessor, paymentMethodDto, paymentAuthorizationStatus, throwable), paymentWorkers)
+                .whenComplete((result, throwable) -> {
+                    inFlights.remove(paymentMethodId, inFlight);
+                    if (throwable != null) {
+                        inFlight.completeExceptionally(throwable);
+                    } else {
+                        inFlight.complete(result);
+                    }
+                });
+
+        return inFlight;
+    }
+
+    public Optional<CompletableFuture<PaymentMethodDto>> findInFlight(Long paymentMethodId) {
+        return Optional.ofNullable(inFlights.get(paymentMethodId));
+    }
+
+    @PreDestroy
+    public void stop() {
+        paymentWorkers.shutdownNow();
+    }
+
+    private PaymentProcessor findPaymentProcessor(PaymentMethodDto paymentMethodDto) {
+        PaymentProcessor paymentProcessor = paymentProcessors.get(PaymentMethodType.valueOf(paymentMethodDto.getPaymentMethodType()));
+        if (paymentProcessor == null) {
+            throw new IllegalStateException("no payment processor for " + paymentMethodDto.getPaymentMethodType());
+        }
+        return paymentProcessor;
+    }
+
+    //처리기에서 바로 예외가 나도, 시간 초과와 같이 ERROR로 반영한다.
+    private CompletableFuture<PaymentAuthorizationStatus> authorize(PaymentProcessor paymentProcessor, PaymentMethodDto paymentMethodDto) {
+        try {
+            return paymentProcessor.authorize(paymentMethodDto);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private PaymentMethodDto applyAuthorization(PaymentProcessor paymentProcessor, PaymentMethodDto paymentMethodDto, PaymentAuthorizationStatus paymentAuthorizationStatus, Throwable throwable) {
+        Long paymentMethodId = paymentMethodDto.getId();
+        Long paymentId = paymentMethodDto.getPaymentId();
+
+        if (throwable != null) {
+            //시간이 초과됐으면 늦게라도 승인될 수 있으므로 취소한다.
+            log.warn("payment authorization failed paymentMethod={}", paymentMethodId, throwable);
+            paymentProcessor.cancel(paymentMethodDto);
+            paymentMethodService.failPaymentMethod(paymentMethodId, PaymentMethodStatus.ERROR);
+        } else if (paymentAuthorizationStatus == PaymentAuthorizationStatus.DECLINED) {
+            paymentMethodService.failPaymentMethod(paymentMethodId, PaymentMethodStatus.FAIL);
+        } else {
+            try {
+                paymentMethodService.completePaymentMethod(paymentMethodId, paymentId);
+            } catch (PaymentMethodException e) {
+                //승인되는 동안 다른 결제 수단이 남은 금액을 지불했으면, 승인을 취소한다.
+                log.info("payment authorization not applied paymentMethod={} reason={}", paymentMethodId, e.getMessage());
+                paymentProcessor.cancel(paymentMethodDto);
+                paymentMethodService.failPaymentMethod(paymentMethodId, PaymentMethodStatus.FAIL);
+            } catch (RuntimeException e) {
+                //DB 오류 등으로 지불이 롤백됐으면, 승인된 금액이 결제에 반영되지 않으므로 승인을 취소한다.
+                log.warn("payment authorization not applied paymentMethod={}", paymentMethodId, e);
+                paymentProcessor.cancel(paymentMethodDto);
+                paymentMethodService.failPaymentMethod(paymentMethodId, PaymentMethodStatus.ERROR);
+            }
+        }
+
+        return paymentMethodService.findPaymentMethodDtoByIdAndPaymentId(paymentMethodId, paymentId);
+    }
+}
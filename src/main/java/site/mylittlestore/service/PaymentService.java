@@ -1,25 +1,34 @@
 package site.mylittlestore.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.cache.StoreMetadataCache;
 import site.mylittlestore.domain.*;
 import site.mylittlestore.dto.payment.PaymentDto;
 import site.mylittlestore.enumstorage.PaymentMethodType;
 import site.mylittlestore.enumstorage.errormessage.*;
+import site.mylittlestore.enumstorage.status.OrderStatus;
 import site.mylittlestore.enumstorage.status.StoreStatus;
 import site.mylittlestore.exception.payment.*;
 import site.mylittlestore.exception.orderitem.NoSuchOrderItemException;
+import site.mylittlestore.exception.orderitem.OrderItemException;
 import site.mylittlestore.exception.store.NoSuchOrderException;
 import site.mylittlestore.exception.store.StoreClosedException;
+import site.mylittlestore.lock.OrderLock;
 import site.mylittlestore.repository.order.OrderRepository;
+import site.mylittlestore.repository.orderitem.OrderItemRepository;
 import site.mylittlestore.repository.payment.PaymentRepository;
 import site.mylittlestore.repository.storetable.StoreTableRepository;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,7 +37,13 @@ import java.util.stream.Collectors;
 public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
-    private final StoreTableRepository storeTableRepository
+    private final OrderItemRepository orderItemRepository;
+    private final StoreTableRepository storeTableRepository;
+    private final StockHoldService stockHoldService;
+    private final StoreMetadataCache storeMetadataCache;
+    private final BestSellerService bestSellerService;
+    private final OrderLock orderLock;
+    private final EntityManager em;
 
     public List<String> findPaymentMethodTypes() {
         return Arrays.stream(PaymentMethodType.values())
@@ -53,29 +68,27 @@ public class PaymentService {
      */
     @Transactional
     public Long startPayment(Long orderId) {
-        Order order = findOrderWithStoreAndOrderItemsById(orderId);
-        Store store = order.getStore();
-        List<OrderItem> orderItems = order.getOrderItems();
+        //결제 금액을 계산하는 동안 주문 상품이 바뀌지 않도록 주문을 잠근다.
+        orderLock.lockUntilCompletion(orderId);
+
+        //주문 상품은 조회하지 않는다.
+        //잠근 뒤에 조회하므로, 주문에 쌓인 합계와 수량은 다른 요청이 바꾸지 못한다.
+        Order order = findOrderById(orderId);
 
         //주문 상품이 없으면 예외 발생
-        if (orderItems.isEmpty()) {
+        if (order.getItemCount() == 0) {
             throw new NoSuchOrderItemException(OrderItemErrorMessage.NO_SUCH_ORDER_ITEM.getMessage(), order.getId());
         }
 
         //가게가 열려있는지 확인
         //결제 중인지 확인
-        validateOrderItemChangeAbility(order, store);
+        validateOrderItemChangeAbility(order);
 
         //Payment가 비어있으면
-        //합계 계산하고
-        AtomicLong initialPaymentAmount = new AtomicLong(0);
-        orderItems.stream()
-                .forEach(orderItem -> initialPaymentAmount.addAndGet(orderItem.getPrice() * orderItem.getCount()));
-
-        //Payment 생성
+        //주문에 쌓인 합계로 Payment 생성
         Payment createdPayment = Payment.builder()
                 .order(order)
-                .initialPaymentAmount(initialPaymentAmount.get())
+                .initialPaymentAmount(order.getSubtotal())
                 .build();
 
         //저장
@@ -108,8 +121,12 @@ public class PaymentService {
         }
     }
 
-    /*
-    initialPaymentAmount와 paidPaymentAmount가 같으면 결제 완료
+    /**
+     * initialPaymentAmount와 paidPaymentAmount가 같으면 결제 완료
+     * 주문, 주문 상품, 테이블의 상태를 주문 상품의 수와 상관없이 정해진 수의 UPDATE로 바꾼다.
+     * 엔티티를 하나씩 바꾸지 않으므로, 엔티티의 검사는 WHERE 조건과 변경된 행의 수로 대신한다.
+     * 마지막 결제 수단이 지불되면 같은 트랜잭션에서 호출되고, 이미 결제 완료된 주문이면 true만 반환한다.
+     * 호출한 쪽의 영속성 컨텍스트에서 이 주문과 주문 상품, 테이블만 분리하고, 다른 엔티티는 그대로 둔다.
      */
     @Transactional
     public boolean finishPayment(Long paymentId, Long orderId) {
@@ -127,37 +144,69 @@ public class PaymentService {
             throw new PaidPaymentAmountExceeedException(PaymentErrorMessage.PAID_PAYMENT_AMOUNT_IS_GREATER_THAN_INITIAL_PAYMENT_AMOUNT.getMessage());
         }
 
-        //값이 0이 아니고, initialPaymentAmount와 paidPaymentAmount가 같으면
-        //결제 완료
-        if (payment.getInitialPaymentAmount() != 0 & payment.getInitialPaymentAmount() == payment.getPaidPaymentAmount()) {
-            //storeTable, orderItems와 함께 order 찾기
-            Order order = orderRepository.findNotDeletedAndPaidWithStoreTableAndOrderItemsByIdAndPaymentId(orderId, paymentId)
-                    //order가 없으면 예외 발생
-                    .orElseThrow(() -> new NoSuchOrderException(OrderErrorMessage.NO_SUCH_ORDER.getMessage()));
-            StoreTable storeTable = order.getStoreTable();
-            List<OrderItem> orderItems = order.getOrderItems();
+        //값이 0이거나, initialPaymentAmount와 paidPaymentAmount가 같지 않으면
+        if (payment.getInitialPaymentAmount() == 0 || !payment.getInitialPaymentAmount().equals(payment.getPaidPaymentAmount())) {
+            return false;
+        }
+
+        //결제 중인 주문만 PAID로 변경
+        if (orderRepository.updatePaidById(orderId, LocalDateTime.now()) == 0) {
+            //이미 결제 완료된 주문이면 할 일이 없다.
+            return isOrderAlreadyPaid(orderId);
+        }
 
-            //order 상태 PAID로 변경
-            order.changeOrderStatusPaid();
-            orderRepository.save(order);
+        //삭제되지 않은 주문 상품이 모두 ORDERED여야 한다.
+        long notDeletedOrderItemCount = orderItemRepository.countNotDeletedByOrderId(orderId);
+        if (notDeletedOrderItemCount == 0) {
+            throw new PaymentFatalException(OrderErrorMessage.ORDER_HAS_NO_ORDER_ITEM.getMessage());
+        }
+        //orderItems 상태 PAID로 변경
+        if (orderItemRepository.updatePaidByOrderId(orderId) != notDeletedOrderItemCount) {
+            throw new OrderItemException(OrderItemErrorMessage.ORDER_ITEM_ALREADY_PAID.getMessage());
+        }
 
-            //storeTable 상태 EMPTY로 변경
-            storeTable.changeStoreTableStatusEmpty();
-            storeTableRepository.save(storeTable);
+        //storeTable 상태 EMPTY로 변경
+        storeTableRepository.updateEmptyByOrderId(orderId);
 
-            //orderItems 상태 PAID로 변경
-            orderItems.stream()
-                    .forEach(orderItem -> orderItem.changeOrderItemStatusPaid());
+        //재고 예약 확정
+        stockHoldService.commitStockHold(orderId);
 
-            return true;
+        //벌크 UPDATE는 영속성 컨텍스트를 거치지 않으므로, 이미 읽어둔 주문, 주문 상품, 테이블이 예전 상태로 남지 않게 분리한다.
+        //분리하기 전에 변경을 반영한다.
+        em.flush();
+        detachPaidOrder(orderId);
+
+        //인기 상품 순위에 더한다.
+        bestSellerService.recordPaidOrder(orderId);
+
+        return true;
+    }
+
+    //벌크 UPDATE가 바꾼 주문, 주문 상품, 테이블 중 영속성 컨텍스트에 있는 것만 분리한다.
+    //다시 조회하면 바뀐 상태를 읽는다.
+    private void detachPaidOrder(Long orderId) {
+        Map.Entry<Object, EntityEntry>[] entityEntries = em.unwrap(SharedSessionContractImplementor.class)
+                .getPersistenceContextInternal()
+                .reentrantSafeEntityEntries();
+
+        for (Map.Entry<Object, EntityEntry> entityEntry : entityEntries) {
+            Object entity = entityEntry.getKey();
+            if ((entity instanceof Order && orderId.equals(((Order) entity).getId()))
+                    || (entity instanceof OrderItem && isOrder(((OrderItem) entity).getOrder(), orderId))
+                    || (entity instanceof StoreTable && isOrder(((StoreTable) entity).getOrder(), orderId))) {
+                em.detach(entity);
+            }
         }
-        //같지 않으면
-        return false;
     }
 
-    private static void validateOrderItemChangeAbility(Order order, Store store) {
+    //프록시여도 Id만 읽으므로 초기화하지 않는다.
+    private static boolean isOrder(Order order, Long orderId) {
+        return order != null && orderId.equals(order.getId());
+    }
+
+    private void validateOrderItemChangeAbility(Order order) {
         //가게가 열려있는지 확인
-        isStoreOpen(store);
+        isStoreOpen(order.getStore().getId());
 
         //결제 중인지 확인
         //결제 중이면 예외 발생
@@ -170,20 +219,26 @@ public class PaymentService {
         }
     }
 
-    private static void isStoreOpen(Store store) {
-        if (store.getStoreStatus().equals(StoreStatus.CLOSE)) {
-            throw new StoreClosedException(StoreErrorMessage.STORE_CLOSED.getMessage(), store.getId());
+    private void isStoreOpen(Long storeId) {
+        //가게를 조회하지 않고 캐시에서 확인
+        if (storeMetadataCache.get(storeId).getStoreStatus().equals(StoreStatus.CLOSE)) {
+            throw new StoreClosedException(StoreErrorMessage.STORE_CLOSED.getMessage(), storeId);
         }
     }
 
-    private Order findOrderWithStoreById(Long orderId) {
-        Order order = orderRepository.findNotDeletedAndPaidWithStoreById(orderId)
+    private boolean isOrderAlreadyPaid(Long orderId) {
+        Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new NoSuchOrderException(OrderErrorMessage.NO_SUCH_ORDER.getMessage()));
-        return order;
+
+        if (order.getOrderStatus() == OrderStatus.PAID) {
+            return true;
+        }
+        //결제 중이 아닌 주문(삭제 등)
+        throw new PaymentFatalException(OrderErrorMessage.ORDER_NOT_IN_PROGRESS.getMessage());
     }
 
-    private Order findOrderWithStoreAndOrderItemsById(Long orderId) {
-        Order order = orderRepository.findNotDeletedAndPaidWithStoreAndOrderItemsById(orderId)
+    private Order findOrderById(Long orderId) {
+        Order order = orderRepository.findNotDeletedAndPaidWithStoreTableAndPaymentById(orderId)
                 .orElseThrow(() -> new NoSuchOrderException(OrderErrorMessage.NO_SUCH_ORDER.getMessage()));
         return order;
     }
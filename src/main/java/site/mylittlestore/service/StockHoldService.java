@@ -0,0 +1,174 @@
+package site.mylittlestore.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.cache.MenuCache;
+import site.mylittlestore.domain.Order;
+import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.domain.StockHold;
+import site.mylittlestore.dto.stockhold.StockHoldDto;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+import site.mylittlestore.repository.item.ItemRepository;
+import site.mylittlestore.repository.order.OrderRepository;
+import site.mylittlestore.repository.orderitem.OrderItemRepository;
+import site.mylittlestore.repository.stockhold.StockHoldRepository;
+import site.mylittlestore.scheduler.StockHoldQueue;
+import site.mylittlestore.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 주문에 담긴 상품의 재고 예약을 관리한다.
+ * 재고는 주문 상품을 추가할 때 이미 감소하므로, 상품의 재고가 곧 주문 가능한 재고다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class StockHoldService {
+
+    private final StockHoldRepository stockHoldRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderItemRepository orderItemRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final StockHoldQueue stockHoldQueue;
+
+    private final MenuCache menuCache;
+
+    //결제되지 않은 주문의 재고를 붙잡아두는 시간
+    @Value("${mylittlestore.stock-hold.ttl:PT3H}")
+    private Duration ttl;
+
+    public List<StockHoldDto> findAllHeldStockHoldDtos() {
+        return stockHoldRepository.findAllHeldStockHoldDto();
+    }
+
+    /**
+     * 주문을 만들 때 재고 예약도 함께 만든다.
+     * 주문 상품을 바꿀 때는 항상 잠글 예약 행이 있으므로, 첫 주문 상품을 동시에 추가해도 예약이 두 번 생기지 않는다.
+     */
+    @Transactional
+    public void createStockHold(Order order) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+
+        stockHoldRepository.save(StockHold.builder()
+                .order(order)
+                .expiresAt(expiresAt)
+                .build());
+
+        //커밋된 뒤에 만료 대기열에 넣는다.
+        AfterCommit.run(() -> stockHoldQueue.add(order.getId(), expiresAt));
+    }
+
+    /**
+     * 주문의 재고 예약의 만료 시간을 늘린다.
+     * 주문 상품을 바꾸기 전에 호출해서 예약 행을 잠가야, 만료된 재고 반환과 겹치지 않는다.
+     */
+    @Transactional
+    public void holdStock(Order order) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+
+        StockHold stockHold = stockHoldRepository.findWithLockByOrderId(order.getId())
+                .orElseGet(() -> createStockHoldWithOrderLock(order, expiresAt));
+        stockHold.extend(expiresAt);
+
+        //커밋된 뒤에 만료 대기열에 넣는다.
+        AfterCommit.run(() -> stockHoldQueue.add(order.getId(), expiresAt));
+    }
+
+    /**
+     * 결제가 완료되면 예약을 확정한다.
+     */
+    @Transactional
+    public void commitStockHold(Long orderId) {
+        stockHoldRepository.findWithLockByOrderId(orderId)
+                .ifPresent(StockHold::commit);
+    }
+
+    /**
+     * 만료된 예약의 주문 상품을 삭제하고 재고를 돌려준다.
+     * 결제 중인 주문은 반환하지 않고 예약을 연장한다.
+     * 돌려줄 재고는 상품마다 합쳐서, 주문 상품을 추가할 때와 같이 상품 Id 순서로 한 번씩 늘린다.
+     * @return 재고를 반환한 예약의 수
+     */
+    @Transactional
+    public int releaseExpiredStockHolds(List<Long> orderIds) {
+        LocalDateTime now = LocalDateTime.now();
+        int releasedCount = 0;
+
+        //상품 행은 커밋할 때까지 잠기므로, 주문 상품을 추가하는 요청과 교착되지 않게 상품 Id 순서로 잠근다.
+        Map<Long, Long> releasedCountsByItemId = new TreeMap<>();
+        Map<Long, Long> storeIdsByItemId = new HashMap<>();
+
+        for (StockHold stockHold : stockHoldRepository.findAllHeldWithOrderByOrderIdIn(orderIds)) {
+            //만료 전에 연장된 예약은 새 만료 시간으로 대기열에 들어가 있으므로 넘어간다.
+            if (!stockHold.isExpired(now)) {
+                continue;
+            }
+
+            Order order = stockHold.getOrder();
+
+            //결제 중이면 연장
+            if (order.getOrderStatus() == OrderStatus.IN_PROGRESS) {
+                LocalDateTime expiresAt = now.plus(ttl);
+                stockHold.extend(expiresAt);
+                AfterCommit.run(() -> stockHoldQueue.add(order.getId(), expiresAt));
+                continue;
+            }
+
+            //주문 상품을 삭제하고, 돌려줄 재고를 상품마다 모은다.
+            long releasedSubtotal = 0L;
+            long releasedItemCount = 0L;
+            for (OrderItem orderItem : orderItemRepository.findAllOrderItemIdByOrderId(order.getId())) {
+                Long itemId = orderItem.getItem().getId();
+                releasedCountsByItemId.merge(itemId, orderItem.getCount(), Long::sum);
+                storeIdsByItemId.put(itemId, order.getStore().getId());
+                orderItemRepository.deleteByChangingStatus(orderItem.getId());
+
+                releasedSubtotal += orderItem.getPrice() * orderItem.getCount();
+                releasedItemCount += orderItem.getCount();
+            }
+
+            //주문의 합계와 수량에서 삭제한 주문 상품만큼 한 번에 뺀다.
+            if (releasedItemCount > 0) {
+                orderRepository.addTotalsById(order.getId(), -releasedSubtotal, -releasedItemCount);
+            }
+
+            stockHold.release();
+            releasedCount++;
+        }
+
+        //상품의 재고를 늘려준다.
+        releasedCountsByItemId.forEach((itemId, count) -> {
+            if (itemRepository.increaseStock(itemId, count) > 0) {
+                menuCache.updateStockAfterCommit(storeIdsByItemId.get(itemId), itemId, count);
+            }
+        });
+
+        return releasedCount;
+    }
+
+    /**
+     * 예약 없이 만들어진 주문(예약을 주문과 함께 만들기 전의 주문)이면 여기서 만든다.
+     * 잠글 예약 행이 없으므로 주문 행을 잠그고 다시 확인해서, 예약이 두 번 생기지 않게 한다.
+     */
+    private StockHold createStockHoldWithOrderLock(Order order, LocalDateTime expiresAt) {
+        orderRepository.findWithLockById(order.getId());
+
+        return stockHoldRepository.findWithLockByOrderId(order.getId())
+                .orElseGet(() -> stockHoldRepository.save(StockHold.builder()
+                        .order(order)
+                        .expiresAt(expiresAt)
+                        .build()));
+    }
+}
@@ -3,6 +3,7 @@ package site.mylittlestore.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.cache.StoreMetadataCache;
 import site.mylittlestore.domain.Member;
 import site.mylittlestore.domain.Store;
 import site.mylittlestore.domain.item.Item;
@@ -34,13 +35,23 @@ public class StoreService {
     private final StoreRepository storeRepository;
     private final StoreTableRepository storeTableRepository;
     private final ItemRepository itemRepository;
+    private final StoreMetadataCache storeMetadataCache;
 
     public StoreDto findStoreDtoById(Long id) throws NoSuchStoreException {
-        return storeRepository.findById(id)
+        //테이블 Id와 상품 Id는 컬렉션을 초기화하지 않고 따로 조회
+        return storeRepository.findStoreDtoById(id)
                 //가게가 없으면 예외 발생
-                .orElseThrow(() -> new NoSuchStoreException(StoreErrorMessage.NO_SUCH_STORE.getMessage()))
-                //Dto로 변환
-                .toStoreDto();
+                .orElseThrow(() -> new NoSuchStoreException(StoreErrorMessage.NO_SUCH_STORE.getMessage()));
+    }
+
+    /**
+     * 가게 정보 화면 조회
+     * 테이블과 상품은 목록 대신 수만 조회한다.
+     */
+    public StoreOverviewDto findStoreOverviewDtoById(Long id) throws NoSuchStoreException {
+        return storeRepository.findStoreOverviewDtoById(id)
+                //가게가 없으면 예외 발생
+                .orElseThrow(() -> new NoSuchStoreException(StoreErrorMessage.NO_SUCH_STORE.getMessage()));
     }
 
     public StoreDtoWithStoreTablesAndItems findStoreDtoWithStoreTablesAndItemsById(Long id) throws NoSuchStoreException {
@@ -53,10 +64,8 @@ public class StoreService {
 
     public List<StoreDto> findAllStoreDtoById(Long memberId) {
         //회원 id를 가지고 있는 가게를 찾아야지.
-        return storeRepository.findAllStoreByMemberId(memberId).stream()
-                //Dto로 변환
-                .map(m -> m.toStoreDto())
-                .collect(Collectors.toList());
+        //가게 수와 상관없이, 테이블 Id와 상품 Id는 IN 쿼리로 한 번씩만 조회
+        return storeRepository.findAllStoreDtoByMemberId(memberId);
     }
 
     @Transactional
@@ -78,6 +87,9 @@ public class StoreService {
         //회원의 정보 저장
         memberRepository.save(member);
 
+        //커밋된 뒤에 가게 상태를 캐시에 담는다.
+        storeMetadataCache.putAfterCommit(savedStore);
+
         return savedStore.getId();
     }
 
@@ -99,6 +111,9 @@ public class StoreService {
         //저장
         Store savedStore = storeRepository.save(findStore);
 
+        //커밋된 뒤에 캐시에 반영
+        storeMetadataCache.putAfterCommit(savedStore);
+
         return savedStore.getId();
     }
 
@@ -118,7 +133,12 @@ public class StoreService {
         }
 
         //저장
-        return storeRepository.save(findStore).getId();
+        Store savedStore = storeRepository.save(findStore);
+
+        //커밋된 뒤에 캐시에 반영
+        storeMetadataCache.putAfterCommit(savedStore);
+
+        return savedStore.getId();
     }
 
     private Member findMemberById(Long memberId) throws NoSuchMemberException {
@@ -138,8 +158,18 @@ public class StoreService {
 
     //업데이트 하려는 가게가 회원의 가게인지 검증
     private Store validateStoreIsMembersStore(Long storeId, Long memberId) {
-        return storeRepository.findStoreByIdAndMemberId(storeId, memberId)
-                //storeId와 memberId에 맞는 가게가 없으면, 예외 발생
+        //가게 주인은 캐시에서 확인
+        boolean isMembersStore = storeMetadataCache.find(storeId)
+                .map(storeMetadataDto -> storeMetadataDto.getMemberId().equals(memberId))
+                .orElse(false);
+
+        //가게가 없거나 회원의 가게가 아니면, 예외 발생
+        if (!isMembersStore) {
+            throw new NoSuchStoreException(StoreErrorMessage.IS_NOT_MEMBERS_STORE.getMessage());
+        }
+
+        //변경이 겹치지 않도록 가게 행을 잠그고 조회
+        return storeRepository.findWithLockById(storeId)
                 .orElseThrow(() -> new NoSuchStoreException(StoreErrorMessage.IS_NOT_MEMBERS_STORE.getMessage()));
     }
 }
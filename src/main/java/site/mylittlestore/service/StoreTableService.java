@@ -17,13 +17,18 @@ import site.mylittlestore.repository.orderitem.OrderItemRepository;
 import site.mylittlestore.repository.store.StoreRepository;
 import site.mylittlestore.repository.storetable.StoreTableRepository;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class StoreTableService {
+    //한 번에 만들거나 삭제할 수 있는 테이블의 수
+    private static final int MAX_BULK_STORE_TABLE_COUNT = 500;
 
     private final StoreRepository storeRepository;
 
@@ -70,24 +75,68 @@ public class StoreTableService {
 
     @Transactional
     public Long createStoreTable(Long storeId) {
-        //가게가 없으면, 예외 발생
-        Store findStore = findById(storeId);
+        return createStoreTables(storeId, 1).get(0);
+    }
 
-        //테이블 생성
-        StoreTable createdStoreTable = findStore.createStoreTable();
+    /**
+     * 빈 테이블을 count개 만든다. 번호는 가게의 마지막 번호 다음부터 붙인다.
+     * 가게의 테이블 목록은 불러오지 않고, INSERT를 묶어서 보낸다.
+     * @return 만든 테이블의 Id, 번호 순서
+     */
+    @Transactional
+    public List<Long> createStoreTables(Long storeId, int count) {
+        validateStoreTableCount(count);
 
-        //저장
-        Store savedStore = storeRepository.save(findStore);
-        StoreTable savedStoreTable = storeTableRepository.save(createdStoreTable);
+        //같은 가게에서 동시에 테이블을 만들어도 번호가 겹치지 않도록 가게 행을 잠근다.
+        findWithLockById(storeId);
 
-//        잔여 테이블이 있으면 테이블 생성 -> 이거는 테이블 사용 로직인 듯
-//        if (tableNumbers - currentTableNumbers > 0) {
-//            orderDto.createTable(new Order(orderDto));
-//        } else {
-//            throw new IllegalStateException("테이블이 가득 찼습니다.");
-//        }
+        Integer maxTableNumber = storeTableRepository.findMaxTableNumberByStoreId(storeId);
+        return storeTableRepository.insertAll(storeId, maxTableNumber != null ? maxTableNumber + 1 : 1, count);
+    }
+
+    /**
+     * storeTableIds의 순서대로 1번부터 번호를 다시 붙인다.
+     * 넘기지 않은 테이블은 그 뒤에 지금 번호 순서대로 붙으므로, 빈 목록이면 번호의 빈 곳만 채운다.
+     * 테이블 MAX_BULK_STORE_TABLE_COUNT개마다 UPDATE 한 번으로 바꾸므로, 테이블 2차 캐시도 그만큼만 비워진다.
+     */
+    @Transactional
+    public void renumberStoreTables(Long storeId, List<Long> storeTableIds) {
+        //번호를 바꾸는 동안 테이블이 추가되지 않도록 가게 행을 잠근다.
+        findWithLockById(storeId);
+
+        List<Long> allStoreTableIds = storeTableRepository.findAllNotDeletedIdByStoreId(storeId);
+        if (allStoreTableIds.isEmpty()) {
+            return;
+        }
+
+        //가게에 없는 테이블이 있으면 예외 발생
+        Set<Long> orderedStoreTableIds = new LinkedHashSet<>(storeTableIds);
+        if (!allStoreTableIds.containsAll(orderedStoreTableIds)) {
+            throw new NoSuchStoreTableException(StoreTableErrorMessage.NO_SUCH_STORE_TABLE.getMessage());
+        }
+        orderedStoreTableIds.addAll(allStoreTableIds);
 
-        return savedStoreTable.getId();
+        //CASE 식이 너무 길어지지 않도록 나눠서 바꾼다.
+        List<Long> renumberedStoreTableIds = new ArrayList<>(orderedStoreTableIds);
+        for (int from = 0; from < renumberedStoreTableIds.size(); from += MAX_BULK_STORE_TABLE_COUNT) {
+            int to = Math.min(from + MAX_BULK_STORE_TABLE_COUNT, renumberedStoreTableIds.size());
+            storeTableRepository.updateTableNumbers(storeId, renumberedStoreTableIds.subList(from, to), from + 1);
+        }
+    }
+
+    /**
+     * 빈 테이블들을 한 번에 삭제한다.
+     * 하나라도 사용 중이거나 없으면 예외가 발생하고 전부 취소된다.
+     */
+    @Transactional
+    public void deleteStoreTables(Long storeId, List<Long> storeTableIds) {
+        List<Long> distinctStoreTableIds = new ArrayList<>(new LinkedHashSet<>(storeTableIds));
+        validateStoreTableCount(distinctStoreTableIds.size());
+
+        long deletedCount = storeTableRepository.deleteAllEmptyByIdInAndStoreId(distinctStoreTableIds, storeId);
+        if (deletedCount != distinctStoreTableIds.size()) {
+            throw new StoreTableException(StoreTableErrorMessage.STORE_TABLE_USING_OR_NOT_FOUND.getMessage());
+        }
     }
 
     @Transactional
@@ -107,10 +156,14 @@ public class StoreTableService {
         storeTable.delete();
     }
 
-    private Store findById(Long id) {
-        Store store = storeRepository.findById(id)
+    private Store findWithLockById(Long id) {
+        return storeRepository.findWithLockById(id)
                 .orElseThrow(() -> new NoSuchStoreException(StoreErrorMessage.NO_SUCH_STORE.getMessage()));
+    }
 
-        return store;
+    private static void validateStoreTableCount(int count) {
+        if (count < 1 || count > MAX_BULK_STORE_TABLE_COUNT) {
+            throw new StoreTableException(StoreTableErrorMessage.INVALID_STORE_TABLE_COUNT.getMessage());
+        }
     }
 }
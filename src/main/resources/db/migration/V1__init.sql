@@ -0,0 +1,167 @@
+-- ddl-auto: create로 만들던 스키마
+-- 엔티티의 @Index, unique 제약조건도 그대로 옮겼다.
+
+CREATE SEQUENCE member_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE store_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE store_table_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_item_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE item_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE item_stock_shard_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE payment_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE payment_method_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE stock_hold_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE member (
+    member_id          BIGINT       NOT NULL,
+    created_date       TIMESTAMP,
+    last_modified_date TIMESTAMP,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    name               VARCHAR(255) NOT NULL,
+    email              VARCHAR(255) NOT NULL,
+    password           VARCHAR(255) NOT NULL,
+    city               VARCHAR(255),
+    street             VARCHAR(255),
+    zipcode            VARCHAR(255),
+    CONSTRAINT pk_member PRIMARY KEY (member_id),
+    CONSTRAINT uk_member_email UNIQUE (email)
+);
+
+CREATE TABLE stores (
+    store_id           BIGINT       NOT NULL,
+    created_date       TIMESTAMP,
+    last_modified_date TIMESTAMP,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    member_id          BIGINT       NOT NULL,
+    name               VARCHAR(255) NOT NULL,
+    city               VARCHAR(255),
+    street             VARCHAR(255),
+    zipcode            VARCHAR(255),
+    store_status       VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_stores PRIMARY KEY (store_id),
+    CONSTRAINT uk_stores_name UNIQUE (name),
+    CONSTRAINT fk_stores_member FOREIGN KEY (member_id) REFERENCES member (member_id)
+);
+
+CREATE TABLE orders (
+    order_id           BIGINT       NOT NULL,
+    created_date       TIMESTAMP,
+    last_modified_date TIMESTAMP,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    store_id           BIGINT       NOT NULL,
+    start_time         TIMESTAMP    NOT NULL,
+    end_time           TIMESTAMP,
+    order_status       VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_orders PRIMARY KEY (order_id),
+    CONSTRAINT fk_orders_stores FOREIGN KEY (store_id) REFERENCES stores (store_id)
+);
+
+CREATE TABLE store_table (
+    table_id           BIGINT       NOT NULL,
+    created_date       TIMESTAMP,
+    last_modified_date TIMESTAMP,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    store_id           BIGINT       NOT NULL,
+    order_id           BIGINT,
+    x_coordinate       BIGINT,
+    y_coordinate       BIGINT,
+    store_table_status VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_store_table PRIMARY KEY (table_id),
+    CONSTRAINT uk_store_table_order_id UNIQUE (order_id),
+    CONSTRAINT fk_store_table_stores FOREIGN KEY (store_id) REFERENCES stores (store_id),
+    CONSTRAINT fk_store_table_orders FOREIGN KEY (order_id) REFERENCES orders (order_id)
+);
+
+CREATE TABLE item (
+    itemtype           VARCHAR(31)  NOT NULL,
+    item_id            BIGINT       NOT NULL,
+    created_date       TIMESTAMP,
+    last_modified_date TIMESTAMP,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    store_id           BIGINT       NOT NULL,
+    name               VARCHAR(255) NOT NULL,
+    price              BIGINT       NOT NULL,
+    stock              BIGINT       NOT NULL,
+    image              VARCHAR(255),
+    stock_shard_count  INTEGER,
+    item_status        VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_item PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_stores FOREIGN KEY (store_id) REFERENCES stores (store_id)
+);
+
+CREATE TABLE item_stock_shard (
+    item_stock_shard_id BIGINT  NOT NULL,
+    item_id             BIGINT  NOT NULL,
+    shard_index         INTEGER NOT NULL,
+    stock               BIGINT  NOT NULL,
+    CONSTRAINT pk_item_stock_shard PRIMARY KEY (item_stock_shard_id),
+    CONSTRAINT fk_item_stock_shard_item FOREIGN KEY (item_id) REFERENCES item (item_id)
+);
+
+CREATE TABLE order_item (
+    order_item_id      BIGINT       NOT NULL,
+    created_date       TIMESTAMP,
+    last_modified_date TIMESTAMP,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    store_id           BIGINT       NOT NULL,
+    order_id           BIGINT       NOT NULL,
+    item_id            BIGINT       NOT NULL,
+    item_name          VARCHAR(255) NOT NULL,
+    price              BIGINT       NOT NULL,
+    count              BIGINT       NOT NULL,
+    ordered_date_time  TIMESTAMP    NOT NULL,
+    updated_date_time  TIMESTAMP    NOT NULL,
+    order_item_status  VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_order_item PRIMARY KEY (order_item_id),
+    CONSTRAINT fk_order_item_stores FOREIGN KEY (store_id) REFERENCES stores (store_id),
+    CONSTRAINT fk_order_item_orders FOREIGN KEY (order_id) REFERENCES orders (order_id),
+    CONSTRAINT fk_order_item_item FOREIGN KEY (item_id) REFERENCES item (item_id)
+);
+
+CREATE TABLE payment (
+    payment_id             BIGINT       NOT NULL,
+    order_order_id         BIGINT       NOT NULL,
+    initial_payment_amount BIGINT       NOT NULL,
+    desired_payment_amount BIGINT,
+    paid_payment_amount    BIGINT       NOT NULL,
+    complete_date_time     TIMESTAMP,
+    payment_status         VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_payment PRIMARY KEY (payment_id),
+    CONSTRAINT uk_payment_order_order_id UNIQUE (order_order_id),
+    CONSTRAINT fk_payment_orders FOREIGN KEY (order_order_id) REFERENCES orders (order_id)
+);
+
+CREATE TABLE payment_method (
+    payment_method_id                 BIGINT       NOT NULL,
+    payment_payment_id                BIGINT       NOT NULL,
+    payment_method_type               VARCHAR(255) NOT NULL,
+    payment_method_amount             BIGINT       NOT NULL,
+    payment_method_complete_date_time TIMESTAMP,
+    payment_method_status             VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_payment_method PRIMARY KEY (payment_method_id),
+    CONSTRAINT fk_payment_method_payment FOREIGN KEY (payment_payment_id) REFERENCES payment (payment_id)
+);
+
+CREATE TABLE stock_hold (
+    stock_hold_id      BIGINT       NOT NULL,
+    created_date       TIMESTAMP,
+    last_modified_date TIMESTAMP,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    order_id           BIGINT       NOT NULL,
+    expires_at         TIMESTAMP    NOT NULL,
+    stock_hold_status  VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_stock_hold PRIMARY KEY (stock_hold_id),
+    CONSTRAINT uk_stock_hold_order_id UNIQUE (order_id),
+    CONSTRAINT fk_stock_hold_orders FOREIGN KEY (order_id) REFERENCES orders (order_id)
+);
+
+CREATE INDEX idx_member_name_member_id ON member (name, member_id);
+CREATE INDEX idx_orders_store_id_end_time_order_id ON orders (store_id, end_time, order_id);
+CREATE INDEX idx_stock_hold_status_expires_at ON stock_hold (stock_hold_status, expires_at);
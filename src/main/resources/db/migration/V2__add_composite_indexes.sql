@@ -0,0 +1,24 @@
+-- 외래 키 + 상태로 찾는 조회에 맞춘 복합 인덱스
+-- 외래 키 인덱스만 있으면, 같은 주문이나 가게의 행을 모두 읽고 상태를 하나씩 비교한다.
+-- V1로 만든 DB에만 적용하므로 IF NOT EXISTS를 붙이지 않는다. 같은 이름의 인덱스가 있으면 마이그레이션이 실패한다.
+
+-- 주문 상품: 주문 + ORDERED + 상품 + 가격 (같은 상품, 같은 가격의 주문 상품 찾기, 주문의 주문 상품 목록)
+CREATE INDEX idx_order_item_order_id_status_item_id_price ON order_item (order_id, order_item_status, item_id, price);
+
+-- 주문: 가게 + 주문 상태 (가게의 사용 중인 주문 목록)
+CREATE INDEX idx_orders_store_id_order_status ON orders (store_id, order_status);
+
+-- 테이블: 가게 + 테이블 상태 (가게의 삭제되지 않은 테이블 목록, 테이블 수)
+CREATE INDEX idx_store_table_store_id_status ON store_table (store_id, store_table_status);
+
+-- 상품: 가게 + 판매 상태 (메뉴, 상품 수)
+CREATE INDEX idx_item_store_id_item_status ON item (store_id, item_status);
+
+-- 상품: 가게 + 이름 (가게 안에서 같은 이름의 상품 찾기)
+CREATE INDEX idx_item_store_id_name ON item (store_id, name);
+
+-- 재고 샤드: 상품 + 샤드 번호 (샤드 하나만 UPDATE)
+CREATE INDEX idx_item_stock_shard_item_id_shard_index ON item_stock_shard (item_id, shard_index);
+
+-- 결제 수단: 결제 + 결제 수단 상태
+CREATE INDEX idx_payment_method_payment_id_status ON payment_method (payment_payment_id, payment_method_status);
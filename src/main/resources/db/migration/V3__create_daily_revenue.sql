@@ -0,0 +1,20 @@
+-- 가게별, 영업일별, 결제 수단 종류별 매출 집계
+CREATE SEQUENCE daily_revenue_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE daily_revenue (
+    daily_revenue_id    BIGINT       NOT NULL,
+    store_id            BIGINT       NOT NULL,
+    business_date       DATE         NOT NULL,
+    payment_method_type VARCHAR(255) NOT NULL,
+    amount              BIGINT       NOT NULL,
+    payment_count       BIGINT       NOT NULL,
+    CONSTRAINT pk_daily_revenue PRIMARY KEY (daily_revenue_id),
+    CONSTRAINT uk_daily_revenue_store_id_business_date_type UNIQUE (store_id, business_date, payment_method_type),
+    CONSTRAINT fk_daily_revenue_stores FOREIGN KEY (store_id) REFERENCES stores (store_id)
+);
+
+-- 재집계와 검증은 가게와 상관없이 하루치를 읽는다.
+CREATE INDEX idx_daily_revenue_business_date ON daily_revenue (business_date);
+
+-- 재집계는 지불된 결제 수단을 완료 일시 범위로 읽는다.
+CREATE INDEX idx_payment_method_status_complete_date_time ON payment_method (payment_method_status, payment_method_complete_date_time);
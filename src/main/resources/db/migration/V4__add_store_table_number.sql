@@ -0,0 +1,14 @@
+-- 가게 안에서 손님에게 보이는 테이블 번호. 삭제된 테이블은 번호가 없다.
+ALTER TABLE store_table ADD COLUMN table_number INTEGER;
+
+-- 기존 테이블은 가게별로 만든 순서대로 번호를 붙인다.
+UPDATE store_table t
+SET table_number = (SELECT COUNT(*)
+                    FROM store_table s
+                    WHERE s.store_id = t.store_id
+                      AND s.store_table_status <> 'DELETED'
+                      AND s.table_id <= t.table_id)
+WHERE t.store_table_status <> 'DELETED';
+
+-- 테이블 목록과 다음 번호는 가게별로 번호 순서대로 읽는다.
+CREATE INDEX idx_store_table_store_id_table_number ON store_table (store_id, table_number);
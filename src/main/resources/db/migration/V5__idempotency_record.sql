@@ -0,0 +1,16 @@
+-- Idempotency-Key로 처리한 요청의 결과(redirect 경로)
+-- 메모리에서 밀려났거나 다른 서버가 처리한 요청도, 같은 키로 다시 오면 저장된 결과를 돌려준다.
+CREATE SEQUENCE idempotency_record_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE idempotency_record (
+    idempotency_record_id BIGINT        NOT NULL,
+    idempotency_key       VARCHAR(100)  NOT NULL,
+    request_uri           VARCHAR(255)  NOT NULL,
+    redirect_url          VARCHAR(1000) NOT NULL,
+    created_date_time     TIMESTAMP     NOT NULL,
+    CONSTRAINT pk_idempotency_record PRIMARY KEY (idempotency_record_id),
+    CONSTRAINT uk_idempotency_record_key_request_uri UNIQUE (idempotency_key, request_uri)
+);
+
+-- 만료된 기록은 생성 일시 범위로 지운다.
+CREATE INDEX idx_idempotency_record_created_date_time ON idempotency_record (created_date_time);
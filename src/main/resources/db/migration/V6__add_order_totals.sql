@@ -0,0 +1,14 @@
+-- 주문 상품을 바꿀 때마다 더하고 빼는 주문의 합계와 수량. 삭제된 주문 상품은 빠진다.
+ALTER TABLE orders ADD COLUMN subtotal BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE orders ADD COLUMN item_count BIGINT DEFAULT 0 NOT NULL;
+
+-- 기존 주문은 주문 상품에서 다시 계산한다.
+UPDATE orders o
+SET subtotal   = (SELECT COALESCE(SUM(oi.price * oi.count), 0)
+                  FROM order_item oi
+                  WHERE oi.order_id = o.order_id
+                    AND oi.order_item_status <> 'DELETED'),
+    item_count = (SELECT COALESCE(SUM(oi.count), 0)
+                  FROM order_item oi
+                  WHERE oi.order_id = o.order_id
+                    AND oi.order_item_status <> 'DELETED');
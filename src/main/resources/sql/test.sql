@@ -1,12 +1,20 @@
 SET REFERENTIAL_INTEGRITY FALSE; --제약조건 무효화
 
-TRUNCATE TABLE member RESTART IDENTITY;
-TRUNCATE TABLE stores RESTART IDENTITY;
-TRUNCATE TABLE store_table RESTART IDENTITY;
-TRUNCATE TABLE orders RESTART IDENTITY;
-TRUNCATE TABLE order_item RESTART IDENTITY;
-TRUNCATE TABLE item RESTART IDENTITY;
-TRUNCATE TABLE payment RESTART IDENTITY;
+-- Id는 시퀀스(allocationSize 50)로 생성한다.
+-- Hibernate가 시퀀스에서 받아온 Id 묶음을 메모리에 들고 있으므로, 시퀀스를 처음으로 되돌리면 이미 받아온 묶음과 Id가 겹칠 수 있다.
+-- 그래서 테이블만 비우고, 시퀀스는 이어서 증가하도록 둔다.
+TRUNCATE TABLE member;
+TRUNCATE TABLE stores;
+TRUNCATE TABLE store_table;
+TRUNCATE TABLE orders;
+TRUNCATE TABLE order_item;
+TRUNCATE TABLE item;
+TRUNCATE TABLE item_stock_shard;
+TRUNCATE TABLE payment;
+TRUNCATE TABLE payment_method;
+TRUNCATE TABLE stock_hold;
+TRUNCATE TABLE daily_revenue;
+TRUNCATE TABLE idempotency_record;
 -- TRUNCATE TABLE paymentMethodType RESTART IDENTITY;
 
-SET REFERENTIAL_INTEGRITY TRUE; --제약조건 재설정
\ No newline at end of file
+SET REFERENTIAL_INTEGRITY TRUE; --제약조건 재설정
@@ -0,0 +1,32 @@
+package site.mylittlestore;
+
+import org.hibernate.SessionFactory;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 테스트가 끝나면 sql/test.sql이 테이블을 직접 비우므로, Hibernate는 2차 캐시가 오래됐다는 것을 모른다.
+ * 특히 이메일, 가게 이름 같은 자연 키는 테스트마다 같은 값을 쓰므로, 지워진 회원이나 가게를 돌려줄 수 있다.
+ * 그래서 테스트가 끝날 때마다 2차 캐시를 모두 비운다.
+ * Id는 시퀀스로 계속 증가해서 겹치지 않으므로, 자연 키로 조회하는 테스트에만 @TestExecutionListeners로 등록한다.
+ */
+public class SecondLevelCacheEvictingTestExecutionListener implements TestExecutionListener, Ordered {
+
+    @Override
+    public void afterTestMethod(TestContext testContext) {
+        if (!testContext.hasApplicationContext()) {
+            return;
+        }
+
+        testContext.getApplicationContext().getBeansOfType(EntityManagerFactory.class).values()
+                .forEach(entityManagerFactory -> entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,65 @@
+package site.mylittlestore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import site.mylittlestore.dto.item.ItemCreationDto;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.store.StoreCreationDto;
+import site.mylittlestore.dto.store.StoreToggleStatusDto;
+import site.mylittlestore.service.ItemService;
+import site.mylittlestore.service.MemberService;
+import site.mylittlestore.service.StoreService;
+
+/**
+ * 서비스 테스트가 공통으로 쓰는 회원, 가게, 상품을 만든다.
+ * 쓰는 테스트에서 @Import(StoreFixture.class)로 등록한다.
+ */
+@TestComponent
+public class StoreFixture {
+
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private StoreService storeService;
+    @Autowired
+    private ItemService itemService;
+
+    public Long joinMember() {
+        return memberService.joinMember(MemberCreationDto.builder()
+                .name("memberTest")
+                .email("memberTest@gmail.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+    }
+
+    //가게를 만들고 연다.
+    public Long createOpenStore(Long memberId) {
+        Long storeId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(memberId)
+                .name("storeTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        storeService.toggleStoreStatus(StoreToggleStatusDto.builder()
+                .id(storeId)
+                .memberId(memberId)
+                .build());
+
+        return storeId;
+    }
+
+    //재고가 100개인 상품을 만든다.
+    public Long createItem(Long storeId, String name, long price) {
+        return itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeId)
+                .name(name)
+                .price(price)
+                .stock(100L)
+                .build());
+    }
+}
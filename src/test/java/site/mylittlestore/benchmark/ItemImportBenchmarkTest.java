@@ -0,0 +1,83 @@
+package site.mylittlestore.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.dto.item.ItemImportResultDto;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.store.StoreCreationDto;
+import site.mylittlestore.service.ItemService;
+import site.mylittlestore.service.MemberService;
+import site.mylittlestore.service.StoreService;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품 만 개를 CSV로 가져오는 시간을 잰다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ItemImportBenchmarkTest {
+
+    private static final int ITEM_COUNT = 10_000;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private StoreService storeService;
+
+    private Long storeTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = memberService.joinMember(MemberCreationDto.builder()
+                .name("memberTest")
+                .email("memberTest@gmail.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        storeTestId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(newMemberId)
+                .name("storeTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+    }
+
+    @Test
+    @DisplayName("상품 만 개를 CSV로 가져온다.")
+    void importItems() {
+        StringBuilder csv = new StringBuilder("name,price,stock\r\n");
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            csv.append("importedItem").append(i).append(',').append(1000 + i).append(",100\r\n");
+        }
+
+        long startNanos = System.nanoTime();
+        ItemImportResultDto itemImportResultDto = itemService.importItems(storeTestId, new StringReader(csv.toString()));
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        System.out.printf("items=%d, elapsed=%dms%n", ITEM_COUNT, elapsedMillis);
+
+        assertThat(itemImportResultDto.getImportedCount()).isEqualTo(ITEM_COUNT);
+        //몇 초 안에 끝나야 한다.
+        assertThat(elapsedMillis).isLessThan(10_000);
+    }
+}
@@ -0,0 +1,138 @@
+package site.mylittlestore.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import site.mylittlestore.domain.Order;
+import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.domain.Store;
+import site.mylittlestore.domain.StoreTable;
+import site.mylittlestore.domain.item.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 주문 상품 10만 개를 저장하면서, 예전 IDENTITY 매핑과 지금의 SEQUENCE 매핑의 처리량을 비교한다.
+ * 두 매핑은 각각 새 메모리 DB와 EntityManagerFactory에서 같은 JDBC 배치 설정으로 저장한다.
+ * IDENTITY 매핑은 benchmark/identity-order-item-orm.xml로 OrderItem의 Id 생성 전략만 덮어쓴 것이다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+class OrderItemInsertBenchmarkTest {
+
+    private static final int ORDER_ITEM_COUNT = 100_000;
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int JDBC_BATCH_SIZE = 100;
+
+    @Test
+    @DisplayName("SEQUENCE 매핑은 IDENTITY 매핑보다 주문 상품을 빠르게 저장한다.")
+    void insertWithSequenceFasterThanIdentity() {
+        //when
+        double identityRowsPerSecond = runBenchmark("identity", "benchmark/identity-order-item-orm.xml");
+        double sequenceRowsPerSecond = runBenchmark("sequence", null);
+
+        //then
+        //IDENTITY는 INSERT마다 Id를 받아와야 해서, batch_size를 설정해도 한 줄씩 저장된다.
+        assertThat(sequenceRowsPerSecond).isGreaterThan(identityRowsPerSecond);
+    }
+
+    private double runBenchmark(String name, String mappingResource) {
+        EntityManagerFactory entityManagerFactory = createEntityManagerFactory(name, mappingResource);
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            //주문 상품이 참조하는 가게, 테이블, 상품, 주문
+            em.getTransaction().begin();
+            Store store = Store.builder()
+                    .name("storeTest")
+                    .city("city")
+                    .street("street")
+                    .zipcode("zipcode")
+                    .build();
+            em.persist(store);
+            StoreTable storeTable = StoreTable.builder()
+                    .store(store)
+                    .tableNumber(1)
+                    .build();
+            em.persist(storeTable);
+            Item item = Item.builder()
+                    .store(store)
+                    .name("itemTest")
+                    .price(10000L)
+                    .stock(100L)
+                    .build();
+            em.persist(item);
+            Order order = Order.builder()
+                    .store(store)
+                    .storeTable(storeTable)
+                    .build();
+            em.persist(order);
+            em.getTransaction().commit();
+            em.clear();
+
+            long startNanos = System.nanoTime();
+            for (int inserted = 0; inserted < ORDER_ITEM_COUNT; inserted += CHUNK_SIZE) {
+                em.getTransaction().begin();
+
+                Store storeReference = em.getReference(Store.class, store.getId());
+                Order orderReference = em.getReference(Order.class, order.getId());
+                Item itemReference = em.getReference(Item.class, item.getId());
+
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    em.persist(OrderItem.builder()
+                            .store(storeReference)
+                            .order(orderReference)
+                            .item(itemReference)
+                            .price(10000L)
+                            .count(1L)
+                            .build());
+                }
+
+                //영속성 컨텍스트가 커지지 않도록 묶음마다 비운다.
+                em.flush();
+                em.getTransaction().commit();
+                em.clear();
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+
+            double rowsPerSecond = ORDER_ITEM_COUNT / (elapsedNanos / 1_000_000_000.0);
+            System.out.printf("[%s] rows=%d, elapsed=%dms, throughput=%.1f rows/s%n",
+                    name, ORDER_ITEM_COUNT, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond);
+
+            assertThat(em.createQuery("select count(oi) from OrderItem oi", Long.class).getSingleResult())
+                    .isEqualTo((long) ORDER_ITEM_COUNT);
+
+            return rowsPerSecond;
+        } finally {
+            em.close();
+            entityManagerFactory.close();
+        }
+    }
+
+    //매핑마다 새 메모리 DB에 스키마를 만든다.
+    private static EntityManagerFactory createEntityManagerFactory(String name, String mappingResource) {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:order-item-insert-" + name + ";DB_CLOSE_DELAY=-1"));
+        factoryBean.setPackagesToScan("site.mylittlestore.domain");
+        if (mappingResource != null) {
+            factoryBean.setMappingResources(mappingResource);
+        }
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.jdbc.batch_size", String.valueOf(JDBC_BATCH_SIZE),
+                "hibernate.order_inserts", "true",
+                //Id 생성 전략만 비교하도록, 엔티티 검증과 2차 캐시는 끈다.
+                "javax.persistence.validation.mode", "none",
+                "hibernate.cache.use_second_level_cache", "false"));
+        factoryBean.afterPropertiesSet();
+        return factoryBean.getObject();
+    }
+}
@@ -0,0 +1,105 @@
+package site.mylittlestore.benchmark;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import site.mylittlestore.analytics.OrderLineColumns;
+import site.mylittlestore.dto.analytics.OrderLineFilter;
+import site.mylittlestore.dto.analytics.RevenueGroupDto;
+import site.mylittlestore.enumstorage.AnalyticsDimension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 천만 줄의 주문 상품 스냅샷에서 묶음 집계 시간을 잰다.
+ * DB를 쓰지 않으므로 스프링 컨텍스트 없이 스냅샷을 직접 만든다.
+ * 먼저 몇 번 실행해서 JIT 컴파일이 끝난 뒤에 잰다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderLineColumnsBenchmarkTest {
+
+    private static final int ROW_COUNT = 10_000_000;
+    private static final int STORE_COUNT = 50;
+    private static final int ITEM_COUNT_PER_STORE = 40;
+    //6개월
+    private static final int DAY_COUNT = 180;
+    private static final int WARMUP_COUNT = 5;
+    private static final int MEASUREMENT_COUNT = 10;
+    //매번 같은 데이터로 실행한다.
+    private static final long SEED = 42L;
+
+    private OrderLineColumns orderLineColumns;
+
+    private LocalDateTime firstDateTime;
+
+    @BeforeAll
+    void setUp() {
+        Random random = new Random(SEED);
+        firstDateTime = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+        OrderLineColumns.Builder builder = new OrderLineColumns.Builder(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            long storeId = random.nextInt(STORE_COUNT) + 1;
+            long itemId = storeId * 1000 + random.nextInt(ITEM_COUNT_PER_STORE);
+            builder.add(itemId,
+                    "item" + itemId,
+                    storeId,
+                    1000L * (random.nextInt(20) + 1),
+                    random.nextInt(5) + 1,
+                    firstDateTime.plusMinutes(random.nextInt(DAY_COUNT * 24 * 60)));
+        }
+        orderLineColumns = builder.build(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("전체 가게의 상품별, 시간대별 매출")
+    void sumRevenueByItemAndHourOfDay() {
+        long elapsedMillis = measure(OrderLineFilter.builder().build(), AnalyticsDimension.ITEM, AnalyticsDimension.HOUR_OF_DAY);
+
+        assertThat(elapsedMillis).isLessThan(1000L);
+    }
+
+    @Test
+    @DisplayName("한 가게의 3개월간 날짜별, 상품별 매출")
+    void sumRevenueByDateAndItemForStore() {
+        long elapsedMillis = measure(OrderLineFilter.builder()
+                .storeId(1L)
+                .from(firstDateTime)
+                .to(firstDateTime.plusDays(90))
+                .build(), AnalyticsDimension.DATE, AnalyticsDimension.ITEM);
+
+        assertThat(elapsedMillis).isLessThan(1000L);
+    }
+
+    //가장 느린 실행 시간을 반환한다.
+    private long measure(OrderLineFilter filter, AnalyticsDimension first, AnalyticsDimension second) {
+        for (int i = 0; i < WARMUP_COUNT; i++) {
+            orderLineColumns.sumRevenue(filter, first, second);
+        }
+
+        long maxMillis = 0;
+        long totalMillis = 0;
+        int groupCount = 0;
+        for (int i = 0; i < MEASUREMENT_COUNT; i++) {
+            long startNanos = System.nanoTime();
+            List<RevenueGroupDto> revenueGroupDtos = orderLineColumns.sumRevenue(filter, first, second);
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+            maxMillis = Math.max(maxMillis, elapsedMillis);
+            totalMillis += elapsedMillis;
+            groupCount = revenueGroupDtos.size();
+        }
+
+        System.out.printf("rows=%d, groupBy=%s,%s, groups=%d, avg=%dms, max=%dms%n",
+                orderLineColumns.getRowCount(), first, second, groupCount, totalMillis / MEASUREMENT_COUNT, maxMillis);
+        return maxMillis;
+    }
+}
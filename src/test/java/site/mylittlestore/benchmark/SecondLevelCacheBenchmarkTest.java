@@ -0,0 +1,220 @@
+package site.mylittlestore.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.mylittlestore.SecondLevelCacheEvictingTestExecutionListener;
+import site.mylittlestore.dto.cache.CacheRegionStatsDto;
+import site.mylittlestore.dto.item.ItemCreationDto;
+import site.mylittlestore.dto.item.ItemUpdateDto;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.store.StoreCreationDto;
+import site.mylittlestore.dto.store.StoreToggleStatusDto;
+import site.mylittlestore.repository.item.ItemRepository;
+import site.mylittlestore.repository.member.MemberRepository;
+import site.mylittlestore.repository.store.StoreRepository;
+import site.mylittlestore.repository.storetable.StoreTableRepository;
+import site.mylittlestore.service.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 가게 주인과 직원이 쓰는 요청을 정해진 순서로 다시 실행하고, 2차 캐시 영역별 적중률을 출력한다.
+ * 조회가 대부분이고, 가끔 상품 수정, 가게 열기/닫기, 주문 상품 추가가 섞인다.
+ * 상품은 재고가 벌크 UPDATE로 자주 바뀌므로 2차 캐시에 두지 않는다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestExecutionListeners(listeners = SecondLevelCacheEvictingTestExecutionListener.class, mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+class SecondLevelCacheBenchmarkTest {
+
+    private static final int STORE_COUNT = 5;
+    private static final int ITEM_COUNT_PER_STORE = 20;
+    private static final int STORE_TABLE_COUNT_PER_STORE = 10;
+    private static final int REQUEST_COUNT = 20_000;
+    //매번 같은 요청 순서로 실행한다.
+    private static final long SEED = 42L;
+
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private StoreService storeService;
+    @Autowired
+    private StoreTableService storeTableService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private CacheStatsService cacheStatsService;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private StoreRepository storeRepository;
+    @Autowired
+    private StoreTableRepository storeTableRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> memberIds = new ArrayList<>();
+    private final List<Long> storeIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> storeTableIds = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < STORE_COUNT; i++) {
+            Long memberId = memberService.joinMember(MemberCreationDto.builder()
+                    .name("memberTest" + i)
+                    .email("memberTest" + i + "@gmail.com")
+                    .password("password")
+                    .city("city")
+                    .street("street")
+                    .zipcode("zipcode")
+                    .build());
+
+            Long storeId = storeService.createStore(StoreCreationDto.builder()
+                    .memberId(memberId)
+                    .name("storeTest" + i)
+                    .city("city")
+                    .street("street")
+                    .zipcode("zipcode")
+                    .build());
+
+            //가게 열기
+            storeService.toggleStoreStatus(StoreToggleStatusDto.builder()
+                    .id(storeId)
+                    .memberId(memberId)
+                    .build());
+
+            for (int j = 0; j < ITEM_COUNT_PER_STORE; j++) {
+                itemIds.add(itemService.createItem(ItemCreationDto.builder()
+                        .storeId(storeId)
+                        .name("itemTest" + i + "-" + j)
+                        .price(10000L)
+                        .stock(1_000_000L)
+                        .build()));
+            }
+
+            for (int j = 0; j < STORE_TABLE_COUNT_PER_STORE; j++) {
+                Long storeTableId = storeTableService.createStoreTable(storeId);
+                storeTableIds.add(storeTableId);
+
+                //테이블의 절반에는 주문이 있다.
+                if (j % 2 == 0) {
+                    orderIds.add(orderService.createOrder(storeId, storeTableId));
+                }
+            }
+
+            memberIds.add(memberId);
+            storeIds.add(storeId);
+        }
+
+        //준비하면서 쌓인 통계는 지운다.
+        cacheStatsService.clear();
+    }
+
+    @Test
+    @DisplayName("요청을 다시 실행하고 2차 캐시 영역별 적중률을 출력한다.")
+    void replayWorkload() {
+        TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        Random random = new Random(SEED);
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            int storeIndex = random.nextInt(STORE_COUNT);
+            int request = random.nextInt(100);
+
+            if (request < 25) {
+                //회원 정보 화면
+                readOnlyTransactionTemplate.execute(status -> memberRepository.findById(memberIds.get(storeIndex)));
+            } else if (request < 30) {
+                //로그인
+                readOnlyTransactionTemplate.execute(status -> memberRepository.findByEmail("memberTest" + storeIndex + "@gmail.com"));
+            } else if (request < 50) {
+                readOnlyTransactionTemplate.execute(status -> storeRepository.findById(storeIds.get(storeIndex)));
+            } else if (request < 55) {
+                readOnlyTransactionTemplate.execute(status -> storeRepository.findStoreByName("storeTest" + storeIndex));
+            } else if (request < 75) {
+                readOnlyTransactionTemplate.execute(status -> storeTableRepository.findById(pick(random, storeTableIds, storeIndex, STORE_TABLE_COUNT_PER_STORE)));
+            } else if (request < 95) {
+                readOnlyTransactionTemplate.execute(status -> itemRepository.findById(pick(random, itemIds, storeIndex, ITEM_COUNT_PER_STORE)));
+            } else if (request < 98) {
+                //주문 상품 추가(재고 벌크 UPDATE)
+                Long orderId = orderIds.get(random.nextInt(orderIds.size()));
+                orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                        .orderId(orderId)
+                        .itemId(itemIds.get(random.nextInt(itemIds.size())))
+                        .price(10000L)
+                        .count(1L)
+                        .build());
+            } else if (request < 99) {
+                //상품 수정
+                Long itemId = pick(random, itemIds, storeIndex, ITEM_COUNT_PER_STORE);
+                itemService.updateItem(ItemUpdateDto.builder()
+                        .id(itemId)
+                        .storeId(storeIds.get(storeIndex))
+                        .newItemName("itemTest" + itemId)
+                        .newPrice(10000L + random.nextInt(1000))
+                        .newStock(1_000_000L)
+                        .build());
+            } else {
+                //가게 닫았다가 다시 열기
+                StoreToggleStatusDto storeToggleStatusDto = StoreToggleStatusDto.builder()
+                        .id(storeIds.get(storeIndex))
+                        .memberId(memberIds.get(storeIndex))
+                        .build();
+                storeService.toggleStoreStatus(storeToggleStatusDto);
+                storeService.toggleStoreStatus(storeToggleStatusDto);
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        List<CacheRegionStatsDto> cacheRegionStatsDtos = cacheStatsService.findAllCacheRegionStatsDtos();
+        System.out.printf("requests=%d, elapsed=%dms%n", REQUEST_COUNT, elapsedMillis);
+        cacheRegionStatsDtos.forEach(cacheRegionStatsDto -> System.out.printf("[%s] hit=%d, miss=%d, put=%d, hitRatio=%.3f%n",
+                cacheRegionStatsDto.getRegionName(),
+                cacheRegionStatsDto.getHitCount(),
+                cacheRegionStatsDto.getMissCount(),
+                cacheRegionStatsDto.getPutCount(),
+                cacheRegionStatsDto.getHitRatio()));
+
+        //적중률은 출력만 하고, 거의 바뀌지 않는 회원과 가게만 검증한다.
+        Map<String, CacheRegionStatsDto> cacheRegionStatsDtosByRegionName = cacheRegionStatsDtos.stream()
+                .collect(Collectors.toMap(CacheRegionStatsDto::getRegionName, Function.identity()));
+        assertThat(cacheRegionStatsDtosByRegionName.get("member").getHitRatio()).isGreaterThan(0.9);
+        assertThat(cacheRegionStatsDtosByRegionName.get("store").getHitRatio()).isGreaterThan(0.9);
+    }
+
+    //가게에 속한 Id 중 하나를 고른다.
+    private static Long pick(Random random, List<Long> ids, int storeIndex, int countPerStore) {
+        return ids.get(storeIndex * countPerStore + random.nextInt(countPerStore));
+    }
+}
@@ -0,0 +1,163 @@
+package site.mylittlestore.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.mylittlestore.dto.item.ItemCreationDto;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.store.StoreCreationDto;
+import site.mylittlestore.repository.item.ItemRepository;
+import site.mylittlestore.service.ItemService;
+import site.mylittlestore.service.MemberService;
+import site.mylittlestore.service.StoreService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인기 상품 하나에 주문이 몰릴 때, 재고를 상품 행 하나로 관리하는 경우와 샤드로 나눠서 관리하는 경우의 처리량을 비교한다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class StockShardingBenchmarkTest {
+
+    private static final int THREAD_COUNT = 32;
+    private static final int ORDER_COUNT_PER_THREAD = 50;
+    private static final int STOCK_SHARD_COUNT = 16;
+    private static final long INITIAL_STOCK = 100_000L;
+    //재고 감소 후 트랜잭션이 끝나기 전까지 걸리는 다른 작업(주문 상품 저장 등)을 흉내낸다.
+    private static final long WORK_IN_TRANSACTION_MILLIS = 2L;
+
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private StoreService storeService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long storeTestId;
+    private Long singleRowItemTestId;
+    private Long shardedItemTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = memberService.joinMember(MemberCreationDto.builder()
+                .name("memberTest")
+                .email("memberTest@gmail.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        storeTestId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(newMemberId)
+                .name("storeTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        singleRowItemTestId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("singleRowItemTest")
+                .price(10000L)
+                .stock(INITIAL_STOCK)
+                .build());
+
+        shardedItemTestId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("shardedItemTest")
+                .price(10000L)
+                .stock(INITIAL_STOCK)
+                .build());
+        itemService.enableStockSharding(shardedItemTestId, storeTestId, STOCK_SHARD_COUNT);
+    }
+
+    @Test
+    @DisplayName("샤드로 나눈 재고는 상품 행 하나로 관리하는 재고보다 빠르게 감소한다.")
+    void decreaseShardedStockFasterThanSingleRowStock() throws InterruptedException {
+        //when
+        double singleRowOpsPerSecond = runBenchmark("single row", singleRowItemTestId);
+        double shardedOpsPerSecond = runBenchmark(STOCK_SHARD_COUNT + " shards", shardedItemTestId);
+
+        //then
+        //상품 행 하나는 잠금을 한 트랜잭션씩 잡으므로, 샤드로 나누면 적어도 두 배는 빨라야 한다.
+        assertThat(shardedOpsPerSecond).isGreaterThan(singleRowOpsPerSecond * 2);
+    }
+
+    private double runBenchmark(String name, Long itemId) throws InterruptedException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(THREAD_COUNT);
+        AtomicLong successCount = new AtomicLong();
+
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    for (int j = 0; j < ORDER_COUNT_PER_THREAD; j++) {
+                        Long updatedCount = transactionTemplate.execute(status -> {
+                            long count = itemRepository.decreaseStock(itemId, 1L);
+                            sleep(WORK_IN_TRANSACTION_MILLIS);
+                            return count;
+                        });
+                        successCount.addAndGet(updatedCount);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        startLatch.countDown();
+        doneLatch.await();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        double opsPerSecond = successCount.get() / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf("[%s] threads=%d, orders=%d, elapsed=%dms, throughput=%.1f ops/s%n",
+                name, THREAD_COUNT, successCount.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), opsPerSecond);
+
+        //재고가 정확한지 검증하고, 처리량은 두 방식을 비교할 수 있도록 돌려준다.
+        assertThat(successCount.get()).isEqualTo((long) THREAD_COUNT * ORDER_COUNT_PER_THREAD);
+        assertThat(itemService.findItemDtoById(itemId).getStock())
+                .isEqualTo(INITIAL_STOCK - successCount.get());
+
+        return opsPerSecond;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -61,7 +61,7 @@ class MemberControllerTest {
                 .andExpect(view().name("members/memberList"))
                 .andExpect(model().attributeExists("memberFindDtos"));
 
-        List<MemberFindDto> findAllMemberFindDto = memberService.findAllMemberFindDto();
+        List<MemberFindDto> findAllMemberFindDto = memberService.findMemberFindDtoPage(null, null, null, 100).getMemberFindDtos();
         assertThat(findAllMemberFindDto.size()).isEqualTo(2);
     }
 
@@ -8,6 +8,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.domain.IdempotencyRecord;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.item.ItemFindDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
@@ -17,8 +18,19 @@ import site.mylittlestore.dto.store.StoreToggleStatusDto;
 import site.mylittlestore.dto.store.StoreUpdateDto;
 import site.mylittlestore.enumstorage.errormessage.OrderItemErrorMessage;
 import site.mylittlestore.exception.orderitem.OrderItemException;
+import site.mylittlestore.interceptor.IdempotencyInterceptor;
+import site.mylittlestore.repository.idempotency.IdempotencyRecordRepository;
 import site.mylittlestore.service.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -50,6 +62,12 @@ public class OrderItemControllerTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
     private Long memberTestId;
     private Long storeTestId;
     private Long storeTableTestId;
@@ -260,4 +278,137 @@ public class OrderItemControllerTest {
         ItemFindDto findItemDtoById2 = itemService.findItemDtoById(itemTestId1);
         assertThat(findItemDtoById2.getStock()).isEqualTo(100L);
     }
+
+    @Test
+    @DisplayName("같은 Idempotency-Key로 다시 보낸 주문 상품 추가는 처리하지 않고 처음 redirect를 돌려준다.")
+    void createOrderItemWithSameIdempotencyKey() throws Exception {
+        //given
+        Long orderId = orderService.createOrder(storeTestId, storeTableTestId);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        //when
+        String redirectedUrl1 = mockMvc.perform(post("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems/new", memberTestId, storeTestId, storeTableTestId, orderId)
+                        .header(IdempotencyInterceptor.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .param("itemId", itemTestId1.toString())
+                        .param("price", "10000")
+                        .param("count", "1"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn().getResponse().getRedirectedUrl();
+
+        String redirectedUrl2 = mockMvc.perform(post("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems/new", memberTestId, storeTestId, storeTableTestId, orderId)
+                        .header(IdempotencyInterceptor.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .param("itemId", itemTestId1.toString())
+                        .param("price", "10000")
+                        .param("count", "1"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn().getResponse().getRedirectedUrl();
+
+        //then
+        assertThat(redirectedUrl2).isEqualTo(redirectedUrl1);
+
+        List<OrderItemFindDto> orderItemFindDtos = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderId, storeTestId);
+        assertThat(orderItemFindDtos.size()).isEqualTo(1);
+        assertThat(orderItemFindDtos.get(0).getCount()).isEqualTo(1L);
+        assertThat(itemService.findItemDtoById(itemTestId1).getStock()).isEqualTo(99L);
+    }
+
+    @Test
+    @DisplayName("같은 Idempotency-Key로 동시에 보낸 주문 상품 추가는 한 번만 처리되고, 모두 같은 redirect를 받는다.")
+    void createOrderItemWithSameIdempotencyKeyConcurrently() throws Exception {
+        //given
+        Long orderId = orderService.createOrder(storeTestId, storeTableTestId);
+        String idempotencyKey = UUID.randomUUID().toString();
+        int threadCount = 10;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        Set<String> redirectedUrls = ConcurrentHashMap.newKeySet();
+
+        //when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    redirectedUrls.add(mockMvc.perform(post("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems/new", memberTestId, storeTestId, storeTableTestId, orderId)
+                                    .header(IdempotencyInterceptor.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                                    .param("itemId", itemTestId1.toString())
+                                    .param("price", "10000")
+                                    .param("count", "1"))
+                            .andReturn().getResponse().getRedirectedUrl());
+                } catch (Exception e) {
+                    redirectedUrls.add("failed: " + e.getMessage());
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        doneLatch.await();
+        executorService.shutdown();
+
+        //then
+        assertThat(redirectedUrls).hasSize(1);
+        assertThat(redirectedUrls.iterator().next()).startsWith("/members/");
+
+        List<OrderItemFindDto> orderItemFindDtos = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderId, storeTestId);
+        assertThat(orderItemFindDtos.size()).isEqualTo(1);
+        assertThat(orderItemFindDtos.get(0).getCount()).isEqualTo(1L);
+        assertThat(itemService.findItemDtoById(itemTestId1).getStock()).isEqualTo(99L);
+    }
+
+    @Test
+    @DisplayName("메모리에 없는 Idempotency-Key도 DB에 기록이 있으면 처리하지 않고 기록된 redirect를 돌려준다.")
+    void createOrderItemWithStoredIdempotencyKey() throws Exception {
+        //given
+        //다른 서버가 처리한 요청
+        Long orderId = orderService.createOrder(storeTestId, storeTableTestId);
+        String idempotencyKey = UUID.randomUUID().toString();
+        String requestUri = "/members/" + memberTestId + "/stores/" + storeTestId + "/storeTables/" + storeTableTestId + "/orders/" + orderId + "/orderItems/new";
+        String storedRedirectUrl = "/members/" + memberTestId + "/stores/" + storeTestId + "/storeTables/" + storeTableTestId + "/orders/" + orderId;
+        idempotencyService.saveRedirectUrl(idempotencyKey, requestUri, storedRedirectUrl);
+
+        //when
+        mockMvc.perform(post(requestUri)
+                        .header(IdempotencyInterceptor.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .param("itemId", itemTestId1.toString())
+                        .param("price", "10000")
+                        .param("count", "1"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl(storedRedirectUrl));
+
+        //then
+        assertThat(orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderId, storeTestId)).isEmpty();
+        assertThat(itemService.findItemDtoById(itemTestId1).getStock()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("만료됐지만 아직 지워지지 않은 Idempotency-Key로 다시 보낸 요청은 처리하고, 새 결과로 기록을 바꾼다.")
+    void createOrderItemWithExpiredIdempotencyKey() throws Exception {
+        //given
+        //기간이 지났지만 지우는 작업이 아직 돌지 않은 기록
+        Long orderId = orderService.createOrder(storeTestId, storeTableTestId);
+        String idempotencyKey = UUID.randomUUID().toString();
+        String requestUri = "/members/" + memberTestId + "/stores/" + storeTestId + "/storeTables/" + storeTableTestId + "/orders/" + orderId + "/orderItems/new";
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .idempotencyKey(idempotencyKey)
+                .requestUri(requestUri)
+                .redirectUrl("/expired")
+                .createdDateTime(LocalDateTime.now().minusDays(2))
+                .build());
+
+        //when
+        String redirectedUrl = mockMvc.perform(post(requestUri)
+                        .header(IdempotencyInterceptor.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .param("itemId", itemTestId1.toString())
+                        .param("price", "10000")
+                        .param("count", "1"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn().getResponse().getRedirectedUrl();
+
+        //then
+        assertThat(redirectedUrl).isNotEqualTo("/expired");
+        assertThat(orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderId, storeTestId)).hasSize(1);
+        //유니크 키에 걸리지 않고 새 결과가 기록된다.
+        assertThat(idempotencyService.findRedirectUrl(idempotencyKey, requestUri)).contains(redirectedUrl);
+    }
 }
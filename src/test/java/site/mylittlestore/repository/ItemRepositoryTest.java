@@ -122,4 +122,33 @@ class ItemRepositoryTest {
         assertThat(findItem.get().getStock()).isEqualTo(100L);
     }
 
-}
\ No newline at end of file
+    @Test
+    void decreaseShardedStock() {
+        //given
+        Long newItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("shardedItemTest")
+                .price(10000L)
+                .stock(100L)
+                .build());
+        itemService.enableStockSharding(newItemId, storeTestId, 8);
+
+        //when
+        long decreasedCount = itemRepository.decreaseStock(newItemId, 30L);
+        long increasedCount = itemRepository.increaseStock(newItemId, 5L);
+
+        //then
+        assertThat(decreasedCount).isEqualTo(1L);
+        assertThat(increasedCount).isEqualTo(1L);
+        assertThat(itemRepository.findItemDtoById(newItemId).get().getStock()).isEqualTo(75L);
+
+        //엔티티에서 바꾼 Dto도 샤드 재고의 합을 보여준다.
+        em.clear();
+        assertThat(itemRepository.findById(newItemId).get().toItemFindDto().getStock()).isEqualTo(75L);
+
+        //하나의 샤드보다 많은 수량도 여러 샤드에서 나눠서 감소시킨다.
+        assertThat(itemRepository.decreaseStock(newItemId, 75L)).isEqualTo(1L);
+        assertThat(itemRepository.decreaseStock(newItemId, 1L)).isEqualTo(0L);
+        assertThat(itemRepository.findItemDtoById(newItemId).get().getStock()).isEqualTo(0L);
+    }
+}
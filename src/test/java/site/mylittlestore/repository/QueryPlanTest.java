@@ -0,0 +1,307 @@
+package site.mylittlestore.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.mylittlestore.dto.item.ItemCreationDto;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.order.OrderHistoryCursor;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.store.StoreCreationDto;
+import site.mylittlestore.dto.store.StoreToggleStatusDto;
+import site.mylittlestore.repository.dailyrevenue.DailyRevenueRepository;
+import site.mylittlestore.repository.item.ItemRepository;
+import site.mylittlestore.repository.member.MemberRepository;
+import site.mylittlestore.repository.order.OrderRepository;
+import site.mylittlestore.repository.orderitem.OrderItemRepository;
+import site.mylittlestore.repository.payment.PaymentRepository;
+import site.mylittlestore.repository.paymentmethod.PaymentMethodRepository;
+import site.mylittlestore.repository.stockhold.StockHoldRepository;
+import site.mylittlestore.repository.store.StoreRepository;
+import site.mylittlestore.repository.storetable.StoreTableRepository;
+import site.mylittlestore.service.*;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 저장소의 조회 쿼리마다 H2에서 EXPLAIN을 실행하고, 테이블 전체를 읽는 쿼리가 있으면 실패한다.
+ * Hibernate가 만든 SQL을 StatementInspector로 가로채서, 같은 SQL의 실행 계획을 확인한다.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=site.mylittlestore.repository.QueryPlanTest$CapturingStatementInspector")
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class QueryPlanTest {
+
+    private static final List<String> capturedSqls = Collections.synchronizedList(new ArrayList<>());
+
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private StoreService storeService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private StoreTableService storeTableService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private StoreRepository storeRepository;
+    @Autowired
+    private StoreTableRepository storeTableRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+    @Autowired
+    private DailyRevenueRepository dailyRevenueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long memberTestId;
+    private Long storeTestId;
+    private Long itemTestId;
+    private Long storeTableTestId;
+    private Long orderTestId;
+    private Long orderItemTestId;
+    private Long paymentTestId;
+
+    @BeforeEach
+    void setUp() {
+        memberTestId = memberService.joinMember(MemberCreationDto.builder()
+                .name("memberTest")
+                .email("memberTest@gmail.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        storeTestId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(memberTestId)
+                .name("storeTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        //가게 열기
+        storeService.toggleStoreStatus(StoreToggleStatusDto.builder()
+                .id(storeTestId)
+                .memberId(memberTestId)
+                .build());
+
+        itemTestId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("itemTest")
+                .price(10000L)
+                .stock(100L)
+                .build());
+
+        storeTableTestId = storeTableService.createStoreTable(storeTestId);
+        orderTestId = orderService.createOrder(storeTestId, storeTableTestId);
+
+        orderItemTestId = orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(1L)
+                .build());
+
+        paymentTestId = paymentService.startPayment(orderTestId);
+    }
+
+    @Test
+    @DisplayName("주문 상품 조회는 테이블 전체를 읽지 않는다.")
+    void orderItemRepositoryQueryPlan() {
+        assertNoTableScan(() -> orderItemRepository.findOrderedById(orderItemTestId));
+        assertNoTableScan(() -> orderItemRepository.findWithItemById(orderItemTestId));
+        assertNoTableScan(() -> orderItemRepository.findOrderItemByOrderIdAndItemId(orderTestId, itemTestId));
+        assertNoTableScan(() -> orderItemRepository.findOrderItemByOrderIdAndItemIdAndPrice(orderTestId, itemTestId, 10000L));
+        assertNoTableScan(() -> orderItemRepository.findAllByOrderIdAndStoreId(orderTestId, storeTestId));
+        assertNoTableScan(() -> orderItemRepository.findAllWithItemByOrderId(orderTestId));
+        assertNoTableScan(() -> orderItemRepository.findAllOrderItemIdByOrderId(orderTestId));
+        assertNoTableScan(() -> orderItemRepository.findByOrderIdAndItemIdAndPrice(orderTestId, itemTestId, 10000L));
+        assertNoTableScan(() -> orderItemRepository.findByOrderIdAndOrderItemIdAndItemIdAndPrice(orderTestId, orderItemTestId, itemTestId, 10000L));
+    }
+
+    @Test
+    @DisplayName("주문 조회는 테이블 전체를 읽지 않는다.")
+    void orderRepositoryQueryPlan() {
+        OrderHistoryCondition condition = OrderHistoryCondition.builder()
+                .storeId(storeTestId)
+                .from(LocalDateTime.now().minusDays(1))
+                .to(LocalDateTime.now())
+                .build();
+
+        assertNoTableScan(() -> orderRepository.findNotDeletedAndPaidByIdAndStoreId(orderTestId, storeTestId));
+        assertNoTableScan(() -> orderRepository.findNotDeletedAndPaidWithStoreTableAndPaymentById(orderTestId));
+        assertNoTableScan(() -> orderRepository.findNotDeletedAndPaidWithStoreTableAndPaymentAndOrderItemsById(orderTestId));
+        assertNoTableScan(() -> orderRepository.findNotDeletedAndPaidWithStoreTableAndOrderItemsByIdAndPaymentId(orderTestId, paymentTestId));
+        assertNoTableScan(() -> orderRepository.findAllNotDeletedAndPaidByStoreId(storeTestId));
+        assertNoTableScan(() -> orderRepository.findNotDeletedAndPaidOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId(orderTestId, storeTestId));
+        assertNoTableScan(() -> orderRepository.findAllOrderHistoryLineDto(condition, null, 10));
+        assertNoTableScan(() -> orderRepository.findAllOrderHistoryLineDto(condition, OrderHistoryCursor.builder()
+                .endTime(LocalDateTime.now())
+                .orderId(orderTestId)
+                .orderItemId(orderItemTestId)
+                .build(), 10));
+        assertNoTableScan(() -> {
+            try (Stream<?> orderHistoryLineDtos = orderRepository.streamOrderHistoryLineDto(condition, 100)) {
+                orderHistoryLineDtos.count();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("테이블 조회는 테이블 전체를 읽지 않는다.")
+    void storeTableRepositoryQueryPlan() {
+        assertNoTableScan(() -> storeTableRepository.findNotDeletedById(storeTableTestId));
+        assertNoTableScan(() -> storeTableRepository.findNotDeletedByIdAndStoreId(storeTableTestId, storeTestId));
+        assertNoTableScan(() -> storeTableRepository.findEmptyByIdAndStoreId(storeTableTestId, storeTestId));
+        assertNoTableScan(() -> storeTableRepository.findStoreTableWithStoreAndOrderByIdAndStoreId(storeTableTestId, storeTestId));
+        assertNoTableScan(() -> storeTableRepository.findAllStoreTableByStoreIdWhereStoreTableStatusIsNotDeleted(storeTestId));
+        assertNoTableScan(() -> storeTableRepository.findAllStoreTableWithOrderByStoreId(storeTestId));
+    }
+
+    @Test
+    @DisplayName("상품 조회는 테이블 전체를 읽지 않는다.")
+    void itemRepositoryQueryPlan() {
+        assertNoTableScan(() -> itemRepository.findItemById(itemTestId));
+        assertNoTableScan(() -> itemRepository.findItemByIdAndStoreId(itemTestId, storeTestId));
+        assertNoTableScan(() -> itemRepository.findWithLockByIdAndStoreId(itemTestId, storeTestId));
+        assertNoTableScan(() -> itemRepository.findAllByIdInAndStoreId(List.of(itemTestId), storeTestId));
+        assertNoTableScan(() -> itemRepository.findItemDtoById(itemTestId));
+        assertNoTableScan(() -> itemRepository.findAllItemDtoByStoreId(storeTestId));
+        assertNoTableScan(() -> itemRepository.findItemByStoreIdAndName(storeTestId, "itemTest"));
+    }
+
+    @Test
+    @DisplayName("가게, 회원 조회는 테이블 전체를 읽지 않는다.")
+    void storeAndMemberRepositoryQueryPlan() {
+        assertNoTableScan(() -> storeRepository.findStoreOverviewDtoById(storeTestId));
+        assertNoTableScan(() -> storeRepository.findStoreMetadataDtoById(storeTestId));
+        assertNoTableScan(() -> storeRepository.findWithLockById(storeTestId));
+        assertNoTableScan(() -> storeRepository.findStoreDtoById(storeTestId));
+        assertNoTableScan(() -> storeRepository.findAllStoreDtoByMemberId(memberTestId));
+        assertNoTableScan(() -> memberRepository.findAllMemberFindDtoAfterId(0L, "member", null, 10));
+    }
+
+    @Test
+    @DisplayName("결제, 결제 수단, 재고 예약 조회는 테이블 전체를 읽지 않는다.")
+    void paymentAndStockHoldRepositoryQueryPlan() {
+        assertNoTableScan(() -> paymentRepository.findSuccessByIdAndOrderId(paymentTestId, orderTestId));
+        assertNoTableScan(() -> paymentRepository.findNotSuccessByIdAndOrderId(paymentTestId, orderTestId));
+        assertNoTableScan(() -> paymentRepository.findNotSuccessWithPaymentMethodsAndOrderByIdAndOrderId(paymentTestId, orderTestId));
+        assertNoTableScan(() -> paymentMethodRepository.findNotPaidByIdAndPaymentId(1L, paymentTestId));
+        assertNoTableScan(() -> paymentMethodRepository.findPaidWithPaymentByIdAndPaymentId(1L, paymentTestId));
+        assertNoTableScan(() -> paymentMethodRepository.findAllByPaymentId(paymentTestId));
+        assertNoTableScan(() -> stockHoldRepository.findWithLockByOrderId(orderTestId));
+        assertNoTableScan(() -> stockHoldRepository.findAllHeldWithOrderByOrderIdIn(List.of(orderTestId)));
+        assertNoTableScan(() -> stockHoldRepository.findAllHeldStockHoldDto());
+    }
+
+    @Test
+    @DisplayName("매출 집계 조회와 재집계는 테이블 전체를 읽지 않는다.")
+    void dailyRevenueRepositoryQueryPlan() {
+        LocalDate today = LocalDate.now();
+
+        assertNoTableScan(() -> dailyRevenueRepository.findAllDailyRevenueDtoByStoreIdAndBusinessDateBetween(storeTestId, today.withDayOfMonth(1), today));
+        assertNoTableScan(() -> dailyRevenueRepository.findAllDailyRevenueDtoByBusinessDate(today));
+        assertNoTableScan(() -> dailyRevenueRepository.sumPaidPaymentMethodAmountByBusinessDate(today));
+    }
+
+    /**
+     * 저장소 메소드가 실행한 SELECT마다 실행 계획을 확인한다.
+     * 2차 캐시와 쿼리 캐시에서 조회되면 SQL이 실행되지 않으므로, 먼저 캐시를 비운다.
+     */
+    private void assertNoTableScan(Runnable repositoryCall) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        sessionFactory.getCache().evictQueryRegions();
+
+        capturedSqls.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> repositoryCall.run());
+
+        List<String> selectSqls = capturedSqls.stream()
+                .filter(sql -> sql.startsWith("select"))
+                .collect(Collectors.toList());
+        assertThat(selectSqls).isNotEmpty();
+
+        for (String selectSql : selectSqls) {
+            String plan = explain(selectSql);
+            assertThat(plan)
+                    .as("테이블 전체를 읽는 쿼리%n%s", plan)
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    //실행 계획은 값과 상관없이 만들어지므로, 파라미터는 모두 null로 채운다.
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatementCallback<String>) preparedStatement -> {
+            int parameterCount = preparedStatement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                preparedStatement.setObject(i, null);
+            }
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    /**
+     * Hibernate가 실행하는 SQL을 그대로 모은다.
+     * Hibernate가 클래스 이름으로 만들기 때문에 public이어야 한다.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            capturedSqls.add(sql);
+            return sql;
+        }
+    }
+}
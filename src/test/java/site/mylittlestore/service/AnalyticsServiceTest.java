@@ -0,0 +1,192 @@
+package site.mylittlestore.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.StoreFixture;
+import site.mylittlestore.analytics.OrderLineColumns;
+import site.mylittlestore.dto.analytics.OrderLineFilter;
+import site.mylittlestore.dto.analytics.RevenueGroupDto;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodCreationDto;
+import site.mylittlestore.enumstorage.AnalyticsDimension;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(StoreFixture.class)
+class AnalyticsServiceTest {
+
+    @Autowired
+    private StoreFixture storeFixture;
+    @Autowired
+    private AnalyticsService analyticsService;
+    @Autowired
+    private PaymentMethodService paymentMethodService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private StoreTableService storeTableService;
+
+    private Long storeTestId;
+    private Long itemTestId;
+    private Long secondItemTestId;
+    private Long storeTableTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = storeFixture.joinMember();
+
+        Long newStoreId = storeFixture.createOpenStore(newMemberId);
+
+        Long newItemId = storeFixture.createItem(newStoreId, "itemTest", 10000L);
+
+        Long newSecondItemId = storeFixture.createItem(newStoreId, "secondItemTest", 5000L);
+
+        //테이블 생성
+        Long createdStoreTableId = storeTableService.createStoreTable(newStoreId);
+
+        storeTestId = newStoreId;
+        itemTestId = newItemId;
+        secondItemTestId = newSecondItemId;
+        storeTableTestId = createdStoreTableId;
+    }
+
+    @Test
+    @DisplayName("결제된 주문 상품만 스냅샷에 담고, 상품별 매출을 집계한다.")
+    void sumRevenueByItem() {
+        //given
+        createPaidOrder();
+        //결제되지 않은 주문
+        Long secondStoreTableId = storeTableService.createStoreTable(storeTestId);
+        Long unpaidOrderId = orderService.createOrder(storeTestId, secondStoreTableId);
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(unpaidOrderId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(7L)
+                .build());
+
+        //when
+        int rowCount = analyticsService.refreshSnapshot();
+        List<RevenueGroupDto> revenueGroupDtos = analyticsService.sumRevenue(OrderLineFilter.builder()
+                .storeId(storeTestId)
+                .build(), AnalyticsDimension.ITEM, null);
+
+        //then
+        assertThat(rowCount).isEqualTo(2);
+        assertThat(revenueGroupDtos)
+                .extracting(RevenueGroupDto::getItemId, RevenueGroupDto::getItemName, RevenueGroupDto::getRevenue, RevenueGroupDto::getQuantity)
+                .containsExactly(
+                        tuple(secondItemTestId, "secondItemTest", 20000L, 4L),
+                        tuple(itemTestId, "itemTest", 10000L, 1L));
+    }
+
+    @Test
+    @DisplayName("상품별, 시간대별로 묶고, 조건에 맞지 않는 주문 상품은 빼고 집계한다.")
+    void sumRevenueByItemAndHourOfDay() {
+        //given
+        LocalDateTime beforeOrder = LocalDateTime.now();
+        createPaidOrder();
+        analyticsService.refreshSnapshot();
+        LocalDateTime now = LocalDateTime.now();
+
+        //when
+        List<RevenueGroupDto> revenueGroupDtos = analyticsService.sumRevenue(OrderLineFilter.builder()
+                .storeId(storeTestId)
+                .itemId(itemTestId)
+                .from(now.minusDays(1))
+                .to(now.plusDays(1))
+                .build(), AnalyticsDimension.ITEM, AnalyticsDimension.HOUR_OF_DAY);
+        List<RevenueGroupDto> revenueGroupDtosByDate = analyticsService.sumRevenue(OrderLineFilter.builder()
+                .storeId(storeTestId)
+                .build(), AnalyticsDimension.DATE, null);
+
+        //then
+        assertThat(revenueGroupDtos).hasSize(1);
+        assertThat(revenueGroupDtos.get(0).getItemId()).isEqualTo(itemTestId);
+        assertThat(revenueGroupDtos.get(0).getRevenue()).isEqualTo(10000L);
+        //주문 상품은 방금 주문되었다.
+        assertThat(revenueGroupDtos.get(0).getHourOfDay()).isIn(beforeOrder.getHour(), now.getHour());
+
+        assertThat(revenueGroupDtosByDate).hasSize(1);
+        assertThat(revenueGroupDtosByDate.get(0).getDate()).isIn(beforeOrder.toLocalDate(), now.toLocalDate());
+        assertThat(revenueGroupDtosByDate.get(0).getRevenue()).isEqualTo(30000L);
+
+        //다른 가게나 기간이면 없다.
+        assertThat(analyticsService.sumRevenue(OrderLineFilter.builder()
+                .storeId(storeTestId + 1000)
+                .build(), AnalyticsDimension.ITEM, null)).isEmpty();
+        assertThat(analyticsService.sumRevenue(OrderLineFilter.builder()
+                .storeId(storeTestId)
+                .to(now.minusDays(1))
+                .build(), AnalyticsDimension.ITEM, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("묶음 수가 많아도(상품 x 날짜) 나온 묶음만 집계한다.")
+    void sumRevenueByItemAndDateWithManyGroups() {
+        //given
+        //상품 200개 x 30일 = 6000개 묶음 중, 상품마다 첫날과 마지막 날에만 팔렸다.
+        LocalDateTime firstDay = LocalDateTime.of(2023, 1, 1, 12, 0);
+        OrderLineColumns.Builder builder = new OrderLineColumns.Builder(400);
+        for (long itemId = 1; itemId <= 200; itemId++) {
+            builder.add(itemId, "item" + itemId, 1L, 1000L, 2L, firstDay);
+            builder.add(itemId, "item" + itemId, 1L, 1000L, 3L, firstDay.plusDays(29));
+        }
+        OrderLineColumns orderLineColumns = builder.build(LocalDateTime.now());
+
+        //when
+        List<RevenueGroupDto> revenueGroupDtos = orderLineColumns.sumRevenue(OrderLineFilter.builder().build(),
+                AnalyticsDimension.ITEM, AnalyticsDimension.DATE);
+
+        //then
+        assertThat(revenueGroupDtos).hasSize(400);
+        assertThat(revenueGroupDtos).filteredOn(revenueGroupDto -> revenueGroupDto.getItemId() == 7L)
+                .extracting(RevenueGroupDto::getDate, RevenueGroupDto::getRevenue, RevenueGroupDto::getQuantity, RevenueGroupDto::getLineCount)
+                .containsExactly(
+                        tuple(firstDay.plusDays(29).toLocalDate(), 3000L, 3L, 1L),
+                        tuple(firstDay.toLocalDate(), 2000L, 2L, 1L));
+    }
+
+    private void createPaidOrder() {
+        Long orderId = orderService.createOrder(storeTestId, storeTableTestId);
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(1L)
+                .build());
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderId)
+                .itemId(secondItemTestId)
+                .price(5000L)
+                .count(4L)
+                .build());
+        Long paymentId = paymentService.startPayment(orderId);
+        Long paymentMethodId = paymentMethodService.createPaymentMethod(paymentId, orderId, PaymentMethodCreationDto.builder()
+                .paymentId(paymentId)
+                .paymentMethodType(PaymentMethodType.CASH.name())
+                .paymentMethodAmount(30000L)
+                .build());
+        paymentMethodService.completePaymentMethod(paymentMethodId, paymentId);
+    }
+}
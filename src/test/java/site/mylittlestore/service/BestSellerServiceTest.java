@@ -0,0 +1,162 @@
+package site.mylittlestore.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.StoreFixture;
+import site.mylittlestore.dto.bestseller.BestSellerDto;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodCreationDto;
+import site.mylittlestore.enumstorage.BestSellerPeriod;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.leaderboard.BestSellerLeaderboard;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(StoreFixture.class)
+class BestSellerServiceTest {
+
+    @Autowired
+    private StoreFixture storeFixture;
+    @Autowired
+    private BestSellerService bestSellerService;
+    @Autowired
+    private BestSellerLeaderboard bestSellerLeaderboard;
+    @Autowired
+    private PaymentMethodService paymentMethodService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private StoreTableService storeTableService;
+
+    private Long storeTestId;
+    private Long itemTestId;
+    private Long secondItemTestId;
+    private Long storeTableTestId;
+
+    @BeforeEach
+    void setUp() {
+        bestSellerLeaderboard.clear();
+
+        Long newMemberId = storeFixture.joinMember();
+
+        Long newStoreId = storeFixture.createOpenStore(newMemberId);
+
+        Long newItemId = storeFixture.createItem(newStoreId, "itemTest", 10000L);
+
+        Long newSecondItemId = storeFixture.createItem(newStoreId, "secondItemTest", 5000L);
+
+        //테이블 생성
+        Long createdStoreTableId = storeTableService.createStoreTable(newStoreId);
+
+        storeTestId = newStoreId;
+        itemTestId = newItemId;
+        secondItemTestId = newSecondItemId;
+        storeTableTestId = createdStoreTableId;
+    }
+
+    @Test
+    @DisplayName("주문이 결제 완료되면 주문 상품의 수량이 인기 상품 순위에 더해진다.")
+    void recordPaidOrder() {
+        //given
+        Long orderId = orderService.createOrder(storeTestId, storeTableTestId);
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(1L)
+                .build());
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderId)
+                .itemId(secondItemTestId)
+                .price(5000L)
+                .count(4L)
+                .build());
+        Long paymentId = paymentService.startPayment(orderId);
+        Long paymentMethodId = paymentMethodService.createPaymentMethod(paymentId, orderId, PaymentMethodCreationDto.builder()
+                .paymentId(paymentId)
+                .paymentMethodType(PaymentMethodType.CARD.name())
+                .paymentMethodAmount(30000L)
+                .build());
+
+        //결제 완료 전에는 순위에 없다.
+        assertThat(bestSellerService.findBestSellerDtos(storeTestId, BestSellerPeriod.HOUR, 10)).isEmpty();
+
+        //when
+        paymentMethodService.completePaymentMethod(paymentMethodId, paymentId);
+
+        //then
+        List<BestSellerDto> bestSellerDtos = bestSellerService.findBestSellerDtos(storeTestId, BestSellerPeriod.HOUR, 10);
+        assertThat(bestSellerDtos)
+                .extracting(BestSellerDto::getItemId, BestSellerDto::getItemName, BestSellerDto::getCount)
+                .containsExactly(
+                        tuple(secondItemTestId, "secondItemTest", 4L),
+                        tuple(itemTestId, "itemTest", 1L));
+
+        //서버가 다시 시작되어도 DB에서 다시 채운다.
+        bestSellerService.rebuildLeaderboard();
+        assertThat(bestSellerService.findBestSellerDtos(storeTestId, BestSellerPeriod.WEEK, 10))
+                .extracting(BestSellerDto::getItemId, BestSellerDto::getCount)
+                .containsExactly(
+                        tuple(secondItemTestId, 4L),
+                        tuple(itemTestId, 1L));
+    }
+
+    @Test
+    @DisplayName("기간이 지난 수량은 그 기간의 순위에서 빠진다.")
+    void findTopItemCountsByPeriod() {
+        //given
+        LocalDateTime now = LocalDateTime.of(2023, 3, 1, 12, 0);
+        bestSellerLeaderboard.record(storeTestId, itemTestId, 5L, now.minusDays(2));
+        bestSellerLeaderboard.record(storeTestId, secondItemTestId, 3L, now.minusHours(3));
+        bestSellerLeaderboard.record(storeTestId, itemTestId, 1L, now.minusMinutes(10));
+        bestSellerLeaderboard.record(storeTestId, secondItemTestId, 1L, now.minusMinutes(10));
+        bestSellerLeaderboard.record(storeTestId, 999L, 2L, now.minusDays(10));
+
+        //when
+        //then
+        assertThat(bestSellerLeaderboard.findTopItemCounts(storeTestId, BestSellerPeriod.HOUR, 10, now))
+                .containsExactly(entry(itemTestId, 1L), entry(secondItemTestId, 1L));
+        assertThat(bestSellerLeaderboard.findTopItemCounts(storeTestId, BestSellerPeriod.DAY, 10, now))
+                .containsExactly(entry(secondItemTestId, 4L), entry(itemTestId, 1L));
+        assertThat(bestSellerLeaderboard.findTopItemCounts(storeTestId, BestSellerPeriod.WEEK, 10, now))
+                .containsExactly(entry(itemTestId, 6L), entry(secondItemTestId, 4L));
+
+        //시간이 흐르면 지난 구간이 빠진다.
+        assertThat(bestSellerLeaderboard.findTopItemCounts(storeTestId, BestSellerPeriod.HOUR, 10, now.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("인기 상품은 size개까지만 조회한다.")
+    void findTopItemCountsWithSize() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        for (long itemId = 1; itemId <= 50; itemId++) {
+            bestSellerLeaderboard.record(storeTestId, itemId, itemId, now);
+        }
+
+        //when
+        //then
+        assertThat(bestSellerLeaderboard.findTopItemCounts(storeTestId, BestSellerPeriod.DAY, 3, now).keySet())
+                .containsExactly(50L, 49L, 48L);
+    }
+}
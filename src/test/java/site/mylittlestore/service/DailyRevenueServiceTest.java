@@ -0,0 +1,191 @@
+package site.mylittlestore.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.mylittlestore.StoreFixture;
+import site.mylittlestore.domain.DailyRevenue;
+import site.mylittlestore.domain.Store;
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueDto;
+import site.mylittlestore.dto.dailyrevenue.DailyRevenueMismatchDto;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodCreationDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.scheduler.DailyRevenueRebuilder;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(StoreFixture.class)
+class DailyRevenueServiceTest {
+
+    @Autowired
+    private StoreFixture storeFixture;
+    @Autowired
+    private DailyRevenueService dailyRevenueService;
+    @Autowired
+    private DailyRevenueRebuilder dailyRevenueRebuilder;
+    @Autowired
+    private PaymentMethodService paymentMethodService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private StoreTableService storeTableService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager em;
+
+    private Long storeTestId;
+    private Long orderTestId;
+    private Long paymentTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = storeFixture.joinMember();
+
+        Long newStoreId = storeFixture.createOpenStore(newMemberId);
+
+        Long newItemId = storeFixture.createItem(newStoreId, "itemTest", 10000L);
+
+        //테이블 생성
+        Long createdStoreTableId = storeTableService.createStoreTable(newStoreId);
+
+        //주문 생성
+        Long newOrderId = orderService.createOrder(newStoreId, createdStoreTableId);
+
+        //주문 상품 생성
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(newOrderId)
+                .itemId(newItemId)
+                .price(10000L)
+                .count(3L)
+                .build());
+
+        //결제 시작
+        Long newPaymentId = paymentService.startPayment(newOrderId);
+
+        storeTestId = newStoreId;
+        orderTestId = newOrderId;
+        paymentTestId = newPaymentId;
+    }
+
+    @Test
+    @DisplayName("결제 수단이 지불되면 영업일 매출에 금액과 건수가 더해진다.")
+    void addRevenue() {
+        //given
+        Long cardPaymentMethodId = createPaymentMethod(PaymentMethodType.CARD, 10000L);
+        Long cashPaymentMethodId = createPaymentMethod(PaymentMethodType.CASH, 5000L);
+        Long secondCardPaymentMethodId = createPaymentMethod(PaymentMethodType.CARD, 15000L);
+
+        //when
+        paymentMethodService.completePaymentMethod(cardPaymentMethodId, paymentTestId);
+        paymentMethodService.completePaymentMethod(cashPaymentMethodId, paymentTestId);
+        paymentMethodService.completePaymentMethod(secondCardPaymentMethodId, paymentTestId);
+
+        //then
+        List<DailyRevenueDto> dailyRevenueDtos = dailyRevenueService.findAllDailyRevenueDtosByStoreIdAndMonth(storeTestId, YearMonth.now());
+        assertThat(dailyRevenueDtos).hasSize(2);
+
+        DailyRevenueDto cardDailyRevenueDto = dailyRevenueDtos.get(0);
+        assertThat(cardDailyRevenueDto.getBusinessDate()).isEqualTo(LocalDate.now());
+        assertThat(cardDailyRevenueDto.getPaymentMethodType()).isEqualTo(PaymentMethodType.CARD);
+        assertThat(cardDailyRevenueDto.getAmount()).isEqualTo(25000L);
+        assertThat(cardDailyRevenueDto.getPaymentCount()).isEqualTo(2L);
+
+        DailyRevenueDto cashDailyRevenueDto = dailyRevenueDtos.get(1);
+        assertThat(cashDailyRevenueDto.getPaymentMethodType()).isEqualTo(PaymentMethodType.CASH);
+        assertThat(cashDailyRevenueDto.getAmount()).isEqualTo(5000L);
+        assertThat(cashDailyRevenueDto.getPaymentCount()).isEqualTo(1L);
+
+        //다시 계산한 매출과 같다.
+        assertThat(dailyRevenueService.verifyDailyRevenue(LocalDate.now())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("다른 달의 매출은 조회하지 않는다.")
+    void findAllDailyRevenueDtosByStoreIdAndMonth() {
+        //given
+        paymentMethodService.completePaymentMethod(createPaymentMethod(PaymentMethodType.CARD, 10000L), paymentTestId);
+
+        //when
+        List<DailyRevenueDto> dailyRevenueDtos = dailyRevenueService.findAllDailyRevenueDtosByStoreIdAndMonth(storeTestId, YearMonth.now().minusMonths(1));
+
+        //then
+        assertThat(dailyRevenueDtos).isEmpty();
+    }
+
+    @Test
+    @DisplayName("집계가 틀어지면 검증에서 찾고, 재집계하면 지불된 결제 수단과 다시 같아진다.")
+    void rebuildAndVerify() {
+        //given
+        paymentMethodService.completePaymentMethod(createPaymentMethod(PaymentMethodType.CARD, 10000L), paymentTestId);
+        paymentMethodService.completePaymentMethod(createPaymentMethod(PaymentMethodType.CASH, 20000L), paymentTestId);
+
+        //카드 매출을 틀어지게 하고, 지불되지 않은 날짜에 매출을 만든다.
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("update DailyRevenue d set d.amount = d.amount + 1 where d.paymentMethodType = :paymentMethodType")
+                    .setParameter("paymentMethodType", PaymentMethodType.CARD)
+                    .executeUpdate();
+            em.persist(DailyRevenue.builder()
+                    .store(em.getReference(Store.class, storeTestId))
+                    .businessDate(yesterday)
+                    .paymentMethodType(PaymentMethodType.CASH)
+                    .amount(3000L)
+                    .paymentCount(1L)
+                    .build());
+        });
+
+        //when
+        List<DailyRevenueMismatchDto> mismatchDtos = dailyRevenueRebuilder.verify(yesterday, today);
+        int rebuiltCount = dailyRevenueRebuilder.rebuild(yesterday, today);
+
+        //then
+        assertThat(mismatchDtos).hasSize(2);
+        assertThat(mismatchDtos)
+                .extracting(DailyRevenueMismatchDto::getBusinessDate, DailyRevenueMismatchDto::getPaymentMethodType, DailyRevenueMismatchDto::getExpectedAmount, DailyRevenueMismatchDto::getActualAmount)
+                .containsExactlyInAnyOrder(
+                        tuple(today, PaymentMethodType.CARD, 10000L, 10001L),
+                        tuple(yesterday, PaymentMethodType.CASH, 0L, 3000L));
+
+        assertThat(rebuiltCount).isEqualTo(2);
+        assertThat(dailyRevenueRebuilder.verify(yesterday, today)).isEmpty();
+        assertThat(dailyRevenueService.findAllDailyRevenueDtosByStoreIdAndMonth(storeTestId, YearMonth.from(today)))
+                .extracting(DailyRevenueDto::getPaymentMethodType, DailyRevenueDto::getAmount)
+                .contains(tuple(PaymentMethodType.CARD, 10000L),
+                        tuple(PaymentMethodType.CASH, 20000L));
+    }
+
+    private Long createPaymentMethod(PaymentMethodType paymentMethodType, Long paymentMethodAmount) {
+        return paymentMethodService.createPaymentMethod(paymentTestId, orderTestId, PaymentMethodCreationDto.builder()
+                .paymentId(paymentTestId)
+                .paymentMethodType(paymentMethodType.name())
+                .paymentMethodAmount(paymentMethodAmount)
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package site.mylittlestore.service;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.StoreFixture;
+import site.mylittlestore.dto.item.ItemFindDto;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.orderitem.OrderItemFindDto;
+import site.mylittlestore.lock.DatabaseOrderLock;
+import site.mylittlestore.lock.OrderLock;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "mylittlestore.order-lock.mode=database")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(StoreFixture.class)
+public class DatabaseOrderLockTest {
+    @Autowired
+    private StoreFixture storeFixture;
+    @Autowired
+    private StoreTableService storeTableService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private OrderLock orderLock;
+
+    private Long storeTestId;
+    private Long itemTestId;
+    private Long orderTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = storeFixture.joinMember();
+
+        Long newStoreId = storeFixture.createOpenStore(newMemberId);
+
+        Long newItemId = storeFixture.createItem(newStoreId, "itemTest", 10000L);
+
+        //테이블 생성
+        Long createdStoreTableId = storeTableService.createStoreTable(newStoreId);
+
+        //주문 생성
+        orderTestId = orderService.createOrder(newStoreId, createdStoreTableId);
+        storeTestId = newStoreId;
+        itemTestId = newItemId;
+    }
+
+    @Test
+    @DisplayName("database 모드에서는 주문 행을 잠가서, 동시에 같은 주문 상품을 추가해도 주문 상품은 하나만 생긴다.")
+    void createSameOrderItemConcurrently() throws InterruptedException {
+        //given
+        int threadCount = 10;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        AtomicLong successCount = new AtomicLong();
+
+        //when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                            .orderId(orderTestId)
+                            .itemId(itemTestId)
+                            .price(10000L)
+                            .count(1L)
+                            .build());
+                    successCount.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        doneLatch.await();
+        executorService.shutdown();
+
+        //then
+        assertThat(orderLock).isInstanceOf(DatabaseOrderLock.class);
+        assertThat(successCount.get()).isEqualTo(threadCount);
+
+        List<OrderItemFindDto> allOrderItemFindDtosByOrderId = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId);
+        assertThat(allOrderItemFindDtosByOrderId.size()).isEqualTo(1);
+        assertThat(allOrderItemFindDtosByOrderId.get(0).getCount()).isEqualTo(threadCount);
+
+        ItemFindDto itemFindDto = itemService.findItemDtoById(itemTestId);
+        assertThat(itemFindDto.getStock()).isEqualTo(100L - threadCount);
+    }
+}
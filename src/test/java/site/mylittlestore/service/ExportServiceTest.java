@@ -0,0 +1,207 @@
+package site.mylittlestore.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.StoreFixture;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodCreationDto;
+import site.mylittlestore.enumstorage.ExportFormat;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.export.ExportWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(StoreFixture.class)
+class ExportServiceTest {
+
+    @Autowired
+    private StoreFixture storeFixture;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private PaymentMethodService paymentMethodService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private StoreTableService storeTableService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Long storeTestId;
+    private Long orderTestId;
+    private Long paymentTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = storeFixture.joinMember();
+
+        Long newStoreId = storeFixture.createOpenStore(newMemberId);
+
+        //CSV에서 따옴표로 감싸야 하는 이름
+        Long newItemId = storeFixture.createItem(newStoreId, "아메리카노, \"샷 추가\"", 10000L);
+
+        Long newSecondItemId = storeFixture.createItem(newStoreId, "secondItemTest", 10000L);
+
+        //결제가 끝난 주문
+        Long newOrderId = orderService.createOrder(newStoreId, storeTableService.createStoreTable(newStoreId));
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(newOrderId)
+                .itemId(newItemId)
+                .price(10000L)
+                .count(2L)
+                .build());
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(newOrderId)
+                .itemId(newSecondItemId)
+                .price(10000L)
+                .count(1L)
+                .build());
+        Long newPaymentId = paymentService.startPayment(newOrderId);
+        Long cardPaymentMethodId = createPaymentMethod(newOrderId, newPaymentId, PaymentMethodType.CARD, 20000L);
+        Long cashPaymentMethodId = createPaymentMethod(newOrderId, newPaymentId, PaymentMethodType.CASH, 10000L);
+        paymentMethodService.completePaymentMethod(cardPaymentMethodId, newPaymentId);
+        paymentMethodService.completePaymentMethod(cashPaymentMethodId, newPaymentId);
+
+        //아직 사용 중인 주문은 내보내지 않는다.
+        Long usingOrderId = orderService.createOrder(newStoreId, storeTableService.createStoreTable(newStoreId));
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(usingOrderId)
+                .itemId(newSecondItemId)
+                .price(10000L)
+                .count(5L)
+                .build());
+
+        storeTestId = newStoreId;
+        orderTestId = newOrderId;
+        paymentTestId = newPaymentId;
+    }
+
+    @Test
+    @DisplayName("끝난 주문의 주문 상품을 결제 정보와 함께 CSV로 내보낸다.")
+    void exportOrdersCsv() throws IOException {
+        //given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        long count = exportService.exportOrders(condition(), ExportFormat.CSV, outputStream);
+
+        //then
+        assertThat(count).isEqualTo(2);
+
+        String csv = outputStream.toString(StandardCharsets.UTF_8);
+        //엑셀에서 한글이 깨지지 않도록 BOM이 붙는다.
+        assertThat(csv).startsWith("\uFEFForderId,storeId,startTime,endTime,orderStatus,");
+
+        String[] lines = csv.split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[1])
+                .startsWith(orderTestId + "," + storeTestId + ",")
+                .contains(",\"아메리카노, \"\"샷 추가\"\"\",10000,2,PAID,")
+                .contains("," + paymentTestId + ",SUCCESS,30000,30000,");
+        assertThat(lines[2]).contains(",secondItemTest,10000,1,PAID,");
+    }
+
+    @Test
+    @DisplayName("끝난 주문의 결제 수단을 NDJSON으로 내보낸다.")
+    void exportPaymentMethodsNdjson() throws IOException {
+        //given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        long count = exportService.exportPaymentMethods(condition(), ExportFormat.NDJSON, outputStream);
+
+        //then
+        assertThat(count).isEqualTo(2);
+
+        List<JsonNode> jsonNodes = new ArrayList<>();
+        for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+            jsonNodes.add(objectMapper.readTree(line));
+        }
+        assertThat(jsonNodes)
+                .extracting(jsonNode -> jsonNode.get("orderId").asLong(),
+                        jsonNode -> jsonNode.get("paymentId").asLong(),
+                        jsonNode -> jsonNode.get("paymentMethodType").asText(),
+                        jsonNode -> jsonNode.get("paymentMethodAmount").asLong(),
+                        jsonNode -> jsonNode.get("paymentMethodStatus").asText())
+                .containsExactly(
+                        tuple(orderTestId, paymentTestId, "CARD", 20000L, "PAID"),
+                        tuple(orderTestId, paymentTestId, "CASH", 10000L, "PAID"));
+    }
+
+    @Test
+    @DisplayName("기간에 끝난 주문이 없으면 CSV에는 열 이름만 있다.")
+    void exportOrdersCsvEmpty() throws IOException {
+        //given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        OrderHistoryCondition condition = OrderHistoryCondition.builder()
+                .storeId(storeTestId)
+                .to(LocalDate.now().minusDays(1).atStartOfDay())
+                .build();
+
+        //when
+        long count = exportService.exportOrders(condition, ExportFormat.CSV, outputStream);
+
+        //then
+        assertThat(count).isZero();
+        assertThat(outputStream.toString(StandardCharsets.UTF_8).split("\r\n")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("CSV의 글자 칸이 수식 기호로 시작하면 앞에 '를 붙이고, 숫자 칸은 그대로 쓴다.")
+    void writeCsvWithoutFormula() throws IOException {
+        //given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ExportWriter exportWriter = new ExportWriter(ExportFormat.CSV, outputStream, "itemName", "memo", "amount");
+
+        //when
+        exportWriter.writeRow("=HYPERLINK(\"http://example.com\")", "@SUM(A1:A2)", -1000L);
+        exportWriter.writeRow("+1", "-1", 1000L);
+        exportWriter.flush();
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\r\n");
+        //따옴표가 있는 칸은 '를 붙인 뒤 따옴표로 감싼다.
+        assertThat(lines[1]).isEqualTo("\"'=HYPERLINK(\"\"http://example.com\"\")\",'@SUM(A1:A2),-1000");
+        assertThat(lines[2]).isEqualTo("'+1,'-1,1000");
+    }
+
+    private OrderHistoryCondition condition() {
+        return OrderHistoryCondition.builder()
+                .storeId(storeTestId)
+                .build();
+    }
+
+    private Long createPaymentMethod(Long orderId, Long paymentId, PaymentMethodType paymentMethodType, Long paymentMethodAmount) {
+        return paymentMethodService.createPaymentMethod(paymentId, orderId, PaymentMethodCreationDto.builder()
+                .paymentId(paymentId)
+                .paymentMethodType(paymentMethodType.name())
+                .paymentMethodAmount(paymentMethodAmount)
+                .build());
+    }
+}
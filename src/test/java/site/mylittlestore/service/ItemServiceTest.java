@@ -1,30 +1,39 @@
 package site.mylittlestore.service;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.cache.MenuCache;
 import site.mylittlestore.domain.item.Item;
+import site.mylittlestore.dto.cache.MenuCacheStatsDto;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.item.ItemFindDto;
+import site.mylittlestore.dto.item.ItemImportErrorDto;
+import site.mylittlestore.dto.item.ItemImportResultDto;
 import site.mylittlestore.dto.item.ItemUpdateDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.enumstorage.errormessage.ItemErrorMessage;
 import site.mylittlestore.enumstorage.status.ItemStatus;
+import site.mylittlestore.exception.item.AlreadyStockShardedException;
+import site.mylittlestore.exception.item.ItemImportException;
 import site.mylittlestore.exception.item.NoSuchItemException;
 import site.mylittlestore.repository.item.ItemRepository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.io.StringReader;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
@@ -44,6 +53,9 @@ class ItemServiceTest {
     @Autowired
     private StoreService storeService;
 
+    @Autowired
+    private MenuCache menuCache;
+
     @PersistenceContext
     EntityManager em;
 
@@ -204,4 +216,160 @@ class ItemServiceTest {
 
         assertThat(findById.get().getItemStatus()).isEqualTo(ItemStatus.DELETED);
     }
-}
\ No newline at end of file
+
+    @Test
+    void enableStockSharding() {
+        //when
+        itemService.enableStockSharding(itemTestId, storeTestId, 8);
+
+        //then
+        //샤딩해도 조회되는 재고는 같아야 한다.
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(100L);
+
+        //이미 샤딩된 상품은 다시 샤딩할 수 없다.
+        assertThatThrownBy(() -> itemService.enableStockSharding(itemTestId, storeTestId, 4))
+                .isInstanceOf(AlreadyStockShardedException.class)
+                .hasMessageContaining(ItemErrorMessage.ALREADY_STOCK_SHARDED.getMessage());
+    }
+
+    @Test
+    void updateShardedItemStock() {
+        //given
+        itemService.enableStockSharding(itemTestId, storeTestId, 4);
+
+        //when
+        itemService.updateItem(ItemUpdateDto.builder()
+                .id(itemTestId)
+                .storeId(storeTestId)
+                .newItemName("itemTest")
+                .newPrice(10000L)
+                .newStock(42L)
+                .build());
+
+        //then
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("메뉴는 캐시에서 조회하고, 상품을 추가, 수정, 삭제하면 커밋된 뒤에 다시 조회한다.")
+    void findAllByStoreIdFromMenuCache() {
+        //given
+        MenuCacheStatsDto beforeStats = menuCache.getStats();
+
+        //when
+        itemService.findAllItemDtoByStoreId(storeTestId);
+        List<ItemFindDto> cachedMenu = itemService.findAllItemDtoByStoreId(storeTestId);
+
+        Long newItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("newItemTest")
+                .price(9999L)
+                .stock(99L)
+                .build());
+        List<ItemFindDto> menuAfterCreation = itemService.findAllItemDtoByStoreId(storeTestId);
+
+        itemService.updateItem(ItemUpdateDto.builder()
+                .id(itemTestId)
+                .storeId(storeTestId)
+                .newItemName("updatedItemTest")
+                .newPrice(10000L)
+                .newStock(100L)
+                .build());
+        List<ItemFindDto> menuAfterUpdate = itemService.findAllItemDtoByStoreId(storeTestId);
+
+        itemService.deleteItemById(newItemId);
+        List<ItemFindDto> menuAfterDeletion = itemService.findAllItemDtoByStoreId(storeTestId);
+
+        //then
+        assertThat(cachedMenu).hasSize(1);
+        assertThat(menuAfterCreation).hasSize(2);
+        assertThat(menuAfterUpdate.get(0).getName()).isEqualTo("updatedItemTest");
+        assertThat(menuAfterDeletion).hasSize(1);
+
+        //처음과 변경 후 세 번은 DB에서, 두 번째는 캐시에서 조회
+        MenuCacheStatsDto afterStats = menuCache.getStats();
+        assertThat(afterStats.getMissCount() - beforeStats.getMissCount()).isEqualTo(4L);
+        assertThat(afterStats.getHitCount() - beforeStats.getHitCount()).isEqualTo(1L);
+        assertThat(afterStats.getInvalidationCount() - beforeStats.getInvalidationCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("CSV로 상품을 가져오면 올바른 행만 저장하고, 잘못된 행은 이유와 함께 알려준다.")
+    void importItemsCsv() {
+        //given
+        String csv = "name,price,stock\r\n"
+                + "\"아메리카노, 샷 추가\",4500,100\r\n"
+                + ",1000,10\r\n"
+                + "latte,free,10\r\n"
+                + "mocha,5000,-1\r\n"
+                + "itemTest,1000,10\r\n"
+                + "tea,3000,50\r\n"
+                + "tea,3000,50\r\n";
+
+        //when
+        ItemImportResultDto itemImportResultDto = itemService.importItems(storeTestId, new StringReader(csv));
+
+        //then
+        assertThat(itemImportResultDto.getImportedCount()).isEqualTo(2);
+        assertThat(itemImportResultDto.getFailedCount()).isEqualTo(5);
+        assertThat(itemImportResultDto.getErrors())
+                .extracting(ItemImportErrorDto::getRowNumber, ItemImportErrorDto::getMessage)
+                .containsExactly(
+                        tuple(2L, ItemErrorMessage.INVALID_ITEM_NAME.getMessage()),
+                        tuple(3L, ItemErrorMessage.INVALID_ITEM_PRICE.getMessage()),
+                        tuple(4L, ItemErrorMessage.INVALID_ITEM_STOCK.getMessage()),
+                        //이미 가게에 있는 이름
+                        tuple(5L, ItemErrorMessage.DUPLICATE_ITEM.getMessage()),
+                        //파일 안에서 겹치는 이름
+                        tuple(7L, ItemErrorMessage.DUPLICATE_ITEM.getMessage()));
+
+        //메뉴 캐시도 다시 조회한다.
+        assertThat(itemService.findAllItemDtoByStoreId(storeTestId))
+                .extracting(ItemFindDto::getName, ItemFindDto::getPrice, ItemFindDto::getStock)
+                .containsExactly(
+                        tuple("itemTest", 10000L, 100L),
+                        tuple("아메리카노, 샷 추가", 4500L, 100L),
+                        tuple("tea", 3000L, 50L));
+    }
+
+    @Test
+    @DisplayName("JSON으로 상품을 여러 번에 나눠서 저장해도 모두 가게에 들어간다.")
+    void importItemsJson() {
+        //given
+        int itemCount = 1200;
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < itemCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"importedItem").append(i).append("\",\"price\":").append(1000 + i).append(",\"stock\":10}");
+        }
+        json.append(']');
+
+        //when
+        ItemImportResultDto itemImportResultDto = itemService.importItems(storeTestId, new StringReader(json.toString()));
+
+        //then
+        assertThat(itemImportResultDto.getImportedCount()).isEqualTo(itemCount);
+        assertThat(itemImportResultDto.getErrors()).isEmpty();
+
+        List<ItemFindDto> itemFindDtos = itemService.findAllItemDtoByStoreId(storeTestId);
+        assertThat(itemFindDtos).hasSize(itemCount + 1);
+        assertThat(itemFindDtos.get(itemCount).getName()).isEqualTo("importedItem" + (itemCount - 1));
+        assertThat(itemFindDtos.get(itemCount).getPrice()).isEqualTo(1000L + itemCount - 1);
+    }
+
+    @Test
+    @DisplayName("상품 파일에 필요한 열이 없으면 예외가 발생한다.")
+    void importItemsWithoutColumn() {
+        //given
+        String csv = "name,price\r\nlatte,5000\r\n";
+
+        //when
+        //then
+        assertThatThrownBy(() -> itemService.importItems(storeTestId, new StringReader(csv)))
+                .isInstanceOf(ItemImportException.class)
+                .hasMessageContaining(ItemErrorMessage.IMPORT_COLUMN_MISSING.getMessage());
+        assertThat(itemService.findAllItemDtoByStoreId(storeTestId)).hasSize(1);
+    }
+}
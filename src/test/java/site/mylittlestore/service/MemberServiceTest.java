@@ -1,22 +1,28 @@
 package site.mylittlestore.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.SecondLevelCacheEvictingTestExecutionListener;
 import site.mylittlestore.domain.Member;
 import site.mylittlestore.dto.member.MemberUpdateDto;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.enumstorage.errormessage.MemberErrorMessage;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.member.MemberFindDto;
+import site.mylittlestore.dto.member.MemberFindDtoPage;
 import site.mylittlestore.dto.member.MemberPasswordUpdateDto;
 import site.mylittlestore.exception.member.NoSuchMemberException;
 import site.mylittlestore.repository.member.MemberRepository;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
 
 import java.util.List;
@@ -28,6 +34,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestExecutionListeners(listeners = SecondLevelCacheEvictingTestExecutionListener.class, mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
 class MemberServiceTest {
     @Autowired
     private MemberService memberService;
@@ -41,6 +48,9 @@ class MemberServiceTest {
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Long memberTestId;
 
     private Long storeTestId;
@@ -97,6 +107,27 @@ class MemberServiceTest {
         assertThat(memberFindDtoByEmail.getName()).isEqualTo("memberTest");
     }
 
+    @Test
+    @DisplayName("email과 memberId로 다시 조회하면 2차 캐시에서 조회하고 SQL을 실행하지 않는다.")
+    void findMemberFindDtoByEmailFromSecondLevelCache() {
+        //given
+        memberService.findMemberFindDtoByEmail("memberTest@gmail.com");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        MemberFindDto memberFindDtoByEmail = memberService.findMemberFindDtoByEmail("memberTest@gmail.com");
+        MemberFindDto memberFindDtoById = memberService.findMemberFindDtoById(memberTestId);
+
+        //then
+        assertThat(memberFindDtoByEmail.getId()).isEqualTo(memberTestId);
+        assertThat(memberFindDtoById.getEmail()).isEqualTo("memberTest@gmail.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0L);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1L);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2L);
+    }
+
     @Test
     @DisplayName("email로 회원을 찾지 못하면 예외 발생")
     void findMemberFindDtoByEmailException() {
@@ -130,11 +161,88 @@ class MemberServiceTest {
                 .build());
 
         //when
-        List<MemberFindDto> findAllMember = memberService.findAllMemberFindDto();
+        List<MemberFindDto> findAllMember = memberService.findMemberFindDtoPage(null, null, null, 100).getMemberFindDtos();
 
         //then
         assertThat(findAllMember.size()).isEqualTo(3);
     }
+
+    @Test
+    @DisplayName("회원 목록을 Id 순으로 한 페이지씩 조회한다.")
+    void findMemberFindDtoPage() {
+        //given
+        for (int i = 0; i < 4; i++) {
+            memberService.joinMember(MemberCreationDto.builder()
+                    .name("pageTest" + i)
+                    .email("pageTest" + i + "@gmail.com")
+                    .password("password")
+                    .city("city")
+                    .street("street")
+                    .zipcode("zipcode")
+                    .build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        MemberFindDtoPage firstPage = memberService.findMemberFindDtoPage(null, null, null, 2);
+        MemberFindDtoPage secondPage = memberService.findMemberFindDtoPage(firstPage.getNextMemberId(), null, null, 2);
+        MemberFindDtoPage lastPage = memberService.findMemberFindDtoPage(secondPage.getNextMemberId(), null, null, 2);
+
+        //then
+        assertThat(firstPage.getMemberFindDtos()).extracting(MemberFindDto::getName)
+                .containsExactly("memberTest", "pageTest0");
+        assertThat(firstPage.isHasNext()).isTrue();
+        assertThat(secondPage.getMemberFindDtos()).extracting(MemberFindDto::getName)
+                .containsExactly("pageTest1", "pageTest2");
+        assertThat(lastPage.getMemberFindDtos()).extracting(MemberFindDto::getName)
+                .containsExactly("pageTest3");
+        assertThat(lastPage.isHasNext()).isFalse();
+        assertThat(lastPage.getNextMemberId()).isNull();
+
+        //페이지마다 쿼리 한 번, 회원 엔티티는 조회하지 않는다.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3L);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0L);
+        assertThat(statistics.getCollectionLoadCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("이름과 이메일의 앞부분으로 회원 목록을 조회한다.")
+    void findMemberFindDtoPageWithPrefix() {
+        //given
+        memberService.joinMember(MemberCreationDto.builder()
+                .name("kim")
+                .email("kim@gmail.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        memberService.joinMember(MemberCreationDto.builder()
+                .name("kimA")
+                .email("kimA@naver.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        //when
+        MemberFindDtoPage pageByName = memberService.findMemberFindDtoPage(null, "kim", null, 10);
+        MemberFindDtoPage pageByNameAndEmail = memberService.findMemberFindDtoPage(null, "kim", "kimA@", 10);
+        //LIKE의 특수 문자는 문자 그대로 비교한다.
+        MemberFindDtoPage pageByWildcard = memberService.findMemberFindDtoPage(null, "%", null, 10);
+
+        //then
+        assertThat(pageByName.getMemberFindDtos()).extracting(MemberFindDto::getName)
+                .containsExactly("kim", "kimA");
+        assertThat(pageByNameAndEmail.getMemberFindDtos()).extracting(MemberFindDto::getEmail)
+                .containsExactly("kimA@naver.com");
+        assertThat(pageByWildcard.getMemberFindDtos()).isEmpty();
+    }
+
     @Test
     @DisplayName("회원 가입")
     void joinMember() {
@@ -1,10 +1,18 @@
 package site.mylittlestore.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.mylittlestore.cache.MenuCache;
+import site.mylittlestore.cache.StoreMetadataCache;
+import site.mylittlestore.domain.Order;
+import site.mylittlestore.dto.cache.MenuCacheStatsDto;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.item.ItemFindDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
@@ -12,12 +20,22 @@ import site.mylittlestore.dto.orderitem.*;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.dto.store.StoreToggleStatusDto;
 import site.mylittlestore.enumstorage.status.OrderItemStatus;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+import site.mylittlestore.enumstorage.status.StoreStatus;
 import site.mylittlestore.exception.item.NotEnoughStockException;
 import site.mylittlestore.exception.orderitem.NoSuchOrderItemException;
 import site.mylittlestore.exception.store.StoreClosedException;
+import site.mylittlestore.repository.order.OrderRepository;
 import site.mylittlestore.repository.orderitem.OrderItemRepository;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
@@ -43,6 +61,24 @@ public class OrderItemServiceTest {
     @Autowired
     OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private MenuCache menuCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StoreMetadataCache storeMetadataCache;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager em;
+
     private Long memberTestId;
     private Long storeTestId;
     private Long itemTestId;
@@ -540,6 +576,107 @@ public class OrderItemServiceTest {
         assertThat(orderItemRepository.findById(createdOrderItemId).get().getOrderItemStatus()).isEqualTo(OrderItemStatus.DELETED);
     }
     
+    @Test
+    @DisplayName("64개의 스레드가 동시에 같은 상품을 주문해도 재고가 음수가 되지 않고, 재고 차감이 누락되지 않는지 테스트")
+    void createOrderItemConcurrently() throws InterruptedException {
+        //given
+        int threadCount = 64;
+        long countPerOrderItem = 2L;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        AtomicLong successCount = new AtomicLong();
+        AtomicLong notEnoughStockCount = new AtomicLong();
+
+        //when
+        //재고 100개인 상품을 64개의 스레드가 2개씩 동시에 주문
+        for (int i = 0; i < threadCount; i++) {
+            //가격을 다르게 해서, 스레드마다 서로 다른 주문 상품이 생성되도록 한다.
+            long price = 10000L + i;
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                            .orderId(orderTestId)
+                            .itemId(itemTestId)
+                            .price(price)
+                            .count(countPerOrderItem)
+                            .build());
+                    successCount.incrementAndGet();
+                } catch (NotEnoughStockException e) {
+                    notEnoughStockCount.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        doneLatch.await();
+        executorService.shutdown();
+
+        //then
+        ItemFindDto itemFindDto = itemService.findItemDtoById(itemTestId);
+
+        //재고는 음수가 될 수 없다.
+        assertThat(itemFindDto.getStock()).isGreaterThanOrEqualTo(0L);
+
+        //성공한 주문 수량과 남은 재고의 합은 처음 재고와 같아야 한다.
+        assertThat(successCount.get() * countPerOrderItem + itemFindDto.getStock()).isEqualTo(100L);
+        assertThat(successCount.get()).isEqualTo(50L);
+        assertThat(notEnoughStockCount.get()).isEqualTo(14L);
+
+        //성공한 주문만큼 주문 상품이 생성되어야 한다.
+        List<OrderItemFindDto> allOrderItemFindDtosByOrderId = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId);
+        assertThat(allOrderItemFindDtosByOrderId.size()).isEqualTo(successCount.intValue());
+    }
+
+    @Test
+    @DisplayName("50개의 스레드가 동시에 같은 상품, 같은 가격으로 주문해도 주문 상품은 하나만 생기고 수량이 누락되지 않는다.")
+    void createSameOrderItemConcurrently() throws InterruptedException {
+        //given
+        int threadCount = 50;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        AtomicLong successCount = new AtomicLong();
+
+        //when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                            .orderId(orderTestId)
+                            .itemId(itemTestId)
+                            .price(10000L)
+                            .count(1L)
+                            .build());
+                    successCount.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        doneLatch.await();
+        executorService.shutdown();
+
+        //then
+        assertThat(successCount.get()).isEqualTo(threadCount);
+
+        //같은 주문 상품에 수량만 더해져야 한다.
+        List<OrderItemFindDto> allOrderItemFindDtosByOrderId = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId);
+        assertThat(allOrderItemFindDtosByOrderId.size()).isEqualTo(1);
+        assertThat(allOrderItemFindDtosByOrderId.get(0).getCount()).isEqualTo(threadCount);
+
+        ItemFindDto itemFindDto = itemService.findItemDtoById(itemTestId);
+        assertThat(itemFindDto.getStock()).isEqualTo(100L - threadCount);
+    }
+
     @Test
     @DisplayName("결제가 생기면 orderItem 추가 불가한지 테스트")
     void createOrderItemExceptionWhenPaymentExists() {
@@ -581,4 +718,205 @@ public class OrderItemServiceTest {
 
         assertThat(1).isEqualTo(2);
     }
+
+    @Test
+    @DisplayName("여러 주문 상품을 한 번에 추가하면, 이미 있는 주문 상품은 수량이 늘고 없는 주문 상품은 새로 추가된다.")
+    void createOrderItems() {
+        //given
+        Long newItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("newItemTest")
+                .price(5000L)
+                .stock(50L)
+                .build());
+
+        //이미 주문에 있는 주문 상품
+        Long existingOrderItemId = orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(1L)
+                .build());
+
+        //when
+        List<Long> orderItemIds = orderItemService.createOrderItems(orderTestId, List.of(
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(itemTestId).price(10000L).count(2L).build(),
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(newItemId).price(5000L).count(3L).build(),
+                //같은 상품, 같은 가격은 하나로 합쳐진다.
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(newItemId).price(5000L).count(4L).build()));
+
+        //then
+        assertThat(orderItemIds).hasSize(2);
+        assertThat(orderItemIds).contains(existingOrderItemId);
+
+        List<OrderItemFindDto> orderItemFindDtos = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId);
+        assertThat(orderItemFindDtos).hasSize(2);
+        assertThat(orderItemService.findOrderItemFindDtoByIdAndOrderId(existingOrderItemId, orderTestId).getCount()).isEqualTo(3L);
+
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(97L);
+        assertThat(itemService.findItemDtoById(newItemId).getStock()).isEqualTo(43L);
+    }
+
+    @Test
+    @DisplayName("여러 주문 상품을 한 번에 추가할 때 재고가 부족한 상품이 있으면, 아무것도 추가되지 않는다.")
+    void createOrderItemsRollbackWhenNotEnoughStock() {
+        //given
+        Long newItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("newItemTest")
+                .price(5000L)
+                .stock(1L)
+                .build());
+
+        //when
+        assertThatThrownBy(() -> orderItemService.createOrderItems(orderTestId, List.of(
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(itemTestId).price(10000L).count(2L).build(),
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(newItemId).price(5000L).count(2L).build())))
+                .isInstanceOf(NotEnoughStockException.class);
+
+        //then
+        assertThat(orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId)).isEmpty();
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(100L);
+        assertThat(itemService.findItemDtoById(newItemId).getStock()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("주문 상품을 추가, 수정, 삭제하면 메뉴 캐시를 지우지 않고 재고만 고친다.")
+    void updateMenuCacheStockInPlace() {
+        //given
+        //메뉴를 캐시에 담는다.
+        itemService.findAllItemDtoByStoreId(storeTestId);
+        MenuCacheStatsDto beforeStats = menuCache.getStats();
+
+        //when
+        Long orderItemId = orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(5L)
+                .build());
+        List<ItemFindDto> menuAfterCreation = itemService.findAllItemDtoByStoreId(storeTestId);
+
+        orderItemService.updateOrderItemCount(OrderItemUpdateDto.builder()
+                .id(orderItemId)
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(2L)
+                .build());
+        List<ItemFindDto> menuAfterUpdate = itemService.findAllItemDtoByStoreId(storeTestId);
+
+        orderItemService.deleteOrderItem(OrderItemDeleteDto.builder()
+                .id(orderItemId)
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .build());
+        List<ItemFindDto> menuAfterDeletion = itemService.findAllItemDtoByStoreId(storeTestId);
+
+        //then
+        assertThat(menuAfterCreation.get(0).getStock()).isEqualTo(95L);
+        assertThat(menuAfterUpdate.get(0).getStock()).isEqualTo(98L);
+        assertThat(menuAfterDeletion.get(0).getStock()).isEqualTo(100L);
+
+        //세 번 모두 캐시에서 조회하고, 재고만 세 번 고쳤다.
+        MenuCacheStatsDto afterStats = menuCache.getStats();
+        assertThat(afterStats.getHitCount() - beforeStats.getHitCount()).isEqualTo(3L);
+        assertThat(afterStats.getMissCount() - beforeStats.getMissCount()).isEqualTo(0L);
+        assertThat(afterStats.getStockUpdateCount() - beforeStats.getStockUpdateCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("재고가 부족해서 롤백되면 메뉴 캐시의 재고도 그대로다.")
+    void keepMenuCacheStockWhenRollback() {
+        //given
+        itemService.findAllItemDtoByStoreId(storeTestId);
+
+        //when
+        assertThatThrownBy(() -> orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(101L)
+                .build()))
+                .isInstanceOf(NotEnoughStockException.class);
+
+        //then
+        assertThat(itemService.findAllItemDtoByStoreId(storeTestId).get(0).getStock()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("주문 상품을 추가할 때 가게는 조회하지 않고, 주문은 테이블, 결제와 함께 한 번에 조회한다.")
+    void createOrderItemStatementCount() {
+        //given
+        //재고 예약과 주문 상품을 미리 만들어 둔다.
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(1L)
+                .build());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //when
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(1L)
+                .build());
+        long statementCount = statistics.getPrepareStatementCount();
+
+        statistics.setStatisticsEnabled(false);
+
+        //then
+        //주문(테이블, 결제 조인), 재고 예약 잠금, 주문 상품 조회, 재고 감소, 주문 상품 수정, 주문 합계 수정, 재고 예약 수정
+        assertThat(statementCount).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("주문 조회와 가게 상태 확인은, 가게를 조인하던 예전 방식보다 적은 쿼리로 끝난다.")
+    void findOrderAndStoreStatusStatementCount() {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        //가게 상태를 캐시에 담아 둔다.
+        storeMetadataCache.get(storeTestId);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        //when
+        //예전 방식: 주문을 가게와 조인해서 조회하고, 가게 엔티티에서 상태를 확인한다.
+        statistics.clear();
+        StoreStatus storeStatusBefore = transactionTemplate.execute(status -> em.createQuery(
+                        "select o from Order o join fetch o.store"
+                                + " where o.id = :orderId and o.orderStatus <> :deleted and o.orderStatus <> :paid", Order.class)
+                .setParameter("orderId", orderTestId)
+                .setParameter("deleted", OrderStatus.DELETED)
+                .setParameter("paid", OrderStatus.PAID)
+                .getSingleResult()
+                .getStore()
+                .getStoreStatus());
+        long statementCountBefore = statistics.getPrepareStatementCount();
+
+        //지금 방식: 주문을 테이블, 결제와 함께 조회하고, 가게 상태는 캐시에서 확인한다.
+        statistics.clear();
+        StoreStatus storeStatusAfter = transactionTemplate.execute(status -> storeMetadataCache.get(
+                        orderRepository.findNotDeletedAndPaidWithStoreTableAndPaymentById(orderTestId).get()
+                                .getStore()
+                                .getId())
+                .getStoreStatus());
+        long statementCountAfter = statistics.getPrepareStatementCount();
+
+        statistics.setStatisticsEnabled(false);
+
+        //then
+        assertThat(storeStatusAfter).isEqualTo(storeStatusBefore);
+        //예전 방식은 주문의 테이블과 결제를 따로 조회한다.
+        assertThat(statementCountAfter).isEqualTo(1L);
+        assertThat(statementCountBefore).isGreaterThan(statementCountAfter);
+    }
 }
@@ -5,16 +5,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import site.mylittlestore.domain.StoreTable;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.order.OrderDto;
+import site.mylittlestore.dto.order.OrderFindDtoWithOrderItemAndPayment;
+import site.mylittlestore.dto.order.OrderHistoryCondition;
+import site.mylittlestore.dto.order.OrderHistoryLineDto;
+import site.mylittlestore.dto.order.OrderHistoryPage;
+import site.mylittlestore.dto.order.OrderTotalMismatchDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.orderitem.OrderItemDeleteDto;
+import site.mylittlestore.dto.orderitem.OrderItemUpdateDto;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.dto.store.StoreToggleStatusDto;
 import site.mylittlestore.dto.store.StoreUpdateDto;
 import site.mylittlestore.dto.storetable.StoreTableFindDtoWithOrderFindDto;
 import site.mylittlestore.enumstorage.errormessage.StoreTableErrorMessage;
+import site.mylittlestore.enumstorage.status.OrderItemStatus;
 import site.mylittlestore.enumstorage.status.OrderStatus;
 import site.mylittlestore.exception.store.NoSuchOrderException;
 import site.mylittlestore.exception.store.StoreClosedException;
@@ -24,6 +34,10 @@ import site.mylittlestore.repository.storetable.StoreTableRepository;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -47,6 +61,8 @@ class OrderServiceTest {
     private StoreService storeService;
     @Autowired
     private StoreTableRepository storeTableRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @PersistenceContext
     EntityManager em;
@@ -124,6 +140,46 @@ class OrderServiceTest {
         assertThat(findOrderWithOrderItemIdById.getOrderStatus()).isEqualTo(OrderStatus.USING.toString());
     }
 
+    @Test
+    @DisplayName("주문 상세에 필요한 주문, 테이블, 결제, 주문 상품을 한 번에 조회한다.")
+    void findOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId() {
+        //given
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(9000L)
+                .count(2L)
+                .build());
+
+        //when
+        OrderFindDtoWithOrderItemAndPayment orderFindDto = orderService.findOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId(orderTestId, storeTestId);
+
+        //then
+        assertThat(orderFindDto.getId()).isEqualTo(orderTestId);
+        assertThat(orderFindDto.getStoreId()).isEqualTo(storeTestId);
+        assertThat(orderFindDto.getStoreTableId()).isEqualTo(storeTableTestId);
+        assertThat(orderFindDto.getOrderStatus()).isEqualTo(OrderStatus.USING.toString());
+        assertThat(orderFindDto.getPaymentDto()).isNull();
+        assertThat(orderFindDto.getOrderItemFindDtos()).hasSize(2);
+        assertThat(orderFindDto.getOrderItemFindDtos().get(0).getId()).isEqualTo(orderItemTestId);
+        assertThat(orderFindDto.getOrderItemFindDtos().get(1).getPrice()).isEqualTo(9000L);
+    }
+
+    @Test
+    @DisplayName("주문 상품이 없는 주문도 주문 상세를 조회한다.")
+    void findOrderFindDtoWithOrderItemAndPaymentByIdAndStoreIdWithoutOrderItems() {
+        //given
+        Long newStoreTableId = storeTableService.createStoreTable(storeTestId);
+        Long newOrderId = orderService.createOrder(storeTestId, newStoreTableId);
+
+        //when
+        OrderFindDtoWithOrderItemAndPayment orderFindDto = orderService.findOrderFindDtoWithOrderItemAndPaymentByIdAndStoreId(newOrderId, storeTestId);
+
+        //then
+        assertThat(orderFindDto.getId()).isEqualTo(newOrderId);
+        assertThat(orderFindDto.getOrderItemFindDtos()).isEmpty();
+    }
+
     @Test
     @DisplayName("해당하는 주문이 없을 경우, 예외 발생")
     void findOrderDtoByIdAndStoreIdException() {
@@ -218,4 +274,188 @@ class OrderServiceTest {
         assertThatThrownBy(() -> orderService.createOrder(storeTestId, createdStoreTableId))
                 .isInstanceOf(StoreClosedException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("끝난 주문의 주문 상품을 최근 순으로 한 페이지씩 조회한다.")
+    void findOrderHistoryPage() {
+        //given
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Long oldOrderId = createPaidOrder(now.minusDays(2));
+        Long middleOrderId = createPaidOrder(now.minusDays(1));
+        Long recentOrderId = createPaidOrder(now);
+
+        OrderHistoryCondition condition = OrderHistoryCondition.builder()
+                .storeId(storeTestId)
+                .build();
+
+        //when
+        List<OrderHistoryLineDto> orderHistoryLineDtos = new ArrayList<>();
+        OrderHistoryPage orderHistoryPage = orderService.findOrderHistoryPage(condition, null, 4);
+        orderHistoryLineDtos.addAll(orderHistoryPage.getOrderHistoryLineDtos());
+        while (orderHistoryPage.isHasNext()) {
+            orderHistoryPage = orderService.findOrderHistoryPage(condition, orderHistoryPage.getNextCursor(), 4);
+            orderHistoryLineDtos.addAll(orderHistoryPage.getOrderHistoryLineDtos());
+        }
+
+        //then
+        //끝나지 않은 주문(orderTestId)은 나오지 않는다.
+        assertThat(orderHistoryLineDtos).extracting(OrderHistoryLineDto::getOrderId)
+                .containsExactly(recentOrderId, recentOrderId, middleOrderId, middleOrderId, oldOrderId, oldOrderId);
+        assertThat(orderHistoryLineDtos).extracting(OrderHistoryLineDto::getOrderItemStatus)
+                .containsOnly(OrderItemStatus.PAID.toString());
+        assertThat(orderHistoryPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("상태와 종료 시간으로 주문 내역을 조회한다.")
+    void findOrderHistoryPageWithCondition() {
+        //given
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        createPaidOrder(now.minusDays(2));
+        Long middleOrderId = createPaidOrder(now.minusDays(1));
+        createPaidOrder(now);
+
+        //when
+        OrderHistoryPage pageByEndTime = orderService.findOrderHistoryPage(OrderHistoryCondition.builder()
+                .storeId(storeTestId)
+                .from(now.minusDays(1))
+                .to(now)
+                .build(), null, 10);
+        OrderHistoryPage pageByOrderStatus = orderService.findOrderHistoryPage(OrderHistoryCondition.builder()
+                .storeId(storeTestId)
+                .orderStatus(OrderStatus.DELETED)
+                .build(), null, 10);
+
+        //then
+        assertThat(pageByEndTime.getOrderHistoryLineDtos()).extracting(OrderHistoryLineDto::getOrderId)
+                .containsOnly(middleOrderId);
+        assertThat(pageByEndTime.isHasNext()).isFalse();
+        assertThat(pageByOrderStatus.getOrderHistoryLineDtos()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("주문 내역 전체를 목록으로 모으지 않고 한 줄씩 읽는다.")
+    void forEachOrderHistoryLine() {
+        //given
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        createPaidOrder(now.minusDays(1));
+        Long recentOrderId = createPaidOrder(now);
+
+        List<Long> orderIds = new ArrayList<>();
+
+        //when
+        long count = orderService.forEachOrderHistoryLine(OrderHistoryCondition.builder()
+                .storeId(storeTestId)
+                .build(), orderHistoryLineDto -> orderIds.add(orderHistoryLineDto.getOrderId()));
+
+        //then
+        assertThat(count).isEqualTo(4L);
+        assertThat(orderIds).hasSize(4);
+        assertThat(orderIds.get(0)).isEqualTo(recentOrderId);
+    }
+
+    @Test
+    @DisplayName("주문 상품을 추가, 수정, 삭제하면 주문의 합계와 수량이 바뀐 만큼 바뀐다.")
+    void keepOrderTotals() {
+        //given
+        //setUp에서 10000원짜리 1개
+        Long newOrderItemId = orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(9000L)
+                .count(2L)
+                .build());
+        orderItemService.createOrderItems(orderTestId, List.of(
+                OrderItemCreationDto.builder()
+                        .orderId(orderTestId)
+                        .itemId(itemTestId)
+                        .price(10000L)
+                        .count(2L)
+                        .build(),
+                OrderItemCreationDto.builder()
+                        .orderId(orderTestId)
+                        .itemId(itemTestId)
+                        .price(8000L)
+                        .count(1L)
+                        .build()));
+
+        //when
+        orderItemService.updateOrderItemCount(OrderItemUpdateDto.builder()
+                .id(newOrderItemId)
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(9000L)
+                .count(5L)
+                .build());
+        orderItemService.deleteOrderItem(OrderItemDeleteDto.builder()
+                .id(orderItemTestId)
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .build());
+
+        //then
+        //9000원 5개, 8000원 1개
+        OrderDto orderDto = orderService.findOrderDtoByIdAndStoreId(orderTestId, storeTestId);
+        assertThat(orderDto.getSubtotal()).isEqualTo(53000L);
+        assertThat(orderDto.getItemCount()).isEqualTo(6L);
+        assertThat(orderService.verifyOrderTotals(storeTestId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("주문에 쌓인 합계와 수량이 주문 상품과 다르면 찾아낸다.")
+    void verifyOrderTotals() {
+        //given
+        Long newStoreTableId = storeTableService.createStoreTable(storeTestId);
+        Long newOrderId = orderService.createOrder(storeTestId, newStoreTableId);
+
+        //주문 상품을 거치지 않고 합계만 바꾼다.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createQuery("update Order o set o.subtotal = o.subtotal + 500 where o.id = :orderId")
+                        .setParameter("orderId", orderTestId)
+                        .executeUpdate());
+
+        //when
+        List<OrderTotalMismatchDto> orderTotalMismatchDtos = orderService.verifyOrderTotals(storeTestId);
+
+        //then
+        //주문 상품이 없는 주문은 0으로 맞으므로 나오지 않는다.
+        assertThat(orderTotalMismatchDtos).hasSize(1);
+        assertThat(orderTotalMismatchDtos.get(0).getOrderId()).isEqualTo(orderTestId);
+        assertThat(orderTotalMismatchDtos.get(0).getExpectedSubtotal()).isEqualTo(10000L);
+        assertThat(orderTotalMismatchDtos.get(0).getActualSubtotal()).isEqualTo(10500L);
+        assertThat(orderTotalMismatchDtos.get(0).getExpectedItemCount()).isEqualTo(1L);
+        assertThat(orderTotalMismatchDtos.get(0).getActualItemCount()).isEqualTo(1L);
+        assertThat(orderTotalMismatchDtos).extracting(OrderTotalMismatchDto::getOrderId).doesNotContain(newOrderId);
+    }
+
+    //주문 상품이 두 개인 주문을 만들고, endTime에 결제 완료된 것으로 바꾼다.
+    //같은 상품을 같은 가격으로 담으면 한 주문 상품으로 합쳐지므로, 가격을 다르게 담는다.
+    private Long createPaidOrder(LocalDateTime endTime) {
+        Long storeTableId = storeTableService.createStoreTable(storeTestId);
+        Long orderId = orderService.createOrder(storeTestId, storeTableId);
+
+        for (int i = 0; i < 2; i++) {
+            orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                    .orderId(orderId)
+                    .itemId(itemTestId)
+                    .price(10000L + i * 1000L)
+                    .count(1L)
+                    .build());
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("update Order o set o.orderStatus = :orderStatus, o.endTime = :endTime where o.id = :orderId")
+                    .setParameter("orderStatus", OrderStatus.PAID)
+                    .setParameter("endTime", endTime)
+                    .setParameter("orderId", orderId)
+                    .executeUpdate();
+            em.createQuery("update OrderItem oi set oi.orderItemStatus = :orderItemStatus where oi.order.id = :orderId")
+                    .setParameter("orderItemStatus", OrderItemStatus.PAID)
+                    .setParameter("orderId", orderId)
+                    .executeUpdate();
+        });
+
+        return orderId;
+    }
+}
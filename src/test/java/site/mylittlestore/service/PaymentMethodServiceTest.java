@@ -6,8 +6,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.StoreFixture;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.errormessage.PaymentMethodErrorMessage;
+import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
+import site.mylittlestore.exception.paymentmethod.PaymentMethodException;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -15,54 +26,152 @@ import static org.assertj.core.api.Assertions.*;
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(StoreFixture.class)
 class PaymentMethodServiceTest {
+    @Autowired
+    private StoreFixture storeFixture;
     @Autowired
     private PaymentMethodService paymentMethodService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private StoreTableService storeTableService;
+
+    private Long orderTestId;
+    private Long paymentTestId;
 
     @BeforeEach
     void setUp() {
+        Long newMemberId = storeFixture.joinMember();
+
+        Long newStoreId = storeFixture.createOpenStore(newMemberId);
+
+        Long newItemId = storeFixture.createItem(newStoreId, "itemTest", 10000L);
 
+        //테이블 생성
+        Long newStoreTableId = storeTableService.createStoreTable(newStoreId);
+
+        //주문 생성
+        Long newOrderId = orderService.createOrder(newStoreId, newStoreTableId);
+
+        //10000원짜리 3개
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(newOrderId)
+                .itemId(newItemId)
+                .price(10000L)
+                .count(3L)
+                .build());
+
+        //결제 시작
+        Long newPaymentId = paymentService.startPayment(newOrderId);
+
+        orderTestId = newOrderId;
+        paymentTestId = newPaymentId;
     }
 
     @Test
     @DisplayName("orderId와 paymentId로 PaymentMethodDto를 모두 조회한다.")
     void findAllPaymentMethodDtosByOrderIdAndPaymentId() {
         //given
-
+        Long cashPaymentMethodId = createPaymentMethod(PaymentMethodType.CASH, 10000L);
+        Long cardPaymentMethodId = createPaymentMethod(PaymentMethodType.CARD, 20000L);
 
         //when
-        paymentMethodService.findAllPaymentMethodDtosByOrderIdAndPaymentId();
+        List<PaymentMethodDto> paymentMethodDtos = paymentMethodService.findAllPaymentMethodDtosByOrderIdAndPaymentId(orderTestId, paymentTestId);
 
         //then
-
-        assertThat(1).isEqualTo(2);
+        assertThat(paymentMethodDtos)
+                .extracting(PaymentMethodDto::getId, PaymentMethodDto::getPaymentMethodType, PaymentMethodDto::getPaymentMethodAmount)
+                .containsExactlyInAnyOrder(
+                        tuple(cashPaymentMethodId, PaymentMethodType.CASH.toString(), 10000L),
+                        tuple(cardPaymentMethodId, PaymentMethodType.CARD.toString(), 20000L));
     }
 
     @Test
     @DisplayName("결제 수단을 생성한다.")
     void createPaymentMethod() {
+        //when
+        Long paymentMethodId = createPaymentMethod(PaymentMethodType.CARD, 30000L);
+
+        //then
+        PaymentMethodDto paymentMethodDto = paymentMethodService.findNotPaidPaymentMethodDtoByIdAndPaymentId(paymentMethodId, paymentTestId);
+        assertThat(paymentMethodDto.getPaymentId()).isEqualTo(paymentTestId);
+        assertThat(paymentMethodDto.getPaymentMethodAmount()).isEqualTo(30000L);
+        assertThat(paymentMethodDto.getPaymentMethodStatus()).isEqualTo(PaymentMethodStatus.IN_PROGRESS.toString());
+    }
+
+    @Test
+    @DisplayName("결제 수단 금액이 남은 결제 금액보다 크면 예외 발생")
+    void createPaymentMethodExceptionWhenAmountExceedsLeftToPay() {
         //given
+        //10000원을 먼저 지불한다.
+        paymentMethodService.completePaymentMethod(createPaymentMethod(PaymentMethodType.CASH, 10000L), paymentTestId);
 
+        //when
+        //then
+        assertThatThrownBy(() -> createPaymentMethod(PaymentMethodType.CARD, 30000L))
+                .isInstanceOf(PaymentMethodException.class)
+                .hasMessageContaining(PaymentMethodErrorMessage.PAYMENT_METHOD_AMOUNT_EXCEEDS_LEFT_TO_PAY.getMessage());
+    }
+
+    @Test
+    @DisplayName("승인이 거절된 결제 수단도 다시 승인을 시작하면 AUTHORIZING으로 바꾼다.")
+    void startPaymentMethodAfterFail() {
+        //given
+        Long paymentMethodId = createPaymentMethod(PaymentMethodType.CARD, 30000L);
+        paymentMethodService.failPaymentMethod(paymentMethodId, PaymentMethodStatus.FAIL);
 
         //when
-        paymentMethodService.createPaymentMethod()
+        PaymentMethodDto paymentMethodDto = paymentMethodService.startPaymentMethod(paymentMethodId, paymentTestId);
 
         //then
-
-        assertThat(1).isEqualTo(2);
+        //반환한 Dto는 바꾸기 전의 상태다.
+        assertThat(paymentMethodDto.getPaymentMethodStatus()).isEqualTo(PaymentMethodStatus.FAIL.toString());
+        assertThat(paymentMethodService.findNotPaidPaymentMethodDtoByIdAndPaymentId(paymentMethodId, paymentTestId).getPaymentMethodStatus())
+                .isEqualTo(PaymentMethodStatus.AUTHORIZING.toString());
     }
 
     @Test
-    @DisplayName("")
-    void () {
+    @DisplayName("이미 승인 중인 결제 수단은 다시 승인을 시작하면 예외 발생")
+    void startPaymentMethodExceptionWhenAuthorizing() {
         //given
-
+        Long paymentMethodId = createPaymentMethod(PaymentMethodType.CARD, 30000L);
+        paymentMethodService.startPaymentMethod(paymentMethodId, paymentTestId);
 
         //when
-        paymentMethodService.finishPaymentMethod();
+        //then
+        //메모리에 승인 중인 기록이 없어도(다른 서버, 재시작) 두 번 승인하지 않는다.
+        assertThatThrownBy(() -> paymentMethodService.startPaymentMethod(paymentMethodId, paymentTestId))
+                .isInstanceOf(PaymentMethodException.class)
+                .hasMessageContaining(PaymentMethodErrorMessage.ALREADY_AUTHORIZING.getMessage());
+        assertThat(paymentMethodService.findNotPaidPaymentMethodDtoByIdAndPaymentId(paymentMethodId, paymentTestId).getPaymentMethodStatus())
+                .isEqualTo(PaymentMethodStatus.AUTHORIZING.toString());
+    }
 
+    @Test
+    @DisplayName("이미 지불된 결제 수단은 다시 지불하면 예외 발생")
+    void completePaymentMethodExceptionWhenAlreadyPaid() {
+        //given
+        Long paymentMethodId = createPaymentMethod(PaymentMethodType.CASH, 10000L);
+        paymentMethodService.completePaymentMethod(paymentMethodId, paymentTestId);
+
+        //when
         //then
+        assertThatThrownBy(() -> paymentMethodService.completePaymentMethod(paymentMethodId, paymentTestId))
+                .isInstanceOf(PaymentMethodException.class);
+        assertThat(paymentMethodService.findPaymentMethodDtoByIdAndPaymentId(paymentMethodId, paymentTestId).getPaymentMethodStatus())
+                .isEqualTo(PaymentMethodStatus.PAID.toString());
+    }
 
-        assertThat(1).isEqualTo(2);
+    private Long createPaymentMethod(PaymentMethodType paymentMethodType, long paymentMethodAmount) {
+        return paymentMethodService.createPaymentMethod(paymentTestId, orderTestId, PaymentMethodCreationDto.builder()
+                .paymentId(paymentTestId)
+                .paymentMethodType(paymentMethodType.name())
+                .paymentMethodAmount(paymentMethodAmount)
+                .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package site.mylittlestore.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.StoreFixture;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodCreationDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodDto;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
+import site.mylittlestore.enumstorage.status.PaymentStatus;
+import site.mylittlestore.repository.order.OrderRepository;
+import site.mylittlestore.repository.payment.PaymentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+//카드 승인은 0.3초 걸린다.
+@SpringBootTest(properties = {
+        "mylittlestore.payment.card.latency-min=PT0.3S",
+        "mylittlestore.payment.card.latency-max=PT0.3S",
+        "mylittlestore.payment.card.timeout=PT2S"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(StoreFixture.class)
+public class PaymentProcessingServiceTest {
+    private static final long CARD_LATENCY_MILLIS = 300L;
+
+    @Autowired
+    private StoreFixture storeFixture;
+    @Autowired
+    private StoreTableService storeTableService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private PaymentMethodService paymentMethodService;
+    @Autowired
+    private PaymentProcessingService paymentProcessingService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Long storeTestId;
+    private Long itemTestId;
+
+    @BeforeEach
+    void setUp() {
+        //회원 생성
+        Long memberTestId = storeFixture.joinMember();
+
+        //가게 생성, 가게 열기
+        storeTestId = storeFixture.createOpenStore(memberTestId);
+
+        //상품 생성
+        itemTestId = storeFixture.createItem(storeTestId, "itemTest", 1000L);
+    }
+
+    @Test
+    @DisplayName("카드 승인을 기다리지 않고 돌아오고, 승인되면 결제 수단과 결제, 주문이 완료된다.")
+    void submitCardPaymentMethod() throws Exception {
+        //given
+        Long orderId = createOrderWithOrderItem();
+        Long paymentId = paymentService.startPayment(orderId);
+        Long paymentMethodId = createCardPaymentMethod(paymentId, orderId);
+
+        //when
+        long startNanos = System.nanoTime();
+        CompletableFuture<PaymentMethodDto> result = paymentProcessingService.submit(paymentMethodId, paymentId);
+        long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        //then
+        //승인을 기다리지 않는다.
+        assertThat(submitMillis).isLessThan(CARD_LATENCY_MILLIS);
+        assertThat(paymentMethodService.findPaymentMethodDtoByIdAndPaymentId(paymentMethodId, paymentId).getPaymentMethodStatus())
+                .isEqualTo(PaymentMethodStatus.AUTHORIZING.name());
+
+        PaymentMethodDto paymentMethodDto = result.get(5, TimeUnit.SECONDS);
+        assertThat(paymentMethodDto.getPaymentMethodStatus()).isEqualTo(PaymentMethodStatus.PAID.name());
+        assertThat(paymentMethodDto.getPaymentMethodCompleteDateTime()).isNotNull();
+        assertThat(paymentRepository.findById(paymentId).get().getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(orderRepository.findById(orderId).get().getOrderStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(paymentProcessingService.findInFlight(paymentMethodId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("승인 중인 결제 수단을 다시 요청하면, 새로 승인하지 않고 같은 결과를 기다린다.")
+    void submitInFlightPaymentMethod() throws Exception {
+        //given
+        Long orderId = createOrderWithOrderItem();
+        Long paymentId = paymentService.startPayment(orderId);
+        Long paymentMethodId = createCardPaymentMethod(paymentId, orderId);
+
+        //when
+        CompletableFuture<PaymentMethodDto> result = paymentProcessingService.submit(paymentMethodId, paymentId);
+        CompletableFuture<PaymentMethodDto> retriedResult = paymentProcessingService.submit(paymentMethodId, paymentId);
+
+        //then
+        assertThat(retriedResult).isSameAs(result);
+        assertThat(paymentProcessingService.findInFlight(paymentMethodId)).containsSame(result);
+        assertThat(result.get(5, TimeUnit.SECONDS).getPaymentMethodStatus()).isEqualTo(PaymentMethodStatus.PAID.name());
+    }
+
+    @Test
+    @DisplayName("여러 주문의 카드 결제를 한꺼번에 요청해도, 요청은 승인을 기다리지 않고 모두 완료된다.")
+    void submitCardPaymentMethodsOfManyOrders() throws Exception {
+        //given
+        int orderCount = 10;
+        List<Long> paymentIds = new ArrayList<>();
+        List<Long> paymentMethodIds = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            Long orderId = createOrderWithOrderItem();
+            Long paymentId = paymentService.startPayment(orderId);
+            paymentIds.add(paymentId);
+            paymentMethodIds.add(createCardPaymentMethod(paymentId, orderId));
+        }
+
+        //when
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<PaymentMethodDto>> results = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            results.add(paymentProcessingService.submit(paymentMethodIds.get(i), paymentIds.get(i)));
+        }
+        long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        //then
+        //승인 하나를 기다리는 시간보다 빨리 전부 요청한다.
+        assertThat(submitMillis).isLessThan(CARD_LATENCY_MILLIS);
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertThat(results)
+                .extracting(result -> result.join().getPaymentMethodStatus())
+                .containsOnly(PaymentMethodStatus.PAID.name());
+        assertThat(paymentIds)
+                .extracting(paymentId -> paymentRepository.findById(paymentId).get().getPaymentStatus())
+                .containsOnly(PaymentStatus.SUCCESS);
+    }
+
+    //테이블과 주문을 만들고, 1000원짜리 상품을 하나 주문한다.
+    private Long createOrderWithOrderItem() {
+        Long storeTableId = storeTableService.createStoreTable(storeTestId);
+        Long orderId = orderService.createOrder(storeTestId, storeTableId);
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderId)
+                .itemId(itemTestId)
+                .price(1000L)
+                .count(1L)
+                .build());
+        return orderId;
+    }
+
+    private Long createCardPaymentMethod(Long paymentId, Long orderId) {
+        return paymentMethodService.createPaymentMethod(paymentId, orderId, PaymentMethodCreationDto.builder()
+                .paymentId(paymentId)
+                .paymentMethodType(PaymentMethodType.CARD.name())
+                .paymentMethodAmount(1000L)
+                .build());
+    }
+}
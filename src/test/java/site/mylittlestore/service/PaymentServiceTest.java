@@ -1,5 +1,7 @@
 package site.mylittlestore.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,18 +10,44 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.orderitem.OrderItemDeleteDto;
 import site.mylittlestore.dto.payment.PaymentDto;
-import site.mylittlestore.dto.payment.PaymentViewDto;
+import site.mylittlestore.dto.paymentmethod.PaymentMethodCreationDto;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.dto.store.StoreToggleStatusDto;
+import site.mylittlestore.domain.Order;
+import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.domain.Payment;
+import site.mylittlestore.domain.StoreTable;
+import site.mylittlestore.domain.item.Item;
+import site.mylittlestore.enumstorage.PaymentMethodType;
+import site.mylittlestore.enumstorage.status.OrderItemStatus;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+import site.mylittlestore.enumstorage.status.PaymentMethodStatus;
 import site.mylittlestore.enumstorage.status.PaymentStatus;
+import site.mylittlestore.enumstorage.status.StoreTableStatus;
 import site.mylittlestore.exception.payment.PaymentAlreadyExistException;
+import site.mylittlestore.exception.paymentmethod.PaymentMethodException;
 import site.mylittlestore.exception.store.StoreClosedException;
+import site.mylittlestore.repository.order.OrderRepository;
+import site.mylittlestore.repository.orderitem.OrderItemRepository;
+import site.mylittlestore.repository.payment.PaymentRepository;
+import site.mylittlestore.repository.paymentmethod.PaymentMethodRepository;
+import site.mylittlestore.repository.storetable.StoreTableRepository;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -42,6 +70,24 @@ public class PaymentServiceTest {
     private OrderItemService orderItemService;
     @Autowired
     private PaymentService paymentService;
+    @Autowired
+    private PaymentMethodService paymentMethodService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private StoreTableRepository storeTableRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     private Long memberTestId;
     private Long storeTestId;
@@ -111,10 +157,10 @@ public class PaymentServiceTest {
 
         //when
         //결제 시작
-        PaymentViewDto paymentViewDto = paymentService.startPayment(orderTestId);
+        Long paymentId = paymentService.startPayment(orderTestId);
 
         //then
-        PaymentDto paymentDto = paymentService.findNotSuccessPaymentDtoByIdAndOrderId(paymentViewDto.getId());
+        PaymentDto paymentDto = paymentService.findNotSuccessPaymentDtoByIdAndOrderId(paymentId, orderTestId);
 
         //결제가 정상적으로 생성되었는지 확인
         //paymentMethodIds가 new ArrayList<>()인지 확인
@@ -165,7 +211,7 @@ public class PaymentServiceTest {
                 .build());
 
         //결제 생성
-        PaymentViewDto paymentViewDto = paymentService.startPayment(orderTestId);
+        paymentService.startPayment(orderTestId);
 
         //when
         //then
@@ -177,13 +223,226 @@ public class PaymentServiceTest {
     @DisplayName("값이 0이 아니고, initialPaymentAmount와 paidPaymentAmount의 값이 같으면 결제 완료")
     void finishPayment() {
         //given
-        
-        
+        List<Long> orderItemIds = createOrderItems(orderTestId, 2);
+        Long paymentId = paymentService.startPayment(orderTestId);
+
+        //지불하기 전에는 결제가 완료되지 않는다.
+        assertThat(paymentService.finishPayment(paymentId, orderTestId)).isFalse();
+
         //when
-        paymentService.finishPayment()
-        
+        //마지막 결제 수단이 지불되면 같은 트랜잭션에서 결제가 완료된다.
+        paymentMethodService.completePaymentMethod(createPaymentMethod(orderTestId, paymentId, orderItemIds), paymentId);
+
         //then
-        
-        assertThat(1).isEqualTo(2);
+        Payment payment = paymentRepository.findById(paymentId).get();
+        assertThat(payment.getPaidPaymentAmount()).isEqualTo(payment.getInitialPaymentAmount());
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+
+        assertThat(orderRepository.findById(orderTestId).get().getOrderStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(orderItemRepository.findAllById(orderItemIds))
+                .extracting(OrderItem::getOrderItemStatus)
+                .containsOnly(OrderItemStatus.PAID);
+        assertThat(storeTableRepository.findById(storeTableTestId).get().getStoreTableStatus()).isEqualTo(StoreTableStatus.EMPTY);
+
+        //이미 결제 완료된 주문이면 true만 반환한다.
+        assertThat(paymentService.finishPayment(paymentId, orderTestId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("결제가 완료되면 주문, 주문 상품, 테이블의 상태를 주문 상품의 수와 상관없이 같은 수의 쿼리로 바꾼다.")
+    void finishPaymentWithSetBasedUpdates() {
+        //given
+        //매출 집계 행을 미리 만들어서, 두 번째 결제부터는 같은 쿼리가 나가게 한다.
+        //결제는 주문 상품이 있어야 시작할 수 있다.
+        List<Long> orderItemIds = createOrderItems(orderTestId, 1);
+        Long paymentId = paymentService.startPayment(orderTestId);
+        paymentMethodService.completePaymentMethod(createPaymentMethod(orderTestId, paymentId, orderItemIds), paymentId);
+
+        Long storeTableId1 = storeTableService.createStoreTable(storeTestId);
+        Long orderId1 = orderService.createOrder(storeTestId, storeTableId1);
+        List<Long> orderItemIds1 = createOrderItems(orderId1, 1);
+
+        Long storeTableId2 = storeTableService.createStoreTable(storeTestId);
+        Long orderId2 = orderService.createOrder(storeTestId, storeTableId2);
+        List<Long> orderItemIds2 = createOrderItems(orderId2, 30);
+
+        //삭제된 주문 상품은 그대로 둔다.
+        Long deletedOrderItemId = orderItemIds2.remove(orderItemIds2.size() - 1);
+        orderItemService.deleteOrderItem(OrderItemDeleteDto.builder()
+                .id(deletedOrderItemId)
+                .orderId(orderId2)
+                .itemId(itemTestId)
+                .price(10029L)
+                .build());
+
+        Long paymentId1 = paymentService.startPayment(orderId1);
+        Long paymentMethodId1 = createPaymentMethod(orderId1, paymentId1, orderItemIds1);
+        Long paymentId2 = paymentService.startPayment(orderId2);
+        Long paymentMethodId2 = createPaymentMethod(orderId2, paymentId2, orderItemIds2);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        //when
+        statistics.clear();
+        paymentMethodService.completePaymentMethod(paymentMethodId1, paymentId1);
+        long statementCount1 = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        paymentMethodService.completePaymentMethod(paymentMethodId2, paymentId2);
+        long statementCount2 = statistics.getPrepareStatementCount();
+
+        statistics.setStatisticsEnabled(false);
+
+        //then
+        //주문 상품이 1개일 때와 30개일 때 같은 수의 쿼리가 나간다.
+        assertThat(statementCount2).isEqualTo(statementCount1);
+
+        Order order = orderRepository.findById(orderId2).get();
+        assertThat(order.getOrderStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(order.getEndTime()).isNotNull();
+
+        assertThat(orderItemRepository.findAllById(orderItemIds2))
+                .hasSize(29)
+                .extracting(OrderItem::getOrderItemStatus)
+                .containsOnly(OrderItemStatus.PAID);
+        assertThat(orderItemRepository.findById(deletedOrderItemId).get().getOrderItemStatus()).isEqualTo(OrderItemStatus.DELETED);
+
+        assertThat(storeTableRepository.findById(storeTableId2).get().getStoreTableStatus()).isEqualTo(StoreTableStatus.EMPTY);
+
+        //결제 정보 화면에서 다시 확인해도, 이미 결제 완료된 주문은 바뀌지 않는다.
+        assertThat(paymentService.finishPayment(paymentId2, orderId2)).isTrue();
+        assertThat(orderRepository.findById(orderId2).get().getEndTime()).isEqualTo(order.getEndTime());
+    }
+
+    @Test
+    @DisplayName("결제가 완료되면 호출한 트랜잭션에서 주문, 주문 상품, 테이블만 분리하고, 읽어둔 다른 엔티티는 그대로 둔다.")
+    void finishPaymentDetachesOnlyPaidOrder() {
+        //given
+        List<Long> orderItemIds = createOrderItems(orderTestId, 2);
+        Long paymentId = paymentService.startPayment(orderTestId);
+        Long paymentMethodId = createPaymentMethod(orderTestId, paymentId, orderItemIds);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            //호출한 쪽이 미리 읽어둔 엔티티
+            Item item = em.find(Item.class, itemTestId);
+            Order order = orderRepository.findById(orderTestId).get();
+            List<OrderItem> orderItems = orderItemRepository.findAllById(orderItemIds);
+            StoreTable storeTable = storeTableRepository.findById(storeTableTestId).get();
+
+            //when
+            //마지막 결제 수단이므로 같은 트랜잭션에서 결제가 완료된다.
+            paymentMethodService.completePaymentMethod(paymentMethodId, paymentId);
+
+            //then
+            assertThat(em.contains(item)).isTrue();
+            assertThat(em.contains(order)).isFalse();
+            assertThat(orderItems).noneMatch(em::contains);
+            assertThat(em.contains(storeTable)).isFalse();
+
+            //다시 읽으면 벌크 UPDATE로 바뀐 상태를 읽는다.
+            assertThat(orderRepository.findById(orderTestId).get().getOrderStatus()).isEqualTo(OrderStatus.PAID);
+            assertThat(orderItemRepository.findAllById(orderItemIds))
+                    .extracting(OrderItem::getOrderItemStatus)
+                    .containsOnly(OrderItemStatus.PAID);
+            assertThat(storeTableRepository.findById(storeTableTestId).get().getStoreTableStatus()).isEqualTo(StoreTableStatus.EMPTY);
+        });
+    }
+
+    @Test
+    @DisplayName("한 결제를 20개의 결제 수단으로 동시에 나눠 내도, 결제된 금액이 누락되거나 결제할 금액을 넘지 않는다.")
+    void completePaymentMethodsConcurrently() throws InterruptedException {
+        //given
+        int threadCount = 20;
+        long paymentMethodAmount = 1000L;
+        //1000원짜리 20개
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(paymentMethodAmount)
+                .count((long) threadCount)
+                .build());
+        Long paymentId = paymentService.startPayment(orderTestId);
+
+        //결제할 금액을 1000원씩 20개로 나누고, 남는 금액이 없을 때 지불할 결제 수단을 하나 더 만든다.
+        List<Long> paymentMethodIds = new ArrayList<>();
+        for (int i = 0; i < threadCount + 1; i++) {
+            paymentMethodIds.add(paymentMethodService.createPaymentMethod(paymentId, orderTestId, PaymentMethodCreationDto.builder()
+                    .paymentId(paymentId)
+                    .paymentMethodType(PaymentMethodType.CARD.name())
+                    .paymentMethodAmount(paymentMethodAmount)
+                    .build()));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(paymentMethodIds.size());
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(paymentMethodIds.size());
+        AtomicLong successCount = new AtomicLong();
+        AtomicLong exceedsLeftToPayCount = new AtomicLong();
+
+        //when
+        for (Long paymentMethodId : paymentMethodIds) {
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    paymentMethodService.completePaymentMethod(paymentMethodId, paymentId);
+                    successCount.incrementAndGet();
+                } catch (PaymentMethodException e) {
+                    exceedsLeftToPayCount.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        doneLatch.await();
+        executorService.shutdown();
+
+        //then
+        //20개만 지불되고, 남은 금액이 없을 때 지불한 하나는 롤백된다.
+        assertThat(successCount.get()).isEqualTo(threadCount);
+        assertThat(exceedsLeftToPayCount.get()).isEqualTo(1L);
+
+        Payment payment = paymentRepository.findById(paymentId).get();
+        assertThat(payment.getPaidPaymentAmount()).isEqualTo(payment.getInitialPaymentAmount());
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(payment.getCompleteDateTime()).isNotNull();
+
+        assertThat(paymentMethodRepository.findAllByPaymentId(paymentId))
+                .filteredOn(paymentMethod -> paymentMethod.getPaymentMethodStatus() == PaymentMethodStatus.PAID)
+                .hasSize(threadCount);
+
+        //결제를 완료한 지불에서만 주문이 결제 완료된다.
+        assertThat(orderRepository.findById(orderTestId).get().getOrderStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(storeTableRepository.findById(storeTableTestId).get().getStoreTableStatus()).isEqualTo(StoreTableStatus.EMPTY);
+    }
+
+    //가격을 다르게 해서 lineCount개의 주문 상품을 만든다.
+    private List<Long> createOrderItems(Long orderId, int lineCount) {
+        List<Long> orderItemIds = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            orderItemIds.add(orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                    .orderId(orderId)
+                    .itemId(itemTestId)
+                    .price(10000L + i)
+                    .count(1L)
+                    .build()));
+        }
+        return orderItemIds;
+    }
+
+    //주문 상품의 합계를 결제 수단 하나로 지불하도록 만든다.
+    private Long createPaymentMethod(Long orderId, Long paymentId, List<Long> orderItemIds) {
+        long paymentAmount = orderItemRepository.findAllById(orderItemIds).stream()
+                .mapToLong(orderItem -> orderItem.getPrice() * orderItem.getCount())
+                .sum();
+
+        return paymentMethodService.createPaymentMethod(paymentId, orderId, PaymentMethodCreationDto.builder()
+                .paymentId(paymentId)
+                .paymentMethodType(PaymentMethodType.CARD.name())
+                .paymentMethodAmount(paymentAmount)
+                .build());
     }
 }
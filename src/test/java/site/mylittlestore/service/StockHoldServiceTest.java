@@ -0,0 +1,136 @@
+package site.mylittlestore.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.StoreFixture;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.scheduler.StockHoldQueue;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//만료를 기다릴 수 있도록 예약 시간을 1초로 줄인다.
+@SpringBootTest(properties = "mylittlestore.stock-hold.ttl=PT1S")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(StoreFixture.class)
+class StockHoldServiceTest {
+    @Autowired
+    private StoreFixture storeFixture;
+    @Autowired
+    private StoreTableService storeTableService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    private Long storeTestId;
+    private Long itemTestId;
+    private Long orderTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = storeFixture.joinMember();
+
+        Long newStoreId = storeFixture.createOpenStore(newMemberId);
+
+        Long newItemId = storeFixture.createItem(newStoreId, "itemTest", 10000L);
+
+        //테이블 생성
+        Long createdStoreTableId = storeTableService.createStoreTable(newStoreId);
+
+        //주문 생성
+        Long createdOrderId = orderService.createOrder(newStoreId, createdStoreTableId);
+
+        storeTestId = newStoreId;
+        itemTestId = newItemId;
+        orderTestId = createdOrderId;
+    }
+
+    @Test
+    @DisplayName("결제되지 않은 주문의 재고 예약이 만료되면, 주문 상품이 삭제되고 재고가 반환된다.")
+    void releaseExpiredStockHold() throws InterruptedException {
+        //given
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(3L)
+                .build());
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(97L);
+
+        //when
+        //만료 대기열에서 꺼내서 반환할 때까지 기다린다.
+        waitUntilStockIs(100L, 10_000L);
+
+        //then
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(100L);
+        assertThat(orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId)).isEmpty();
+        assertThat(stockHoldService.findAllHeldStockHoldDtos()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("확정된 재고 예약은 만료되어도 반환되지 않는다.")
+    void committedStockHoldIsNotReleased() throws InterruptedException {
+        //given
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(3L)
+                .build());
+
+        //when
+        stockHoldService.commitStockHold(orderTestId);
+        Thread.sleep(2_500L);
+
+        //then
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(97L);
+        assertThat(orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("예약을 연장해도 만료 대기열에는 주문마다 항목이 하나만 있고, 늘어난 만료 시간에 꺼내진다.")
+    void extendStockHoldKeepsOneQueueEntry() throws InterruptedException {
+        //given
+        StockHoldQueue stockHoldQueue = new StockHoldQueue();
+        LocalDateTime now = LocalDateTime.now();
+
+        //when
+        stockHoldQueue.add(orderTestId, now.plusNanos(100_000_000L));
+        stockHoldQueue.add(orderTestId, now.plusNanos(200_000_000L));
+        stockHoldQueue.add(orderTestId, now.plusNanos(300_000_000L));
+
+        //then
+        assertThat(stockHoldQueue.size()).isEqualTo(1);
+
+        //처음 만료 시간에는 연장된 것을 확인하고 다시 넣는다.
+        assertThat(stockHoldQueue.takeExpiredOrderIds(10)).isEmpty();
+        assertThat(stockHoldQueue.size()).isEqualTo(1);
+
+        //마지막 만료 시간에 꺼내진다.
+        assertThat(stockHoldQueue.takeExpiredOrderIds(10)).containsExactly(orderTestId);
+        assertThat(stockHoldQueue.size()).isEqualTo(0);
+    }
+
+    private void waitUntilStockIs(Long stock, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline
+                && !itemService.findItemDtoById(itemTestId).getStock().equals(stock)) {
+            Thread.sleep(100L);
+        }
+    }
+}
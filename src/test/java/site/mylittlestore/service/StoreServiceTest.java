@@ -1,11 +1,14 @@
 package site.mylittlestore.service;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.cache.StoreMetadataCache;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.store.*;
@@ -15,6 +18,7 @@ import site.mylittlestore.exception.store.NoSuchStoreException;
 import site.mylittlestore.repository.item.ItemRepository;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
 
 import java.util.List;
@@ -43,9 +47,15 @@ class StoreServiceTest {
     @Autowired
     private StoreService storeService;
 
+    @Autowired
+    private StoreMetadataCache storeMetadataCache;
+
     @PersistenceContext
     EntityManager em;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Long memberTestId;
     private Long storeTestId;
     private Long itemTestId;
@@ -99,6 +109,50 @@ class StoreServiceTest {
         assertThat(storeDtoById.getName()).isEqualTo("storeTest");
     }
 
+    @Test
+    @DisplayName("가게 정보 화면은 테이블과 상품 수에 상관없이 SQL 한 번으로 조회한다.")
+    void findStoreOverviewDtoById() {
+        //given
+        //setUp에서 만든 테이블 1개, 상품 1개에 더해서 테이블 20개, 상품 50개
+        for (int i = 0; i < 20; i++) {
+            storeTableService.createStoreTable(storeTestId);
+        }
+        for (int i = 0; i < 50; i++) {
+            itemService.createItem(ItemCreationDto.builder()
+                    .storeId(storeTestId)
+                    .name("itemTest" + i)
+                    .price(10000L)
+                    .stock(100L)
+                    .build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //when
+        StoreOverviewDto storeOverviewDto = storeService.findStoreOverviewDtoById(storeTestId);
+        long overviewStatementCount = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        StoreDto storeDto = storeService.findStoreDtoById(storeTestId);
+        long storeDtoStatementCount = statistics.getPrepareStatementCount();
+
+        statistics.setStatisticsEnabled(false);
+
+        //then
+        assertThat(storeOverviewDto.getName()).isEqualTo("storeTest");
+        assertThat(storeOverviewDto.getMemberId()).isEqualTo(memberTestId);
+        assertThat(storeOverviewDto.getStoreTableCount()).isEqualTo(21L);
+        assertThat(storeOverviewDto.getItemCount()).isEqualTo(51L);
+        assertThat(overviewStatementCount).isEqualTo(1L);
+
+        //가게, 테이블 Id, 상품 Id 각각 한 번
+        assertThat(storeDto.getStoreTableIds()).hasSize(21);
+        assertThat(storeDto.getItemIds()).hasSize(51);
+        assertThat(storeDtoStatementCount).isEqualTo(3L);
+    }
+
     @Test
     @DisplayName("테이블, 상품과 함께 가게를 조회한다.")
     void findStoreDtoWithStoreTablesAndItemsById() {
@@ -231,6 +285,23 @@ class StoreServiceTest {
         assertThat(storeDtoById2.getStoreStatus()).isEqualTo(StoreStatus.CLOSE.toString());
     }
 
+    @Test
+    @DisplayName("가게 상태를 바꾸면 커밋된 뒤에 가게 상태 캐시에 바로 반영된다.")
+    public void changeStoreStatusWriteThroughStoreMetadataCache() {
+        //given
+        assertThat(storeMetadataCache.get(storeTestId).getStoreStatus()).isEqualTo(StoreStatus.CLOSE);
+        assertThat(storeMetadataCache.get(storeTestId).getMemberId()).isEqualTo(memberTestId);
+
+        //when
+        storeService.toggleStoreStatus(StoreToggleStatusDto.builder()
+                .id(storeTestId)
+                .memberId(memberTestId)
+                .build());
+
+        //then
+        assertThat(storeMetadataCache.get(storeTestId).getStoreStatus()).isEqualTo(StoreStatus.OPEN);
+    }
+
     @Test
     public void changeStoreStatusIsNotMembersStoreException() {
         //given
@@ -12,13 +12,20 @@ import site.mylittlestore.dto.store.StoreToggleStatusDto;
 import site.mylittlestore.dto.store.StoreUpdateDto;
 import site.mylittlestore.dto.storetable.StoreTableFindDto;
 import site.mylittlestore.dto.storetable.StoreTableFindDtoWithOrderFindDto;
+import site.mylittlestore.enumstorage.errormessage.StoreTableErrorMessage;
 import site.mylittlestore.enumstorage.status.StoreTableStatus;
+import site.mylittlestore.exception.storetable.StoreTableException;
 
 import javax.persistence.EntityManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
@@ -158,6 +165,81 @@ public class StoreTableServiceTest {
         assertThat(allStoreTableFindDtoByStoreId.size()).isEqualTo(4);
     }
 
+    @Test
+    @DisplayName("테이블을 한 번에 여러 개 만들면 마지막 번호 다음부터 번호가 붙는다.")
+    void createStoreTables() {
+        //when
+        List<Long> createdStoreTableIds = storeTableService.createStoreTables(storeTestId, 120);
+
+        //then
+        assertThat(createdStoreTableIds).hasSize(120);
+
+        List<StoreTableFindDto> allStoreTableFindDtoByStoreId = storeTableService.findAllStoreTableFindDtoByStoreId(storeTestId);
+        assertThat(allStoreTableFindDtoByStoreId)
+                .extracting(StoreTableFindDto::getTableNumber)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 121).boxed().collect(Collectors.toList()));
+        assertThat(allStoreTableFindDtoByStoreId.subList(1, 121))
+                .extracting(StoreTableFindDto::getId)
+                .containsExactlyElementsOf(createdStoreTableIds);
+    }
+
+    @Test
+    @DisplayName("넘긴 순서대로 번호를 다시 붙이고, 나머지 테이블은 그 뒤에 지금 순서대로 붙는다.")
+    void renumberStoreTables() {
+        //given
+        List<Long> createdStoreTableIds = storeTableService.createStoreTables(storeTestId, 3);
+        storeTableService.deleteStoreTables(storeTestId, List.of(createdStoreTableIds.get(1)));
+
+        //when
+        storeTableService.renumberStoreTables(storeTestId, List.of(createdStoreTableIds.get(2)));
+
+        //then
+        assertThat(storeTableService.findAllStoreTableFindDtoByStoreId(storeTestId))
+                .extracting(StoreTableFindDto::getId, StoreTableFindDto::getTableNumber)
+                .containsExactly(
+                        tuple(createdStoreTableIds.get(2), 1),
+                        tuple(storeTableTestId, 2),
+                        tuple(createdStoreTableIds.get(0), 3));
+    }
+
+    @Test
+    @DisplayName("테이블이 한 번에 처리할 수 있는 수보다 많아도, 나눠서 모두 번호를 다시 붙인다.")
+    void renumberManyStoreTables() {
+        //given
+        //setUp의 테이블 1개 + 500개 + 100개
+        List<Long> createdStoreTableIds = new ArrayList<>(storeTableService.createStoreTables(storeTestId, 500));
+        createdStoreTableIds.addAll(storeTableService.createStoreTables(storeTestId, 100));
+        Long lastStoreTableId = createdStoreTableIds.get(createdStoreTableIds.size() - 1);
+
+        //when
+        storeTableService.renumberStoreTables(storeTestId, List.of(lastStoreTableId));
+
+        //then
+        List<StoreTableFindDto> storeTableFindDtos = storeTableService.findAllStoreTableFindDtoByStoreId(storeTestId);
+        assertThat(storeTableFindDtos).hasSize(601);
+        assertThat(storeTableFindDtos).extracting(StoreTableFindDto::getTableNumber)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 601).boxed().collect(Collectors.toList()));
+        assertThat(storeTableFindDtos.get(0).getId()).isEqualTo(lastStoreTableId);
+        assertThat(storeTableFindDtos.get(1).getId()).isEqualTo(storeTableTestId);
+        assertThat(storeTableFindDtos.get(600).getId()).isEqualTo(createdStoreTableIds.get(createdStoreTableIds.size() - 2));
+    }
+
+    @Test
+    @DisplayName("사용 중인 테이블이 하나라도 있으면 한 번에 삭제하지 않는다.")
+    void deleteStoreTablesWithUsingStoreTable() {
+        //given
+        List<Long> createdStoreTableIds = storeTableService.createStoreTables(storeTestId, 2);
+
+        //when
+        //then
+        assertThatThrownBy(() -> storeTableService.deleteStoreTables(storeTestId, List.of(createdStoreTableIds.get(0), storeTableTestId, createdStoreTableIds.get(1))))
+                .isInstanceOf(StoreTableException.class)
+                .hasMessageContaining(StoreTableErrorMessage.STORE_TABLE_USING_OR_NOT_FOUND.getMessage());
+
+        //빈 테이블도 삭제되지 않는다.
+        assertThat(storeTableService.findAllStoreTableFindDtoByStoreId(storeTestId)).hasSize(3);
+    }
+
     @Test
     @DisplayName("테이블 삭제")
     void deleteStoreTable() {